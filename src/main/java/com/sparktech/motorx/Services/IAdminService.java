@@ -3,13 +3,19 @@ package com.sparktech.motorx.Services;
 
 import com.sparktech.motorx.dto.appointment.CancelAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateUnplannedAppointmentRequestDTO;
+import com.sparktech.motorx.dto.appointment.CreateWorkshopClosureRequestDTO;
 import com.sparktech.motorx.dto.appointment.UpdateAppointmentTechnicianRequestDTO;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
+import com.sparktech.motorx.dto.appointment.WorkshopClosureResponseDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Servicio de acciones administrativas sobre citas.
@@ -28,11 +34,39 @@ public interface IAdminService {
      */
     List<AppointmentResponseDTO> getCalendarView(LocalDate start, LocalDate end);
 
+    /**
+     * ETag de la agenda del día. Se calcula en memoria, sin consultar la BD, para responder
+     * 304 a los sondeos del front-end cuando nada cambió.
+     */
+    String getDailyAgendaETag(LocalDate date);
+
+    /**
+     * ETag de la vista de calendario del rango, también sin consultar la BD.
+     */
+    String getCalendarViewETag(LocalDate start, LocalDate end);
+
+    /**
+     * Suscribe una pantalla al stream SSE de cambios de la agenda.
+     * @param lastEventId Header Last-Event-ID de una reconexión, o null
+     */
+    SseEmitter streamAgendaChanges(Long lastEventId);
+
+    /**
+     * Exportación del calendario para reportes: entrega las citas del rango una por una
+     * a {@code sink}, de modo que la memoria no crece con el tamaño del rango.
+     */
+    void exportCalendar(LocalDate start, LocalDate end, Consumer<AppointmentResponseDTO> sink);
+
     /**
      * Consulta de disponibilidad para cualquier fecha y tipo.
      */
     AvailableSlotsResponseDTO getAvailableSlots(LocalDate date, AppointmentType type);
 
+    /**
+     * Consulta de disponibilidad para un rango de fechas (uno o todos los tipos).
+     */
+    MultiDayAvailabilityResponseDTO getAvailableSlotsBetween(LocalDate start, LocalDate end, AppointmentType type);
+
     /**
      * Registra una cita no planeada (cuando hay espacio disponible y
      * el técnico puede atender sin cita previa).
@@ -64,4 +98,34 @@ public interface IAdminService {
      * Historial de citas de un vehículo específico.
      */
     List<AppointmentResponseDTO> getVehicleAppointmentHistory(Long vehicleId);
-}
\ No newline at end of file
+
+    /**
+     * Historial de citas de un cliente paginado por cursor (más recientes primero).
+     */
+    CursorPageResponseDTO<AppointmentResponseDTO> getClientAppointmentHistoryPage(Long clientId, String cursor, int size);
+
+    /**
+     * Historial de citas de un vehículo paginado por cursor (más recientes primero).
+     */
+    CursorPageResponseDTO<AppointmentResponseDTO> getVehicleAppointmentHistoryPage(Long vehicleId, String cursor, int size);
+
+    /**
+     * Cierra el taller en una fecha: deja de ofrecer disponibilidad y de aceptar citas ese día.
+     */
+    WorkshopClosureResponseDTO createWorkshopClosure(CreateWorkshopClosureRequestDTO request);
+
+    /**
+     * Cierres del taller registrados para un año.
+     */
+    List<WorkshopClosureResponseDTO> getWorkshopClosures(int year);
+
+    /**
+     * Elimina un cierre del taller.
+     */
+    void deleteWorkshopClosure(Long closureId);
+
+    /**
+     * Festivos nacionales de un año según el calendario laboral.
+     */
+    List<LocalDate> getPublicHolidays(int year);
+}
@@ -1,5 +1,6 @@
 package com.sparktech.motorx.Services;
 
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.user.AdminUserResponseDTO;
 
 import java.util.List;
@@ -15,6 +16,11 @@ public interface IAdminUserService {
      */
     List<AdminUserResponseDTO> getAllUsers();
 
+    /**
+     * Usuarios del sistema paginados por cursor (más recientes primero, incluyendo eliminados).
+     */
+    CursorPageResponseDTO<AdminUserResponseDTO> getAllUsersPage(String cursor, int size);
+
     /**
      * Obtiene la información detallada de un usuario por su ID.
      */
@@ -0,0 +1,25 @@
+package com.sparktech.motorx.Services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Canal SSE con los cambios de la agenda para los tableros del admin y de recepción.
+ * Reemplaza el sondeo periódico: cada cita creada, cancelada o reasignada se empuja
+ * a todas las pantallas conectadas después del commit.
+ */
+public interface IAgendaStreamService {
+
+    /**
+     * Registra una nueva pantalla.
+     * @param lastEventId Último evento recibido antes de reconectar (header Last-Event-ID), o null.
+     *                    Si los eventos perdidos ya no están retenidos se envía un evento
+     *                    {@code resync} para que la pantalla recargue la agenda.
+     * @return Emisor que la petición mantiene abierto
+     */
+    SseEmitter subscribe(Long lastEventId);
+
+    /**
+     * Pantallas conectadas en esta instancia.
+     */
+    int subscriberCount();
+}
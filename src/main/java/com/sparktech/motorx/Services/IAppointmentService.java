@@ -2,16 +2,20 @@ package com.sparktech.motorx.Services;
 
 
 
+import com.sparktech.motorx.dto.appointment.BulkAppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.CancelAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateUnplannedAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.UpdateAppointmentTechnicianRequestDTO;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentType;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Servicio central de citas.
@@ -27,6 +31,13 @@ public interface IAppointmentService {
      */
     AvailableSlotsResponseDTO getAvailableSlots(LocalDate date, AppointmentType type);
 
+    /**
+     * Consulta los slots disponibles de cada día laboral entre start y end (inclusive).
+     * Si type es null incluye todos los tipos con horario de recepción.
+     * Los fines de semana se omiten; el rango máximo es de 31 días.
+     */
+    MultiDayAvailabilityResponseDTO getAvailableSlotsBetween(LocalDate start, LocalDate end, AppointmentType type);
+
     /**
      * Crea una cita asignando automáticamente el técnico disponible.
      * Aplica todas las validaciones de negocio:
@@ -37,6 +48,20 @@ public interface IAppointmentService {
      */
     AppointmentResponseDTO createAppointment(CreateAppointmentRequestDTO request, Long clientId);
 
+    /**
+     * Aplica a la solicitud las mismas validaciones de negocio que createAppointment
+     * (tipo, propietario, pico y placa, marca, horario y cita activa) sin asignar técnico.
+     * Se usa antes de anotar al cliente en la lista de espera.
+     */
+    void validateBookingRequest(CreateAppointmentRequestDTO request, Long clientId);
+
+    /**
+     * Crea varias citas del mismo cliente en una sola operación (flotas).
+     * Aplica las mismas validaciones que createAppointment a cada elemento; los que fallan
+     * se reportan en el resultado sin afectar a los demás. Se envía un solo correo por propietario.
+     */
+    BulkAppointmentResponseDTO createAppointmentsBulk(List<CreateAppointmentRequestDTO> requests, Long clientId);
+
     /**
      * Crea una cita no planeada. Solo disponible para el admin.
      * Permite asignar técnico manualmente y usar horarios fuera de recepción.
@@ -69,6 +94,18 @@ public interface IAppointmentService {
      */
     List<AppointmentResponseDTO> getAppointmentsByClient(Long clientId);
 
+    /**
+     * Historial de un vehículo paginado por cursor, de la cita más reciente a la más antigua.
+     * Sin cursor devuelve la primera página.
+     */
+    CursorPageResponseDTO<AppointmentResponseDTO> getAppointmentsByVehiclePage(Long vehicleId, String cursor, int size);
+
+    /**
+     * Historial de un cliente paginado por cursor, de la cita más reciente a la más antigua.
+     * Sin cursor devuelve la primera página.
+     */
+    CursorPageResponseDTO<AppointmentResponseDTO> getAppointmentsByClientPage(Long clientId, String cursor, int size);
+
     /**
      * Lista todas las citas de un día (vista de agenda para el admin).
      */
@@ -79,9 +116,16 @@ public interface IAppointmentService {
      */
     List<AppointmentResponseDTO> getAppointmentsByDateRange(LocalDate start, LocalDate end);
 
+    /**
+     * Recorre las citas del rango una por una, en el mismo orden que
+     * {@link #getAppointmentsByDateRange}, sin materializar la lista completa.
+     * La transacción de lectura queda abierta mientras dure el recorrido.
+     */
+    void streamAppointmentsByDateRange(LocalDate start, LocalDate end, Consumer<AppointmentResponseDTO> action);
+
     /**
      * Verifica si una moto tiene pico y placa en la fecha dada.
-     * La lógica de pico y placa se calcula por el último dígito de la placa.
+     * Delega en {@link IMobilityRestrictionService} (reglas configurables por ciudad).
      */
     boolean hasLicensePlateRestriction(String plate, LocalDate date);
 }
\ No newline at end of file
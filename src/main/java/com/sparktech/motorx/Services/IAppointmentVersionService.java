@@ -0,0 +1,37 @@
+package com.sparktech.motorx.Services;
+
+import java.time.LocalDate;
+
+/**
+ * Contadores de versión en memoria de los listados de citas (por fecha y por cliente).
+ * Cada cambio de cita confirmado incrementa la versión de su fecha y de su dueño, así que
+ * un ETag armado con la versión identifica el contenido sin consultar la BD ni mapear filas.
+ * Los cambios confirmados en otra instancia no incrementan estos contadores: el ETag caduca
+ * igual al cerrar su ventana de tiempo, así que quedan ocultos como mucho una ventana.
+ * <p>
+ * El ETag se debe tomar ANTES de leer las citas: si un cambio se cruza con la lectura,
+ * la respuesta queda con un ETag viejo y la siguiente consulta la vuelve a descargar.
+ */
+public interface IAppointmentVersionService {
+
+    /**
+     * ETag fuerte (entre comillas) de la agenda de un día.
+     */
+    String agendaETag(LocalDate date);
+
+    /**
+     * ETag fuerte de la vista de calendario de un rango de fechas (ambos extremos incluidos).
+     */
+    String calendarETag(LocalDate start, LocalDate end);
+
+    /**
+     * ETag fuerte del historial de citas de un cliente.
+     */
+    String clientHistoryETag(Long clientId);
+
+    /**
+     * Invalida todos los ETags (p. ej. cuando cambian datos de clientes, vehículos o técnicos
+     * que se muestran en las citas sin que ninguna cita cambie).
+     */
+    void invalidateAll();
+}
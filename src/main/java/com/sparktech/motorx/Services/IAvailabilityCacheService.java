@@ -0,0 +1,44 @@
+package com.sparktech.motorx.Services;
+
+import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.entity.AppointmentType;
+
+import java.time.LocalDate;
+
+/**
+ * Caché de respuestas de disponibilidad por (fecha, tipo de cita).
+ * La respuesta es idéntica para todos los usuarios que consultan el mismo día,
+ * por lo que se reutiliza hasta que expira o hasta que una cita de esa fecha cambia.
+ */
+public interface IAvailabilityCacheService {
+
+    /**
+     * Obtiene la respuesta cacheada
+     * @param date Fecha consultada
+     * @param type Tipo de cita
+     * @return Respuesta si existe y no ha expirado, null en caso contrario
+     */
+    AvailableSlotsResponseDTO get(LocalDate date, AppointmentType type);
+
+    /**
+     * Versión actual de las invalidaciones. Se toma antes de calcular la respuesta
+     * y se pasa a {@link #put} para no cachear un resultado calculado antes de un cambio.
+     */
+    long currentVersion();
+
+    /**
+     * Guarda una respuesta calculada, salvo que haya habido una invalidación
+     * desde que se tomó la versión indicada.
+     */
+    void put(LocalDate date, AppointmentType type, AvailableSlotsResponseDTO response, long version);
+
+    /**
+     * Descarta todas las respuestas cacheadas de una fecha (todos los tipos).
+     */
+    void invalidate(LocalDate date);
+
+    /**
+     * Descarta todo el caché (p. ej. cuando cambia la plantilla de técnicos).
+     */
+    void invalidateAll();
+}
@@ -4,5 +4,10 @@ import com.sparktech.motorx.entity.UserEntity;
 
 public interface ICurrentUserService {
     UserEntity getAuthenticatedUser();
-}
 
+    /**
+     * Id del usuario autenticado, leído del principal sin consultar la BD cuando el token
+     * trae el claim uid. Para los servicios que solo filtran o validan por dueño.
+     */
+    Long getAuthenticatedUserId();
+}
@@ -3,11 +3,18 @@ package com.sparktech.motorx.Services;
 import com.sparktech.motorx.dto.notification.EmailDTO;
 import com.sparktech.motorx.dto.notification.AppointmentNotificationDTO;
 
+import java.util.List;
+
 public interface IEmailNotificationService {
     void sendMail(EmailDTO emailDTO);
 
     void sendAppointmentCreatedNotification(AppointmentNotificationDTO appointment);
 
+    /**
+     * Envía un único correo con todas las citas creadas en lote para un mismo propietario.
+     */
+    void sendBulkAppointmentsCreatedNotification(List<AppointmentNotificationDTO> appointments);
+
     void sendAppointmentCancelledNotification(AppointmentNotificationDTO appointment, String reason);
 
     void sendAppointmentUpdatedNotification(AppointmentNotificationDTO appointment);
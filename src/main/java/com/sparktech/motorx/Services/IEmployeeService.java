@@ -3,6 +3,7 @@ package com.sparktech.motorx.Services;
 import com.sparktech.motorx.dto.employee.CreateEmployeeRequestDTO;
 import com.sparktech.motorx.dto.employee.EmployeeResponseDTO;
 import com.sparktech.motorx.dto.employee.UpdateEmployeeRequestDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.TransferVehicleOwnershipRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 
@@ -49,6 +50,11 @@ public interface IEmployeeService {
      */
     List<VehicleResponseDTO> getAllVehicles();
 
+    /**
+     * Vehículos del sistema paginados por cursor (más recientes primero, vista admin).
+     */
+    CursorPageResponseDTO<VehicleResponseDTO> getAllVehiclesPage(String cursor, int size);
+
     /**
      * Obtiene el detalle de un vehículo por ID (vista admin).
      */
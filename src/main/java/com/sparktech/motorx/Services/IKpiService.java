@@ -0,0 +1,25 @@
+package com.sparktech.motorx.Services;
+
+import com.sparktech.motorx.dto.kpi.KpiDashboardResponseDTO;
+import com.sparktech.motorx.dto.kpi.KpiMetric;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Indicadores del tablero administrativo. Cada indicador es un agregado en la BD
+ * (o una lectura del acumulado diario); los de una misma consulta se calculan en
+ * paralelo y cada resultado se cachea por (indicador, rango) durante unos segundos.
+ */
+public interface IKpiService {
+
+    /**
+     * Calcula los indicadores pedidos para un rango de fechas
+     * @param start Fecha inicial (inclusive)
+     * @param end Fecha final (inclusive)
+     * @param metrics Indicadores a calcular; vacío o null para todos
+     * @return Un valor por indicador pedido, en el orden de {@link KpiMetric}
+     * @throws IllegalArgumentException si el rango está invertido o es demasiado largo
+     */
+    KpiDashboardResponseDTO getDashboard(LocalDate start, LocalDate end, Set<KpiMetric> metrics);
+}
@@ -0,0 +1,28 @@
+package com.sparktech.motorx.Services;
+
+import com.sparktech.motorx.exception.TooManyLoginAttemptsException;
+
+/**
+ * Control en memoria de intentos de login fallidos por email y por IP de cliente.
+ * Se consulta antes de verificar la contraseña, para que un ataque de fuerza bruta
+ * no llegue a BCrypt una vez alcanzado el umbral.
+ */
+public interface ILoginAttemptService {
+
+    /**
+     * Rechaza el intento si el email o la IP están en un bloqueo temporal.
+     * @throws TooManyLoginAttemptsException con los segundos que faltan para levantarlo
+     */
+    void checkAllowed(String email, String clientIp);
+
+    /**
+     * Suma un fallo a los contadores del email y de la IP. Al pasar el umbral aplica un
+     * bloqueo temporal; tras varios bloqueos seguidos del mismo email, bloquea la cuenta.
+     */
+    void recordFailure(String email, String clientIp);
+
+    /**
+     * Login correcto: olvida los fallos del email (los de la IP se mantienen).
+     */
+    void recordSuccess(String email);
+}
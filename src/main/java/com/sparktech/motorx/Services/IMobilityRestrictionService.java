@@ -0,0 +1,26 @@
+package com.sparktech.motorx.Services;
+
+import java.time.LocalDate;
+
+/**
+ * Motor de reglas de pico y placa. Las reglas configuradas se compilan a una tabla
+ * fecha → máscara de 10 bits (bit d = dígito d restringido), por lo que cada consulta
+ * es un acceso a un arreglo sin crear objetos.
+ */
+public interface IMobilityRestrictionService {
+
+    /**
+     * Verifica si una placa tiene pico y placa en una fecha
+     * @param plate Placa del vehículo; se evalúa su penúltimo carácter
+     * @param date Fecha a consultar
+     * @return true si la placa no puede circular ese día
+     */
+    boolean isRestricted(String plate, LocalDate date);
+
+    /**
+     * Dígitos restringidos en una fecha
+     * @param date Fecha a consultar
+     * @return Máscara de 10 bits; el bit d encendido indica que el dígito d está restringido
+     */
+    int restrictedDigitsMask(LocalDate date);
+}
@@ -0,0 +1,45 @@
+package com.sparktech.motorx.Services;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice en memoria de la ocupación de técnicos por día de taller.
+ * Permite responder disponibilidad y asignación sin consultar la BD en cada lectura.
+ */
+public interface IOccupancyIndexService {
+
+    /**
+     * Vista de la ocupación de un día: indica si un técnico tiene una cita activa
+     * con ese startTime (misma regla que existsTechnicianConflict).
+     */
+    @FunctionalInterface
+    interface DayOccupancy {
+        boolean isOccupied(Long technicianId, LocalTime startTime);
+    }
+
+    /**
+     * Ids de los mecánicos activos (MECANICO + AVAILABLE), en orden ascendente de id.
+     */
+    List<Long> getActiveTechnicianIds();
+
+    /**
+     * Obtiene la ocupación del día. Los días dentro de la ventana se cargan una sola vez
+     * y se mantienen actualizados; los días fuera de la ventana se leen de la BD sin cachear.
+     */
+    DayOccupancy getDayOccupancy(LocalDate date);
+
+    /**
+     * Obtiene la ocupación de cada día entre start y end (inclusive). Los días que aún no
+     * estén cargados se leen con una sola consulta de rango.
+     */
+    Map<LocalDate, DayOccupancy> getOccupancyBetween(LocalDate start, LocalDate end);
+
+    /**
+     * Compara los días cargados contra la BD y corrige cualquier desfase.
+     * @return Número de días que tenían diferencias
+     */
+    int reconcile();
+}
@@ -0,0 +1,87 @@
+package com.sparktech.motorx.Services;
+
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateRequestDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateResponseDTO;
+import com.sparktech.motorx.entity.AppointmentType;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Plantillas de horario versionadas del taller. La versión activa se compila en
+ * tablas inmutables indexadas por el ordinal del tipo de cita y se reemplaza
+ * atómicamente cuando el admin publica o reactiva una versión.
+ */
+public interface IScheduleTemplateService {
+
+    /**
+     * Vista compilada e inmutable de una versión de la plantilla. Las consultas
+     * no reservan memoria; para validar una operación completa se debe usar la
+     * misma instancia (obtenida una vez con {@link #current()}).
+     */
+    interface Schedule {
+
+        int version();
+
+        LocalTime workStart();
+
+        LocalTime workEnd();
+
+        LocalTime lunchStart();
+
+        LocalTime lunchEnd();
+
+        /** true si startTime es un horario de recepción del tipo */
+        boolean isValidSlot(AppointmentType type, LocalTime startTime);
+
+        /** Horarios de recepción del tipo, en orden; vacío si el tipo no se agenda por slot */
+        List<LocalTime> slotsFor(AppointmentType type);
+
+        /** Tipos con al menos un horario de recepción, en orden de declaración */
+        List<AppointmentType> typesWithSlots();
+
+        int durationMinutes(AppointmentType type);
+
+        default LocalTime endTime(AppointmentType type, LocalTime startTime) {
+            return startTime.plusMinutes(durationMinutes(type));
+        }
+
+        boolean isAutecoOnly(AppointmentType type);
+
+        boolean isUserBookable(AppointmentType type);
+
+        /** true si startTime está dentro de la jornada (límites inclusive) */
+        boolean isWithinWorkHours(LocalTime startTime);
+
+        /** true si startTime cae en el almuerzo (inicio inclusive, fin exclusivo) */
+        boolean isLunchTime(LocalTime startTime);
+    }
+
+    /**
+     * Plantilla activa. Si no hay ninguna en BD se usa la de AppointmentScheduleConfig.
+     */
+    Schedule current();
+
+    // ---------------------------------------------------------------
+    // ADMINISTRACIÓN DE VERSIONES
+    // ---------------------------------------------------------------
+
+    /**
+     * Publica una versión nueva y la activa. Las citas ya agendadas conservan su horario.
+     */
+    ScheduleTemplateResponseDTO publish(ScheduleTemplateRequestDTO request);
+
+    /**
+     * Reactiva una versión anterior (p. ej. para deshacer un cambio).
+     */
+    ScheduleTemplateResponseDTO activate(Long templateId);
+
+    ScheduleTemplateResponseDTO getActiveTemplate();
+
+    ScheduleTemplateResponseDTO getTemplate(Long templateId);
+
+    /**
+     * Todas las versiones, de la más reciente a la más antigua.
+     */
+    List<ScheduleTemplateResponseDTO> getTemplates();
+}
@@ -0,0 +1,23 @@
+package com.sparktech.motorx.Services;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Mantenimiento de las particiones mensuales de system_events: crea las de los
+ * próximos meses y aplica la retención a las vencidas (borrarlas o archivarlas).
+ * Sin tabla particionada (H2 en los tests) no hace nada.
+ */
+public interface ISystemEventPartitionService {
+
+    /**
+     * Ejecuta una pasada de mantenimiento. Si otra instancia la está ejecutando, la omite.
+     * @return Meses creados y meses vencidos retirados en esta pasada
+     */
+    Maintenance maintain();
+
+    record Maintenance(List<YearMonth> created, List<YearMonth> expired) {
+
+        public static final Maintenance NONE = new Maintenance(List.of(), List.of());
+    }
+}
@@ -0,0 +1,20 @@
+package com.sparktech.motorx.Services;
+
+import com.sparktech.motorx.entity.EventType;
+
+/**
+ * Registro de eventos del sistema (login, registro, recuperación de contraseña y citas),
+ * de donde salen los indicadores del tablero. Registrar no escribe en la BD en el hilo
+ * que llama: el evento se encola y un escritor en segundo plano los inserta en lotes.
+ */
+public interface ISystemEventService {
+
+    /**
+     * Encola un evento. Nunca bloquea ni lanza excepción: si la cola está llena el
+     * evento se descarta y se cuenta en system.events.dropped.
+     * @param type Tipo de evento; la severidad se deriva de él
+     * @param userId Usuario relacionado, o null si no se conoce
+     * @param metadata Detalle libre (se recorta a 500 caracteres), puede ser null
+     */
+    void record(EventType type, Long userId, String metadata);
+}
@@ -0,0 +1,28 @@
+package com.sparktech.motorx.Services;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estrategia de asignación automática de técnicos.
+ * Recibe los técnicos libres para el slot (según el índice de ocupación) y los ordena
+ * por preferencia; el servicio de citas intenta reservarlos en ese orden hasta que uno
+ * quede asignado. La implementación activa se elige con motorx.assignment.strategy
+ * (first-fit | round-robin | least-loaded).
+ */
+public interface ITechnicianAssignmentStrategy {
+
+    /**
+     * Ordena los técnicos libres según la preferencia de la estrategia
+     * @param date Fecha de la cita
+     * @param startTime Hora de inicio de la cita
+     * @param freeTechnicianIds Técnicos libres para el slot, en orden ascendente de id
+     * @param pendingMinutes Minutos asignados por técnico en esa fecha dentro de la operación
+     *                       en curso y aún no confirmados en la BD (p. ej. un agendamiento en lote)
+     * @return Los mismos ids, en el orden en que deben intentarse
+     */
+    List<Long> rank(LocalDate date, LocalTime startTime, List<Long> freeTechnicianIds,
+                    Map<Long, Long> pendingMinutes);
+}
@@ -0,0 +1,29 @@
+package com.sparktech.motorx.Services;
+
+/**
+ * Tabla en memoria de las versiones de seguridad de los usuarios, con la que se valida
+ * un JWT sin consultar la BD. Un token es vigente si su versión (claim sv) coincide con la
+ * del usuario y la cuenta sigue habilitada y sin bloquear.
+ * <p>
+ * Solo se guardan los usuarios con algún cambio de seguridad o sin acceso: el resto está en
+ * la versión 0 y con acceso, así la tabla es pequeña aunque haya muchos usuarios.
+ */
+public interface IUserSecurityVersionService {
+
+    /**
+     * true si un token con esta versión de seguridad sigue siendo válido para el usuario.
+     * La primera llamada tras el arranque carga la tabla desde la BD.
+     */
+    boolean isCurrent(Long userId, int securityVersion);
+
+    /**
+     * Vuelve a leer el estado de un usuario (p. ej. tras bloquearlo o cambiar su contraseña).
+     */
+    void refresh(Long userId);
+
+    /**
+     * Vuelve a leer el estado de todos los usuarios con cambios de seguridad o sin acceso.
+     * Se ejecuta también periódicamente para recoger los cambios hechos por otras instancias.
+     */
+    void refreshAll();
+}
@@ -1,10 +1,15 @@
 package com.sparktech.motorx.Services;
 
+import com.sparktech.motorx.dto.appointment.BulkAppointmentResponseDTO;
+import com.sparktech.motorx.dto.appointment.BulkCreateAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
 import com.sparktech.motorx.dto.appointment.LicensePlateRestrictionResponseDTO;
 import com.sparktech.motorx.dto.appointment.ReworkRedirectResponseDTO;
+import com.sparktech.motorx.dto.appointment.WaitlistEntryResponseDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentType;
 
 import java.time.LocalDate;
@@ -24,6 +29,12 @@ public interface IUserService {
      */
     AvailableSlotsResponseDTO getAvailableSlots(LocalDate date, AppointmentType type);
 
+    /**
+     * Consulta los slots disponibles de varios días en una sola petición.
+     * Si el tipo es null incluye todos los tipos agendables.
+     */
+    MultiDayAvailabilityResponseDTO getAvailableSlotsBetween(LocalDate start, LocalDate end, AppointmentType type);
+
     /**
      * Verifica si un vehículo del usuario tiene pico y placa en la fecha dada.
      * Se llama ANTES de mostrar los slots para informar al cliente con anticipación.
@@ -42,22 +53,60 @@ public interface IUserService {
      */
     AppointmentResponseDTO scheduleAppointment(CreateAppointmentRequestDTO request);
 
+    /**
+     * Agenda varias citas para el cliente autenticado (flotas).
+     * Devuelve el resultado de cada elemento en el orden de la petición.
+     */
+    BulkAppointmentResponseDTO scheduleAppointmentsBulk(BulkCreateAppointmentRequestDTO request);
+
     /**
      * Cancela una cita del cliente autenticado.
      * Solo puede cancelar sus propias citas.
      */
     AppointmentResponseDTO cancelMyAppointment(Long appointmentId);
 
+    /**
+     * Anota al cliente autenticado en la lista de espera de un slot sin cupo.
+     * Si se libera el slot, la cita se agenda automáticamente y se envía el correo.
+     */
+    WaitlistEntryResponseDTO joinWaitlist(CreateAppointmentRequestDTO request);
+
+    /**
+     * Retorna las solicitudes de lista de espera del cliente autenticado.
+     */
+    List<WaitlistEntryResponseDTO> getMyWaitlistEntries();
+
+    /**
+     * Retira una solicitud de lista de espera del cliente autenticado.
+     */
+    WaitlistEntryResponseDTO leaveWaitlist(Long entryId);
+
     /**
      * Retorna el historial de citas del cliente autenticado (por todos sus vehículos).
      */
     List<AppointmentResponseDTO> getMyAppointmentHistory();
 
+    /**
+     * ETag del historial de citas del cliente autenticado. No consulta las citas:
+     * sirve para responder 304 antes de cargarlas.
+     */
+    String getMyAppointmentHistoryETag();
+
     /**
      * Retorna el historial de citas de un vehículo específico del cliente.
      */
     List<AppointmentResponseDTO> getMyVehicleAppointments(Long vehicleId);
 
+    /**
+     * Historial de citas del cliente autenticado paginado por cursor (más recientes primero).
+     */
+    CursorPageResponseDTO<AppointmentResponseDTO> getMyAppointmentHistoryPage(String cursor, int size);
+
+    /**
+     * Historial de un vehículo del cliente paginado por cursor (más recientes primero).
+     */
+    CursorPageResponseDTO<AppointmentResponseDTO> getMyVehicleAppointmentsPage(Long vehicleId, String cursor, int size);
+
     /**
      * Retorna el detalle de una cita específica del cliente autenticado.
      */
@@ -1,5 +1,6 @@
 package com.sparktech.motorx.Services;
 
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.CreateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.UpdateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
@@ -26,6 +27,11 @@ public interface IVehicleService {
      */
     List<VehicleResponseDTO> getMyVehicles();
 
+    /**
+     * Vehículos del usuario autenticado paginados por cursor (más recientes primero).
+     */
+    CursorPageResponseDTO<VehicleResponseDTO> getMyVehiclesPage(String cursor, int size);
+
     /**
      * Obtiene el detalle de un vehículo específico del usuario autenticado.
      */
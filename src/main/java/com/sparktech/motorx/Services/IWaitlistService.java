@@ -0,0 +1,40 @@
+package com.sparktech.motorx.Services;
+
+import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
+import com.sparktech.motorx.dto.appointment.WaitlistEntryResponseDTO;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Lista de espera de citas por (fecha, tipo de cita, slot).
+ * Cuando una cancelación libera un slot, el primero de la fila se agenda automáticamente
+ * y recibe el correo de confirmación, sin que el cliente tenga que volver a consultar.
+ */
+public interface IWaitlistService {
+
+    /**
+     * Anota al cliente en la lista de espera del slot solicitado.
+     * Solo se permite si el slot no tiene técnicos libres y la solicitud pasa
+     * las mismas validaciones que un agendamiento normal.
+     */
+    WaitlistEntryResponseDTO joinWaitlist(CreateAppointmentRequestDTO request, Long clientId);
+
+    /**
+     * Solicitudes de lista de espera del cliente, de la más reciente a la más antigua.
+     */
+    List<WaitlistEntryResponseDTO> getWaitlistEntriesByClient(Long clientId);
+
+    /**
+     * Retira al cliente de la lista de espera. Solo aplica mientras la solicitud está en espera.
+     */
+    WaitlistEntryResponseDTO leaveWaitlist(Long entryId, Long clientId);
+
+    /**
+     * Agenda al primero de la fila de (fecha, startTime) que todavía pueda agendarse.
+     * Las solicitudes que ya no pasan las validaciones se descartan y se prueba la siguiente.
+     * @return id de la cita creada, o null si no se agendó a nadie
+     */
+    Long promoteNext(LocalDate date, LocalTime startTime);
+}
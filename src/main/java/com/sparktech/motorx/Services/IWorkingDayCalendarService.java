@@ -0,0 +1,53 @@
+package com.sparktech.motorx.Services;
+
+import com.sparktech.motorx.dto.appointment.CreateWorkshopClosureRequestDTO;
+import com.sparktech.motorx.dto.appointment.WorkshopClosureResponseDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calendario laboral del taller: fines de semana, festivos de Colombia (incluidos los
+ * trasladados a lunes por la Ley Emiliani y los que dependen de la Pascua) y cierres
+ * definidos por el admin. Cada año se precalcula como un bitset de días hábiles.
+ */
+public interface IWorkingDayCalendarService {
+
+    /**
+     * Verifica si el taller atiende en una fecha
+     * @param date Fecha a consultar
+     * @return false si es fin de semana, festivo o cierre del taller
+     */
+    boolean isWorkingDay(LocalDate date);
+
+    /**
+     * Verifica si una fecha es festivo nacional en Colombia
+     * @param date Fecha a consultar
+     * @return true si es festivo
+     */
+    boolean isPublicHoliday(LocalDate date);
+
+    /**
+     * Festivos nacionales de un año, en orden
+     */
+    List<LocalDate> getPublicHolidays(int year);
+
+    // ---------------------------------------------------------------
+    // CIERRES DEL TALLER (ADMIN)
+    // ---------------------------------------------------------------
+
+    /**
+     * Cierra el taller en una fecha. Las citas ya agendadas ese día no se modifican.
+     */
+    WorkshopClosureResponseDTO createClosure(CreateWorkshopClosureRequestDTO request);
+
+    /**
+     * Cierres del taller de un año, en orden de fecha.
+     */
+    List<WorkshopClosureResponseDTO> getClosures(int year);
+
+    /**
+     * Elimina un cierre del taller; la fecha vuelve a ser hábil si no es fin de semana ni festivo.
+     */
+    void deleteClosure(Long closureId);
+}
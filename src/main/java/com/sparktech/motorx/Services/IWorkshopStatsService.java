@@ -0,0 +1,17 @@
+package com.sparktech.motorx.Services;
+
+import java.time.LocalDate;
+
+/**
+ * Mantenimiento del acumulado diario del taller (daily_workshop_stats).
+ * Cada cambio de cita lo actualiza en su propia transacción; la reconstrucción
+ * recalcula un rango desde la tabla de citas para cargas históricas o desfases.
+ */
+public interface IWorkshopStatsService {
+
+    /**
+     * Recalcula el acumulado de los días entre start y end (inclusive) a partir de las citas.
+     * @return Número de filas (día, tipo, estado) escritas
+     */
+    int rebuild(LocalDate start, LocalDate end);
+}
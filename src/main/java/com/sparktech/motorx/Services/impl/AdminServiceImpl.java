@@ -2,18 +2,27 @@ package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.dto.appointment.CancelAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateUnplannedAppointmentRequestDTO;
+import com.sparktech.motorx.dto.appointment.CreateWorkshopClosureRequestDTO;
 import com.sparktech.motorx.dto.appointment.UpdateAppointmentTechnicianRequestDTO;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
+import com.sparktech.motorx.dto.appointment.WorkshopClosureResponseDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentType;
 import com.sparktech.motorx.Services.IAdminService;
+import com.sparktech.motorx.Services.IAgendaStreamService;
 import com.sparktech.motorx.Services.IAppointmentService;
+import com.sparktech.motorx.Services.IAppointmentVersionService;
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +32,9 @@ public class AdminServiceImpl implements IAdminService {
     // AdminServiceImpl no repite lógica, solo orquesta y añade
     // las acciones exclusivas del rol administrador.
     private final IAppointmentService appointmentService;
+    private final IWorkingDayCalendarService workingDayCalendar;
+    private final IAppointmentVersionService appointmentVersions;
+    private final IAgendaStreamService agendaStream;
 
     // ---------------------------------------------------------------
     // VISIBILIDAD DE LA AGENDA
@@ -40,12 +52,39 @@ public class AdminServiceImpl implements IAdminService {
         return appointmentService.getAppointmentsByDateRange(start, end);
     }
 
+    // Sin @Transactional: la versión vive en memoria, no se abre conexión
+    @Override
+    public String getDailyAgendaETag(LocalDate date) {
+        return appointmentVersions.agendaETag(date);
+    }
+
+    @Override
+    public String getCalendarViewETag(LocalDate start, LocalDate end) {
+        return appointmentVersions.calendarETag(start, end);
+    }
+
+    @Override
+    public SseEmitter streamAgendaChanges(Long lastEventId) {
+        return agendaStream.subscribe(lastEventId);
+    }
+
     @Override
     @Transactional(readOnly = true)
+    public void exportCalendar(LocalDate start, LocalDate end, Consumer<AppointmentResponseDTO> sink) {
+        appointmentService.streamAppointmentsByDateRange(start, end, sink);
+    }
+
+    // Sin @Transactional: la disponibilidad se resuelve desde el índice de ocupación en memoria
+    @Override
     public AvailableSlotsResponseDTO getAvailableSlots(LocalDate date, AppointmentType type) {
         return appointmentService.getAvailableSlots(date, type);
     }
 
+    @Override
+    public MultiDayAvailabilityResponseDTO getAvailableSlotsBetween(LocalDate start, LocalDate end, AppointmentType type) {
+        return appointmentService.getAvailableSlotsBetween(start, end, type);
+    }
+
     // ---------------------------------------------------------------
     // OPERACIONES EXCLUSIVAS DEL ADMIN
     // ---------------------------------------------------------------
@@ -89,4 +128,42 @@ public class AdminServiceImpl implements IAdminService {
     public List<AppointmentResponseDTO> getVehicleAppointmentHistory(Long vehicleId) {
         return appointmentService.getAppointmentsByVehicle(vehicleId);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AppointmentResponseDTO> getClientAppointmentHistoryPage(Long clientId, String cursor,
+                                                                                       int size) {
+        return appointmentService.getAppointmentsByClientPage(clientId, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AppointmentResponseDTO> getVehicleAppointmentHistoryPage(Long vehicleId, String cursor,
+                                                                                        int size) {
+        return appointmentService.getAppointmentsByVehiclePage(vehicleId, cursor, size);
+    }
+
+    // ---------------------------------------------------------------
+    // CALENDARIO LABORAL
+    // ---------------------------------------------------------------
+
+    @Override
+    public WorkshopClosureResponseDTO createWorkshopClosure(CreateWorkshopClosureRequestDTO request) {
+        return workingDayCalendar.createClosure(request);
+    }
+
+    @Override
+    public List<WorkshopClosureResponseDTO> getWorkshopClosures(int year) {
+        return workingDayCalendar.getClosures(year);
+    }
+
+    @Override
+    public void deleteWorkshopClosure(Long closureId) {
+        workingDayCalendar.deleteClosure(closureId);
+    }
+
+    @Override
+    public List<LocalDate> getPublicHolidays(int year) {
+        return workingDayCalendar.getPublicHolidays(year);
+    }
+}
@@ -1,13 +1,19 @@
 package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.IAdminUserService;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.user.AdminUserResponseDTO;
 import com.sparktech.motorx.entity.UserEntity;
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
 import com.sparktech.motorx.exception.UserAlreadyBlockedException;
 import com.sparktech.motorx.exception.UserAlreadyDeletedException;
 import com.sparktech.motorx.exception.UserNotFoundException;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.repository.projection.CreatedAtKeyset;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +25,8 @@ import java.util.List;
 public class AdminUserServiceImpl implements IAdminUserService {
 
     private final JpaUserRepository jpaUserRepository;
+    private final CursorPageMapper cursorPageMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ---------------------------------------------------------------
     // LISTADO Y CONSULTA
@@ -33,6 +41,21 @@ public class AdminUserServiceImpl implements IAdminUserService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AdminUserResponseDTO> getAllUsersPage(String cursor, int size) {
+        Limit limit = cursorPageMapper.fetchLimit(size);
+        List<UserEntity> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = jpaUserRepository.findPage(limit);
+        } else {
+            CreatedAtKeyset after = cursorPageMapper.decodeCreatedAtCursor(cursor);
+            rows = jpaUserRepository.findPageAfter(after.createdAt(), after.id(), limit);
+        }
+        return cursorPageMapper.toPage(rows, size, this::toResponseDTO,
+                last -> cursorPageMapper.encodeCreatedAtCursor(last.getCreatedAt(), last.getId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public AdminUserResponseDTO getUserById(Long userId) {
@@ -54,7 +77,9 @@ public class AdminUserServiceImpl implements IAdminUserService {
         }
 
         user.setAccountLocked(true);
+        user.incrementSecurityVersion();
         jpaUserRepository.save(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userId));
         return toResponseDTO(user);
     }
 
@@ -63,7 +88,10 @@ public class AdminUserServiceImpl implements IAdminUserService {
     public AdminUserResponseDTO unblockUser(Long userId) {
         UserEntity user = findUserOrThrow(userId);
         user.setAccountLocked(false);
+        // Los tokens previos al bloqueo no vuelven a ser válidos: el usuario inicia sesión de nuevo
+        user.incrementSecurityVersion();
         jpaUserRepository.save(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userId));
         return toResponseDTO(user);
     }
 
@@ -83,7 +111,9 @@ public class AdminUserServiceImpl implements IAdminUserService {
         user.setDeletedAt(LocalDateTime.now());
         user.setEnabled(false);
         user.setAccountLocked(true);
+        user.incrementSecurityVersion();
         jpaUserRepository.save(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userId));
     }
 
     // ---------------------------------------------------------------
@@ -0,0 +1,284 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IAgendaStreamService;
+import com.sparktech.motorx.dto.appointment.AgendaChangeEventDTO;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stream SSE de cambios de la agenda.
+ * <p>
+ * Cada pantalla tiene un buffer acotado y un hilo virtual propio que escribe en su conexión.
+ * Publicar un cambio solo encola (nunca bloquea el commit) y el hilo de Tomcat se libera en
+ * cuanto se devuelve el emisor. Si una pantalla no lee y su buffer se llena, se desconecta:
+ * el navegador reconecta con Last-Event-ID y recibe lo que perdió o un {@code resync}.
+ * Cada instancia emite los cambios confirmados en ella misma.
+ */
+@Service
+@Slf4j
+public class AgendaStreamServiceImpl implements IAgendaStreamService, MeterBinder {
+
+    static final String CHANGE_EVENT = "agenda-change";
+    static final String RESYNC_EVENT = "resync";
+    static final String HEARTBEAT = "heartbeat";
+
+    // Marca de cierre para despertar al hilo de envío
+    private static final Envelope CLOSE = new Envelope(-1, null, null);
+
+    @Value("${motorx.agenda-stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${motorx.agenda-stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${motorx.agenda-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${motorx.agenda-stream.replay-size:256}")
+    private int replaySize;
+
+    // Numeración, retención y reparto bajo el mismo lock: cada pantalla recibe los eventos en
+    // orden y una reconexión no pierde ni duplica los que se publican mientras se registra.
+    // ReentrantLock y no synchronized para no fijar el hilo virtual a su portador.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Los ids arrancan en la hora de arranque: un Last-Event-ID de antes de reiniciar
+    // queda por debajo de lo retenido y la pantalla recibe resync
+    private long lastEventId = System.currentTimeMillis();
+    private final Deque<Envelope> replay = new ArrayDeque<>();
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberSequence = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Override
+    public SseEmitter subscribe(Long lastSeenEventId) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(subscriberSequence.incrementAndGet(), emitter);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        // Sin completar aquí, Spring respondería el timeout como error
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(subscriber));
+
+        lock.lock();
+        try {
+            if (lastSeenEventId != null) {
+                List<Envelope> missed = missedSince(lastSeenEventId);
+                if (missed == null) {
+                    subscriber.offer(new Envelope(lastEventId, RESYNC_EVENT, null));
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.put(subscriber.id, subscriber);
+        } finally {
+            lock.unlock();
+        }
+
+        subscriber.start();
+        log.debug("Pantalla {} conectada al stream de la agenda ({} conectadas)", subscriber.id, subscribers.size());
+        return emitter;
+    }
+
+    @Override
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // ---------------------------------------------------------------
+    // PUBLICACIÓN (después del commit de cada cambio)
+    // ---------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AgendaChangeEventDTO change = toChange(event);
+
+        lock.lock();
+        try {
+            Envelope envelope = new Envelope(++lastEventId, CHANGE_EVENT, change);
+            replay.addLast(envelope);
+            while (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers.values()) {
+                if (!subscriber.offer(envelope)) {
+                    evict(subscriber);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        published.increment();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscribers.values().forEach(subscriber -> {
+            if (subscribers.remove(subscriber.id, subscriber)) {
+                subscriber.close(true);
+            }
+        });
+    }
+
+    // ---------------------------------------------------------------
+    // MÉTRICAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("agenda.stream.subscribers", subscribers, Map::size)
+                .description("Pantallas conectadas al stream de la agenda")
+                .register(registry);
+        FunctionCounter.builder("agenda.stream.events", published, LongAdder::sum)
+                .description("Cambios de la agenda publicados")
+                .register(registry);
+        FunctionCounter.builder("agenda.stream.evictions", evictions, LongAdder::sum)
+                .description("Pantallas desconectadas por no leer a tiempo")
+                .register(registry);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    // Punto de extensión para las pruebas
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /**
+     * Eventos posteriores a {@code lastSeenEventId}, o null si no se pueden reenviar todos:
+     * ya no están retenidos, el id no es de esta instancia o no caben en el buffer.
+     * Se llama con el lock tomado.
+     */
+    private List<Envelope> missedSince(long lastSeenEventId) {
+        long firstRetained = replay.isEmpty() ? lastEventId + 1 : replay.getFirst().id();
+        if (lastSeenEventId < firstRetained - 1
+                || lastSeenEventId > lastEventId
+                || lastEventId - lastSeenEventId > bufferSize) {
+            return null;
+        }
+        return replay.stream().filter(envelope -> envelope.id() > lastSeenEventId).toList();
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.id, subscriber)) {
+            evictions.increment();
+            log.warn("Pantalla {} desconectada del stream de la agenda: {} eventos sin leer",
+                    subscriber.id, bufferSize);
+            subscriber.close(true);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.id, subscriber)) {
+            subscriber.close(false);
+        }
+    }
+
+    private AgendaChangeEventDTO toChange(AppointmentChangedEvent event) {
+        return new AgendaChangeEventDTO(
+                event.changeType(),
+                event.appointmentId(),
+                event.appointmentType(),
+                event.appointmentDate(),
+                event.startTime(),
+                event.endTime(),
+                event.previousStatus(),
+                event.status(),
+                event.technicianId(),
+                event.previousTechnicianId()
+        );
+    }
+
+    private record Envelope(long id, String name, AgendaChangeEventDTO change) {
+
+        // El builder no se reutiliza entre pantallas: se arma uno por envío
+        SseEmitter.SseEventBuilder toSse() {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().id(Long.toString(id)).name(name);
+            return change == null ? event.data("") : event.data(change);
+        }
+    }
+
+    /**
+     * Una pantalla conectada: su buffer y el hilo virtual que lo vacía hacia la conexión.
+     * Solo ese hilo escribe en el emisor; una escritura lenta bloquea únicamente a él.
+     */
+    private final class Subscriber {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Envelope> queue;
+        private volatile boolean closed;
+        private volatile boolean completeOnClose;
+
+        private Subscriber(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void start() {
+            Thread.ofVirtual().name("agenda-stream-" + id).start(this::run);
+        }
+
+        private boolean offer(Envelope envelope) {
+            return closed || queue.offer(envelope);
+        }
+
+        private void close(boolean completeEmitter) {
+            completeOnClose = completeEmitter;
+            closed = true;
+            queue.clear();
+            queue.offer(CLOSE);
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    Envelope envelope = queue.poll(heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+                    if (closed || envelope == CLOSE) {
+                        break;
+                    }
+                    // Sin eventos en el intervalo: comentario para que los proxies no corten la conexión
+                    emitter.send(envelope == null ? SseEmitter.event().comment(HEARTBEAT) : envelope.toSse());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Pantalla {} desconectada del stream de la agenda: {}", id, e.getMessage());
+            } finally {
+                remove(this);
+                if (completeOnClose) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+}
@@ -1,34 +1,63 @@
 package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.config.AppointmentScheduleConfig;
+import com.sparktech.motorx.dto.appointment.BulkAppointmentItemResultDTO;
+import com.sparktech.motorx.dto.appointment.BulkAppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.CancelAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateUnplannedAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.UpdateAppointmentTechnicianRequestDTO;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
 import com.sparktech.motorx.entity.*;
 import com.sparktech.motorx.exception.*;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.mapper.AppointmentMapper;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.repository.JpaAppointmentRepository;
 import com.sparktech.motorx.repository.JpaEmployeeRepository;
 
 import com.sparktech.motorx.repository.JpaVehicleRepository;
+import com.sparktech.motorx.repository.projection.AppointmentKeyset;
 import com.sparktech.motorx.Services.IAppointmentService;
+import com.sparktech.motorx.Services.IAvailabilityCacheService;
 import com.sparktech.motorx.Services.IEmailNotificationService;
+import com.sparktech.motorx.Services.IMobilityRestrictionService;
+import com.sparktech.motorx.Services.IOccupancyIndexService;
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.Services.ISystemEventService;
+import com.sparktech.motorx.Services.ITechnicianAssignmentStrategy;
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
 import com.sparktech.motorx.dto.notification.AppointmentNotificationDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -39,45 +68,92 @@ public class AppointmentServiceImpl implements IAppointmentService {
     private final JpaVehicleRepository vehicleRepository;
     private final AppointmentMapper appointmentMapper;
     private final IEmailNotificationService notificationService;
+    private final IOccupancyIndexService occupancyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IAvailabilityCacheService availabilityCache;
+    private final ITechnicianAssignmentStrategy assignmentStrategy;
+    private final IMobilityRestrictionService mobilityRestrictionService;
+    private final IWorkingDayCalendarService workingDayCalendar;
+    private final IScheduleTemplateService scheduleTemplates;
+    private final CursorPageMapper cursorPageMapper;
+    private final ISystemEventService systemEvents;
 
     // ---------------------------------------------------------------
     // CONSULTA DE DISPONIBILIDAD
     // ---------------------------------------------------------------
 
+    /**
+     * Sin @Transactional a propósito: la disponibilidad se responde desde el índice
+     * de ocupación en memoria y no debe tomar una conexión del pool.
+     * La respuesta se cachea por (fecha, tipo) y se invalida al cambiar una cita de esa fecha.
+     */
     @Override
-    @Transactional(readOnly = true)
     public AvailableSlotsResponseDTO getAvailableSlots(LocalDate date, AppointmentType type) {
         validateWorkingDay(date);
 
-        List<LocalTime> candidateSlots = AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE
-                .getOrDefault(type, List.of());
+        AvailableSlotsResponseDTO cached = availabilityCache.get(date, type);
+        if (cached != null) {
+            return cached;
+        }
 
-        List<EmployeeEntity> activeTechnicians = technicianRepository.findAllActive();
-        List<AvailableSlotsResponseDTO.AvailableSlotDTO> availableSlots = new ArrayList<>();
+        long cacheVersion = availabilityCache.currentVersion();
+        AvailableSlotsResponseDTO response = computeAvailableSlots(date, type);
+        availabilityCache.put(date, type, response, cacheVersion);
+        return response;
+    }
 
-        // Si la fecha es hoy, solo mostrar slots cuya hora de inicio aún no ha pasado
-        LocalDate today = LocalDate.now(ZoneId.of("America/Bogota"));
-        LocalTime nowInBogota = ZonedDateTime.now(ZoneId.of("America/Bogota")).toLocalTime();
+    private AvailableSlotsResponseDTO computeAvailableSlots(LocalDate date, AppointmentType type) {
+        IScheduleTemplateService.Schedule schedule = scheduleTemplates.current();
+        List<LocalTime> candidateSlots = schedule.slotsFor(type);
 
-        for (LocalTime slotStart : candidateSlots) {
-            // Descartar slots cuya hora ya pasó si la fecha consultada es hoy
-            if (date.isEqual(today) && !slotStart.isAfter(nowInBogota)) {
-                continue;
-            }
+        List<Long> activeTechnicianIds = occupancyIndex.getActiveTechnicianIds();
+        if (activeTechnicianIds.isEmpty() || candidateSlots.isEmpty()) {
+            return new AvailableSlotsResponseDTO(date, type, new ArrayList<>());
+        }
 
-            LocalTime slotEnd = resolveEndTime(type, slotStart);
-            int freeTechnicians = countFreeTechniciansForSlot(activeTechnicians, date, slotStart, slotEnd);
+        // Ocupación del día desde el índice en memoria; el conteo por slot no consulta la BD
+        IOccupancyIndexService.DayOccupancy occupancy = occupancyIndex.getDayOccupancy(date);
 
-            if (freeTechnicians > 0) {
-                availableSlots.add(new AvailableSlotsResponseDTO.AvailableSlotDTO(
-                        slotStart,
-                        slotEnd,
-                        freeTechnicians
-                ));
+        return buildDayAvailability(schedule, date, type, activeTechnicianIds, occupancy,
+                ZonedDateTime.now(ZoneId.of("America/Bogota")));
+    }
+
+    /**
+     * Disponibilidad de varios días en una sola pasada: la ocupación de todo el rango
+     * se obtiene con una única consulta (o del índice si ya está cargada) y cada
+     * día/tipo se evalúa en memoria. Los días no hábiles (fines de semana, festivos y
+     * cierres) se omiten en lugar de fallar.
+     * Si type es null se devuelven todos los tipos que tienen horarios de recepción.
+     */
+    @Override
+    public MultiDayAvailabilityResponseDTO getAvailableSlotsBetween(
+            LocalDate start, LocalDate end, AppointmentType type) {
+
+        validateAvailabilityRange(start, end);
+
+        IScheduleTemplateService.Schedule schedule = scheduleTemplates.current();
+        List<AppointmentType> types = type != null ? List.of(type) : schedule.typesWithSlots();
+
+        List<AvailableSlotsResponseDTO> days = new ArrayList<>();
+        List<Long> activeTechnicianIds = occupancyIndex.getActiveTechnicianIds();
+        Map<LocalDate, IOccupancyIndexService.DayOccupancy> occupancyByDate = activeTechnicianIds.isEmpty()
+                ? Map.of()
+                : occupancyIndex.getOccupancyBetween(start, end);
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("America/Bogota"));
+
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (!isWorkingDay(date)) {
+                continue;
+            }
+            IOccupancyIndexService.DayOccupancy occupancy = occupancyByDate.get(date);
+            for (AppointmentType dayType : types) {
+                days.add(occupancy == null
+                        ? new AvailableSlotsResponseDTO(date, dayType, new ArrayList<>())
+                        : buildDayAvailability(schedule, date, dayType, activeTechnicianIds, occupancy, now));
             }
         }
 
-        return new AvailableSlotsResponseDTO(date, type, availableSlots);
+        return new MultiDayAvailabilityResponseDTO(start, end, days);
     }
 
     // ---------------------------------------------------------------
@@ -88,104 +164,151 @@ public class AppointmentServiceImpl implements IAppointmentService {
     @Transactional
     public AppointmentResponseDTO createAppointment(CreateAppointmentRequestDTO request, Long clientId) {
 
-        // 1. El tipo REWORK nunca se agenda online
-        if (request.appointmentType() == AppointmentType.REWORK) {
-            throw new ReworkNotBookableOnlineException();
-        }
+        // Una sola versión de la plantilla de horarios para validar y armar la cita
+        IScheduleTemplateService.Schedule schedule = scheduleTemplates.current();
 
-        // 2. El tipo UNPLANNED solo lo puede crear el admin (este method es para clientes)
-        if (request.appointmentType() == AppointmentType.UNPLANNED) {
-            throw new InvalidAppointmentSlotException(
-                    "Las citas no planeadas solo pueden ser creadas por el administrador."
-            );
-        }
+        // 1-9. Tipo, propietario, pico y placa, marca, horario, slot y cita activa
+        VehicleEntity vehicle = loadAndValidateBooking(schedule, request, clientId);
 
-        // 3. Solo tipos bookables por el usuario
-        if (!AppointmentScheduleConfig.USER_BOOKABLE_TYPES.contains(request.appointmentType())) {
-            throw new InvalidAppointmentSlotException(
-                    "El tipo de cita seleccionado no está disponible para agendamiento en línea."
-            );
-        }
+        // 10. Armar la cita
+        AppointmentEntity appointment = buildClientAppointment(schedule, request, vehicle);
 
-        VehicleEntity vehicle = vehicleRepository.findById(request.vehicleId())
-                .orElseThrow(() -> new AppointmentException(
-                        "No se encontró el vehículo con ID: " + request.vehicleId()
-                ));
-
-        // 4. Verificar que el vehículo pertenece al cliente autenticado
-        if (!vehicle.getOwner().getId().equals(clientId)) {
-            throw new AppointmentForbiddenException("El vehículo no pertenece al usuario autenticado.");
-        }
+        // 11. Asignar técnico automáticamente (rotación) y persistir en un solo paso
+        AppointmentEntity saved = reserveWithAutomaticTechnician(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.created(saved));
 
-        // 5. Pico y placa
-        if (hasLicensePlateRestriction(vehicle.getLicensePlate(), request.appointmentDate())) {
-            throw new LicensePlateRestrictionException(
-                    "La moto con placa " + vehicle.getLicensePlate() +
-                            " tiene restricción de movilidad el " + request.appointmentDate() +
-                            ". No es posible agendar la cita para ese día."
-            );
-        }
-
-        // 6. Validar que la marca es compatible con el tipo de cita
-        validateBrandCompatibility(vehicle.getBrand(), request.appointmentType());
+        // 12. Notificar al cliente (siempre al crear)
+        // Construir DTO para la notificación y enviarlo (evitar pasar entidad JPA a @Async)
+        notificationService.sendAppointmentCreatedNotification(toNotification(saved));
 
-        // 7. Validar que no estamos en horario de almuerzo ni fuera del horario laboral
-        validateWithinBusinessHours(request.startTime());
+        return appointmentMapper.toResponseDTO(saved);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void validateBookingRequest(CreateAppointmentRequestDTO request, Long clientId) {
+        loadAndValidateBooking(scheduleTemplates.current(), request, clientId);
+    }
 
-        // 8. Validar que el slot horario es válido para el tipo
-        validateSlotForType(request.startTime(), request.appointmentType());
+    // ---------------------------------------------------------------
+    // CREACIÓN DE CITAS EN LOTE (FLOTAS)
+    // ---------------------------------------------------------------
 
-        // 9. EVITAR DOBLE AGENDAMIENTO: verificar si el vehículo ya tiene citas activas
-        boolean hasActive = appointmentRepository.existsActiveAppointmentByVehicleId(vehicle.getId());
-        if (hasActive) {
-            throw new VehicleHasActiveAppointmentException(
-                    "La moto con placa " + vehicle.getLicensePlate() +
-                            " ya tiene una cita activa. No es posible agendar otra hasta que se complete o se cancele."
-            );
+    /**
+     * Mismas reglas que createAppointment, pero con el trabajo compartido hecho una sola vez:
+     * vehículos y citas activas se cargan con una consulta IN cada uno, los técnicos se asignan
+     * sobre una única foto de la ocupación y las citas se insertan en un batch JDBC.
+     * Si la BD rechaza alguna reserva (otro agendamiento tomó el slot en paralelo), ese elemento
+     * se reintenta con el siguiente técnico libre en un nuevo batch.
+     */
+    @Override
+    @Transactional
+    public BulkAppointmentResponseDTO createAppointmentsBulk(List<CreateAppointmentRequestDTO> requests, Long clientId) {
+        BulkAppointmentItemResultDTO[] results = new BulkAppointmentItemResultDTO[requests.size()];
+        IScheduleTemplateService.Schedule schedule = scheduleTemplates.current();
+
+        // 1. Vehículos y citas activas del lote: una consulta cada uno
+        Set<Long> vehicleIds = requests.stream()
+                .map(CreateAppointmentRequestDTO::vehicleId)
+                .collect(Collectors.toSet());
+        Map<Long, VehicleEntity> vehiclesById = vehicleRepository.findAllWithOwnerByIdIn(vehicleIds).stream()
+                .collect(Collectors.toMap(VehicleEntity::getId, Function.identity()));
+        Set<Long> vehiclesWithActive = new HashSet<>(
+                appointmentRepository.findVehicleIdsWithActiveAppointment(vehicleIds));
+
+        // 2. Validaciones de negocio por elemento (en memoria)
+        List<BulkBooking> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateAppointmentRequestDTO request = requests.get(i);
+            try {
+                validateUserBookableType(schedule, request.appointmentType());
+                VehicleEntity vehicle = vehiclesById.get(request.vehicleId());
+                if (vehicle == null) {
+                    throw new AppointmentException("No se encontró el vehículo con ID: " + request.vehicleId());
+                }
+                validateVehicleBooking(schedule, request, vehicle, clientId);
+                // También evita que el mismo vehículo aparezca dos veces en el lote
+                if (!vehiclesWithActive.add(vehicle.getId())) {
+                    throw vehicleHasActiveAppointment(vehicle);
+                }
+                pending.add(new BulkBooking(i, buildClientAppointment(schedule, request, vehicle)));
+            } catch (RuntimeException e) {
+                results[i] = BulkAppointmentItemResultDTO.failed(i, request.vehicleId(), e.getMessage());
+            }
         }
 
-        // 10. Asignar técnico automáticamente (rotación)
-        LocalTime endTime = resolveEndTime(request.appointmentType(), request.startTime());
-        EmployeeEntity assignedTechnician = assignTechnicianAutomatically(
-                request.appointmentDate(), request.startTime(), endTime
-        );
-
-        // 11. Persistir
-        String clientNotesStr = (request.clientNotes() != null && !request.clientNotes().isEmpty())
-                ? String.join("; ", request.clientNotes())
-                : null;
-
-        AppointmentEntity appointment = AppointmentEntity.builder()
-                .vehicle(vehicle)
-                .appointmentType(request.appointmentType())
-                .appointmentDate(request.appointmentDate())
-                .startTime(request.startTime())
-                .endTime(endTime)
-                .technician(assignedTechnician)
-                .status(AppointmentStatus.SCHEDULED)
-                .currentMileage(request.currentMileage())
-                .clientNotes(clientNotesStr)
-                .build();
-
-        AppointmentEntity saved = appointmentRepository.save(appointment);
-
-        // 12. Notificar al cliente (siempre al crear)
-        // Construir DTO para la notificación y enviarlo (evitar pasar entidad JPA a @Async)
-        AppointmentNotificationDTO createdDto = new AppointmentNotificationDTO(
-                saved.getVehicle().getOwner().getEmail(),
-                saved.getVehicle().getOwner().getName(),
-                saved.getAppointmentDate(),
-                saved.getStartTime(),
-                saved.getAppointmentType().name(),
-                saved.getVehicle().getBrand(),
-                saved.getVehicle().getModel(),
-                saved.getVehicle().getLicensePlate(),
-                saved.getTechnician() != null ? saved.getTechnician().getUser().getName() : null
-        );
-        notificationService.sendAppointmentCreatedNotification(createdDto);
+        // 3. Asignación de técnicos sobre una sola foto de la ocupación + inserción en batch
+        List<AppointmentEntity> created = new ArrayList<>();
+        if (!pending.isEmpty()) {
+            LocalDate firstDate = pending.stream().map(b -> b.appointment().getAppointmentDate())
+                    .min(Comparator.naturalOrder()).orElseThrow();
+            LocalDate lastDate = pending.stream().map(b -> b.appointment().getAppointmentDate())
+                    .max(Comparator.naturalOrder()).orElseThrow();
+            Map<LocalDate, IOccupancyIndexService.DayOccupancy> occupancyByDate =
+                    occupancyIndex.getOccupancyBetween(firstDate, lastDate);
+            List<Long> technicianIds = occupancyIndex.getActiveTechnicianIds();
+            // Slots (técnico, fecha, hora) asignados en este lote o rechazados por la BD
+            Set<String> claimedSlots = new HashSet<>();
+            // Minutos asignados en este lote por fecha y técnico (aún sin confirmar en la BD)
+            Map<LocalDate, Map<Long, Long>> batchMinutes = new HashMap<>();
+
+            while (!pending.isEmpty()) {
+                List<BulkBooking> batch = new ArrayList<>();
+                for (BulkBooking booking : pending) {
+                    AppointmentEntity appointment = booking.appointment();
+                    Long technicianId = pickFreeTechnician(appointment, technicianIds,
+                            occupancyByDate.get(appointment.getAppointmentDate()), claimedSlots, batchMinutes);
+                    if (technicianId == null) {
+                        recordConflict(appointment);
+                        results[booking.index()] = BulkAppointmentItemResultDTO.failed(booking.index(),
+                                appointment.getVehicle().getId(),
+                                "No hay técnicos disponibles para el horario " + appointment.getStartTime() +
+                                        " el día " + appointment.getAppointmentDate() + ".");
+                        continue;
+                    }
+                    appointment.setTechnician(technicianRepository.getReferenceById(technicianId));
+                    appointment.setCreatedAt(LocalDateTime.now());
+                    batch.add(booking);
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                List<Long> ids = appointmentRepository.insertAllIfTechnicianSlotFree(
+                        batch.stream().map(BulkBooking::appointment).toList());
+
+                pending = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    BulkBooking booking = batch.get(i);
+                    Long id = ids.get(i);
+                    if (id == null) {
+                        // El slot quedó marcado en claimedSlots: se probará con otro técnico
+                        AppointmentEntity rejected = booking.appointment();
+                        batchMinutes.get(rejected.getAppointmentDate()).merge(
+                                rejected.getTechnician().getId(), -durationMinutes(rejected), Long::sum);
+                        pending.add(booking);
+                        continue;
+                    }
+                    booking.appointment().setId(id);
+                    created.add(booking.appointment());
+                    results[booking.index()] = BulkAppointmentItemResultDTO.created(booking.index(),
+                            booking.appointment().getVehicle().getId(),
+                            appointmentMapper.toResponseDTO(booking.appointment()));
+                }
+            }
+        }
 
-        return appointmentMapper.toResponseDTO(saved);
+        // 4. Eventos por cita (índice de ocupación y caché) y un solo correo por propietario
+        created.forEach(appointment -> eventPublisher.publishEvent(AppointmentChangedEvent.created(appointment)));
+        created.stream()
+                .map(this::toNotification)
+                .collect(Collectors.groupingBy(AppointmentNotificationDTO::clientEmail,
+                        LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(notificationService::sendBulkAppointmentsCreatedNotification);
+
+        return new BulkAppointmentResponseDTO(requests.size(), created.size(),
+                requests.size() - created.size(), Arrays.asList(results));
     }
 
     // ---------------------------------------------------------------
@@ -209,45 +332,42 @@ public class AppointmentServiceImpl implements IAppointmentService {
             );
         }
 
-        validateWithinBusinessHours(request.startTime());
+        IScheduleTemplateService.Schedule schedule = scheduleTemplates.current();
+        validateWithinBusinessHours(schedule, request.startTime());
+
+        LocalTime endTime = schedule.endTime(request.appointmentType(), request.startTime());
 
-        LocalTime endTime = resolveEndTime(request.appointmentType(), request.startTime());
+        AppointmentEntity appointment = AppointmentEntity.builder()
+                .vehicle(vehicle)
+                .appointmentType(AppointmentType.UNPLANNED)
+                .appointmentDate(request.appointmentDate())
+                .startTime(request.startTime())
+                .endTime(endTime)
+                .status(AppointmentStatus.SCHEDULED)
+                .adminNotes(request.adminNotes())
+                .currentMileage(request.currentMileage())
+                .build();
 
-        EmployeeEntity technician;
+        AppointmentEntity saved;
         if (request.technicianId() != null) {
-            // Admin asignó técnico manualmente → validar que esté libre
-            technician = technicianRepository.findById(request.technicianId())
+            // Admin asignó técnico manualmente → la reserva falla si ese slot ya está tomado
+            EmployeeEntity technician = technicianRepository.findById(request.technicianId())
                     .orElseThrow(() -> new AppointmentException(
                             "No se encontró el técnico con ID: " + request.technicianId()
                     ));
-            boolean isBusy = appointmentRepository.existsTechnicianConflict(
-                    technician.getId(), request.appointmentDate(), request.startTime(), endTime
-            );
-            if (isBusy) {
+            if (!tryReserve(appointment, technician)) {
+                recordConflict(appointment);
                 throw new TechnicianSlotOccupiedException(
                         "El técnico seleccionado ya tiene una cita en ese horario."
                 );
             }
+            saved = appointment;
         } else {
             // Asignación automática
-            technician = assignTechnicianAutomatically(
-                    request.appointmentDate(), request.startTime(), endTime
-            );
+            saved = reserveWithAutomaticTechnician(appointment);
         }
 
-        AppointmentEntity appointment = AppointmentEntity.builder()
-                .vehicle(vehicle)
-                .appointmentType(AppointmentType.UNPLANNED)
-                .appointmentDate(request.appointmentDate())
-                .startTime(request.startTime())
-                .endTime(endTime)
-                .technician(technician)
-                .status(AppointmentStatus.SCHEDULED)
-                .adminNotes(request.adminNotes())
-                .currentMileage(request.currentMileage())
-                .build();
-
-        AppointmentEntity saved = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.created(saved));
         return appointmentMapper.toResponseDTO(saved);
     }
 
@@ -264,22 +384,14 @@ public class AppointmentServiceImpl implements IAppointmentService {
             throw new AppointmentException("La cita ya se encuentra cancelada.");
         }
 
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setCancellationReason(request.reason());
         AppointmentEntity saved = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.cancelled(saved, previousStatus));
 
         if (request.notifyClient()) {
-            AppointmentNotificationDTO cancelledDto = new AppointmentNotificationDTO(
-                    saved.getVehicle().getOwner().getEmail(),
-                    saved.getVehicle().getOwner().getName(),
-                    saved.getAppointmentDate(),
-                    saved.getStartTime(),
-                    saved.getAppointmentType().name(),
-                    saved.getVehicle().getBrand(),
-                    saved.getVehicle().getModel(),
-                    saved.getVehicle().getLicensePlate(),
-                    saved.getTechnician() != null ? saved.getTechnician().getUser().getName() : null
-            );
+            AppointmentNotificationDTO cancelledDto = toNotification(saved);
             notificationService.sendAppointmentCancelledNotification(cancelledDto, request.reason());
         }
 
@@ -320,21 +432,22 @@ public class AppointmentServiceImpl implements IAppointmentService {
                     "Por favor elige un técnico válido.");
         }
 
+        Long previousTechnicianId = appointment.getTechnician() != null ? appointment.getTechnician().getId() : null;
         appointment.setTechnician(newTechnician);
         AppointmentEntity saved = appointmentRepository.save(appointment);
+        try {
+            // El índice único de slot (V8) detecta si otra operación tomó ese horario entre la verificación y el UPDATE
+            appointmentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new TechnicianSlotOccupiedException(
+                    "El técnico " + newTechnician.getUser().getName() +
+                            " ya tiene ocupado ese horario. Elige otro técnico."
+            );
+        }
+        eventPublisher.publishEvent(AppointmentChangedEvent.technicianChanged(saved, previousTechnicianId));
 
         if (request.notifyClient()) {
-            AppointmentNotificationDTO updatedDto = new AppointmentNotificationDTO(
-                    saved.getVehicle().getOwner().getEmail(),
-                    saved.getVehicle().getOwner().getName(),
-                    saved.getAppointmentDate(),
-                    saved.getStartTime(),
-                    saved.getAppointmentType().name(),
-                    saved.getVehicle().getBrand(),
-                    saved.getVehicle().getModel(),
-                    saved.getVehicle().getLicensePlate(),
-                    saved.getTechnician() != null ? saved.getTechnician().getUser().getName() : null
-            );
+            AppointmentNotificationDTO updatedDto = toNotification(saved);
             notificationService.sendAppointmentUpdatedNotification(updatedDto);
         }
 
@@ -354,96 +467,283 @@ public class AppointmentServiceImpl implements IAppointmentService {
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDTO> getAppointmentsByVehicle(Long vehicleId) {
-        return appointmentRepository.findByVehicleIdOrderByAppointmentDateDesc(vehicleId)
-                .stream()
-                .map(appointmentMapper::toResponseDTO)
-                .toList();
+        return appointmentRepository.findResponsesByVehicleId(vehicleId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDTO> getAppointmentsByClient(Long clientId) {
-        return appointmentRepository.findByClientIdOrderByDateDesc(clientId)
-                .stream()
-                .map(appointmentMapper::toResponseDTO)
-                .toList();
+        return appointmentRepository.findResponsesByClientId(clientId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AppointmentResponseDTO> getAppointmentsByVehiclePage(Long vehicleId, String cursor,
+                                                                                    int size) {
+        Limit limit = cursorPageMapper.fetchLimit(size);
+        List<AppointmentResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findResponsePageByVehicleId(vehicleId, limit);
+        } else {
+            AppointmentKeyset after = cursorPageMapper.decodeAppointmentCursor(cursor);
+            rows = appointmentRepository.findResponsePageByVehicleIdAfter(
+                    vehicleId, after.appointmentDate(), after.startTime(), after.id(), limit);
+        }
+        return toAppointmentPage(rows, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AppointmentResponseDTO> getAppointmentsByClientPage(Long clientId, String cursor,
+                                                                                   int size) {
+        Limit limit = cursorPageMapper.fetchLimit(size);
+        List<AppointmentResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findResponsePageByClientId(clientId, limit);
+        } else {
+            AppointmentKeyset after = cursorPageMapper.decodeAppointmentCursor(cursor);
+            rows = appointmentRepository.findResponsePageByClientIdAfter(
+                    clientId, after.appointmentDate(), after.startTime(), after.id(), limit);
+        }
+        return toAppointmentPage(rows, size);
+    }
+
+    private CursorPageResponseDTO<AppointmentResponseDTO> toAppointmentPage(List<AppointmentResponseDTO> rows,
+                                                                           int size) {
+        return cursorPageMapper.toPage(rows, size, Function.identity(),
+                last -> cursorPageMapper.encodeAppointmentCursor(last.appointmentDate(), last.startTime(), last.id()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDTO> getAppointmentsByDate(LocalDate date) {
-        return appointmentRepository.findByAppointmentDateOrderByStartTime(date)
-                .stream()
-                .map(appointmentMapper::toResponseDTO)
-                .toList();
+        return appointmentRepository.findResponsesByDate(date);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDTO> getAppointmentsByDateRange(LocalDate start, LocalDate end) {
-        return appointmentRepository.findByDateRange(start, end)
-                .stream()
-                .map(appointmentMapper::toResponseDTO)
-                .toList();
+        return appointmentRepository.findResponsesByDateRange(start, end);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAppointmentsByDateRange(LocalDate start, LocalDate end,
+                                              Consumer<AppointmentResponseDTO> action) {
+        try (Stream<AppointmentResponseDTO> rows = appointmentRepository.streamResponsesByDateRange(start, end)) {
+            rows.forEach(action);
+        }
     }
 
     // ---------------------------------------------------------------
     // PICO Y PLACA
-    // Restricción de Colombia: dos dígitos finales de la placa por día.
-    // Lunes: 1-2 | Martes: 3-4 | Miércoles: 5-6 | Jueves: 7-8 | Viernes: 9-0
+    // Las reglas (por ciudad, vigencia y festivos) viven en motorx.mobility-restriction
+    // y las evalúa el motor compilado de IMobilityRestrictionService.
     // ---------------------------------------------------------------
 
     @Override
     public boolean hasLicensePlateRestriction(String plate, LocalDate date) {
-        if (plate == null || plate.isBlank()) return false;
+        return mobilityRestrictionService.isRestricted(plate, date);
+    }
 
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
 
-        // Fines de semana no hay pico y placa
-        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
-            return false;
+    /**
+     * Validaciones 1-3 de createAppointment: REWORK nunca se agenda online,
+     * UNPLANNED es exclusivo del admin y solo se aceptan los tipos agendables por el usuario.
+     */
+    private void validateUserBookableType(IScheduleTemplateService.Schedule schedule, AppointmentType type) {
+        if (type == AppointmentType.REWORK) {
+            throw new ReworkNotBookableOnlineException();
+        }
+
+        if (type == AppointmentType.UNPLANNED) {
+            throw new InvalidAppointmentSlotException(
+                    "Las citas no planeadas solo pueden ser creadas por el administrador."
+            );
+        }
+
+        if (!schedule.isUserBookable(type)) {
+            throw new InvalidAppointmentSlotException(
+                    "El tipo de cita seleccionado no está disponible para agendamiento en línea."
+            );
+        }
+    }
+
+    /**
+     * Validaciones 1-9 de createAppointment. Devuelve el vehículo ya cargado para armar la cita.
+     */
+    private VehicleEntity loadAndValidateBooking(
+            IScheduleTemplateService.Schedule schedule, CreateAppointmentRequestDTO request, Long clientId) {
+        // 1-3. Solo tipos agendables en línea por el cliente
+        validateUserBookableType(schedule, request.appointmentType());
+
+        VehicleEntity vehicle = vehicleRepository.findById(request.vehicleId())
+                .orElseThrow(() -> new AppointmentException(
+                        "No se encontró el vehículo con ID: " + request.vehicleId()
+                ));
+
+        // 4-8. Propietario, pico y placa, marca, horario laboral y slot del tipo
+        validateVehicleBooking(schedule, request, vehicle, clientId);
+
+        // 9. EVITAR DOBLE AGENDAMIENTO: verificar si el vehículo ya tiene citas activas
+        boolean hasActive = appointmentRepository.existsActiveAppointmentByVehicleId(vehicle.getId());
+        if (hasActive) {
+            throw vehicleHasActiveAppointment(vehicle);
+        }
+        return vehicle;
+    }
+
+    /**
+     * Validaciones 4-8 de createAppointment sobre un vehículo ya cargado.
+     */
+    private void validateVehicleBooking(IScheduleTemplateService.Schedule schedule, CreateAppointmentRequestDTO request,
+                                        VehicleEntity vehicle, Long clientId) {
+        // 4. Verificar que el vehículo pertenece al cliente autenticado
+        if (!vehicle.getOwner().getId().equals(clientId)) {
+            throw new AppointmentForbiddenException("El vehículo no pertenece al usuario autenticado.");
+        }
+
+        // 5. Pico y placa
+        if (hasLicensePlateRestriction(vehicle.getLicensePlate(), request.appointmentDate())) {
+            throw new LicensePlateRestrictionException(
+                    "La moto con placa " + vehicle.getLicensePlate() +
+                            " tiene restricción de movilidad el " + request.appointmentDate() +
+                            ". No es posible agendar la cita para ese día."
+            );
         }
 
-        // Último dígito de la placa
-        String cleanPlate = plate.trim().toUpperCase();
-        char lastChar = cleanPlate.charAt(cleanPlate.length() - 2);
-        if (!Character.isDigit(lastChar)) return false;
-        int lastDigit = Character.getNumericValue(lastChar);
+        // 6. Validar que la marca es compatible con el tipo de cita
+        validateBrandCompatibility(schedule, vehicle.getBrand(), request.appointmentType());
+
+        // 7. Validar el día (fin de semana, festivo o cierre del taller) y que no estamos
+        //    en horario de almuerzo ni fuera del horario laboral
+        validateWorkingDay(request.appointmentDate());
+        validateWithinBusinessHours(schedule, request.startTime());
+
+        // 8. Validar que el slot horario es válido para el tipo
+        validateSlotForType(schedule, request.startTime(), request.appointmentType());
+    }
+
+    private VehicleHasActiveAppointmentException vehicleHasActiveAppointment(VehicleEntity vehicle) {
+        return new VehicleHasActiveAppointmentException(
+                "La moto con placa " + vehicle.getLicensePlate() +
+                        " ya tiene una cita activa. No es posible agendar otra hasta que se complete o se cancele."
+        );
+    }
+
+    private AppointmentEntity buildClientAppointment(
+            IScheduleTemplateService.Schedule schedule, CreateAppointmentRequestDTO request, VehicleEntity vehicle) {
+        LocalTime endTime = schedule.endTime(request.appointmentType(), request.startTime());
+        String clientNotesStr = (request.clientNotes() != null && !request.clientNotes().isEmpty())
+                ? String.join("; ", request.clientNotes())
+                : null;
+
+        return AppointmentEntity.builder()
+                .vehicle(vehicle)
+                .appointmentType(request.appointmentType())
+                .appointmentDate(request.appointmentDate())
+                .startTime(request.startTime())
+                .endTime(endTime)
+                .status(AppointmentStatus.SCHEDULED)
+                .currentMileage(request.currentMileage())
+                .clientNotes(clientNotesStr)
+                .build();
+    }
 
-        Map<DayOfWeek, List<Integer>> restrictions = Map.of(
-                DayOfWeek.MONDAY,    List.of(5, 6),
-                DayOfWeek.TUESDAY,   List.of(7, 8),
-                DayOfWeek.WEDNESDAY, List.of(9, 0),
-                DayOfWeek.THURSDAY,  List.of(1, 2),
-                DayOfWeek.FRIDAY,    List.of(3, 4)
+    private AppointmentNotificationDTO toNotification(AppointmentEntity saved) {
+        return new AppointmentNotificationDTO(
+                saved.getVehicle().getOwner().getEmail(),
+                saved.getVehicle().getOwner().getName(),
+                saved.getAppointmentDate(),
+                saved.getStartTime(),
+                saved.getAppointmentType().name(),
+                saved.getVehicle().getBrand(),
+                saved.getVehicle().getModel(),
+                saved.getVehicle().getLicensePlate(),
+                saved.getTechnician() != null ? saved.getTechnician().getUser().getName() : null
         );
+    }
 
-        return restrictions.getOrDefault(dayOfWeek, List.of()).contains(lastDigit);
+    /**
+     * Técnico preferido por la estrategia de asignación entre los libres según la foto de
+     * ocupación y que no hayan sido tomados ya en el lote. Marca el slot elegido como tomado
+     * y suma sus minutos a la carga del lote; null si no queda ninguno.
+     */
+    private Long pickFreeTechnician(AppointmentEntity appointment, List<Long> technicianIds,
+                                    IOccupancyIndexService.DayOccupancy occupancy, Set<String> claimedSlots,
+                                    Map<LocalDate, Map<Long, Long>> batchMinutes) {
+        LocalDate date = appointment.getAppointmentDate();
+        LocalTime startTime = appointment.getStartTime();
+
+        List<Long> freeTechnicianIds = new ArrayList<>();
+        for (Long technicianId : technicianIds) {
+            if (occupancy != null && occupancy.isOccupied(technicianId, startTime)) {
+                continue;
+            }
+            if (!claimedSlots.contains(slotKey(technicianId, date, startTime))) {
+                freeTechnicianIds.add(technicianId);
+            }
+        }
+        if (freeTechnicianIds.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, Long> dayMinutes = batchMinutes.computeIfAbsent(date, d -> new HashMap<>());
+        Long technicianId = assignmentStrategy.rank(date, startTime, freeTechnicianIds, dayMinutes).getFirst();
+        claimedSlots.add(slotKey(technicianId, date, startTime));
+        dayMinutes.merge(technicianId, durationMinutes(appointment), Long::sum);
+        return technicianId;
     }
 
-    // ---------------------------------------------------------------
-    // HELPERS PRIVADOS
-    // ---------------------------------------------------------------
+    private static String slotKey(Long technicianId, LocalDate date, LocalTime startTime) {
+        return technicianId + "|" + date + "|" + startTime;
+    }
+
+    private static long durationMinutes(AppointmentEntity appointment) {
+        return ChronoUnit.MINUTES.between(appointment.getStartTime(), appointment.getEndTime());
+    }
+
+    private record BulkBooking(int index, AppointmentEntity appointment) {
+    }
+
+    /**
+     * Registra que una reserva no encontró técnico libre en su slot (alimenta la tasa de conflictos).
+     */
+    private void recordConflict(AppointmentEntity appointment) {
+        VehicleEntity vehicle = appointment.getVehicle();
+        Long ownerId = vehicle != null && vehicle.getOwner() != null ? vehicle.getOwner().getId() : null;
+        systemEvents.record(EventType.APPOINTMENT_CONFLICT, ownerId,
+                "tipo=" + appointment.getAppointmentType() + ", fecha=" + appointment.getAppointmentDate() +
+                        ", hora=" + appointment.getStartTime());
+    }
 
     /**
-     * Asigna automáticamente el primer técnico disponible para el slot.
-     * Orden: técnico A → técnico B → técnico C... hasta encontrar uno libre.
-     * Si ninguno está libre, lanza excepción.
+     * Asigna automáticamente un técnico disponible para el slot y persiste la cita.
+     * Los técnicos ocupados según el índice en memoria se descartan sin ir a la BD; los libres
+     * se intentan en el orden que indique la estrategia de asignación. Cada candidato se
+     * reserva con un INSERT condicional, y si otro agendamiento concurrente se lo ganó,
+     * se intenta con el siguiente. Si ninguno está libre, lanza excepción.
      */
-    private EmployeeEntity assignTechnicianAutomatically(
-            LocalDate date, LocalTime startTime, LocalTime endTime) {
+    private AppointmentEntity reserveWithAutomaticTechnician(AppointmentEntity appointment) {
+        LocalDate date = appointment.getAppointmentDate();
+        LocalTime startTime = appointment.getStartTime();
+        IOccupancyIndexService.DayOccupancy occupancy = occupancyIndex.getDayOccupancy(date);
 
-        List<EmployeeEntity> activeTechnicians = technicianRepository.findAllActive();
+        List<Long> freeTechnicianIds = occupancyIndex.getActiveTechnicianIds().stream()
+                .filter(technicianId -> !occupancy.isOccupied(technicianId, startTime))
+                .toList();
 
-        for (EmployeeEntity technician : activeTechnicians) {
-            boolean isBusy = appointmentRepository.existsTechnicianConflict(
-                    technician.getId(), date, startTime, endTime
-            );
-            if (!isBusy) {
-                return technician;
+        for (Long technicianId : assignmentStrategy.rank(date, startTime, freeTechnicianIds, Map.of())) {
+            if (tryReserve(appointment, technicianRepository.getReferenceById(technicianId))) {
+                return appointment;
             }
         }
 
+        appointment.setTechnician(null);
+        recordConflict(appointment);
         throw new NoAvailableTechnicianException(
                 "No hay técnicos disponibles para el horario " + startTime +
                         " el día " + date + ". Por favor elige otro día u horario."
@@ -451,18 +751,60 @@ public class AppointmentServiceImpl implements IAppointmentService {
     }
 
     /**
-     * Cuenta cuántos técnicos tienen libre un slot específico.
+     * Intenta insertar la cita con el técnico dado. La BD garantiza que el slot
+     * (técnico, fecha, startTime) no quede duplicado aun con agendamientos simultáneos.
+     * @return true si la cita quedó creada (y con id asignado), false si el slot ya estaba tomado
+     */
+    private boolean tryReserve(AppointmentEntity appointment, EmployeeEntity technician) {
+        appointment.setTechnician(technician);
+        appointment.setCreatedAt(LocalDateTime.now());
+        Long id = appointmentRepository.insertIfTechnicianSlotFree(appointment);
+        if (id == null) {
+            return false;
+        }
+        appointment.setId(id);
+        return true;
+    }
+
+    /**
+     * Calcula los slots libres de un día y tipo a partir de su ocupación en memoria.
+     * Si la fecha es hoy, solo incluye slots cuya hora de inicio aún no ha pasado.
+     */
+    private AvailableSlotsResponseDTO buildDayAvailability(
+            IScheduleTemplateService.Schedule schedule, LocalDate date, AppointmentType type, List<Long> technicianIds,
+            IOccupancyIndexService.DayOccupancy occupancy, ZonedDateTime now) {
+
+        List<AvailableSlotsResponseDTO.AvailableSlotDTO> availableSlots = new ArrayList<>();
+        boolean isToday = date.isEqual(now.toLocalDate());
+
+        for (LocalTime slotStart : schedule.slotsFor(type)) {
+            // Descartar slots cuya hora ya pasó si la fecha consultada es hoy
+            if (isToday && !slotStart.isAfter(now.toLocalTime())) {
+                continue;
+            }
+
+            int freeTechnicians = countFreeTechniciansForSlot(technicianIds, occupancy, slotStart);
+            if (freeTechnicians > 0) {
+                availableSlots.add(new AvailableSlotsResponseDTO.AvailableSlotDTO(
+                        slotStart,
+                        schedule.endTime(type, slotStart),
+                        freeTechnicians
+                ));
+            }
+        }
+
+        return new AvailableSlotsResponseDTO(date, type, availableSlots);
+    }
+
+    /**
+     * Cuenta cuántos técnicos tienen libre un slot específico según la ocupación del día.
      */
     private int countFreeTechniciansForSlot(
-            List<EmployeeEntity> technicians, LocalDate date,
-            LocalTime startTime, LocalTime endTime) {
+            List<Long> technicianIds, IOccupancyIndexService.DayOccupancy occupancy, LocalTime startTime) {
 
         int count = 0;
-        for (EmployeeEntity tech : technicians) {
-            boolean busy = appointmentRepository.existsTechnicianConflict(
-                    tech.getId(), date, startTime, endTime
-            );
-            if (!busy) count++;
+        for (Long technicianId : technicianIds) {
+            if (!occupancy.isOccupied(technicianId, startTime)) count++;
         }
         return count;
     }
@@ -470,15 +812,12 @@ public class AppointmentServiceImpl implements IAppointmentService {
     /**
      * Valida que el slot de hora solicitado sea un horario válido para ese tipo de cita.
      */
-    private void validateSlotForType(LocalTime requestedSlot, AppointmentType type) {
-        List<LocalTime> validSlots = AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE
-                .getOrDefault(type, List.of());
-
-        boolean isValid = validSlots.stream().anyMatch(s -> s.equals(requestedSlot));
-        if (!isValid) {
+    private void validateSlotForType(IScheduleTemplateService.Schedule schedule, LocalTime requestedSlot,
+                                     AppointmentType type) {
+        if (!schedule.isValidSlot(type, requestedSlot)) {
             throw new InvalidAppointmentSlotException(
                     "El horario " + requestedSlot + " no es válido para el tipo de cita " + type +
-                            ". Horarios válidos: " + validSlots
+                            ". Horarios válidos: " + schedule.slotsFor(type)
             );
         }
     }
@@ -486,29 +825,30 @@ public class AppointmentServiceImpl implements IAppointmentService {
     /**
      * Valida que el horario no esté en horario de almuerzo ni fuera del horario laboral.
      */
-    private void validateWithinBusinessHours(LocalTime startTime) {
-        if (startTime.isBefore(AppointmentScheduleConfig.WORK_START) ||
-                startTime.isAfter(AppointmentScheduleConfig.WORK_END)) {
+    private void validateWithinBusinessHours(IScheduleTemplateService.Schedule schedule, LocalTime startTime) {
+        if (!schedule.isWithinWorkHours(startTime)) {
             throw new AppointmentOutsideBusinessHoursException(
-                    "El horario " + startTime + " está fuera del horario laboral (7:00 AM - 5:30 PM)."
+                    "El horario " + startTime + " está fuera del horario laboral (" +
+                            schedule.workStart() + " - " + schedule.workEnd() + ")."
             );
         }
 
         // No se reciben motos en horario de almuerzo
-        if (!startTime.isBefore(AppointmentScheduleConfig.LUNCH_START) &&
-                startTime.isBefore(AppointmentScheduleConfig.LUNCH_END)) {
+        if (schedule.isLunchTime(startTime)) {
             throw new AppointmentOutsideBusinessHoursException(
-                    "No se reciben citas durante el horario de almuerzo (12:00 PM - 1:00 PM)."
+                    "No se reciben citas durante el horario de almuerzo (" +
+                            schedule.lunchStart() + " - " + schedule.lunchEnd() + ")."
             );
         }
     }
 
     /**
      * Valida que la marca del vehículo sea compatible con el tipo de cita.
-     * MANUAL_WARRANTY_REVIEW y AUTECO_WARRANTY solo aplican para Auteco.
+     * Los tipos marcados como exclusivos de Auteco en la plantilla (MANUAL_WARRANTY_REVIEW
+     * y AUTECO_WARRANTY en la versión inicial) solo aplican para esa marca.
      */
-    private void validateBrandCompatibility(String brand, AppointmentType type) {
-        if (AppointmentScheduleConfig.AUTECO_ONLY_TYPES.contains(type) &&
+    private void validateBrandCompatibility(IScheduleTemplateService.Schedule schedule, String brand, AppointmentType type) {
+        if (schedule.isAutecoOnly(type) &&
                 (brand == null || !brand.equalsIgnoreCase("AUTECO"))) {
             throw new AppointmentTypeNotAllowedForBrandException(
                     "El tipo de cita " + type + " solo aplica para motos de marca Auteco. " +
@@ -518,29 +858,41 @@ public class AppointmentServiceImpl implements IAppointmentService {
     }
 
     /**
-     * Valida que la fecha sea un día laboral (no festivo o fin de semana).
-     * Por ahora valida fines de semana; los festivos se pueden agregar luego.
+     * Valida que la fecha sea un día laboral según el calendario del taller
+     * (fines de semana, festivos de Colombia y cierres definidos por el admin).
      */
     private void validateWorkingDay(LocalDate date) {
-        DayOfWeek day = date.getDayOfWeek();
-        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+        if (!isWorkingDay(date)) {
+            DayOfWeek day = date.getDayOfWeek();
+            String reason = (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY)
+                    ? "los fines de semana"
+                    : workingDayCalendar.isPublicHoliday(date) ? "en días festivos" : "en días de cierre del taller";
             throw new AppointmentOutsideBusinessHoursException(
-                    "No se pueden agendar citas los fines de semana."
+                    "No se pueden agendar citas " + reason + " (" + date + ")."
             );
         }
     }
 
+    private boolean isWorkingDay(LocalDate date) {
+        return workingDayCalendar.isWorkingDay(date);
+    }
 
-    private LocalTime resolveEndTime(AppointmentType type, LocalTime startTime) {
-        return switch (type) {
-            case OIL_CHANGE                -> startTime.plusMinutes(AppointmentScheduleConfig.OIL_CHANGE_DURATION_MINUTES);
-            case MANUAL_WARRANTY_REVIEW    -> startTime.plusMinutes(270);
-            case QUICK_SERVICE, UNPLANNED  -> startTime.plusMinutes(255);
-            case AUTECO_WARRANTY, REWORK   -> startTime.plusMinutes(450);
-            case MAINTENANCE               -> startTime.plusMinutes(555);
-        };
+    /**
+     * Valida el rango de una consulta de disponibilidad multi-día.
+     */
+    private void validateAvailabilityRange(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new AppointmentException("La fecha final no puede ser anterior a la fecha inicial.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) + 1 > AppointmentScheduleConfig.MAX_AVAILABILITY_RANGE_DAYS) {
+            throw new AppointmentException(
+                    "El rango de consulta no puede superar " +
+                            AppointmentScheduleConfig.MAX_AVAILABILITY_RANGE_DAYS + " días."
+            );
+        }
     }
 
+
     private AppointmentEntity findAppointmentOrThrow(Long id) {
         return appointmentRepository.findById(id)
                 .orElseThrow(() -> new AppointmentNotFoundException(id));
@@ -0,0 +1,114 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IAppointmentVersionService;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Versiones de los listados de citas para los GET condicionales (ETag / If-None-Match).
+ * Una fecha o un cliente sin entrada está en la versión 0. Los contadores solo crecen,
+ * así que la suma de las versiones de un rango también cambia con cualquier cambio dentro de él.
+ * <p>
+ * Los contadores solo ven los cambios confirmados en esta instancia. Para que un cambio hecho
+ * en otra instancia no deje un 304 viejo indefinidamente, el ETag lleva además la ventana de
+ * tiempo en curso (motorx.etag.max-stale-seconds): al pasar a la siguiente todos los ETags
+ * cambian y el cliente vuelve a descargar el listado.
+ */
+@Service
+@Slf4j
+public class AppointmentVersionServiceImpl implements IAppointmentVersionService {
+
+    // Los contadores viven en memoria y empiezan en 0 en cada arranque: el identificador
+    // del arranque evita que un ETag emitido antes de reiniciar coincida con uno nuevo
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+
+    // Máximo tiempo que un cambio hecho en otra instancia puede quedar oculto tras un 304
+    @Value("${motorx.etag.max-stale-seconds:30}")
+    private long maxStaleSeconds;
+
+    // Reloj en milisegundos; los tests lo reemplazan
+    LongSupplier clock = System::currentTimeMillis;
+
+    // Se incrementa con cada invalidación total
+    private final AtomicLong epoch = new AtomicLong();
+
+    // Ordenado por fecha para sumar un rango con subMap sin recorrer cada día
+    private final ConcurrentNavigableMap<LocalDate, AtomicLong> dateVersions = new ConcurrentSkipListMap<>();
+    private final Map<Long, AtomicLong> clientVersions = new ConcurrentHashMap<>();
+
+    @Override
+    public String agendaETag(LocalDate date) {
+        return eTag("agenda", date + ":" + version(dateVersions.get(date)));
+    }
+
+    @Override
+    public String calendarETag(LocalDate start, LocalDate end) {
+        long sum = 0;
+        if (!end.isBefore(start)) {
+            for (AtomicLong version : dateVersions.subMap(start, true, end, true).values()) {
+                sum += version.get();
+            }
+        }
+        return eTag("calendar", start + ":" + end + ":" + sum);
+    }
+
+    @Override
+    public String clientHistoryETag(Long clientId) {
+        return eTag("history", clientId + ":" + version(clientVersions.get(clientId)));
+    }
+
+    @Override
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        log.debug("Versiones de los listados de citas invalidadas por completo");
+    }
+
+    // ---------------------------------------------------------------
+    // INCREMENTO (después del commit de cada cambio)
+    // Antes del commit, una lectura concurrente podría guardar datos viejos con el ETag nuevo.
+    // ---------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        dateVersions.computeIfAbsent(event.appointmentDate(), date -> new AtomicLong()).incrementAndGet();
+        if (event.ownerId() != null) {
+            clientVersions.computeIfAbsent(event.ownerId(), id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientDataChanged(ClientDataChangedEvent event) {
+        invalidateAll();
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private long version(AtomicLong counter) {
+        return counter == null ? 0 : counter.get();
+    }
+
+    private String eTag(String kind, String key) {
+        long window = clock.getAsLong() / (Math.max(1, maxStaleSeconds) * 1000);
+        return "\"" + kind + "-" + instanceTag + "-" + window + "-" + epoch.get() + "-" + key + "\"";
+    }
+}
@@ -5,6 +5,7 @@ import com.sparktech.motorx.dto.auth.AuthResponseDTO;
 import com.sparktech.motorx.dto.auth.LoginRequestDTO;
 import com.sparktech.motorx.dto.auth.RegisterUserDTO;
 import com.sparktech.motorx.dto.user.UserDTO;
+import com.sparktech.motorx.entity.EventType;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.exception.BlockedAccountException;
 import com.sparktech.motorx.exception.InvalidPasswordException;
@@ -12,6 +13,7 @@ import com.sparktech.motorx.exception.UserNotFoundException;
 import com.sparktech.motorx.mapper.UserEntityMapper;
 import com.sparktech.motorx.security.CustomUserDetailsService;
 import com.sparktech.motorx.security.JwtService;
+import com.sparktech.motorx.security.VerifiedJwt;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -37,10 +39,14 @@ public class AuthServiceImpl implements IAuthService {
     private final UserEntityMapper userMapper;
     private final IVerificationCodeService verificationCodeService;
     private final IVerificationCodeCacheService cacheService;
+    private final ISystemEventService systemEvents;
+    private final ILoginAttemptService loginAttempts;
 
     @Override
     @Transactional
-    public Object login(LoginRequestDTO loginRequest) throws InvalidPasswordException {
+    public Object login(LoginRequestDTO loginRequest, String clientIp) throws InvalidPasswordException {
+        // Con el email o la IP en bloqueo temporal se rechaza sin llegar a BCrypt
+        loginAttempts.checkAllowed(loginRequest.email(), clientIp);
         try {
             log.info("Intentando autenticar usuario: {}", loginRequest.email());
             AuthResult result = authenticateAndBuildAuthResult(loginRequest.email(), loginRequest.password());
@@ -49,8 +55,11 @@ public class AuthServiceImpl implements IAuthService {
 
             if (user.isAccountLocked() || !user.isEnabled()){
                 log.warn("Usuario bloqueado o inhabilitado: {}", loginRequest.email());
+                systemEvents.record(EventType.LOGIN_FAILED, user.getId(), "cuenta bloqueada o inhabilitada");
                 throw new BlockedAccountException(user.getEmail());
             }
+            loginAttempts.recordSuccess(loginRequest.email());
+            systemEvents.record(EventType.LOGIN_SUCCESS, user.getId(), null);
 
             // Si el usuario es ADMIN, omitir 2FA y devolver token directamente
             if (com.sparktech.motorx.entity.Role.ADMIN.equals(user.getRole())) {
@@ -73,6 +82,8 @@ public class AuthServiceImpl implements IAuthService {
 
         } catch (BadCredentialsException e) {
             log.warn("Credenciales inválidas para: {}", loginRequest.email());
+            loginAttempts.recordFailure(loginRequest.email(), clientIp);
+            systemEvents.record(EventType.LOGIN_FAILED, null, "email=" + loginRequest.email());
             throw new InvalidPasswordException("Credenciales inválidas");
         }
     }
@@ -81,12 +92,20 @@ public class AuthServiceImpl implements IAuthService {
     @Transactional
     public AuthResponseDTO register(RegisterUserDTO registerRequest) {
         log.info("Registrando nuevo usuario: {}", registerRequest.email());
-        userService.register(registerRequest);
+        systemEvents.record(EventType.USER_REGISTER_ATTEMPT, null, "email=" + registerRequest.email());
+        try {
+            userService.register(registerRequest);
+        } catch (RuntimeException e) {
+            systemEvents.record(EventType.USER_REGISTER_FAILED, null,
+                    "email=" + registerRequest.email() + ", motivo=" + e.getMessage());
+            throw e;
+        }
 
         AuthResult result = authenticateAndBuildAuthResult(registerRequest.email(), registerRequest.password());
 
         String token = result.token;
         UserEntity user = result.user;
+        systemEvents.record(EventType.USER_REGISTER_SUCCESS, user.getId(), null);
 
         log.info("Usuario registrado y autenticado: {}", registerRequest.email());
 
@@ -116,18 +135,21 @@ public class AuthServiceImpl implements IAuthService {
         try {
             log.info("Intentando renovar token");
 
-            String email = jwtService.extractUsername(refreshToken);
+            VerifiedJwt verified = jwtService.parse(refreshToken);
+            String email = verified.username();
             if (email == null) {
                 throw new InvalidPasswordException("Token inválido");
             }
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            if (!jwtService.isTokenValid(refreshToken, userDetails)) {
+            // Una sola consulta: la cuenta debe seguir activa y, si el token trae versión de
+            // seguridad, coincidir con la actual (contraseña cambiada, bloqueo o eliminación la incrementan)
+            UserEntity user = userDetailsService.getUserEntityByEmail(email);
+            if (!verified.isValidFor(user) || !user.isEnabled() || user.isAccountLocked()
+                    || !isCurrentSecurityVersion(verified, user)) {
                 throw new InvalidPasswordException("Token inválido");
             }
 
-            String newToken = jwtService.generateToken(userDetails);
-            UserEntity user = userDetailsService.getUserEntityByEmail(email);
+            String newToken = jwtService.generateToken(user);
 
             log.info("Token renovado exitosamente para: {}", email);
 
@@ -158,8 +180,11 @@ public class AuthServiceImpl implements IAuthService {
 
         // Generar token JWT para el usuario
         UserEntity user = userDetailsService.getUserEntityByEmail(email);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-        String token = jwtService.generateToken(userDetails);
+        if (user.isAccountLocked() || !user.isEnabled()) {
+            log.warn("Usuario bloqueado o inhabilitado al verificar 2FA: {}", email);
+            throw new BlockedAccountException(email);
+        }
+        String token = jwtService.generateToken(user);
 
         log.info("Código 2FA verificado exitosamente para: {}", email);
 
@@ -186,9 +211,15 @@ public class AuthServiceImpl implements IAuthService {
         assert userDetails != null;
         UserEntity user = userDetailsService.getUserEntityByEmail(userDetails.getUsername());
 
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user);
 
         return new AuthResult(token, user);
     }
 
+    // Los tokens emitidos antes del claim sv no traen versión y se aceptan hasta que expiran
+    private boolean isCurrentSecurityVersion(VerifiedJwt verified, UserEntity user) {
+        Integer version = verified.securityVersion();
+        return version == null || version == user.getSecurityVersion();
+    }
+
 }
\ No newline at end of file
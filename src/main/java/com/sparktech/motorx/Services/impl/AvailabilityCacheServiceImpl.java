@@ -0,0 +1,197 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IAvailabilityCacheService;
+import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché en memoria de disponibilidad, acotado por TTL y por número de entradas.
+ * Las métricas se publican en Actuator como cache.gets (result=hit|miss), cache.puts,
+ * cache.evictions y cache.size con el tag cache=availability.
+ */
+@Service
+@Slf4j
+public class AvailabilityCacheServiceImpl implements IAvailabilityCacheService, MeterBinder {
+
+    private static final String CACHE_NAME = "availability";
+    private static final ZoneId WORKSHOP_ZONE = ZoneId.of("America/Bogota");
+
+    @Value("${motorx.availability-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${motorx.availability-cache.max-entries:1000}")
+    private int maxEntries;
+
+    // Estructura: (fecha, tipo) -> (respuesta, expiración)
+    private final Map<CacheKey, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    // Se incrementa en cada invalidación; evita cachear respuestas calculadas antes de un cambio
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Override
+    public AvailableSlotsResponseDTO get(LocalDate date, AppointmentType type) {
+        CacheKey key = new CacheKey(date, type);
+        CacheEntry entry = cache.get(key);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.isExpired()) {
+            if (cache.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.response();
+    }
+
+    @Override
+    public long currentVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void put(LocalDate date, AppointmentType type, AvailableSlotsResponseDTO response, long expectedVersion) {
+        // Los slots de hoy dependen de la hora actual: no se cachean
+        if (!date.isAfter(LocalDate.now(WORKSHOP_ZONE)) || version.get() != expectedVersion) {
+            return;
+        }
+
+        if (cache.size() >= maxEntries) {
+            evictToFit();
+        }
+
+        CacheKey key = new CacheKey(date, type);
+        CacheEntry entry = new CacheEntry(response, System.currentTimeMillis() + ttlSeconds * 1000);
+        cache.put(key, entry);
+        puts.increment();
+
+        // Si una invalidación se cruzó con la escritura, se descarta la entrada recién puesta
+        if (version.get() != expectedVersion) {
+            cache.remove(key, entry);
+        }
+    }
+
+    @Override
+    public void invalidate(LocalDate date) {
+        version.incrementAndGet();
+        int removed = 0;
+        for (AppointmentType type : AppointmentType.values()) {
+            if (cache.remove(new CacheKey(date, type)) != null) removed++;
+        }
+        log.debug("Caché de disponibilidad invalidado para {} ({} entradas)", date, removed);
+    }
+
+    @Override
+    public void invalidateAll() {
+        version.incrementAndGet();
+        cache.clear();
+        log.debug("Caché de disponibilidad invalidado por completo");
+    }
+
+    // ---------------------------------------------------------------
+    // INVALIDACIÓN (después del commit de cada cambio)
+    // El índice de ocupación se actualiza antes (tiene mayor precedencia),
+    // así la siguiente lectura recalcula con la ocupación ya corregida.
+    // ---------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        invalidate(event.appointmentDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        invalidateAll();
+    }
+
+    // ---------------------------------------------------------------
+    // MÉTRICAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Consultas de disponibilidad respondidas desde el caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Consultas de disponibilidad que tuvieron que calcularse")
+                .register(registry);
+        FunctionCounter.builder("cache.puts", puts, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .description("Entradas expulsadas por expiración o por tamaño máximo")
+                .register(registry);
+        Gauge.builder("cache.size", cache, Map::size)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    /**
+     * Primero limpia las entradas expiradas; si aún no hay espacio,
+     * expulsa la entrada más próxima a expirar.
+     */
+    private void evictToFit() {
+        cache.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().isExpired();
+            if (expired) evictions.increment();
+            return expired;
+        });
+
+        while (!cache.isEmpty() && cache.size() >= maxEntries) {
+            cache.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()))
+                    .ifPresent(oldest -> {
+                        if (cache.remove(oldest.getKey(), oldest.getValue())) {
+                            evictions.increment();
+                        }
+                    });
+        }
+    }
+
+    private record CacheKey(LocalDate date, AppointmentType type) {
+    }
+
+    private record CacheEntry(AvailableSlotsResponseDTO response, long expiresAtMillis) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAtMillis;
+        }
+    }
+}
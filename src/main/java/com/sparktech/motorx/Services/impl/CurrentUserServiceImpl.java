@@ -3,6 +3,7 @@ package com.sparktech.motorx.Services.impl;
 import com.sparktech.motorx.Services.ICurrentUserService;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,17 +17,38 @@ public class CurrentUserServiceImpl implements ICurrentUserService {
 
     @Override
     public UserEntity getAuthenticatedUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new IllegalStateException("No hay usuario autenticado.");
-        }
+        Authentication authentication = currentAuthentication();
         Object principal = authentication.getPrincipal();
         if (principal instanceof UserEntity userEntity) {
             return userEntity;
         }
+        if (principal instanceof AuthenticatedUser user) {
+            return jpaUserRepository.findById(user.id())
+                    .orElseThrow(() -> new IllegalArgumentException("Usuario autenticado no encontrado: " + user.email()));
+        }
         String email = authentication.getName();
         return jpaUserRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("Usuario autenticado no encontrado: " + email));
     }
-}
 
+    @Override
+    public Long getAuthenticatedUserId() {
+        Object principal = currentAuthentication().getPrincipal();
+        if (principal instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        if (principal instanceof UserEntity userEntity) {
+            return userEntity.getId();
+        }
+        // Tokens sin claim uid: se resuelve por email
+        return getAuthenticatedUser().getId();
+    }
+
+    private Authentication currentAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new IllegalStateException("No hay usuario autenticado.");
+        }
+        return authentication;
+    }
+}
@@ -15,6 +15,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -87,6 +89,33 @@ public class EmailNotificationServiceImpl implements IEmailNotificationService {
         }
     }
 
+    @Override
+    @Async
+    public void sendBulkAppointmentsCreatedNotification(List<AppointmentNotificationDTO> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        AppointmentNotificationDTO first = appointments.getFirst();
+        String clientEmail = first.clientEmail();
+        String subject = "Citas agendadas - " + appointments.size() + " vehículos";
+        StringBuilder body = new StringBuilder(HOLA + first.clientName() + ",\n\n" +
+                "Se agendaron exitosamente las siguientes citas:\n\n");
+        for (AppointmentNotificationDTO appointment : appointments) {
+            body.append("- ").append(appointment.appointmentDate())
+                    .append(" ").append(appointment.startTime())
+                    .append(" | ").append(appointment.appointmentType())
+                    .append(" | ").append(appointment.vehicleBrand()).append(" ")
+                    .append(appointment.vehicleModel())
+                    .append(" (").append(appointment.licensePlate()).append(")\n");
+        }
+        body.append("\n¡Te esperamos!\n\nJmmotoservicio");
+        try {
+            sendMail(new EmailDTO(subject, body.toString(), clientEmail));
+        } catch (Exception e) {
+            log.error("Error sending bulk appointments created notification to: {}", clientEmail, e);
+        }
+    }
+
     @Override
     @Async
     public void sendAppointmentCancelledNotification(AppointmentNotificationDTO appointment, String reason) {
@@ -4,6 +4,7 @@ import com.sparktech.motorx.Services.IEmployeeService;
 import com.sparktech.motorx.dto.employee.CreateEmployeeRequestDTO;
 import com.sparktech.motorx.dto.employee.EmployeeResponseDTO;
 import com.sparktech.motorx.dto.employee.UpdateEmployeeRequestDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.TransferVehicleOwnershipRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 import com.sparktech.motorx.entity.EmployeeEntity;
@@ -11,15 +12,22 @@ import com.sparktech.motorx.entity.EmployeeState;
 import com.sparktech.motorx.entity.Role;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.entity.VehicleEntity;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
 import com.sparktech.motorx.exception.EmployeeNotFoundException;
 import com.sparktech.motorx.exception.VehicleAlreadyOwnedException;
 import com.sparktech.motorx.exception.VehicleNotFoundException;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.mapper.EmployeeMapper;
 import com.sparktech.motorx.mapper.VehicleMapper;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
 import com.sparktech.motorx.repository.JpaEmployeeRepository;
 import com.sparktech.motorx.repository.JpaUserRepository;
 import com.sparktech.motorx.repository.JpaVehicleRepository;
+import com.sparktech.motorx.repository.projection.CreatedAtKeyset;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,9 +41,12 @@ public class EmployeeServiceImpl implements IEmployeeService {
     private final JpaEmployeeRepository employeeRepository;
     private final JpaUserRepository userRepository;
     private final JpaVehicleRepository vehicleRepository;
+    private final JpaAppointmentRepository appointmentRepository;
     private final EmployeeMapper employeeMapper;
     private final VehicleMapper vehicleMapper;
+    private final CursorPageMapper cursorPageMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ---------------------------------------------------------------
     // CRUD DE EMPLEADOS
@@ -72,7 +83,9 @@ public class EmployeeServiceImpl implements IEmployeeService {
         employee.setState(EmployeeState.AVAILABLE);
         employee.setUser(savedUser);
 
-        return employeeMapper.toResponseDTO(employeeRepository.save(employee));
+        EmployeeEntity savedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(savedEmployee.getId()));
+        return employeeMapper.toResponseDTO(savedEmployee);
     }
 
     @Override
@@ -101,7 +114,9 @@ public class EmployeeServiceImpl implements IEmployeeService {
         employee.setPosition(request.position());
         employee.setState(request.state());
 
-        return employeeMapper.toResponseDTO(employeeRepository.save(employee));
+        EmployeeEntity savedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employeeId));
+        return employeeMapper.toResponseDTO(savedEmployee);
     }
 
     @Override
@@ -113,6 +128,7 @@ public class EmployeeServiceImpl implements IEmployeeService {
         // Eliminamos primero el empleado; el usuario se elimina por
         // ON DELETE CASCADE definido en la FK fk_employees_user del esquema SQL.
         employeeRepository.delete(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employeeId));
     }
 
     // ---------------------------------------------------------------
@@ -161,7 +177,11 @@ public class EmployeeServiceImpl implements IEmployeeService {
 
         // Realizar la transferencia
         vehicle.setOwner(newOwner);
-        return vehicleMapper.toResponseDTO(vehicleRepository.save(vehicle));
+        VehicleResponseDTO response = vehicleMapper.toResponseDTO(vehicleRepository.save(vehicle));
+        // Las citas del vehículo pasan a otro historial de cliente
+        appointmentRepository.reassignOwnerByVehicleId(vehicleId, newOwner.getId());
+        eventPublisher.publishEvent(new ClientDataChangedEvent(newOwner.getId()));
+        return response;
     }
 
     @Override
@@ -173,6 +193,21 @@ public class EmployeeServiceImpl implements IEmployeeService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<VehicleResponseDTO> getAllVehiclesPage(String cursor, int size) {
+        Limit limit = cursorPageMapper.fetchLimit(size);
+        List<VehicleEntity> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = vehicleRepository.findPage(limit);
+        } else {
+            CreatedAtKeyset after = cursorPageMapper.decodeCreatedAtCursor(cursor);
+            rows = vehicleRepository.findPageAfter(after.createdAt(), after.id(), limit);
+        }
+        return cursorPageMapper.toPage(rows, size, vehicleMapper::toResponseDTO,
+                last -> cursorPageMapper.encodeCreatedAtCursor(last.getCreatedAt(), last.getId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public VehicleResponseDTO getVehicleById(Long vehicleId) {
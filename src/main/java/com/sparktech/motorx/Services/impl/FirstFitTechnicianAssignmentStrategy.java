@@ -0,0 +1,25 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ITechnicianAssignmentStrategy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primer técnico libre en orden de id (comportamiento original).
+ * Es la estrategia más barata, pero concentra la carga en los técnicos de id más bajo.
+ */
+@Service
+@ConditionalOnProperty(name = "motorx.assignment.strategy", havingValue = "first-fit")
+public class FirstFitTechnicianAssignmentStrategy implements ITechnicianAssignmentStrategy {
+
+    @Override
+    public List<Long> rank(LocalDate date, LocalTime startTime, List<Long> freeTechnicianIds,
+                           Map<Long, Long> pendingMinutes) {
+        return freeTechnicianIds;
+    }
+}
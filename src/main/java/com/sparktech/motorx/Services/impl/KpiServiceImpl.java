@@ -0,0 +1,316 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IKpiService;
+import com.sparktech.motorx.Services.IOccupancyIndexService;
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
+import com.sparktech.motorx.dto.kpi.KpiDashboardResponseDTO;
+import com.sparktech.motorx.dto.kpi.KpiMetric;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.EventType;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaDailyWorkshopStatsRepository;
+import com.sparktech.motorx.repository.JpaPasswordResetTokenRepository;
+import com.sparktech.motorx.repository.JpaSystemEventRepository;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.repository.projection.EventTypeCount;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Indicadores del tablero administrativo.
+ * <p>
+ * Ningún indicador carga entidades: ocupación y cancelación se leen del acumulado diario y el
+ * resto son agregados (COUNT / AVG) sobre su tabla. Los indicadores pedidos que no están en el
+ * caché se calculan en paralelo, cada uno con su propia conexión, en un pool acotado de hilos
+ * virtuales. El caché guarda el cálculo en curso, así dos pantallas que piden el mismo
+ * indicador y rango a la vez comparten una sola consulta. Las métricas se publican como
+ * cache.gets, cache.evictions y cache.size con el tag cache=kpi.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KpiServiceImpl implements IKpiService, MeterBinder {
+
+    private static final String CACHE_NAME = "kpi";
+
+    // Un año y un día: permite comparar un año completo incluyendo un 29 de febrero
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final JpaDailyWorkshopStatsRepository statsRepository;
+    private final JpaAppointmentRepository appointmentRepository;
+    private final JpaSystemEventRepository systemEventRepository;
+    private final JpaUserRepository userRepository;
+    private final JpaPasswordResetTokenRepository passwordResetTokenRepository;
+    private final IOccupancyIndexService occupancyIndex;
+    private final IScheduleTemplateService scheduleTemplates;
+    private final IWorkingDayCalendarService workingDayCalendar;
+
+    @Value("${motorx.kpi.cache-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${motorx.kpi.cache-max-entries:500}")
+    private int maxEntries;
+
+    @Value("${motorx.kpi.parallelism:4}")
+    private int parallelism;
+
+    // Acota las consultas simultáneas del tablero para no agotar el pool de conexiones
+    private ExecutorService executor;
+
+    // Estructura: (indicador, rango) -> (cálculo en curso o terminado, expiración)
+    private final Map<CacheKey, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("kpi-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public KpiDashboardResponseDTO getDashboard(LocalDate start, LocalDate end, Set<KpiMetric> metrics) {
+        validateRange(start, end);
+        Set<KpiMetric> requested = metrics == null || metrics.isEmpty()
+                ? EnumSet.allOf(KpiMetric.class)
+                : EnumSet.copyOf(metrics);
+
+        // Primero se lanzan todos; luego se esperan
+        Map<KpiMetric, CompletableFuture<Double>> pending = new EnumMap<>(KpiMetric.class);
+        for (KpiMetric metric : requested) {
+            pending.put(metric, cached(new CacheKey(metric, start, end)));
+        }
+
+        Map<KpiMetric, Double> values = new EnumMap<>(KpiMetric.class);
+        pending.forEach((metric, future) -> values.put(metric, await(future)));
+        return new KpiDashboardResponseDTO(start, end, Collections.unmodifiableMap(values));
+    }
+
+    // ---------------------------------------------------------------
+    // CÁLCULO DE CADA INDICADOR
+    // ---------------------------------------------------------------
+
+    private Double compute(KpiMetric metric, LocalDate start, LocalDate end) {
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime to = end.atTime(LocalTime.MAX);
+
+        return switch (metric) {
+            case OCCUPANCY_RATE -> percentage(
+                    statsRepository.sumReservedMinutesBetween(start, end),
+                    capacityMinutes(start, end));
+            case CANCELLATION_RATE -> percentage(
+                    statsRepository.countByStatusBetween(AppointmentStatus.CANCELLED, start, end),
+                    statsRepository.countAllBetween(start, end));
+            case CONFLICT_RATE -> {
+                Map<EventType, Long> counts = countEvents(
+                        EnumSet.of(EventType.APPOINTMENT_CONFLICT, EventType.APPOINTMENT_CREATED), from, to);
+                long conflicts = counts.getOrDefault(EventType.APPOINTMENT_CONFLICT, 0L);
+                yield percentage(conflicts, conflicts + counts.getOrDefault(EventType.APPOINTMENT_CREATED, 0L));
+            }
+            case FAILED_REGISTRATION_RATE -> {
+                Map<EventType, Long> counts = countEvents(
+                        EnumSet.of(EventType.USER_REGISTER_FAILED, EventType.USER_REGISTER_ATTEMPT), from, to);
+                yield percentage(
+                        counts.getOrDefault(EventType.USER_REGISTER_FAILED, 0L),
+                        counts.getOrDefault(EventType.USER_REGISTER_ATTEMPT, 0L));
+            }
+            case REGISTERED_USERS -> (double) userRepository.countUsersRegisteredBetween(from, to);
+            case AVERAGE_LEAD_TIME_HOURS -> {
+                Double minutes = appointmentRepository.averageLeadMinutesCreatedBetween(from, to);
+                yield minutes == null ? null : round(minutes / 60);
+            }
+            case AVERAGE_PASSWORD_RECOVERY_MINUTES -> {
+                Double minutes = passwordResetTokenRepository.averageRecoveryMinutesBetween(from, to);
+                yield minutes == null ? null : round(minutes);
+            }
+        };
+    }
+
+    /**
+     * Minutos de trabajo disponibles en el rango: días hábiles × técnicos activos × jornada
+     * sin almuerzo de la plantilla activa. Usa los técnicos y la plantilla de hoy también
+     * para rangos pasados (no hay historial de plantilla por día).
+     */
+    private long capacityMinutes(LocalDate start, LocalDate end) {
+        IScheduleTemplateService.Schedule schedule = scheduleTemplates.current();
+        long minutesPerDay = Duration.between(schedule.workStart(), schedule.workEnd()).toMinutes()
+                - Duration.between(schedule.lunchStart(), schedule.lunchEnd()).toMinutes();
+
+        long workingDays = start.datesUntil(end.plusDays(1))
+                .filter(workingDayCalendar::isWorkingDay)
+                .count();
+
+        return workingDays * occupancyIndex.getActiveTechnicianIds().size() * minutesPerDay;
+    }
+
+    private Map<EventType, Long> countEvents(Set<EventType> types, LocalDateTime from, LocalDateTime to) {
+        Map<EventType, Long> counts = new EnumMap<>(EventType.class);
+        for (EventTypeCount row : systemEventRepository.countByEventTypesBetween(types, from, to)) {
+            counts.put(row.eventType(), row.count());
+        }
+        return counts;
+    }
+
+    // ---------------------------------------------------------------
+    // CACHÉ
+    // ---------------------------------------------------------------
+
+    private CompletableFuture<Double> cached(CacheKey key) {
+        CacheEntry current = cache.get(key);
+        if (current != null && !current.isExpired()) {
+            hits.increment();
+            return current.value();
+        }
+
+        if (cache.size() >= maxEntries) {
+            evictToFit();
+        }
+
+        CacheEntry fresh = new CacheEntry(new CompletableFuture<>(), System.currentTimeMillis() + ttlSeconds * 1000);
+        CacheEntry winner = cache.compute(key, (k, existing) ->
+                existing != null && !existing.isExpired() ? existing : fresh);
+        if (winner != fresh) {
+            // Otra petición lo puso entre el get y el compute: se comparte su cálculo
+            hits.increment();
+            return winner.value();
+        }
+
+        misses.increment();
+        CompletableFuture
+                .supplyAsync(() -> compute(key.metric(), key.start(), key.end()), executor)
+                .whenComplete((value, error) -> {
+                    if (error == null) {
+                        fresh.value().complete(value);
+                    } else {
+                        // Un error no se cachea: la siguiente petición lo reintenta
+                        cache.remove(key, fresh);
+                        log.warn("No se pudo calcular el indicador {} del {} al {}: {}",
+                                key.metric(), key.start(), key.end(), error.getMessage());
+                        fresh.value().completeExceptionally(error);
+                    }
+                });
+        return fresh.value();
+    }
+
+    /**
+     * Primero limpia las entradas expiradas; si aún no hay espacio,
+     * expulsa la entrada más próxima a expirar.
+     */
+    private void evictToFit() {
+        cache.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().isExpired();
+            if (expired) evictions.increment();
+            return expired;
+        });
+
+        while (!cache.isEmpty() && cache.size() >= maxEntries) {
+            cache.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()))
+                    .ifPresent(oldest -> {
+                        if (cache.remove(oldest.getKey(), oldest.getValue())) {
+                            evictions.increment();
+                        }
+                    });
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // MÉTRICAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Indicadores respondidos desde el caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Indicadores que tuvieron que calcularse")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .description("Entradas expulsadas por expiración o por tamaño máximo")
+                .register(registry);
+        Gauge.builder("cache.size", cache, Map::size)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private void validateRange(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la fecha inicial.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) + 1 > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException(
+                    "El rango de los indicadores no puede superar " + MAX_RANGE_DAYS + " días.");
+        }
+    }
+
+    private static Double await(CompletableFuture<Double> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // null si no hay denominador: "sin datos" no es lo mismo que 0 %
+    private static Double percentage(long part, long total) {
+        return total == 0 ? null : round(part * 100.0 / total);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private record CacheKey(KpiMetric metric, LocalDate start, LocalDate end) {
+    }
+
+    private record CacheEntry(CompletableFuture<Double> value, long expiresAtMillis) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAtMillis;
+        }
+    }
+}
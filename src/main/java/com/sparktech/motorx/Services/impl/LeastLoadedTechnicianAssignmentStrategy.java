@@ -0,0 +1,161 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ITechnicianAssignmentStrategy;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.projection.TechnicianBookedMinutes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prefiere al técnico libre con menos minutos reservados en el día (o en la semana,
+ * con motorx.assignment.load-window=week). A igual carga se conserva el orden por id.
+ * <p>
+ * La carga de cada ventana se lee con una sola consulta agrupada y luego se mantiene
+ * como contador en memoria con los eventos de cita; expira cada load-ttl-seconds para
+ * recoger cambios hechos por otras instancias.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "motorx.assignment.strategy", havingValue = "least-loaded", matchIfMissing = true)
+public class LeastLoadedTechnicianAssignmentStrategy implements ITechnicianAssignmentStrategy {
+
+    private static final String WEEK_WINDOW = "week";
+    // Mismos estados que excluye sumBookedMinutesByTechnicianBetween
+    private static final Set<AppointmentStatus> INACTIVE_STATUSES =
+            Set.of(AppointmentStatus.CANCELLED, AppointmentStatus.REJECTED, AppointmentStatus.NO_SHOW);
+
+    private final JpaAppointmentRepository appointmentRepository;
+
+    @Value("${motorx.assignment.load-window:day}")
+    private String loadWindow;
+
+    @Value("${motorx.assignment.load-ttl-seconds:300}")
+    private long loadTtlSeconds;
+
+    // Estructura: inicio de la ventana (el día, o el lunes de la semana) -> minutos por técnico
+    private final Map<LocalDate, WindowLoad> windows = new ConcurrentHashMap<>();
+
+    // Se incrementa en cada evento aplicado; evita guardar una carga que se cruzó con un commit
+    private final AtomicLong mutations = new AtomicLong();
+
+    @Override
+    public List<Long> rank(LocalDate date, LocalTime startTime, List<Long> freeTechnicianIds,
+                           Map<Long, Long> pendingMinutes) {
+        if (freeTechnicianIds.size() <= 1) {
+            return freeTechnicianIds;
+        }
+
+        WindowLoad load = loadFor(date);
+        List<Long> ranked = new ArrayList<>(freeTechnicianIds);
+        // List.sort es estable: los empates conservan el orden ascendente de id
+        ranked.sort(Comparator.comparingLong(technicianId ->
+                load.minutes(technicianId) + pendingMinutes.getOrDefault(technicianId, 0L)));
+        return ranked;
+    }
+
+    // ---------------------------------------------------------------
+    // ACTUALIZACIÓN INCREMENTAL (después del commit de cada cambio)
+    // ---------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        mutations.incrementAndGet();
+        WindowLoad load = windows.get(windowStart(event.appointmentDate()));
+        if (load == null) {
+            return; // Ventana no cargada: se leerá completa de la BD cuando se necesite
+        }
+
+        long minutes = ChronoUnit.MINUTES.between(event.startTime(), event.endTime());
+        switch (event.changeType()) {
+            case CREATED -> {
+                if (!INACTIVE_STATUSES.contains(event.status())) {
+                    load.add(event.technicianId(), minutes);
+                }
+            }
+            case CANCELLED -> {
+                // Una cita ya inactiva no sumaba minutos a la carga
+                if (event.previousStatus() == null || !INACTIVE_STATUSES.contains(event.previousStatus())) {
+                    load.add(event.technicianId(), -minutes);
+                }
+            }
+            case TECHNICIAN_CHANGED -> {
+                if (!INACTIVE_STATUSES.contains(event.status())) {
+                    load.add(event.previousTechnicianId(), -minutes);
+                    load.add(event.technicianId(), minutes);
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private WindowLoad loadFor(LocalDate date) {
+        LocalDate start = windowStart(date);
+        WindowLoad cached = windows.get(start);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        long mutationsBefore = mutations.get();
+        LocalDate end = WEEK_WINDOW.equalsIgnoreCase(loadWindow) ? start.plusDays(6) : start;
+        Map<Long, AtomicLong> minutesByTechnician = new ConcurrentHashMap<>();
+        for (TechnicianBookedMinutes row : appointmentRepository.sumBookedMinutesByTechnicianBetween(start, end)) {
+            minutesByTechnician.put(row.technicianId(), new AtomicLong(row.bookedMinutes()));
+        }
+        WindowLoad loaded = new WindowLoad(minutesByTechnician, System.currentTimeMillis() + loadTtlSeconds * 1000);
+
+        // Si un evento se aplicó durante la lectura, se usa la carga pero no se guarda
+        if (mutations.get() == mutationsBefore) {
+            windows.values().removeIf(WindowLoad::isExpired);
+            windows.put(start, loaded);
+        }
+        log.debug("Carga de técnicos leída para la ventana {} - {}: {}", start, end, minutesByTechnician);
+        return loaded;
+    }
+
+    private LocalDate windowStart(LocalDate date) {
+        return WEEK_WINDOW.equalsIgnoreCase(loadWindow)
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date;
+    }
+
+    private record WindowLoad(Map<Long, AtomicLong> minutesByTechnician, long expiresAtMillis) {
+
+        long minutes(Long technicianId) {
+            AtomicLong minutes = minutesByTechnician.get(technicianId);
+            return minutes != null ? minutes.get() : 0L;
+        }
+
+        void add(Long technicianId, long delta) {
+            if (technicianId != null) {
+                minutesByTechnician.computeIfAbsent(technicianId, id -> new AtomicLong()).addAndGet(delta);
+            }
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAtMillis;
+        }
+    }
+}
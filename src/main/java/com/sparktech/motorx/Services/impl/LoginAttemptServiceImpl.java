@@ -0,0 +1,367 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ILoginAttemptService;
+import com.sparktech.motorx.Services.ISystemEventService;
+import com.sparktech.motorx.entity.EventType;
+import com.sparktech.motorx.entity.Role;
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
+import com.sparktech.motorx.exception.TooManyLoginAttemptsException;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Contadores de intentos de login fallidos en ventana deslizante, por email y por IP.
+ * <p>
+ * Cada clave tiene un {@link SlidingWindowCounter}: la ventana se reparte en franjas y cada
+ * franja es una celda de un AtomicLongArray que guarda (franja, fallos) y se actualiza con CAS,
+ * sin locks. Los mapas de claves son ConcurrentHashMap, así dos logins de claves distintas no
+ * compiten. Al llegar al umbral la clave queda bloqueada lockout-seconds; tras
+ * account-lock-after-lockouts bloqueos de un mismo email se marca la cuenta como bloqueada
+ * en la BD (salvo ADMIN, que solo recibe bloqueos temporales para no dejar el taller sin
+ * administrador). Los eventos LOGIN_FAILED siguen yendo al escritor asíncrono de system_events.
+ * <p>
+ * El estado es por instancia: con varias instancias detrás de un balanceador los umbrales
+ * aplican a cada una por separado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginAttemptServiceImpl implements ILoginAttemptService, MeterBinder {
+
+    // Franjas en que se divide la ventana: a más franjas, menos se "adelanta" el olvido de un fallo
+    static final int WINDOW_SLICES = 15;
+
+    private final JpaUserRepository userRepository;
+    private final ISystemEventService systemEvents;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${motorx.login-attempts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${motorx.login-attempts.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${motorx.login-attempts.email-threshold:5}")
+    private int emailThreshold;
+
+    @Value("${motorx.login-attempts.ip-threshold:20}")
+    private int ipThreshold;
+
+    @Value("${motorx.login-attempts.lockout-seconds:900}")
+    private long lockoutSeconds;
+
+    @Value("${motorx.login-attempts.account-lock-after-lockouts:3}")
+    private int accountLockAfterLockouts;
+
+    @Value("${motorx.login-attempts.lockout-memory-seconds:86400}")
+    private long lockoutMemorySeconds;
+
+    @Value("${motorx.login-attempts.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    // Reloj en milisegundos; los tests lo reemplazan
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<String, SlidingWindowCounter> emailCounters = new ConcurrentHashMap<>();
+    private final Map<String, SlidingWindowCounter> ipCounters = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private long sliceMillis;
+    private long lockoutMillis;
+    private long lockoutMemoryMillis;
+    private TransactionTemplate transactionTemplate;
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder emailLockouts = new LongAdder();
+    private final LongAdder ipLockouts = new LongAdder();
+    private final LongAdder accountsLocked = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        if (windowSeconds < 1 || emailThreshold < 1 || ipThreshold < 1 || lockoutSeconds < 1) {
+            throw new IllegalStateException(
+                    "motorx.login-attempts: window-seconds, umbrales y lockout-seconds deben ser al menos 1.");
+        }
+        sliceMillis = Math.max(1, windowSeconds * 1000 / WINDOW_SLICES);
+        lockoutMillis = lockoutSeconds * 1000;
+        lockoutMemoryMillis = Math.max(lockoutMemorySeconds * 1000, sliceMillis * WINDOW_SLICES);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void checkAllowed(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long until = Math.max(lockedUntil(emailCounters, emailKey(email)), lockedUntil(ipCounters, clientIp));
+        if (until > now) {
+            rejected.increment();
+            throw new TooManyLoginAttemptsException(Math.ceilDiv(until - now, 1000));
+        }
+    }
+
+    @Override
+    public void recordFailure(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        failures.increment();
+        long now = clock.getAsLong();
+        long slice = now / sliceMillis;
+
+        String key = emailKey(email);
+        SlidingWindowCounter byEmail = counter(emailCounters, key, now);
+        if (byEmail != null && byEmail.increment(slice, now) >= emailThreshold && byEmail.lockUntil(now, now + lockoutMillis)) {
+            emailLockouts.increment();
+            log.warn("Login bloqueado {} s para el email {} por intentos fallidos", lockoutSeconds, key);
+            if (byEmail.lockouts() >= accountLockAfterLockouts) {
+                byEmail.resetLockouts();
+                lockAccount(key);
+            }
+        }
+
+        SlidingWindowCounter byIp = counter(ipCounters, clientIp, now);
+        if (byIp != null && byIp.increment(slice, now) >= ipThreshold && byIp.lockUntil(now, now + lockoutMillis)) {
+            ipLockouts.increment();
+            log.warn("Login bloqueado {} s para la IP {} por intentos fallidos", lockoutSeconds, clientIp);
+        }
+    }
+
+    @Override
+    public void recordSuccess(String email) {
+        if (enabled && email != null) {
+            emailCounters.remove(emailKey(email));
+        }
+    }
+
+    /**
+     * Libera las claves sin fallos recientes ni bloqueo vigente. Las que acumularon bloqueos
+     * se conservan lockout-memory-seconds para poder escalar al bloqueo de la cuenta.
+     */
+    @Scheduled(
+            initialDelayString = "${motorx.login-attempts.cleanup-interval-ms:60000}",
+            fixedDelayString = "${motorx.login-attempts.cleanup-interval-ms:60000}"
+    )
+    public void evictIdle() {
+        evictionLock.lock();
+        try {
+            evictIdle(clock.getAsLong());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // MÉTRICAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        FunctionCounter.builder("login.attempts.failed", failures, LongAdder::sum)
+                .description("Intentos de login con credenciales inválidas")
+                .register(registry);
+        FunctionCounter.builder("login.attempts.rejected", rejected, LongAdder::sum)
+                .description("Intentos de login rechazados por un bloqueo temporal, sin verificar la contraseña")
+                .register(registry);
+        FunctionCounter.builder("login.lockouts", emailLockouts, LongAdder::sum)
+                .tag("key", "email")
+                .description("Bloqueos temporales aplicados")
+                .register(registry);
+        FunctionCounter.builder("login.lockouts", ipLockouts, LongAdder::sum)
+                .tag("key", "ip")
+                .description("Bloqueos temporales aplicados")
+                .register(registry);
+        FunctionCounter.builder("login.accounts.locked", accountsLocked, LongAdder::sum)
+                .description("Cuentas bloqueadas por bloqueos temporales repetidos")
+                .register(registry);
+        FunctionCounter.builder("login.attempts.untracked", untracked, LongAdder::sum)
+                .description("Fallos no contados porque se alcanzó max-tracked-keys")
+                .register(registry);
+        Gauge.builder("login.attempts.tracked", emailCounters, Map::size)
+                .tag("key", "email")
+                .description("Claves con contador de fallos en memoria")
+                .register(registry);
+        Gauge.builder("login.attempts.tracked", ipCounters, Map::size)
+                .tag("key", "ip")
+                .description("Claves con contador de fallos en memoria")
+                .register(registry);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private static String emailKey(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long lockedUntil(Map<String, SlidingWindowCounter> counters, String key) {
+        SlidingWindowCounter counter = key == null ? null : counters.get(key);
+        return counter == null ? 0 : counter.lockedUntil();
+    }
+
+    /**
+     * Contador de la clave, creándolo si hace falta. Con el mapa lleno intenta liberar claves
+     * inactivas; si sigue lleno devuelve null y el fallo no se cuenta para esa clave.
+     */
+    private SlidingWindowCounter counter(Map<String, SlidingWindowCounter> counters, String key, long now) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+        SlidingWindowCounter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= maxTrackedKeys) {
+            // Un solo hilo recorre el mapa; los demás no esperan
+            if (evictionLock.tryLock()) {
+                try {
+                    evictIdle(now);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            if (counters.size() >= maxTrackedKeys) {
+                untracked.increment();
+                return null;
+            }
+        }
+        return counters.computeIfAbsent(key, k -> new SlidingWindowCounter(WINDOW_SLICES));
+    }
+
+    private void evictIdle(long now) {
+        long windowMillis = sliceMillis * WINDOW_SLICES;
+        emailCounters.values().removeIf(counter -> counter.isIdle(now, windowMillis, lockoutMemoryMillis));
+        ipCounters.values().removeIf(counter -> counter.isIdle(now, windowMillis, lockoutMemoryMillis));
+    }
+
+    private void lockAccount(String email) {
+        try {
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = userRepository.lockAccountByEmail(email, Role.ADMIN);
+                if (rows > 0) {
+                    // El UPDATE no devuelve el id: la tabla de versiones se recarga completa tras el commit
+                    eventPublisher.publishEvent(new UserSecurityChangedEvent(null));
+                }
+                return rows;
+            });
+            if (updated != null && updated > 0) {
+                accountsLocked.increment();
+                log.warn("Cuenta {} bloqueada tras {} bloqueos temporales por intentos fallidos", email, accountLockAfterLockouts);
+                systemEvents.record(EventType.LOGIN_FAILED, null, "email=" + email + ", cuenta bloqueada por intentos fallidos");
+            }
+        } catch (RuntimeException e) {
+            log.error("No se pudo bloquear la cuenta {}: {}", email, e.getMessage());
+        }
+    }
+
+    /**
+     * Fallos de una clave en ventana deslizante. Cada celda guarda en un long la franja
+     * (bits altos) y sus fallos (bits bajos); una celda con una franja vieja se reinicia
+     * en el mismo CAS que cuenta el fallo nuevo.
+     */
+    static final class SlidingWindowCounter {
+
+        private static final int COUNT_BITS = 20;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLongArray slices;
+        private final AtomicLong lockedUntil = new AtomicLong();
+        private final AtomicInteger lockouts = new AtomicInteger();
+        private volatile long lastFailure;
+
+        SlidingWindowCounter(int sliceCount) {
+            this.slices = new AtomicLongArray(sliceCount);
+        }
+
+        /**
+         * Cuenta un fallo en la franja indicada.
+         * @return Fallos dentro de la ventana, incluido este
+         */
+        int increment(long slice, long now) {
+            lastFailure = now;
+            int index = (int) Math.floorMod(slice, slices.length());
+            while (true) {
+                long current = slices.get(index);
+                long next = (current >>> COUNT_BITS) == slice
+                        ? current + ((current & COUNT_MASK) < COUNT_MASK ? 1 : 0)
+                        : (slice << COUNT_BITS) | 1;
+                if (next == current || slices.compareAndSet(index, current, next)) {
+                    break;
+                }
+            }
+            return count(slice);
+        }
+
+        int count(long slice) {
+            long oldest = slice - slices.length() + 1;
+            int total = 0;
+            for (int i = 0; i < slices.length(); i++) {
+                long cell = slices.get(i);
+                if ((cell >>> COUNT_BITS) >= oldest) {
+                    total += (int) (cell & COUNT_MASK);
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Bloquea hasta until si no hay un bloqueo vigente.
+         * @return true si este llamado aplicó el bloqueo (uno solo entre hilos concurrentes)
+         */
+        boolean lockUntil(long now, long until) {
+            long current = lockedUntil.get();
+            if (current > now || !lockedUntil.compareAndSet(current, until)) {
+                return false;
+            }
+            lockouts.incrementAndGet();
+            return true;
+        }
+
+        long lockedUntil() {
+            return lockedUntil.get();
+        }
+
+        int lockouts() {
+            return lockouts.get();
+        }
+
+        void resetLockouts() {
+            lockouts.set(0);
+        }
+
+        boolean isIdle(long now, long windowMillis, long lockoutMemoryMillis) {
+            long quiet = now - lastFailure;
+            return lockedUntil.get() <= now && quiet >= (lockouts.get() > 0 ? lockoutMemoryMillis : windowMillis);
+        }
+    }
+}
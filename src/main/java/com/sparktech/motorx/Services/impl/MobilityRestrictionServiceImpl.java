@@ -0,0 +1,161 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IMobilityRestrictionService;
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
+import com.sparktech.motorx.config.MobilityRestrictionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compila las reglas de pico y placa de la ciudad activa en dos niveles:
+ * <ul>
+ *   <li>Por vigencia: una máscara de dígitos por día de la semana (int[7]).</li>
+ *   <li>Por fecha: una tabla short[] desde una semana atrás hasta horizon-days adelante,
+ *       con vigencias, festivos nacionales (del calendario laboral) y exenciones de la
+ *       ciudad ya resueltos.</li>
+ * </ul>
+ * Las fechas fuera de la tabla se resuelven con las vigencias compiladas y el bitset de
+ * festivos del calendario. La tabla se recompila cada madrugada para que la ventana avance.
+ */
+@Service
+@Slf4j
+public class MobilityRestrictionServiceImpl implements IMobilityRestrictionService {
+
+    private static final ZoneId WORKSHOP_ZONE = ZoneId.of("America/Bogota");
+    private static final int DAYS_BEHIND = 7;
+
+    private final MobilityRestrictionProperties properties;
+    private final IWorkingDayCalendarService workingDayCalendar;
+
+    private volatile CompiledRules compiled;
+
+    public MobilityRestrictionServiceImpl(MobilityRestrictionProperties properties,
+                                          IWorkingDayCalendarService workingDayCalendar) {
+        this.properties = properties;
+        this.workingDayCalendar = workingDayCalendar;
+        this.compiled = compile(LocalDate.now(WORKSHOP_ZONE));
+    }
+
+    @Override
+    public boolean isRestricted(String plate, LocalDate date) {
+        if (plate == null) return false;
+
+        // Penúltimo carácter de la placa sin espacios en los extremos (equivale a trim() sin copiar)
+        int end = plate.length() - 1;
+        while (end >= 0 && plate.charAt(end) <= ' ') end--;
+        int start = 0;
+        while (start <= end && plate.charAt(start) <= ' ') start++;
+        if (end - start < 1) return false;
+
+        char digit = plate.charAt(end - 1);
+        if (digit < '0' || digit > '9') return false;
+
+        return (restrictedDigitsMask(date) & (1 << (digit - '0'))) != 0;
+    }
+
+    @Override
+    public int restrictedDigitsMask(LocalDate date) {
+        CompiledRules rules = compiled;
+        long epochDay = date.toEpochDay();
+        long offset = epochDay - rules.firstEpochDay();
+        if (offset >= 0 && offset < rules.masksByDate().length) {
+            return rules.masksByDate()[(int) offset];
+        }
+        // En Colombia el pico y placa no aplica en festivos
+        return workingDayCalendar.isPublicHoliday(date) ? 0 : rules.resolve(epochDay);
+    }
+
+    /** Desplaza la ventana de la tabla por fecha al día actual */
+    @Scheduled(cron = "0 5 0 * * *", zone = "America/Bogota")
+    public void recompile() {
+        compiled = compile(LocalDate.now(WORKSHOP_ZONE));
+    }
+
+    // ---------------------------------------------------------------
+    // COMPILACIÓN
+    // ---------------------------------------------------------------
+
+    private CompiledRules compile(LocalDate today) {
+        MobilityRestrictionProperties.CityRules city = properties.cities().get(properties.city());
+        if (city == null) {
+            log.warn("No hay reglas de pico y placa para la ciudad '{}'; no se aplicará restricción", properties.city());
+            city = new MobilityRestrictionProperties.CityRules(List.of(), List.of());
+        }
+
+        CompiledRule[] rules = city.rules().stream()
+                .map(MobilityRestrictionServiceImpl::compileRule)
+                .toArray(CompiledRule[]::new);
+        long[] holidays = city.holidays().stream()
+                .mapToLong(LocalDate::toEpochDay)
+                .sorted()
+                .distinct()
+                .toArray();
+
+        long firstEpochDay = today.minusDays(DAYS_BEHIND).toEpochDay();
+        CompiledRules withoutTable = new CompiledRules(firstEpochDay, new short[0], rules, holidays);
+        short[] masksByDate = new short[DAYS_BEHIND + properties.horizonDays() + 1];
+        for (int i = 0; i < masksByDate.length; i++) {
+            long epochDay = firstEpochDay + i;
+            masksByDate[i] = workingDayCalendar.isPublicHoliday(LocalDate.ofEpochDay(epochDay))
+                    ? 0
+                    : (short) withoutTable.resolve(epochDay);
+        }
+
+        log.info("Pico y placa compilado para '{}': {} vigencias, {} festivos, tabla desde {} ({} días)",
+                properties.city(), rules.length, holidays.length, LocalDate.ofEpochDay(firstEpochDay),
+                masksByDate.length);
+        return new CompiledRules(firstEpochDay, masksByDate, rules, holidays);
+    }
+
+    private static CompiledRule compileRule(MobilityRestrictionProperties.Rule rule) {
+        int[] masksByDay = new int[7];
+        for (Map.Entry<DayOfWeek, List<Integer>> entry : rule.digits().entrySet()) {
+            for (Integer digit : entry.getValue()) {
+                if (digit == null || digit < 0 || digit > 9) {
+                    throw new IllegalStateException(
+                            "Dígito de pico y placa inválido para " + entry.getKey() + ": " + digit);
+                }
+                masksByDay[entry.getKey().getValue() - 1] |= 1 << digit;
+            }
+        }
+        return new CompiledRule(
+                rule.validFrom() != null ? rule.validFrom().toEpochDay() : Long.MIN_VALUE,
+                rule.validTo() != null ? rule.validTo().toEpochDay() : Long.MAX_VALUE,
+                masksByDay
+        );
+    }
+
+    /**
+     * @param masksByDay Máscara por día de la semana; índice 0 = lunes
+     */
+    private record CompiledRule(long fromEpochDay, long toEpochDay, int[] masksByDay) {}
+
+    /**
+     * @param firstEpochDay Fecha (epoch day) de la posición 0 de masksByDate
+     * @param holidays      Festivos exentos en epoch days, ordenados
+     */
+    private record CompiledRules(long firstEpochDay, short[] masksByDate, CompiledRule[] rules, long[] holidays) {
+
+        int resolve(long epochDay) {
+            if (Arrays.binarySearch(holidays, epochDay) >= 0) {
+                return 0;
+            }
+            // El epoch day 0 (1970-01-01) fue jueves: +3 deja el lunes en el índice 0
+            int dayIndex = (int) Math.floorMod(epochDay + 3, 7L);
+            for (CompiledRule rule : rules) {
+                if (epochDay >= rule.fromEpochDay() && epochDay <= rule.toEpochDay()) {
+                    return rule.masksByDay()[dayIndex];
+                }
+            }
+            return 0;
+        }
+    }
+}
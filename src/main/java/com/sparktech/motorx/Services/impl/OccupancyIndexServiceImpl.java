@@ -0,0 +1,290 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IOccupancyIndexService;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaEmployeeRepository;
+import com.sparktech.motorx.repository.projection.TechnicianDaySlotOccupancy;
+import com.sparktech.motorx.repository.projection.TechnicianSlotOccupancy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OccupancyIndexServiceImpl implements IOccupancyIndexService {
+
+    private static final ZoneId WORKSHOP_ZONE = ZoneId.of("America/Bogota");
+    private static final Set<AppointmentStatus> INACTIVE_STATUSES =
+            Set.of(AppointmentStatus.CANCELLED, AppointmentStatus.REJECTED, AppointmentStatus.NO_SHOW);
+
+    private final JpaAppointmentRepository appointmentRepository;
+    private final JpaEmployeeRepository technicianRepository;
+
+    @Value("${motorx.occupancy.days-behind:1}")
+    private int daysBehind;
+
+    @Value("${motorx.occupancy.days-ahead:60}")
+    private int daysAhead;
+
+    // Estructura: fecha -> bitmap de ocupación del día (solo días dentro de la ventana)
+    private final Map<LocalDate, DayBitmap> days = new ConcurrentHashMap<>();
+
+    // Se incrementa en cada cambio aplicado; permite descartar cargas que se cruzaron con un commit
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong technicianChanges = new AtomicLong();
+
+    private volatile List<Long> activeTechnicianIds;
+
+    // ---------------------------------------------------------------
+    // LECTURA
+    // ---------------------------------------------------------------
+
+    @Override
+    public List<Long> getActiveTechnicianIds() {
+        List<Long> ids = activeTechnicianIds;
+        if (ids == null) {
+            long version = technicianChanges.get();
+            ids = List.copyOf(technicianRepository.findAllActiveIds());
+            if (technicianChanges.get() == version) {
+                activeTechnicianIds = ids;
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public DayOccupancy getDayOccupancy(LocalDate date) {
+        DayBitmap cached = days.get(date);
+        return cached != null ? cached : loadDay(date);
+    }
+
+    @Override
+    public Map<LocalDate, DayOccupancy> getOccupancyBetween(LocalDate start, LocalDate end) {
+        Map<LocalDate, DayOccupancy> result = new LinkedHashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            DayBitmap cached = days.get(date);
+            result.put(date, cached);
+            if (cached == null) {
+                if (firstMissing == null) firstMissing = date;
+                lastMissing = date;
+            }
+        }
+        if (firstMissing == null) {
+            return result;
+        }
+
+        // Una sola consulta para todo el tramo de días que faltan
+        long before = mutations.get();
+        Map<LocalDate, DayBitmap> loaded = new HashMap<>();
+        for (TechnicianDaySlotOccupancy slot :
+                appointmentRepository.findOccupiedTechnicianSlotsBetween(firstMissing, lastMissing)) {
+            loaded.computeIfAbsent(slot.appointmentDate(), d -> new DayBitmap())
+                    .set(slot.technicianId(), slot.startTime());
+        }
+        boolean cacheable = mutations.get() == before;
+
+        for (Map.Entry<LocalDate, DayOccupancy> entry : result.entrySet()) {
+            if (entry.getValue() == null) {
+                DayBitmap day = loaded.getOrDefault(entry.getKey(), new DayBitmap());
+                entry.setValue(cacheable ? cacheDay(entry.getKey(), day) : day);
+            }
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------
+    // ACTUALIZACIÓN (después del commit de cada cambio de cita)
+    // ---------------------------------------------------------------
+
+    // Precedencia alta: el índice debe estar al día antes de que se invalide el caché de disponibilidad
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        mutations.incrementAndGet();
+        DayBitmap day = days.get(event.appointmentDate());
+        if (day == null) {
+            return; // Día no cargado: se leerá completo de la BD cuando se consulte
+        }
+
+        switch (event.changeType()) {
+            case CREATED -> {
+                if (!INACTIVE_STATUSES.contains(event.status())) {
+                    day.set(event.technicianId(), event.startTime());
+                }
+            }
+            case CANCELLED -> {
+                // Una cita ya inactiva no ocupaba el slot: otra cita activa puede estar usándolo
+                if (event.previousStatus() == null || !INACTIVE_STATUSES.contains(event.previousStatus())) {
+                    day.clear(event.technicianId(), event.startTime());
+                }
+            }
+            case TECHNICIAN_CHANGED -> {
+                // Reasignar una cita inactiva no mueve ninguna ocupación
+                if (!INACTIVE_STATUSES.contains(event.status())) {
+                    day.clear(event.previousTechnicianId(), event.startTime());
+                    day.set(event.technicianId(), event.startTime());
+                }
+            }
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        technicianChanges.incrementAndGet();
+        activeTechnicianIds = null;
+    }
+
+    // ---------------------------------------------------------------
+    // MANTENIMIENTO
+    // ---------------------------------------------------------------
+
+    /**
+     * Recarga los días cargados desde la BD y reemplaza los que tengan desfase
+     * (cambios hechos por otra instancia o eventos perdidos). También descarta
+     * los días que ya salieron de la ventana.
+     */
+    @Override
+    @Scheduled(
+            initialDelayString = "${motorx.occupancy.reconcile-interval-ms:300000}",
+            fixedDelayString = "${motorx.occupancy.reconcile-interval-ms:300000}"
+    )
+    public int reconcile() {
+        days.keySet().removeIf(date -> !isInWindow(date));
+
+        int drifted = 0;
+        for (Map.Entry<LocalDate, DayBitmap> entry : days.entrySet()) {
+            long before = mutations.get();
+            DayBitmap fresh = DayBitmap.of(appointmentRepository.findOccupiedTechnicianSlotsByDate(entry.getKey()));
+            if (mutations.get() != before) {
+                continue; // Hubo cambios durante la lectura: se revisa en la próxima pasada
+            }
+            if (!fresh.sameAs(entry.getValue())) {
+                days.replace(entry.getKey(), entry.getValue(), fresh);
+                drifted++;
+            }
+        }
+
+        technicianChanges.incrementAndGet();
+        activeTechnicianIds = null;
+
+        if (drifted > 0) {
+            log.warn("Índice de ocupación: {} día(s) corregidos contra la BD", drifted);
+        }
+        return drifted;
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private DayBitmap loadDay(LocalDate date) {
+        long before = mutations.get();
+        DayBitmap loaded = DayBitmap.of(appointmentRepository.findOccupiedTechnicianSlotsByDate(date));
+
+        // Solo se cachea si ningún cambio se aplicó mientras se leía la BD
+        return mutations.get() == before ? cacheDay(date, loaded) : loaded;
+    }
+
+    private DayBitmap cacheDay(LocalDate date, DayBitmap loaded) {
+        if (!isInWindow(date)) {
+            return loaded;
+        }
+        DayBitmap existing = days.putIfAbsent(date, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private boolean isInWindow(LocalDate date) {
+        LocalDate today = LocalDate.now(WORKSHOP_ZONE);
+        return !date.isBefore(today.minusDays(daysBehind)) && !date.isAfter(today.plusDays(daysAhead));
+    }
+
+    /**
+     * Ocupación de un día: por técnico, un bitmap de 1440 bits (un bit por minuto del día)
+     * que marca los startTime ocupados. Las escrituras son atómicas y sin bloqueos.
+     */
+    private static final class DayBitmap implements DayOccupancy {
+
+        private static final int MINUTES_PER_DAY = 24 * 60;
+        private static final int WORDS = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+        private final Map<Long, AtomicLongArray> byTechnician = new ConcurrentHashMap<>();
+
+        static DayBitmap of(List<TechnicianSlotOccupancy> occupied) {
+            DayBitmap day = new DayBitmap();
+            for (TechnicianSlotOccupancy slot : occupied) {
+                day.set(slot.technicianId(), slot.startTime());
+            }
+            return day;
+        }
+
+        @Override
+        public boolean isOccupied(Long technicianId, LocalTime startTime) {
+            AtomicLongArray bits = byTechnician.get(technicianId);
+            if (bits == null) return false;
+            int minute = minuteOfDay(startTime);
+            return (bits.get(minute >>> 6) & (1L << minute)) != 0;
+        }
+
+        void set(Long technicianId, LocalTime startTime) {
+            if (technicianId == null || startTime == null) return;
+            int minute = minuteOfDay(startTime);
+            byTechnician.computeIfAbsent(technicianId, id -> new AtomicLongArray(WORDS))
+                    .getAndAccumulate(minute >>> 6, 1L << minute, (current, mask) -> current | mask);
+        }
+
+        void clear(Long technicianId, LocalTime startTime) {
+            if (technicianId == null || startTime == null) return;
+            AtomicLongArray bits = byTechnician.get(technicianId);
+            if (bits == null) return;
+            int minute = minuteOfDay(startTime);
+            bits.getAndAccumulate(minute >>> 6, ~(1L << minute), (current, mask) -> current & mask);
+        }
+
+        boolean sameAs(DayBitmap other) {
+            Set<Long> technicians = new HashSet<>(byTechnician.keySet());
+            technicians.addAll(other.byTechnician.keySet());
+            for (Long technicianId : technicians) {
+                for (int word = 0; word < WORDS; word++) {
+                    if (wordOf(technicianId, word) != other.wordOf(technicianId, word)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private long wordOf(Long technicianId, int word) {
+            AtomicLongArray bits = byTechnician.get(technicianId);
+            return bits == null ? 0L : bits.get(word);
+        }
+
+        private static int minuteOfDay(LocalTime time) {
+            return time.getHour() * 60 + time.getMinute();
+        }
+    }
+}
@@ -2,13 +2,16 @@ package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.IEmailNotificationService;
 import com.sparktech.motorx.Services.IPasswordResetService;
+import com.sparktech.motorx.Services.ISystemEventService;
 import com.sparktech.motorx.Services.IVerificationCodeService;
 
 import com.sparktech.motorx.dto.auth.PasswordResetDTO;
 import com.sparktech.motorx.dto.auth.PasswordResetRequestDTO;
 import com.sparktech.motorx.dto.notification.EmailDTO;
+import com.sparktech.motorx.entity.EventType;
 import com.sparktech.motorx.entity.PasswordResetTokenEntity;
 import com.sparktech.motorx.entity.UserEntity;
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
 import com.sparktech.motorx.exception.InvalidTokenException;
 import com.sparktech.motorx.exception.RecoveryTokenException;
 import com.sparktech.motorx.exception.UserNotFoundException;
@@ -16,6 +19,7 @@ import com.sparktech.motorx.repository.JpaPasswordResetTokenRepository;
 import com.sparktech.motorx.repository.JpaUserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +39,8 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
     private final PasswordEncoder passwordEncoder;
     private final IEmailNotificationService notificationService;
     private final IVerificationCodeService verificationCodeService;
+    private final ISystemEventService systemEvents;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final int TOKEN_EXPIRATION_MINUTES = 15;
 
@@ -63,6 +69,7 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
         tokenEntity.setExpiresAt(LocalDateTime.now().plusMinutes(TOKEN_EXPIRATION_MINUTES));
         tokenEntity.setUsed(false);
         tokenRepository.save(tokenEntity);
+        systemEvents.record(EventType.PASSWORD_RESET_REQUEST, user.getId(), null);
 
         log.info("Password reset token created for user ID: {} - Token expires at: {}",
                 user.getId(), tokenEntity.getExpiresAt());
@@ -96,11 +103,16 @@ public class PasswordResetServiceImpl implements IPasswordResetService {
         // 5. Actualizar contraseña
         user.setPassword(passwordEncoder.encode(dto.newPassword()));
         user.setUpdatedAt(LocalDateTime.now());
+        // Cierra las sesiones abiertas con la contraseña anterior
+        user.incrementSecurityVersion();
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getId()));
 
-        // 6. Marcar token como usado
+        // 6. Marcar token como usado (usedAt alimenta la métrica de tiempo de recuperación)
         tokenEntity.setUsed(true);
+        tokenEntity.setUsedAt(LocalDateTime.now());
         tokenRepository.save(tokenEntity);
+        systemEvents.record(EventType.PASSWORD_RESET_SUCCESS, user.getId(), null);
 
         log.info("Password successfully reset for user ID: {}", user.getId());
 
@@ -0,0 +1,38 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ITechnicianAssignmentStrategy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rota el técnico preferido en cada asignación, sin consultar la BD.
+ * Reparte el número de citas, pero no su duración: una cita larga cuenta igual que una corta.
+ */
+@Service
+@ConditionalOnProperty(name = "motorx.assignment.strategy", havingValue = "round-robin")
+public class RoundRobinTechnicianAssignmentStrategy implements ITechnicianAssignmentStrategy {
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Override
+    public List<Long> rank(LocalDate date, LocalTime startTime, List<Long> freeTechnicianIds,
+                           Map<Long, Long> pendingMinutes) {
+        int size = freeTechnicianIds.size();
+        if (size <= 1) {
+            return freeTechnicianIds;
+        }
+
+        int first = Math.floorMod(cursor.getAndIncrement(), size);
+        List<Long> ranked = new ArrayList<>(size);
+        ranked.addAll(freeTechnicianIds.subList(first, size));
+        ranked.addAll(freeTechnicianIds.subList(0, first));
+        return ranked;
+    }
+}
@@ -0,0 +1,466 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IAvailabilityCacheService;
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.config.AppointmentScheduleConfig;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateRequestDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateResponseDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTypeRuleDTO;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.entity.ScheduleTemplateEntity;
+import com.sparktech.motorx.entity.ScheduleTemplateSlotEntity;
+import com.sparktech.motorx.entity.ScheduleTemplateTypeEntity;
+import com.sparktech.motorx.event.ScheduleTemplateChangedEvent;
+import com.sparktech.motorx.exception.AppointmentException;
+import com.sparktech.motorx.exception.ScheduleTemplateNotFoundException;
+import com.sparktech.motorx.mapper.ScheduleTemplateMapper;
+import com.sparktech.motorx.repository.JpaScheduleTemplateRepository;
+import com.sparktech.motorx.repository.JpaScheduleTemplateSlotRepository;
+import com.sparktech.motorx.repository.JpaScheduleTemplateTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * La versión activa de la plantilla se compila en tablas inmutables indexadas por el
+ * ordinal de {@link AppointmentType}:
+ * <ul>
+ *   <li>Un bitmap de 1440 bits por tipo (un bit por minuto del día) con los horarios de recepción.</li>
+ *   <li>Un arreglo de duraciones y dos máscaras de bits (exclusivo Auteco, agendable por el cliente).</li>
+ * </ul>
+ * La referencia a la tabla compilada se reemplaza de una sola vez después del commit de cada
+ * publicación, sin reiniciar; cada refresh-interval-ms se relee la BD para recoger versiones
+ * publicadas desde otras instancias.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ScheduleTemplateServiceImpl implements IScheduleTemplateService {
+
+    private static final AppointmentType[] TYPES = AppointmentType.values();
+    private static final Set<AppointmentType> ADMIN_ONLY_TYPES = EnumSet.of(AppointmentType.UNPLANNED, AppointmentType.REWORK);
+
+    private final JpaScheduleTemplateRepository templateRepository;
+    private final JpaScheduleTemplateTypeRepository typeRepository;
+    private final JpaScheduleTemplateSlotRepository slotRepository;
+    private final ScheduleTemplateMapper templateMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IAvailabilityCacheService availabilityCache;
+
+    private volatile CompiledSchedule current;
+
+    // ---------------------------------------------------------------
+    // PLANTILLA ACTIVA
+    // ---------------------------------------------------------------
+
+    @Override
+    public Schedule current() {
+        CompiledSchedule schedule = current;
+        return schedule != null ? schedule : reload();
+    }
+
+    /**
+     * Después del commit: recompila la versión activa y descarta la disponibilidad cacheada,
+     * que se calculó con los horarios anteriores.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTemplateChanged(ScheduleTemplateChangedEvent event) {
+        CompiledSchedule schedule = reload();
+        availabilityCache.invalidateAll();
+        log.info("Plantilla de horarios v{} activa", schedule.version());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${motorx.schedule.refresh-interval-ms:300000}",
+            initialDelayString = "${motorx.schedule.refresh-interval-ms:300000}"
+    )
+    public void refresh() {
+        CompiledSchedule previous = current;
+        CompiledSchedule schedule = reload();
+        if (previous == null || previous.version() != schedule.version()) {
+            availabilityCache.invalidateAll();
+            log.info("Plantilla de horarios v{} cargada desde la BD", schedule.version());
+        }
+    }
+
+    /**
+     * Lee la versión activa, la compila y la publica. Sincronizado para que una recarga
+     * iniciada antes de un commit no pise la que se hace después de él.
+     */
+    private synchronized CompiledSchedule reload() {
+        CompiledSchedule schedule = templateRepository.findByActiveTrue()
+                .map(template -> compile(template,
+                        typeRepository.findByTemplateId(template.getId()),
+                        slotRepository.findByTemplateIdOrderByStartTimeAsc(template.getId())))
+                .orElseGet(() -> {
+                    log.warn("No hay una plantilla de horarios activa; se usa la de AppointmentScheduleConfig");
+                    return CompiledSchedule.DEFAULTS;
+                });
+        current = schedule;
+        return schedule;
+    }
+
+    // ---------------------------------------------------------------
+    // ADMINISTRACIÓN DE VERSIONES
+    // ---------------------------------------------------------------
+
+    @Override
+    @Transactional
+    public ScheduleTemplateResponseDTO publish(ScheduleTemplateRequestDTO request) {
+        validateTemplate(request);
+
+        templateRepository.deactivateAll();
+        ScheduleTemplateEntity template = ScheduleTemplateEntity.builder()
+                .version(templateRepository.findMaxVersion() + 1)
+                .description(request.description())
+                .workStart(request.workStart())
+                .workEnd(request.workEnd())
+                .lunchStart(request.lunchStart())
+                .lunchEnd(request.lunchEnd())
+                .active(true)
+                .build();
+        try {
+            // Versión y activa son únicas: si otro admin publicó al mismo tiempo, falla aquí
+            template = templateRepository.saveAndFlush(template);
+        } catch (DataIntegrityViolationException e) {
+            throw new AppointmentException(
+                    "Otra versión de la plantilla de horarios se publicó al mismo tiempo. Intente de nuevo.");
+        }
+
+        List<ScheduleTemplateTypeEntity> types = new ArrayList<>();
+        List<ScheduleTemplateSlotEntity> slots = new ArrayList<>();
+        for (ScheduleTypeRuleDTO rule : request.types()) {
+            types.add(ScheduleTemplateTypeEntity.builder()
+                    .template(template)
+                    .appointmentType(rule.appointmentType())
+                    .durationMinutes(rule.durationMinutes())
+                    .autecoOnly(rule.autecoOnly())
+                    .userBookable(rule.userBookable())
+                    .build());
+            for (LocalTime slot : rule.slots()) {
+                slots.add(ScheduleTemplateSlotEntity.builder()
+                        .template(template)
+                        .appointmentType(rule.appointmentType())
+                        .startTime(slot)
+                        .build());
+            }
+        }
+        typeRepository.saveAll(types);
+        slotRepository.saveAll(slots);
+
+        eventPublisher.publishEvent(new ScheduleTemplateChangedEvent(template.getId()));
+        log.info("Plantilla de horarios v{} publicada: {}", template.getVersion(), template.getDescription());
+        return templateMapper.toResponseDTO(template, types, slots);
+    }
+
+    @Override
+    @Transactional
+    public ScheduleTemplateResponseDTO activate(Long templateId) {
+        ScheduleTemplateEntity template = findTemplateOrThrow(templateId);
+
+        if (!template.isActive()) {
+            templateRepository.deactivateAll();
+            template.setActive(true);
+            eventPublisher.publishEvent(new ScheduleTemplateChangedEvent(templateId));
+            log.info("Plantilla de horarios v{} reactivada", template.getVersion());
+        }
+        return toResponseDTO(template);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScheduleTemplateResponseDTO getActiveTemplate() {
+        ScheduleTemplateEntity template = templateRepository.findByActiveTrue()
+                .orElseThrow(() -> new AppointmentException("No hay una plantilla de horarios activa."));
+        return toResponseDTO(template);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScheduleTemplateResponseDTO getTemplate(Long templateId) {
+        return toResponseDTO(findTemplateOrThrow(templateId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScheduleTemplateResponseDTO> getTemplates() {
+        List<ScheduleTemplateEntity> templates = templateRepository.findAllByOrderByVersionDesc();
+        if (templates.isEmpty()) {
+            return List.of();
+        }
+
+        // Reglas y horarios de todas las versiones con una consulta cada uno
+        List<Long> ids = templates.stream().map(ScheduleTemplateEntity::getId).toList();
+        Map<Long, List<ScheduleTemplateTypeEntity>> typesByTemplate = typeRepository.findByTemplateIdIn(ids).stream()
+                .collect(Collectors.groupingBy(type -> type.getTemplate().getId()));
+        Map<Long, List<ScheduleTemplateSlotEntity>> slotsByTemplate =
+                slotRepository.findByTemplateIdInOrderByStartTimeAsc(ids).stream()
+                        .collect(Collectors.groupingBy(slot -> slot.getTemplate().getId()));
+
+        return templates.stream()
+                .map(template -> templateMapper.toResponseDTO(template,
+                        typesByTemplate.getOrDefault(template.getId(), List.of()),
+                        slotsByTemplate.getOrDefault(template.getId(), List.of())))
+                .toList();
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private ScheduleTemplateResponseDTO toResponseDTO(ScheduleTemplateEntity template) {
+        return templateMapper.toResponseDTO(template,
+                typeRepository.findByTemplateId(template.getId()),
+                slotRepository.findByTemplateIdOrderByStartTimeAsc(template.getId()));
+    }
+
+    private ScheduleTemplateEntity findTemplateOrThrow(Long templateId) {
+        return templateRepository.findById(templateId)
+                .orElseThrow(() -> new ScheduleTemplateNotFoundException(templateId));
+    }
+
+    /**
+     * Reglas de una plantilla publicable: jornada y almuerzo coherentes, todos los tipos
+     * de cita exactamente una vez y horarios de recepción dentro de la jornada y fuera del almuerzo.
+     * La hora de fin es una estimación y puede pasar del cierre, pero debe caer el mismo día.
+     */
+    private void validateTemplate(ScheduleTemplateRequestDTO request) {
+        if (!request.workStart().isBefore(request.workEnd())) {
+            throw new AppointmentException("La jornada debe terminar después de empezar.");
+        }
+        if (!request.lunchStart().isBefore(request.lunchEnd())
+                || request.lunchStart().isBefore(request.workStart())
+                || request.lunchEnd().isAfter(request.workEnd())) {
+            throw new AppointmentException("El almuerzo debe ser un rango dentro de la jornada.");
+        }
+
+        Set<AppointmentType> seen = EnumSet.noneOf(AppointmentType.class);
+        for (ScheduleTypeRuleDTO rule : request.types()) {
+            AppointmentType type = rule.appointmentType();
+            if (!seen.add(type)) {
+                throw new AppointmentException("El tipo de cita " + type + " aparece más de una vez.");
+            }
+            if (rule.userBookable() && ADMIN_ONLY_TYPES.contains(type)) {
+                throw new AppointmentException("El tipo de cita " + type + " no puede ser agendable por el cliente.");
+            }
+            if (rule.userBookable() && rule.slots().isEmpty()) {
+                throw new AppointmentException(
+                        "El tipo de cita " + type + " es agendable por el cliente y no tiene horarios de recepción.");
+            }
+
+            Set<LocalTime> slots = new HashSet<>();
+            for (LocalTime slot : rule.slots()) {
+                if (slot.getSecond() != 0 || slot.getNano() != 0) {
+                    throw new AppointmentException("El horario " + slot + " de " + type + " debe ser en minutos exactos.");
+                }
+                if (slot.isBefore(request.workStart()) || !slot.isBefore(request.workEnd())
+                        || (!slot.isBefore(request.lunchStart()) && slot.isBefore(request.lunchEnd()))) {
+                    throw new AppointmentException(
+                            "El horario " + slot + " de " + type + " está fuera de la jornada o en el almuerzo.");
+                }
+                // endTime = startTime.plusMinutes(duración): al pasar de medianoche quedaría antes del inicio
+                if (slot.toSecondOfDay() / 60 + rule.durationMinutes() >= CompiledSchedule.MINUTES_PER_DAY) {
+                    throw new AppointmentException("El horario " + slot + " de " + type + " con una duración de "
+                            + rule.durationMinutes() + " minutos termina después de medianoche.");
+                }
+                if (!slots.add(slot)) {
+                    throw new AppointmentException("El horario " + slot + " de " + type + " está repetido.");
+                }
+            }
+        }
+
+        if (seen.size() != TYPES.length) {
+            Set<AppointmentType> missing = EnumSet.complementOf(EnumSet.copyOf(seen));
+            throw new AppointmentException("Faltan las reglas de los tipos de cita: " + missing);
+        }
+    }
+
+    private static CompiledSchedule compile(ScheduleTemplateEntity template,
+                                            List<ScheduleTemplateTypeEntity> types,
+                                            List<ScheduleTemplateSlotEntity> slots) {
+        Map<AppointmentType, Integer> durations = new EnumMap<>(AppointmentType.class);
+        Set<AppointmentType> autecoOnly = EnumSet.noneOf(AppointmentType.class);
+        Set<AppointmentType> userBookable = EnumSet.noneOf(AppointmentType.class);
+        for (ScheduleTemplateTypeEntity type : types) {
+            durations.put(type.getAppointmentType(), type.getDurationMinutes());
+            if (type.isAutecoOnly()) autecoOnly.add(type.getAppointmentType());
+            if (type.isUserBookable()) userBookable.add(type.getAppointmentType());
+        }
+
+        Map<AppointmentType, List<LocalTime>> slotsByType = new EnumMap<>(AppointmentType.class);
+        for (ScheduleTemplateSlotEntity slot : slots) {
+            slotsByType.computeIfAbsent(slot.getAppointmentType(), t -> new ArrayList<>()).add(slot.getStartTime());
+        }
+
+        return new CompiledSchedule(template.getVersion(), template.getWorkStart(), template.getWorkEnd(),
+                template.getLunchStart(), template.getLunchEnd(), durations, autecoOnly, userBookable, slotsByType);
+    }
+
+    /**
+     * Tabla compilada de una versión. Inmutable: se publica completa a través del campo volatile.
+     */
+    private static final class CompiledSchedule implements Schedule {
+
+        private static final int MINUTES_PER_DAY = 24 * 60;
+        private static final int WORDS = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+        // Versión 0: plantilla de AppointmentScheduleConfig, usada si la BD no tiene ninguna activa
+        static final CompiledSchedule DEFAULTS = new CompiledSchedule(0,
+                AppointmentScheduleConfig.WORK_START, AppointmentScheduleConfig.WORK_END,
+                AppointmentScheduleConfig.LUNCH_START, AppointmentScheduleConfig.LUNCH_END,
+                AppointmentScheduleConfig.DURATION_MINUTES_BY_TYPE,
+                AppointmentScheduleConfig.AUTECO_ONLY_TYPES,
+                AppointmentScheduleConfig.USER_BOOKABLE_TYPES,
+                AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE);
+
+        private final int version;
+        private final LocalTime workStart;
+        private final LocalTime workEnd;
+        private final LocalTime lunchStart;
+        private final LocalTime lunchEnd;
+
+        // Límites en segundos del día para comparar sin crear objetos
+        private final int workStartSecond;
+        private final int workEndSecond;
+        private final int lunchStartSecond;
+        private final int lunchEndSecond;
+
+        // Indexados por ordinal del tipo
+        private final long[][] slotBits;
+        private final List<List<LocalTime>> slots;
+        private final int[] durations;
+        private final int autecoOnlyMask;
+        private final int userBookableMask;
+
+        private final List<AppointmentType> typesWithSlots;
+
+        CompiledSchedule(int version, LocalTime workStart, LocalTime workEnd,
+                         LocalTime lunchStart, LocalTime lunchEnd,
+                         Map<AppointmentType, Integer> durationsByType,
+                         Set<AppointmentType> autecoOnly, Set<AppointmentType> userBookable,
+                         Map<AppointmentType, List<LocalTime>> slotsByType) {
+            this.version = version;
+            this.workStart = workStart;
+            this.workEnd = workEnd;
+            this.lunchStart = lunchStart;
+            this.lunchEnd = lunchEnd;
+            this.workStartSecond = workStart.toSecondOfDay();
+            this.workEndSecond = workEnd.toSecondOfDay();
+            this.lunchStartSecond = lunchStart.toSecondOfDay();
+            this.lunchEndSecond = lunchEnd.toSecondOfDay();
+
+            this.slotBits = new long[TYPES.length][WORDS];
+            this.durations = new int[TYPES.length];
+            List<List<LocalTime>> slotLists = new ArrayList<>(TYPES.length);
+            List<AppointmentType> withSlots = new ArrayList<>();
+            int autecoMask = 0;
+            int bookableMask = 0;
+
+            for (AppointmentType type : TYPES) {
+                int ordinal = type.ordinal();
+                List<LocalTime> typeSlots = slotsByType.getOrDefault(type, List.of()).stream().sorted().toList();
+                for (LocalTime slot : typeSlots) {
+                    int minute = slot.getHour() * 60 + slot.getMinute();
+                    slotBits[ordinal][minute >>> 6] |= 1L << minute;
+                }
+                slotLists.add(typeSlots);
+                if (!typeSlots.isEmpty()) withSlots.add(type);
+
+                durations[ordinal] = durationsByType.getOrDefault(type, 0);
+                if (autecoOnly.contains(type)) autecoMask |= 1 << ordinal;
+                if (userBookable.contains(type)) bookableMask |= 1 << ordinal;
+            }
+
+            this.slots = List.copyOf(slotLists);
+            this.typesWithSlots = List.copyOf(withSlots);
+            this.autecoOnlyMask = autecoMask;
+            this.userBookableMask = bookableMask;
+        }
+
+        @Override
+        public int version() {
+            return version;
+        }
+
+        @Override
+        public LocalTime workStart() {
+            return workStart;
+        }
+
+        @Override
+        public LocalTime workEnd() {
+            return workEnd;
+        }
+
+        @Override
+        public LocalTime lunchStart() {
+            return lunchStart;
+        }
+
+        @Override
+        public LocalTime lunchEnd() {
+            return lunchEnd;
+        }
+
+        @Override
+        public boolean isValidSlot(AppointmentType type, LocalTime startTime) {
+            if (startTime.getSecond() != 0 || startTime.getNano() != 0) {
+                return false;
+            }
+            int minute = startTime.getHour() * 60 + startTime.getMinute();
+            return (slotBits[type.ordinal()][minute >>> 6] & (1L << minute)) != 0;
+        }
+
+        @Override
+        public List<LocalTime> slotsFor(AppointmentType type) {
+            return slots.get(type.ordinal());
+        }
+
+        @Override
+        public List<AppointmentType> typesWithSlots() {
+            return typesWithSlots;
+        }
+
+        @Override
+        public int durationMinutes(AppointmentType type) {
+            return durations[type.ordinal()];
+        }
+
+        @Override
+        public boolean isAutecoOnly(AppointmentType type) {
+            return (autecoOnlyMask & (1 << type.ordinal())) != 0;
+        }
+
+        @Override
+        public boolean isUserBookable(AppointmentType type) {
+            return (userBookableMask & (1 << type.ordinal())) != 0;
+        }
+
+        @Override
+        public boolean isWithinWorkHours(LocalTime startTime) {
+            int second = startTime.toSecondOfDay();
+            return second >= workStartSecond && second <= workEndSecond;
+        }
+
+        @Override
+        public boolean isLunchTime(LocalTime startTime) {
+            int second = startTime.toSecondOfDay();
+            return second >= lunchStartSecond && second < lunchEndSecond;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ISystemEventPartitionService;
+import com.sparktech.motorx.repository.SystemEventPartitionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Particiones mensuales de system_events.
+ * <p>
+ * Cada pasada asegura las particiones del mes actual y de los próximos months-ahead meses,
+ * y retira las que quedaron fuera de la retención: las borra (drop) o las separa como tabla
+ * de archivo (detach). Cada partición se procesa en su propia transacción con un advisory
+ * lock, así un error en una no frena las demás y dos instancias no hacen el mismo DDL.
+ * Los meses siguen el reloj de la JVM, el mismo con que se fecha cada evento.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SystemEventPartitionServiceImpl implements ISystemEventPartitionService {
+
+    static final String DETACH_ACTION = "detach";
+
+    private final SystemEventPartitionRepository partitionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${motorx.system-events.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${motorx.system-events.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${motorx.system-events.partitions.retention-months:13}")
+    private int retentionMonths;
+
+    @Value("${motorx.system-events.partitions.expired-action:drop}")
+    private String expiredAction;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        if (retentionMonths < 1) {
+            throw new IllegalStateException("motorx.system-events.partitions.retention-months debe ser al menos 1.");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(
+            initialDelayString = "${motorx.system-events.partitions.initial-delay-ms:60000}",
+            fixedDelayString = "${motorx.system-events.partitions.maintenance-interval-ms:21600000}"
+    )
+    public void scheduledMaintenance() {
+        if (enabled) {
+            maintain();
+        }
+    }
+
+    @Override
+    public Maintenance maintain() {
+        if (!partitionRepository.isPartitioned()) {
+            log.debug("system_events no está particionada; no hay particiones que mantener");
+            return Maintenance.NONE;
+        }
+
+        YearMonth current = YearMonth.now();
+        List<YearMonth> existing = partitionRepository.findPartitionMonths();
+
+        List<YearMonth> created = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month) && runLocked(month, this::createIfMissing)) {
+                created.add(month);
+            }
+        }
+
+        // Se conservan el mes actual y los retentionMonths - 1 anteriores
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+        boolean archive = DETACH_ACTION.equalsIgnoreCase(expiredAction);
+        List<YearMonth> expired = new ArrayList<>();
+        for (YearMonth month : existing) {
+            if (month.isBefore(oldestKept)
+                    && runLocked(month, archive ? partitionRepository::archivePartition : partitionRepository::dropPartition)) {
+                expired.add(month);
+            }
+        }
+
+        if (!created.isEmpty() || !expired.isEmpty()) {
+            log.info("Particiones de system_events: creadas {}, {} {}", created, archive ? "archivadas" : "borradas", expired);
+        }
+        return new Maintenance(created, expired);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private void createIfMissing(YearMonth month) {
+        // Otra instancia pudo crearla entre la lectura y el lock
+        if (!partitionRepository.partitionExists(month)) {
+            partitionRepository.createPartition(month);
+        }
+    }
+
+    /**
+     * Ejecuta la operación sobre un mes en su propia transacción, bajo el lock de mantenimiento.
+     * @return true si se ejecutó; false si otra instancia tenía el lock o la operación falló
+     */
+    private boolean runLocked(YearMonth month, Consumer<YearMonth> operation) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (!partitionRepository.tryLockMaintenance()) {
+                    log.debug("Otra instancia está manteniendo las particiones de system_events");
+                    return false;
+                }
+                operation.accept(month);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            log.error("No se pudo mantener la partición {} de system_events: {}",
+                    SystemEventPartitionRepository.partitionName(month), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ISystemEventService;
+import com.sparktech.motorx.entity.EventSeverity;
+import com.sparktech.motorx.entity.EventType;
+import com.sparktech.motorx.entity.SystemEventEntity;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.repository.JpaSystemEventRepository;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro asíncrono de eventos del sistema.
+ * <p>
+ * {@link #record} solo arma el evento y lo pone en un buffer circular acotado y sin locks;
+ * el hilo que atiende el login, el registro o la cita no toca la BD. Un único hilo virtual
+ * escritor vacía el buffer e inserta hasta batch-size eventos por transacción (con
+ * hibernate.jdbc.batch_size y el pool de ids de la secuencia, un lote es un solo batch JDBC).
+ * Si el buffer se llena, los eventos nuevos se descartan y se cuentan: perder un evento de
+ * métrica es preferible a frenar un login. Al apagar la aplicación se escribe lo pendiente.
+ * Con synchronous=true (tests) cada evento se escribe en el hilo que llama, sin escritor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SystemEventServiceImpl implements ISystemEventService, MeterBinder {
+
+    // Longitud de la columna metadata
+    static final int MAX_METADATA_LENGTH = 500;
+
+    private final JpaSystemEventRepository systemEventRepository;
+    private final JpaUserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${motorx.system-events.buffer-size:4096}")
+    private int bufferSize;
+
+    @Value("${motorx.system-events.batch-size:50}")
+    private int batchSize;
+
+    @Value("${motorx.system-events.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${motorx.system-events.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${motorx.system-events.synchronous:false}")
+    private boolean synchronous;
+
+    private EventRing<PendingEvent> ring;
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        ring = new EventRing<>(bufferSize);
+        // Transacción propia: un evento no se pierde porque la operación que lo originó haga rollback
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (!synchronous) {
+            running = true;
+            writer = Thread.ofVirtual().name("system-event-writer").start(this::drainLoop);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            if (!writer.join(Duration.ofMillis(shutdownTimeoutMs))) {
+                // Vaciar desde aquí rompería la regla de un solo consumidor del buffer
+                log.warn("El escritor de eventos no terminó a tiempo; quedan {} eventos sin guardar", ring.size());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        // El escritor ya terminó: este hilo pasa a ser el único consumidor
+        flush();
+    }
+
+    @Override
+    public void record(EventType type, Long userId, String metadata) {
+        recorded.increment();
+        PendingEvent event = new PendingEvent(type, LocalDateTime.now(), userId, truncate(metadata));
+
+        if (synchronous) {
+            write(List.of(event));
+            return;
+        }
+        if (!ring.offer(event)) {
+            dropped.increment();
+            return;
+        }
+        // Con un lote completo esperando no tiene sentido dormir el resto del intervalo
+        if (ring.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // EVENTOS DE CITAS (después del commit)
+    // ---------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        EventType type = switch (event.changeType()) {
+            case CREATED -> EventType.APPOINTMENT_CREATED;
+            case CANCELLED -> EventType.APPOINTMENT_CANCELLED;
+            case TECHNICIAN_CHANGED -> null;
+        };
+        if (type != null) {
+            record(type, event.ownerId(), "cita=" + event.appointmentId() + ", tipo=" + event.appointmentType() +
+                    ", fecha=" + event.appointmentDate() + ", hora=" + event.startTime());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // ESCRITOR
+    // ---------------------------------------------------------------
+
+    private void drainLoop() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            drainTo(batch);
+            int drained = batch.size();
+            if (drained > 0) {
+                write(batch);
+                batch.clear();
+            }
+            // Lote incompleto: el buffer quedó vacío, se espera a que se acumulen más
+            if (drained < batchSize) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+
+    private void flush() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        do {
+            batch.clear();
+            drainTo(batch);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void drainTo(List<PendingEvent> batch) {
+        PendingEvent event;
+        while (batch.size() < batchSize && (event = ring.poll()) != null) {
+            batch.add(event);
+        }
+    }
+
+    private void write(List<PendingEvent> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    systemEventRepository.saveAll(batch.stream().map(this::toEntity).toList()));
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.warn("No se pudieron guardar {} eventos del sistema: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private SystemEventEntity toEntity(PendingEvent event) {
+        return SystemEventEntity.builder()
+                .eventType(event.type())
+                .severity(severityOf(event.type()))
+                .eventDate(event.occurredAt())
+                .metadata(event.metadata())
+                .user(event.userId() != null ? userRepository.getReferenceById(event.userId()) : null)
+                .build();
+    }
+
+    // ---------------------------------------------------------------
+    // MÉTRICAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        FunctionCounter.builder("system.events.recorded", recorded, LongAdder::sum)
+                .description("Eventos del sistema registrados")
+                .register(registry);
+        FunctionCounter.builder("system.events.written", written, LongAdder::sum)
+                .description("Eventos del sistema guardados en la BD")
+                .register(registry);
+        FunctionCounter.builder("system.events.dropped", dropped, LongAdder::sum)
+                .description("Eventos descartados porque el buffer estaba lleno")
+                .register(registry);
+        FunctionCounter.builder("system.events.failed", failed, LongAdder::sum)
+                .description("Eventos perdidos por un error al guardar su lote")
+                .register(registry);
+        Gauge.builder("system.events.pending", this, service -> service.ring == null ? 0 : service.ring.size())
+                .description("Eventos en el buffer esperando al escritor")
+                .register(registry);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private static EventSeverity severityOf(EventType type) {
+        return switch (type) {
+            case USER_REGISTER_FAILED, LOGIN_FAILED, APPOINTMENT_CONFLICT -> EventSeverity.WARNING;
+            default -> EventSeverity.INFO;
+        };
+    }
+
+    private static String truncate(String metadata) {
+        return metadata != null && metadata.length() > MAX_METADATA_LENGTH
+                ? metadata.substring(0, MAX_METADATA_LENGTH)
+                : metadata;
+    }
+
+    private record PendingEvent(EventType type, LocalDateTime occurredAt, Long userId, String metadata) {
+    }
+
+    /**
+     * Buffer circular acotado de varios productores y un consumidor (esquema de Vyukov).
+     * Cada casilla lleva un número de secuencia que dice si está libre para la vuelta
+     * actual del productor o lista para el consumidor; los productores compiten con un
+     * CAS sobre tail y el consumidor avanza head sin competir. Si está lleno, offer
+     * devuelve false en vez de esperar.
+     */
+    static final class EventRing<E> {
+
+        private final int mask;
+        private final AtomicReferenceArray<E> slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+
+        EventRing(int requestedCapacity) {
+            // Potencia de dos para calcular la casilla con una máscara
+            int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+            mask = capacity - 1;
+            slots = new AtomicReferenceArray<>(capacity);
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(E element) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) (position & mask);
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        slots.set(index, element);
+                        // Publica la casilla al consumidor
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    // La casilla aún tiene un elemento de la vuelta anterior: lleno
+                    return false;
+                } else {
+                    // Otro productor tomó esta posición
+                    position = tail.get();
+                }
+            }
+        }
+
+        // Solo lo llama el consumidor
+        E poll() {
+            long position = head.get();
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                return null;
+            }
+            E element = slots.get(index);
+            slots.set(index, null);
+            // Libera la casilla para la siguiente vuelta de los productores
+            sequences.set(index, position + mask + 1);
+            head.set(position + 1);
+            return element;
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IUserSecurityVersionService;
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.repository.projection.UserSecurityState;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Versiones de seguridad de los usuarios en memoria, para validar los JWT sin consultar la BD.
+ * <p>
+ * Cada usuario se guarda como un long: la versión en los bits altos y en el bit bajo si la
+ * cuenta está revocada (deshabilitada, eliminada o bloqueada). Todo cambio de acceso incrementa
+ * la versión, así que un estado más nuevo siempre es un número mayor: las lecturas se combinan
+ * con {@link Math#max} y una recarga completa que se cruza con la de un usuario nunca deja un
+ * estado viejo. Por eso la recarga no reemplaza el mapa ni necesita locks.
+ * <p>
+ * Los cambios de esta instancia se aplican al confirmarse su transacción; los de otras
+ * instancias, en la siguiente recarga periódica (refresh-interval-ms).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserSecurityVersionServiceImpl implements IUserSecurityVersionService, MeterBinder {
+
+    private static final long REVOKED = 1L;
+
+    private final JpaUserRepository userRepository;
+
+    private final Map<Long, Long> states = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    @Override
+    public boolean isCurrent(Long userId, int securityVersion) {
+        if (!loaded) {
+            loadOnce();
+        }
+        Long state = states.get(userId);
+        boolean current = state == null
+                ? securityVersion == 0
+                : state == encode(securityVersion, false);
+        if (!current) {
+            rejected.increment();
+        }
+        return current;
+    }
+
+    @Override
+    public void refresh(Long userId) {
+        userRepository.findSecurityStateById(userId).ifPresent(this::merge);
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${motorx.security-versions.refresh-interval-ms:30000}",
+            fixedDelayString = "${motorx.security-versions.refresh-interval-ms:30000}"
+    )
+    public void refreshAll() {
+        List<UserSecurityState> rows = userRepository.findSecurityStates();
+        rows.forEach(this::merge);
+        reloads.increment();
+        loaded = true;
+        log.debug("Versiones de seguridad recargadas: {} usuarios con cambios o sin acceso", rows.size());
+    }
+
+    // ---------------------------------------------------------------
+    // ACTUALIZACIÓN (después del commit de cada cambio)
+    // Antes del commit la lectura vería el estado anterior.
+    // ---------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        try {
+            if (event.userId() == null) {
+                refreshAll();
+            } else {
+                refresh(event.userId());
+            }
+        } catch (RuntimeException e) {
+            // La recarga periódica lo recoge; mientras tanto el token anterior sigue aceptado
+            log.error("No se pudo actualizar la versión de seguridad del usuario {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // MÉTRICAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        FunctionCounter.builder("security.tokens.rejected", rejected, LongAdder::sum)
+                .description("JWT rechazados por una versión de seguridad vieja o una cuenta sin acceso")
+                .register(registry);
+        FunctionCounter.builder("security.versions.reloads", reloads, LongAdder::sum)
+                .description("Recargas completas de la tabla de versiones de seguridad")
+                .register(registry);
+        Gauge.builder("security.versions.tracked", states, Map::size)
+                .description("Usuarios con cambios de seguridad o sin acceso en la tabla en memoria")
+                .register(registry);
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private synchronized void loadOnce() {
+        if (!loaded) {
+            refreshAll();
+        }
+    }
+
+    private void merge(UserSecurityState state) {
+        states.merge(state.id(), encode(state.securityVersion(), state.revoked()), Math::max);
+    }
+
+    private static long encode(int securityVersion, boolean revoked) {
+        return ((long) securityVersion << 1) | (revoked ? REVOKED : 0L);
+    }
+}
@@ -1,10 +1,13 @@
 package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.IAppointmentService;
+import com.sparktech.motorx.Services.IAppointmentVersionService;
 import com.sparktech.motorx.Services.ICurrentUserService;
 import com.sparktech.motorx.Services.IUserService;
+import com.sparktech.motorx.Services.IWaitlistService;
 import com.sparktech.motorx.dto.appointment.*;
 import com.sparktech.motorx.dto.auth.RegisterUserDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.user.UpdateUserRequestDTO;
 import com.sparktech.motorx.entity.AppointmentStatus;
 import com.sparktech.motorx.entity.AppointmentType;
@@ -14,12 +17,15 @@ import com.sparktech.motorx.entity.VehicleEntity;
 import com.sparktech.motorx.exception.AppointmentException;
 import com.sparktech.motorx.exception.AppointmentForbiddenException;
 import com.sparktech.motorx.exception.AppointmentNotFoundException;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
 
 import com.sparktech.motorx.repository.JpaAppointmentRepository;
 import com.sparktech.motorx.repository.JpaUserRepository;
 import com.sparktech.motorx.repository.JpaVehicleRepository;
 import com.sparktech.motorx.mapper.AppointmentMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,9 +41,12 @@ public class UserServiceImpl implements IUserService {
     private final JpaVehicleRepository vehicleRepository;
     private final JpaAppointmentRepository appointmentRepository;
     private final IAppointmentService appointmentService;
+    private final IWaitlistService waitlistService;
     private final AppointmentMapper appointmentMapper;
     private final PasswordEncoder passwordEncoder;
     private final ICurrentUserService currentUserService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IAppointmentVersionService appointmentVersions;
 
     // ---------------------------------------------------------------
     // REGISTRO Y PERFIL
@@ -76,28 +85,35 @@ public class UserServiceImpl implements IUserService {
         user.setPhone(userUpdate.phone());
 
         jpaUserRepository.save(user);
+        // El nombre del cliente viaja en las citas ya entregadas con ETag
+        eventPublisher.publishEvent(new ClientDataChangedEvent(userId));
     }
 
     // ---------------------------------------------------------------
     // CONSULTA DE DISPONIBILIDAD Y PICO Y PLACA
     // ---------------------------------------------------------------
 
+    // Sin @Transactional: la disponibilidad se resuelve desde el índice de ocupación en memoria
     @Override
-    @Transactional(readOnly = true)
     public AvailableSlotsResponseDTO getAvailableSlots(LocalDate date, AppointmentType type) {
         return appointmentService.getAvailableSlots(date, type);
     }
 
+    @Override
+    public MultiDayAvailabilityResponseDTO getAvailableSlotsBetween(LocalDate start, LocalDate end, AppointmentType type) {
+        return appointmentService.getAvailableSlotsBetween(start, end, type);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public LicensePlateRestrictionResponseDTO checkLicensePlateRestriction(Long vehicleId, LocalDate date) {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
 
         VehicleEntity vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new AppointmentException(
                         "No se encontró el vehículo con ID: " + vehicleId));
 
-        if (!vehicle.getOwner().getId().equals(currentUser.getId())) {
+        if (!vehicle.getOwner().getId().equals(currentUserId)) {
             throw new AppointmentException("El vehículo no pertenece al usuario autenticado.");
         }
 
@@ -122,20 +138,27 @@ public class UserServiceImpl implements IUserService {
     @Override
     @Transactional
     public AppointmentResponseDTO scheduleAppointment(CreateAppointmentRequestDTO request) {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
-        return appointmentService.createAppointment(request, currentUser.getId());
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return appointmentService.createAppointment(request, currentUserId);
+    }
+
+    @Override
+    @Transactional
+    public BulkAppointmentResponseDTO scheduleAppointmentsBulk(BulkCreateAppointmentRequestDTO request) {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return appointmentService.createAppointmentsBulk(request.appointments(), currentUserId);
     }
 
     @Override
     @Transactional
     public AppointmentResponseDTO cancelMyAppointment(Long appointmentId) {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
 
         var appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
 
         // Solo puede cancelar sus propias citas
-        if (!appointment.getVehicle().getOwner().getId().equals(currentUser.getId())) {
+        if (!appointment.getVehicle().getOwner().getId().equals(currentUserId)) {
             throw new AppointmentForbiddenException("No tienes permiso para cancelar esta cita.");
         }
 
@@ -148,49 +171,95 @@ public class UserServiceImpl implements IUserService {
             throw new AppointmentException("No se puede cancelar una cita en progreso o completada.");
         }
 
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setCancellationReason("Cancelada por el cliente.");
-        return appointmentMapper.toResponseDTO(appointmentRepository.save(appointment));
+        var saved = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.cancelled(saved, previousStatus));
+        return appointmentMapper.toResponseDTO(saved);
+    }
+
+    // ---------------------------------------------------------------
+    // LISTA DE ESPERA
+    // ---------------------------------------------------------------
+
+    @Override
+    public WaitlistEntryResponseDTO joinWaitlist(CreateAppointmentRequestDTO request) {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return waitlistService.joinWaitlist(request, currentUserId);
+    }
+
+    @Override
+    public List<WaitlistEntryResponseDTO> getMyWaitlistEntries() {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return waitlistService.getWaitlistEntriesByClient(currentUserId);
+    }
+
+    @Override
+    public WaitlistEntryResponseDTO leaveWaitlist(Long entryId) {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return waitlistService.leaveWaitlist(entryId, currentUserId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDTO> getMyAppointmentHistory() {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
-        return appointmentRepository.findByClientIdOrderByDateDesc(currentUser.getId())
-                .stream()
-                .map(appointmentMapper::toResponseDTO)
-                .toList();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return appointmentRepository.findResponsesByClientId(currentUserId);
+    }
+
+    // Solo resuelve el id del usuario autenticado; las citas no se leen
+    @Override
+    public String getMyAppointmentHistoryETag() {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return appointmentVersions.clientHistoryETag(currentUserId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDTO> getMyVehicleAppointments(Long vehicleId) {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        validateOwnVehicle(vehicleId, currentUserId);
 
+        return appointmentRepository.findResponsesByVehicleId(vehicleId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AppointmentResponseDTO> getMyAppointmentHistoryPage(String cursor, int size) {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return appointmentService.getAppointmentsByClientPage(currentUserId, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AppointmentResponseDTO> getMyVehicleAppointmentsPage(Long vehicleId, String cursor,
+                                                                                    int size) {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        validateOwnVehicle(vehicleId, currentUserId);
+
+        return appointmentService.getAppointmentsByVehiclePage(vehicleId, cursor, size);
+    }
+
+    private void validateOwnVehicle(Long vehicleId, Long currentUserId) {
         VehicleEntity vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new AppointmentException(
                         "No se encontró el vehículo con ID: " + vehicleId));
 
-        if (!vehicle.getOwner().getId().equals(currentUser.getId())) {
+        if (!vehicle.getOwner().getId().equals(currentUserId)) {
             throw new AppointmentException("El vehículo no pertenece al usuario autenticado.");
         }
-
-        return appointmentRepository.findByVehicleIdOrderByAppointmentDateDesc(vehicleId)
-                .stream()
-                .map(appointmentMapper::toResponseDTO)
-                .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public AppointmentResponseDTO getMyAppointmentById(Long appointmentId) {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
 
         var appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
 
-        if (!appointment.getVehicle().getOwner().getId().equals(currentUser.getId())) {
+        if (!appointment.getVehicle().getOwner().getId().equals(currentUserId)) {
             throw new AppointmentException("No tienes permiso para ver esta cita.");
         }
 
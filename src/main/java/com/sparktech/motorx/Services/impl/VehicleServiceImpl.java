@@ -2,17 +2,23 @@ package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.IVehicleService;
 import com.sparktech.motorx.Services.ICurrentUserService;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.CreateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.UpdateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.entity.VehicleEntity;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
 import com.sparktech.motorx.exception.VehicleAlreadyOwnedException;
 import com.sparktech.motorx.exception.VehicleDoesntBelongToUserException;
 import com.sparktech.motorx.exception.VehicleNotFoundException;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.mapper.VehicleMapper;
 import com.sparktech.motorx.repository.JpaVehicleRepository;
+import com.sparktech.motorx.repository.projection.CreatedAtKeyset;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +31,8 @@ public class VehicleServiceImpl implements IVehicleService {
     private final JpaVehicleRepository vehicleRepository;
     private final VehicleMapper vehicleMapper;
     private final ICurrentUserService currentUserService;
+    private final CursorPageMapper cursorPageMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ---------------------------------------------------------------
     // CRUD DE VEHÍCULOS DEL CLIENTE AUTENTICADO
@@ -75,32 +83,48 @@ public class VehicleServiceImpl implements IVehicleService {
     @Override
     @Transactional(readOnly = true)
     public List<VehicleResponseDTO> getMyVehicles() {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
-        return vehicleRepository.findByOwnerIdOrderByCreatedAtDesc(currentUser.getId())
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        return vehicleRepository.findByOwnerIdOrderByCreatedAtDesc(currentUserId)
                 .stream()
                 .map(vehicleMapper::toResponseDTO)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<VehicleResponseDTO> getMyVehiclesPage(String cursor, int size) {
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
+        Limit limit = cursorPageMapper.fetchLimit(size);
+        List<VehicleEntity> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = vehicleRepository.findPageByOwnerId(currentUserId, limit);
+        } else {
+            CreatedAtKeyset after = cursorPageMapper.decodeCreatedAtCursor(cursor);
+            rows = vehicleRepository.findPageByOwnerIdAfter(currentUserId, after.createdAt(), after.id(), limit);
+        }
+        return cursorPageMapper.toPage(rows, size, vehicleMapper::toResponseDTO,
+                last -> cursorPageMapper.encodeCreatedAtCursor(last.getCreatedAt(), last.getId()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public VehicleResponseDTO getMyVehicleById(Long vehicleId) throws VehicleDoesntBelongToUserException {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
         VehicleEntity vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new VehicleNotFoundException(vehicleId));
 
-        validateOwnership(vehicle, currentUser);
+        validateOwnership(vehicle, currentUserId);
         return vehicleMapper.toResponseDTO(vehicle);
     }
 
     @Override
     @Transactional
     public VehicleResponseDTO updateMyVehicle(Long vehicleId, UpdateVehicleRequestDTO request) throws VehicleDoesntBelongToUserException {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
         VehicleEntity vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new VehicleNotFoundException(vehicleId));
 
-        validateOwnership(vehicle, currentUser);
+        validateOwnership(vehicle, currentUserId);
 
         // Solo se permite actualizar marca, modelo y cilindraje
         // La placa y el número de chasis son inmutables (identificadores oficiales)
@@ -108,26 +132,30 @@ public class VehicleServiceImpl implements IVehicleService {
         vehicle.setModel(request.model().trim());
         vehicle.setCylinderCapacity(request.cylinderCapacity());
 
-        return vehicleMapper.toResponseDTO(vehicleRepository.save(vehicle));
+        VehicleResponseDTO response = vehicleMapper.toResponseDTO(vehicleRepository.save(vehicle));
+        // Marca y modelo viajan en las citas ya entregadas con ETag
+        eventPublisher.publishEvent(new ClientDataChangedEvent(currentUserId));
+        return response;
     }
 
     @Override
     @Transactional
     public void deleteMyVehicle(Long vehicleId) throws VehicleDoesntBelongToUserException {
-        UserEntity currentUser = currentUserService.getAuthenticatedUser();
+        Long currentUserId = currentUserService.getAuthenticatedUserId();
         VehicleEntity vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new VehicleNotFoundException(vehicleId));
 
-        validateOwnership(vehicle, currentUser);
+        validateOwnership(vehicle, currentUserId);
         vehicleRepository.delete(vehicle);
+        eventPublisher.publishEvent(new ClientDataChangedEvent(currentUserId));
     }
 
     // ---------------------------------------------------------------
     // HELPERS PRIVADOS
     // ---------------------------------------------------------------
 
-    private void validateOwnership(VehicleEntity vehicle, UserEntity user) throws VehicleDoesntBelongToUserException {
-        if (!vehicle.getOwner().getId().equals(user.getId())) {
+    private void validateOwnership(VehicleEntity vehicle, Long userId) throws VehicleDoesntBelongToUserException {
+        if (!vehicle.getOwner().getId().equals(userId)) {
             throw new VehicleDoesntBelongToUserException(
                     "No tienes permiso para acceder al vehículo con ID: " + vehicle.getId());
         }
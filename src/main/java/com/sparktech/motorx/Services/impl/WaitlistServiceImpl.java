@@ -0,0 +1,269 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IAppointmentService;
+import com.sparktech.motorx.Services.IWaitlistService;
+import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
+import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
+import com.sparktech.motorx.dto.appointment.WaitlistEntryResponseDTO;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.WaitlistEntryEntity;
+import com.sparktech.motorx.entity.WaitlistStatus;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.exception.AppointmentException;
+import com.sparktech.motorx.exception.AppointmentForbiddenException;
+import com.sparktech.motorx.exception.NoAvailableTechnicianException;
+import com.sparktech.motorx.exception.WaitlistEntryNotFoundException;
+import com.sparktech.motorx.mapper.WaitlistMapper;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.repository.JpaVehicleRepository;
+import com.sparktech.motorx.repository.JpaWaitlistRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WaitlistServiceImpl implements IWaitlistService {
+
+    private static final ZoneId WORKSHOP_ZONE = ZoneId.of("America/Bogota");
+    private static final Set<AppointmentStatus> INACTIVE_STATUSES =
+            Set.of(AppointmentStatus.CANCELLED, AppointmentStatus.REJECTED, AppointmentStatus.NO_SHOW);
+    private static final int MAX_REASON_LENGTH = 500;
+    private static final String EXPIRED_REASON = "El horario solicitado pasó sin que se liberara un cupo.";
+
+    private final JpaWaitlistRepository waitlistRepository;
+    private final JpaVehicleRepository vehicleRepository;
+    private final JpaUserRepository userRepository;
+    private final IAppointmentService appointmentService;
+    private final WaitlistMapper waitlistMapper;
+    private final JpaAppointmentRepository appointmentRepository;
+
+    // Tiempo tras el cual una solicitud en PROMOTING se considera abandonada
+    @Value("${motorx.waitlist.promoting-timeout-ms:300000}")
+    private long promotingTimeoutMs;
+
+    // ---------------------------------------------------------------
+    // GESTIÓN DE LA LISTA DE ESPERA (CLIENTE)
+    // ---------------------------------------------------------------
+
+    @Override
+    @Transactional
+    public WaitlistEntryResponseDTO joinWaitlist(CreateAppointmentRequestDTO request, Long clientId) {
+        // 1. Mismas reglas que un agendamiento normal (tipo, propietario, pico y placa, marca, cita activa)
+        appointmentService.validateBookingRequest(request, clientId);
+
+        // 2. Solo tiene sentido esperar si el slot está lleno
+        boolean slotHasRoom = appointmentService
+                .getAvailableSlots(request.appointmentDate(), request.appointmentType())
+                .availableSlots().stream()
+                .anyMatch(slot -> slot.startTime().equals(request.startTime()));
+        if (slotHasRoom) {
+            throw new AppointmentException(
+                    "El horario " + request.startTime() + " del " + request.appointmentDate() +
+                            " aún tiene técnicos disponibles. Agenda la cita directamente."
+            );
+        }
+
+        // 3. Un vehículo solo puede estar una vez en espera
+        if (waitlistRepository.existsActiveByVehicleId(request.vehicleId())) {
+            throw new AppointmentException(
+                    "El vehículo ya está en una lista de espera. Retíralo de ella antes de anotarlo en otro horario."
+            );
+        }
+
+        String clientNotesStr = (request.clientNotes() != null && !request.clientNotes().isEmpty())
+                ? String.join("; ", request.clientNotes())
+                : null;
+
+        WaitlistEntryEntity entry = WaitlistEntryEntity.builder()
+                .vehicle(vehicleRepository.getReferenceById(request.vehicleId()))
+                .client(userRepository.getReferenceById(clientId))
+                .appointmentType(request.appointmentType())
+                .appointmentDate(request.appointmentDate())
+                .startTime(request.startTime())
+                .currentMileage(request.currentMileage())
+                .clientNotes(clientNotesStr)
+                .status(WaitlistStatus.WAITING)
+                .build();
+
+        return waitlistMapper.toResponseDTO(waitlistRepository.save(entry));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponseDTO> getWaitlistEntriesByClient(Long clientId) {
+        return waitlistRepository.findByClientIdOrderByCreatedAtDesc(clientId)
+                .stream()
+                .map(waitlistMapper::toResponseDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryResponseDTO leaveWaitlist(Long entryId, Long clientId) {
+        WaitlistEntryEntity entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new WaitlistEntryNotFoundException(entryId));
+
+        if (!entry.getClient().getId().equals(clientId)) {
+            throw new AppointmentForbiddenException("No tienes permiso para modificar esta solicitud.");
+        }
+
+        // Condicional: si el despachador ya la tomó, el cliente no puede retirarla
+        if (waitlistRepository.transition(entryId, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED) == 0) {
+            throw new AppointmentException("La solicitud ya no está en espera (estado: " + entry.getStatus() + ").");
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+
+        return waitlistMapper.toResponseDTO(entry);
+    }
+
+    // ---------------------------------------------------------------
+    // PROMOCIÓN AUTOMÁTICA
+    // ---------------------------------------------------------------
+
+    /**
+     * Despachador: después del commit de una cancelación, en otro hilo, agenda al siguiente
+     * de la fila del slot liberado. Un cambio de técnico no libera cupo (el slot pasa de
+     * un técnico a otro), por lo que solo reaccionan las cancelaciones de citas activas.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.changeType() != AppointmentChangeType.CANCELLED
+                || event.technicianId() == null
+                || (event.previousStatus() != null && INACTIVE_STATUSES.contains(event.previousStatus()))) {
+            return;
+        }
+
+        LocalDateTime slotStart = LocalDateTime.of(event.appointmentDate(), event.startTime());
+        if (!slotStart.isAfter(LocalDateTime.now(WORKSHOP_ZONE))) {
+            return; // El slot ya pasó: no hay a quién agendar
+        }
+
+        promoteNext(event.appointmentDate(), event.startTime());
+    }
+
+    /**
+     * Sin @Transactional a propósito: cada solicitud se toma con una actualización condicional
+     * (WAITING → PROMOTING) y la cita se crea en la transacción propia de createAppointment,
+     * así un rechazo de una solicitud no revierte lo ya hecho con las demás. Solo un fallo al
+     * agendar descarta la solicitud; si falla marcarla PROMOTED queda en PROMOTING y el
+     * barrido la resuelve con la cita ya creada.
+     */
+    @Override
+    public Long promoteNext(LocalDate date, LocalTime startTime) {
+        for (WaitlistEntryEntity entry : waitlistRepository.findWaitingForSlot(date, startTime)) {
+            if (waitlistRepository.claim(entry.getId(), LocalDateTime.now()) == 0) {
+                continue; // Otro despachador la tomó o el cliente se retiró
+            }
+
+            AppointmentResponseDTO appointment;
+            try {
+                appointment = appointmentService.createAppointment(
+                        toAppointmentRequest(entry), entry.getClient().getId());
+            } catch (NoAvailableTechnicianException e) {
+                // Otro agendamiento tomó el cupo primero: la solicitud conserva su turno
+                waitlistRepository.transition(entry.getId(), WaitlistStatus.PROMOTING, WaitlistStatus.WAITING);
+                return null;
+            } catch (RuntimeException e) {
+                // Ya no se puede agendar (cita activa, pico y placa, vehículo transferido...)
+                waitlistRepository.markDiscarded(entry.getId(), truncate(e.getMessage()));
+                log.info("Lista de espera {} descartada al promover: {}", entry.getId(), e.getMessage());
+                continue;
+            }
+
+            if (waitlistRepository.markPromoted(entry.getId(), appointment.id(), LocalDateTime.now()) == 0) {
+                log.warn("Lista de espera {}: la cita {} se creó pero la solicitud ya no estaba en PROMOTING",
+                        entry.getId(), appointment.id());
+            }
+            log.info("Lista de espera {} promovida a la cita {} ({} {})",
+                    entry.getId(), appointment.id(), date, startTime);
+            return appointment.id();
+        }
+        return null;
+    }
+
+    // ---------------------------------------------------------------
+    // BARRIDO PERIÓDICO
+    // ---------------------------------------------------------------
+
+    /**
+     * Resuelve las solicitudes que quedaron en PROMOTING (el proceso se cayó entre tomarlas y
+     * marcarlas) y descarta las que esperan un slot que ya empezó. Ambas ocupan el índice
+     * único del vehículo y le impedirían anotarse de nuevo.
+     */
+    @Scheduled(
+            initialDelayString = "${motorx.waitlist.sweep-interval-ms:60000}",
+            fixedDelayString = "${motorx.waitlist.sweep-interval-ms:60000}"
+    )
+    public void sweep() {
+        int recovered = recoverStalePromotions(LocalDateTime.now().minus(Duration.ofMillis(promotingTimeoutMs)));
+        LocalDateTime now = LocalDateTime.now(WORKSHOP_ZONE);
+        int expired = waitlistRepository.discardExpired(now.toLocalDate(), now.toLocalTime(), EXPIRED_REASON);
+        if (recovered > 0 || expired > 0) {
+            log.info("Barrido de la lista de espera: {} promociones recuperadas, {} solicitudes vencidas",
+                    recovered, expired);
+        }
+    }
+
+    /**
+     * Cada solicitud abandonada pasa a PROMOTED si su cita llegó a crearse, o vuelve a WAITING
+     * con su turno original (el orden de la fila es createdAt).
+     * @return cantidad de solicitudes resueltas
+     */
+    int recoverStalePromotions(LocalDateTime before) {
+        int recovered = 0;
+        for (WaitlistEntryEntity entry : waitlistRepository.findStalePromoting(before)) {
+            LocalDateTime since = entry.getPromotingSince() != null ? entry.getPromotingSince() : entry.getCreatedAt();
+            List<Long> booked = appointmentRepository.findIdsBookedForSlotSince(
+                    entry.getVehicle().getId(), entry.getAppointmentDate(), entry.getStartTime(), since);
+            int updated = booked.isEmpty()
+                    ? waitlistRepository.transition(entry.getId(), WaitlistStatus.PROMOTING, WaitlistStatus.WAITING)
+                    : waitlistRepository.markPromoted(entry.getId(), booked.getFirst(), LocalDateTime.now());
+            if (updated > 0) {
+                recovered++;
+                log.warn("Lista de espera {} recuperada de PROMOTING a {}", entry.getId(),
+                        booked.isEmpty() ? WaitlistStatus.WAITING : WaitlistStatus.PROMOTED);
+            }
+        }
+        return recovered;
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private CreateAppointmentRequestDTO toAppointmentRequest(WaitlistEntryEntity entry) {
+        return new CreateAppointmentRequestDTO(
+                entry.getVehicle().getId(),
+                entry.getAppointmentType(),
+                entry.getAppointmentDate(),
+                entry.getStartTime(),
+                entry.getCurrentMileage(),
+                entry.getClientNotes() != null ? Set.of(entry.getClientNotes()) : null
+        );
+    }
+
+    private static String truncate(String reason) {
+        if (reason == null || reason.length() <= MAX_REASON_LENGTH) {
+            return reason;
+        }
+        return reason.substring(0, MAX_REASON_LENGTH);
+    }
+}
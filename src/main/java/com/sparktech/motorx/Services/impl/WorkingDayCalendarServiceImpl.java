@@ -0,0 +1,240 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
+import com.sparktech.motorx.dto.appointment.CreateWorkshopClosureRequestDTO;
+import com.sparktech.motorx.dto.appointment.WorkshopClosureResponseDTO;
+import com.sparktech.motorx.entity.WorkshopClosureEntity;
+import com.sparktech.motorx.event.WorkshopClosureChangedEvent;
+import com.sparktech.motorx.exception.AppointmentException;
+import com.sparktech.motorx.exception.WorkshopClosureNotFoundException;
+import com.sparktech.motorx.mapper.WorkshopClosureMapper;
+import com.sparktech.motorx.repository.JpaWorkshopClosureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.temporal.TemporalAdjusters;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precalcula por año dos bitsets indexados por día del año (bit 0 = 1 de enero):
+ * <ul>
+ *   <li>Festivos nacionales: solo dependen del año, se calculan una vez.</li>
+ *   <li>Días hábiles: excluyen fines de semana, festivos y cierres del taller; se leen
+ *       de la BD con una consulta por año y se descartan solo para el año de un cierre
+ *       creado o eliminado.</li>
+ * </ul>
+ * Las tablas de días hábiles se releen cada refresh-interval-ms para recoger cierres
+ * creados desde otras instancias.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WorkingDayCalendarServiceImpl implements IWorkingDayCalendarService {
+
+    // Festivos de fecha fija (Ley 51 de 1983)
+    private static final List<MonthDay> FIXED_HOLIDAYS = List.of(
+            MonthDay.of(1, 1),   // Año Nuevo
+            MonthDay.of(5, 1),   // Día del Trabajo
+            MonthDay.of(7, 20),  // Independencia
+            MonthDay.of(8, 7),   // Batalla de Boyacá
+            MonthDay.of(12, 8),  // Inmaculada Concepción
+            MonthDay.of(12, 25)  // Navidad
+    );
+
+    // Festivos que se trasladan al lunes siguiente (Ley Emiliani)
+    private static final List<MonthDay> MONDAY_HOLIDAYS = List.of(
+            MonthDay.of(1, 6),   // Reyes Magos
+            MonthDay.of(3, 19),  // San José
+            MonthDay.of(6, 29),  // San Pedro y San Pablo
+            MonthDay.of(8, 15),  // Asunción de la Virgen
+            MonthDay.of(10, 12), // Día de la Raza
+            MonthDay.of(11, 1),  // Todos los Santos
+            MonthDay.of(11, 11)  // Independencia de Cartagena
+    );
+
+    // Días desde el domingo de Pascua: Jueves y Viernes Santo; Ascensión, Corpus Christi
+    // y Sagrado Corazón ya trasladados al lunes
+    private static final int[] EASTER_OFFSETS = {-3, -2, 43, 64, 71};
+
+    private final JpaWorkshopClosureRepository closureRepository;
+    private final WorkshopClosureMapper closureMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Estructura: año -> bitset de festivos / de días hábiles
+    private final Map<Integer, BitSet> holidaysByYear = new ConcurrentHashMap<>();
+    private final Map<Integer, BitSet> workingDaysByYear = new ConcurrentHashMap<>();
+
+    // Se incrementa en cada invalidación; evita guardar una tabla que se cruzó con un commit
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // ---------------------------------------------------------------
+    // CONSULTAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public boolean isWorkingDay(LocalDate date) {
+        return workingDays(date.getYear()).get(date.getDayOfYear() - 1);
+    }
+
+    @Override
+    public boolean isPublicHoliday(LocalDate date) {
+        return publicHolidays(date.getYear()).get(date.getDayOfYear() - 1);
+    }
+
+    @Override
+    public List<LocalDate> getPublicHolidays(int year) {
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        return publicHolidays(year).stream()
+                .mapToObj(firstDay::plusDays)
+                .toList();
+    }
+
+    // ---------------------------------------------------------------
+    // CIERRES DEL TALLER (ADMIN)
+    // ---------------------------------------------------------------
+
+    @Override
+    @Transactional
+    public WorkshopClosureResponseDTO createClosure(CreateWorkshopClosureRequestDTO request) {
+        if (closureRepository.existsByClosureDate(request.date())) {
+            throw new AppointmentException("El taller ya tiene un cierre registrado el " + request.date() + ".");
+        }
+
+        WorkshopClosureEntity closure = WorkshopClosureEntity.builder()
+                .closureDate(request.date())
+                .reason(request.reason())
+                .build();
+        WorkshopClosureEntity saved = closureRepository.save(closure);
+
+        eventPublisher.publishEvent(new WorkshopClosureChangedEvent(saved.getClosureDate()));
+        log.info("Cierre del taller registrado para {}: {}", saved.getClosureDate(), saved.getReason());
+        return closureMapper.toResponseDTO(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkshopClosureResponseDTO> getClosures(int year) {
+        return closureRepository.findByClosureDateBetweenOrderByClosureDateAsc(
+                        LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+                .stream()
+                .map(closureMapper::toResponseDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void deleteClosure(Long closureId) {
+        WorkshopClosureEntity closure = closureRepository.findById(closureId)
+                .orElseThrow(() -> new WorkshopClosureNotFoundException(closureId));
+
+        closureRepository.delete(closure);
+        eventPublisher.publishEvent(new WorkshopClosureChangedEvent(closure.getClosureDate()));
+        log.info("Cierre del taller del {} eliminado", closure.getClosureDate());
+    }
+
+    // ---------------------------------------------------------------
+    // INVALIDACIÓN (después del commit de cada cierre)
+    // ---------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClosureChanged(WorkshopClosureChangedEvent event) {
+        invalidations.incrementAndGet();
+        workingDaysByYear.remove(event.closureDate().getYear());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${motorx.calendar.refresh-interval-ms:600000}",
+            initialDelayString = "${motorx.calendar.refresh-interval-ms:600000}"
+    )
+    public void refresh() {
+        invalidations.incrementAndGet();
+        workingDaysByYear.clear();
+    }
+
+    // ---------------------------------------------------------------
+    // TABLAS ANUALES
+    // ---------------------------------------------------------------
+
+    private BitSet publicHolidays(int year) {
+        return holidaysByYear.computeIfAbsent(year, WorkingDayCalendarServiceImpl::computePublicHolidays);
+    }
+
+    private BitSet workingDays(int year) {
+        BitSet cached = workingDaysByYear.get(year);
+        if (cached != null) {
+            return cached;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        LocalDate lastDay = LocalDate.of(year, 12, 31);
+        BitSet holidays = publicHolidays(year);
+
+        BitSet workingDays = new BitSet(firstDay.lengthOfYear());
+        for (LocalDate date = firstDay; !date.isAfter(lastDay); date = date.plusDays(1)) {
+            DayOfWeek day = date.getDayOfWeek();
+            if (day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY && !holidays.get(date.getDayOfYear() - 1)) {
+                workingDays.set(date.getDayOfYear() - 1);
+            }
+        }
+        List<LocalDate> closures = closureRepository.findClosureDatesBetween(firstDay, lastDay);
+        closures.forEach(closure -> workingDays.clear(closure.getDayOfYear() - 1));
+
+        // Si un cierre cambió durante la lectura, se usa la tabla pero no se guarda
+        if (invalidations.get() == invalidationsBefore) {
+            workingDaysByYear.put(year, workingDays);
+        }
+        log.debug("Calendario laboral {} cargado: {} días hábiles, {} cierres",
+                year, workingDays.cardinality(), closures.size());
+        return workingDays;
+    }
+
+    private static BitSet computePublicHolidays(int year) {
+        BitSet holidays = new BitSet(LocalDate.of(year, 1, 1).lengthOfYear());
+        for (MonthDay monthDay : FIXED_HOLIDAYS) {
+            holidays.set(monthDay.atYear(year).getDayOfYear() - 1);
+        }
+        for (MonthDay monthDay : MONDAY_HOLIDAYS) {
+            LocalDate moved = monthDay.atYear(year).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+            holidays.set(moved.getDayOfYear() - 1);
+        }
+        LocalDate easter = easterSunday(year);
+        for (int offset : EASTER_OFFSETS) {
+            holidays.set(easter.plusDays(offset).getDayOfYear() - 1);
+        }
+        return holidays;
+    }
+
+    /**
+     * Domingo de Pascua del calendario gregoriano (algoritmo de Meeus/Jones/Butcher).
+     */
+    static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = ((h + l - 7 * m + 114) % 31) + 1;
+        return LocalDate.of(year, month, day);
+    }
+}
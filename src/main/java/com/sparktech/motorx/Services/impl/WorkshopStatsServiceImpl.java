@@ -0,0 +1,112 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IWorkshopStatsService;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaDailyWorkshopStatsRepository;
+import com.sparktech.motorx.repository.projection.DailyAppointmentTotals;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkshopStatsServiceImpl implements IWorkshopStatsService {
+
+    private static final ZoneId WORKSHOP_ZONE = ZoneId.of("America/Bogota");
+
+    private final JpaDailyWorkshopStatsRepository statsRepository;
+    private final JpaAppointmentRepository appointmentRepository;
+
+    @Value("${motorx.stats.rebuild-days-behind:7}")
+    private int rebuildDaysBehind;
+
+    @Value("${motorx.stats.rebuild-days-ahead:60}")
+    private int rebuildDaysAhead;
+
+    // ---------------------------------------------------------------
+    // INCREMENTO (dentro de la transacción del cambio)
+    // A diferencia de los cachés en memoria, aquí no se espera al commit:
+    // si la cita se revierte, su aporte al acumulado se revierte con ella.
+    // ---------------------------------------------------------------
+
+    @EventListener
+    @Transactional
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        long minutes = Duration.between(event.startTime(), event.endTime()).toMinutes();
+
+        if (event.changeType() == AppointmentChangeType.CREATED) {
+            add(event, event.status(), 1, minutes);
+        } else if (event.previousStatus() != null && event.previousStatus() != event.status()) {
+            // Cambio de estado: la cita pasa de una fila del día a otra
+            add(event, event.previousStatus(), -1, -minutes);
+            add(event, event.status(), 1, minutes);
+        }
+        // Un cambio de técnico no altera tipo, estado ni minutos
+    }
+
+    // ---------------------------------------------------------------
+    // RECONSTRUCCIÓN
+    // ---------------------------------------------------------------
+
+    @Override
+    @Transactional
+    public int rebuild(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La fecha final no puede ser anterior a la inicial.");
+        }
+
+        statsRepository.lockForRebuild();
+        statsRepository.deleteBetween(start, end);
+        List<DailyAppointmentTotals> totals = appointmentRepository.sumDailyTotalsBetween(start, end);
+        for (DailyAppointmentTotals day : totals) {
+            statsRepository.addToDay(
+                    day.date(),
+                    day.appointmentType().name(),
+                    day.status().name(),
+                    day.appointmentCount().intValue(),
+                    day.reservedMinutes()
+            );
+        }
+
+        log.info("Acumulado diario del taller reconstruido del {} al {} ({} filas)", start, end, totals.size());
+        return totals.size();
+    }
+
+    /**
+     * Corrige cada noche cualquier desfase de la ventana que todavía cambia
+     * (cambios hechos directo en la BD o cargas por fuera de los servicios).
+     */
+    @Scheduled(cron = "${motorx.stats.rebuild-cron:0 30 2 * * *}", zone = "America/Bogota")
+    @Transactional
+    public void rebuildRecentDays() {
+        LocalDate today = LocalDate.now(WORKSHOP_ZONE);
+        rebuild(today.minusDays(rebuildDaysBehind), today.plusDays(rebuildDaysAhead));
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private void add(AppointmentChangedEvent event, AppointmentStatus status, int count, long minutes) {
+        statsRepository.addToDay(
+                event.appointmentDate(),
+                event.appointmentType().name(),
+                status.name(),
+                count,
+                minutes
+        );
+    }
+}
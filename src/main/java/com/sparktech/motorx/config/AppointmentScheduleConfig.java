@@ -10,6 +10,11 @@ import java.util.Set;
 /**
  * Constantes de horarios y reglas de negocio para el agendamiento de citas.
  * Basado en las reglas formales de Jmmotoservicio.
+ * <p>
+ * Los horarios, duraciones, almuerzo y tipos por marca son la plantilla por defecto
+ * (la misma que siembra la migración V12). En ejecución las reglas se leen de la
+ * plantilla activa en BD a través de IScheduleTemplateService; estas constantes
+ * solo se usan si no hay ninguna versión activa.
  */
 public final class AppointmentScheduleConfig {
 
@@ -69,6 +74,29 @@ public final class AppointmentScheduleConfig {
 
     public static final int OIL_CHANGE_DURATION_MINUTES = 30;
 
+    // ---------------------------------------------------------------
+    // Duración estimada por tipo de cita (define el endTime)
+    // ---------------------------------------------------------------
+    public static final Map<AppointmentType, Integer> DURATION_MINUTES_BY_TYPE = Map.of(
+            AppointmentType.MANUAL_WARRANTY_REVIEW, 270,
+            AppointmentType.AUTECO_WARRANTY,        450,
+            AppointmentType.QUICK_SERVICE,          255,
+            AppointmentType.MAINTENANCE,            555,
+            AppointmentType.OIL_CHANGE,             OIL_CHANGE_DURATION_MINUTES,
+            AppointmentType.UNPLANNED,              255,
+            AppointmentType.REWORK,                 450
+    );
+
+    // ---------------------------------------------------------------
+    // Consulta de disponibilidad por rango: máximo de días por petición
+    // ---------------------------------------------------------------
+    public static final int MAX_AVAILABILITY_RANGE_DAYS = 31;
+
+    // ---------------------------------------------------------------
+    // Agendamiento en lote (flotas): máximo de citas por petición
+    // ---------------------------------------------------------------
+    public static final int MAX_BULK_APPOINTMENTS = 50;
+
     // ---------------------------------------------------------------
     // Mapa de horarios válidos por tipo de cita (mañana + tarde)
     // Permite consultar los slots disponibles para cada tipo.
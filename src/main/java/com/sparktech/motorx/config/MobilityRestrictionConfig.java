@@ -0,0 +1,12 @@
+package com.sparktech.motorx.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra las reglas de pico y placa leídas de application.yaml.
+ */
+@Configuration
+@EnableConfigurationProperties(MobilityRestrictionProperties.class)
+public class MobilityRestrictionConfig {
+}
@@ -0,0 +1,77 @@
+package com.sparktech.motorx.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reglas de pico y placa (motorx.mobility-restriction en application.yaml).
+ * Cada ciudad tiene una o varias vigencias; en cada vigencia se indica qué último
+ * dígito de la placa (el penúltimo carácter en placas de moto) queda restringido por día.
+ * Si no se configura nada se usa la rotación vigente de Medellín.
+ *
+ * @param city        Ciudad activa (clave de {@code cities})
+ * @param horizonDays Días hacia adelante que se precompilan en la tabla por fecha
+ * @param cities      Reglas por ciudad
+ */
+@ConfigurationProperties(prefix = "motorx.mobility-restriction")
+public record MobilityRestrictionProperties(
+        String city,
+        Integer horizonDays,
+        Map<String, CityRules> cities
+) {
+
+    public static final String DEFAULT_CITY = "medellin";
+    public static final int DEFAULT_HORIZON_DAYS = 400;
+
+    public MobilityRestrictionProperties {
+        city = city != null ? city : DEFAULT_CITY;
+        horizonDays = horizonDays != null ? horizonDays : DEFAULT_HORIZON_DAYS;
+        cities = cities != null ? cities : Map.of(DEFAULT_CITY, medellinDefaults());
+    }
+
+    /**
+     * @param holidays Fechas exentas adicionales (p. ej. días sin carro de la ciudad); los
+     *                 festivos nacionales ya se toman del calendario laboral
+     * @param rules    Vigencias; si dos se solapan gana la primera de la lista
+     */
+    public record CityRules(
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> holidays,
+            List<Rule> rules
+    ) {
+        public CityRules {
+            holidays = holidays != null ? holidays : List.of();
+            rules = rules != null ? rules : List.of();
+        }
+    }
+
+    /**
+     * @param validFrom Inicio de la vigencia (inclusive); null = sin límite
+     * @param validTo   Fin de la vigencia (inclusive); null = sin límite
+     * @param digits    Dígitos restringidos por día; los días ausentes no tienen restricción
+     */
+    public record Rule(
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate validFrom,
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate validTo,
+            Map<DayOfWeek, List<Integer>> digits
+    ) {
+        public Rule {
+            digits = digits != null ? digits : Map.of();
+        }
+    }
+
+    /** Rotación de Medellín de lunes a viernes; sábados y domingos sin restricción */
+    public static CityRules medellinDefaults() {
+        return new CityRules(List.of(), List.of(new Rule(null, null, Map.of(
+                DayOfWeek.MONDAY,    List.of(5, 6),
+                DayOfWeek.TUESDAY,   List.of(7, 8),
+                DayOfWeek.WEDNESDAY, List.of(9, 0),
+                DayOfWeek.THURSDAY,  List.of(1, 2),
+                DayOfWeek.FRIDAY,    List.of(3, 4)
+        ))));
+    }
+}
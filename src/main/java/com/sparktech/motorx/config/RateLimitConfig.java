@@ -0,0 +1,35 @@
+package com.sparktech.motorx.config;
+
+import com.sparktech.motorx.security.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Registra el límite de peticiones de los endpoints públicos (motorx.rate-limit).
+ * El filtro se agrega a la cadena de Spring Security en {@link SecurityConfig}.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            RateLimitProperties properties,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            JsonMapper jsonMapper) {
+        return new RateLimitFilter(properties, exceptionResolver, jsonMapper);
+    }
+
+    // Spring Boot registraría el filtro también en el contenedor y contaría cada petición dos veces
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sparktech.motorx.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Límites de peticiones de los endpoints públicos (motorx.rate-limit en application.yaml).
+ * Cada ruta tiene un límite por IP y, opcionalmente, otro por identidad: el valor de un
+ * campo del body JSON (el email), para que repartir la carga entre IPs no sirva para
+ * insistir sobre una misma cuenta. Si no se configuran rutas se usan {@link #defaultRoutes()}.
+ *
+ * @param enabled      false desactiva el filtro
+ * @param maxKeys      Claves (IPs o identidades) en memoria por ruta; por encima comparten un límite
+ * @param maxBodyBytes Tamaño máximo del body en las rutas limitadas por identidad; más grande responde 413
+ * @param routes       Rutas limitadas por nombre (el nombre es el tag route de las métricas)
+ */
+@ConfigurationProperties(prefix = "motorx.rate-limit")
+public record RateLimitProperties(
+        Boolean enabled,
+        Integer maxKeys,
+        Integer maxBodyBytes,
+        Map<String, Route> routes
+) {
+
+    public static final int DEFAULT_MAX_KEYS = 50_000;
+    public static final int DEFAULT_MAX_BODY_BYTES = 8_192;
+
+    public RateLimitProperties {
+        enabled = enabled == null || enabled;
+        maxKeys = maxKeys != null ? maxKeys : DEFAULT_MAX_KEYS;
+        maxBodyBytes = maxBodyBytes != null ? maxBodyBytes : DEFAULT_MAX_BODY_BYTES;
+        routes = routes != null ? routes : defaultRoutes();
+    }
+
+    /**
+     * @param method        Método HTTP; null = cualquiera
+     * @param path          Ruta exacta (también con barra final) o prefijo terminado en /**
+     * @param perIp         Límite por IP de cliente
+     * @param perIdentity   Límite por identidad; null = solo por IP
+     * @param identityField Campo del body JSON con la identidad (por defecto email)
+     */
+    public record Route(
+            String method,
+            String path,
+            Limit perIp,
+            Limit perIdentity,
+            String identityField
+    ) {
+        public Route {
+            identityField = identityField != null ? identityField : "email";
+        }
+    }
+
+    /**
+     * capacity peticiones por period; los permisos se recuperan de a uno, repartidos en el periodo.
+     */
+    public record Limit(int capacity, Duration period) {
+    }
+
+    /** Endpoints públicos que cuestan BCrypt, consultas a la BD o un correo */
+    public static Map<String, Route> defaultRoutes() {
+        Map<String, Route> routes = new LinkedHashMap<>();
+        routes.put("login", new Route("POST", "/api/auth/login",
+                new Limit(20, Duration.ofMinutes(1)), new Limit(10, Duration.ofMinutes(5)), null));
+        routes.put("verify-2fa", new Route("POST", "/api/auth/verify-2fa",
+                new Limit(20, Duration.ofMinutes(1)), new Limit(5, Duration.ofMinutes(10)), null));
+        routes.put("register", new Route("POST", "/api/auth/register",
+                new Limit(5, Duration.ofMinutes(10)), new Limit(3, Duration.ofHours(1)), null));
+        routes.put("password-reset-request", new Route("POST", "/api/password-reset/request",
+                new Limit(5, Duration.ofMinutes(10)), new Limit(3, Duration.ofHours(1)), null));
+        routes.put("password-reset", new Route("PUT", "/api/password-reset",
+                new Limit(10, Duration.ofMinutes(10)), null, null));
+        return routes;
+    }
+}
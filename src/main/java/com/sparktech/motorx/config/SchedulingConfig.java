@@ -0,0 +1,13 @@
+package com.sparktech.motorx.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled), p. ej. la reconciliación
+ * del índice de ocupación de técnicos contra la BD.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,8 @@ package com.sparktech.motorx.config;
 
 import com.sparktech.motorx.security.CustomUserDetailsService;
 import com.sparktech.motorx.security.JwtAuthenticationFilter;
+import com.sparktech.motorx.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,6 +38,7 @@ public class SecurityConfig {
     public static final String HOST_ROLE = "HOST";
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -62,7 +65,7 @@ public class SecurityConfig {
                 "https://motorx-cf34d.web.app"
         ));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type", "Last-Event-ID"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -75,6 +78,10 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
 
+                        // El despacho asíncrono que cierra un stream (SSE, export NDJSON) ya fue
+                        // autorizado en la petición original; el filtro JWT no vuelve a correr en él
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         .requestMatchers("/api/auth/**").permitAll()
 
                         // Permitir PUT en /api/password-reset y /api/password-reset/ (con y sin barra)
@@ -99,6 +106,7 @@ public class SecurityConfig {
 
                         //end-points health
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole(ADMIN_ROLE)
                         // Cualquier otra petición requiere autenticación
                         .anyRequest().authenticated()
                 )
@@ -106,6 +114,8 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authenticationProvider(authenticationProvider())
+                // Después de CORS (el 429 lleva sus cabeceras) y antes de autenticar
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
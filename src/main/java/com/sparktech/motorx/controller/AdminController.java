@@ -2,10 +2,14 @@ package com.sparktech.motorx.controller;
 
 import com.sparktech.motorx.dto.appointment.CancelAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateUnplannedAppointmentRequestDTO;
+import com.sparktech.motorx.dto.appointment.CreateWorkshopClosureRequestDTO;
 import com.sparktech.motorx.dto.appointment.UpdateAppointmentTechnicianRequestDTO;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
+import com.sparktech.motorx.dto.appointment.WorkshopClosureResponseDTO;
 import com.sparktech.motorx.dto.error.ResponseErrorDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentType;
 import com.sparktech.motorx.Services.IAdminService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,11 +24,22 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -37,33 +52,104 @@ import java.util.List;
 public class AdminController {
 
     private final IAdminService adminService;
+    private final JsonMapper jsonMapper;
 
     // ---------------------------------------------------------------
     // VISIBILIDAD DE LA AGENDA
     // ---------------------------------------------------------------
 
+    // La agenda y el calendario se sondean cada pocos segundos: con If-None-Match igual al ETag
+    // vigente se responde 304 sin consultar la BD ni serializar la lista.
     @GetMapping("/agenda")
     @Operation(
             summary = "Agenda del día",
-            description = "Lista todas las citas de una fecha específica, ordenadas por hora."
+            description = "Lista todas las citas de una fecha específica, ordenadas por hora. " +
+                    "Responde con ETag; si If-None-Match coincide retorna 304 sin cuerpo."
     )
     public ResponseEntity<@NotNull List<AppointmentResponseDTO>> getDailyAgenda(
             @Parameter(description = "Fecha a consultar (yyyy-MM-dd)")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(adminService.getDailyAgenda(date));
+        String eTag = adminService.getDailyAgendaETag(date);
+        if (request.checkNotModified(eTag)) {
+            // checkNotModified ya escribió el 304 con el ETag
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(adminService.getDailyAgenda(date));
     }
 
     @GetMapping("/calendar")
     @Operation(
             summary = "Vista de calendario",
-            description = "Lista todas las citas en un rango de fechas para la vista de calendario."
+            description = "Lista todas las citas en un rango de fechas para la vista de calendario. " +
+                    "Responde con ETag; si If-None-Match coincide retorna 304 sin cuerpo."
     )
     public ResponseEntity<@NotNull List<AppointmentResponseDTO>> getCalendarView(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            WebRequest request
+    ) {
+        String eTag = adminService.getCalendarViewETag(start, end);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(adminService.getCalendarView(start, end));
+    }
+
+    @GetMapping("/calendar/export")
+    @Operation(
+            summary = "Exportar el calendario (NDJSON)",
+            description = "Descarga las citas del rango como NDJSON: un objeto por línea con la misma forma " +
+                    "que /calendar. Las filas se escriben a medida que se leen de la BD, así que sirve " +
+                    "para rangos largos (p. ej. un año) sin cargar todo en memoria."
+    )
+    public ResponseEntity<@NotNull StreamingResponseBody> exportCalendar(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end
     ) {
-        return ResponseEntity.ok(adminService.getCalendarView(start, end));
+        // El cuerpo se escribe en el hilo asíncrono de MVC; la transacción de lectura
+        // la abre el servicio ahí mismo y dura lo que dure la descarga.
+        StreamingResponseBody body = out ->
+                adminService.exportCalendar(start, end, row -> writeNdjsonLine(out, row));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("calendario_" + start + "_" + end + ".ndjson")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream de cambios de la agenda (SSE)",
+            description = "Mantiene la conexión abierta y envía un evento agenda-change por cada cita creada, " +
+                    "cancelada o reasignada. Sin cambios envía un comentario heartbeat. Al reconectar con " +
+                    "Last-Event-ID reenvía lo perdido, o un evento resync si hay que recargar la agenda."
+    )
+    public SseEmitter streamAgendaChanges(
+            @Parameter(description = "Id del último evento recibido (lo envía el navegador al reconectar)")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        // El hilo de Tomcat vuelve al pool al retornar; los envíos corren en un hilo virtual por pantalla
+        return adminService.streamAgendaChanges(lastEventId);
+    }
+
+    private void writeNdjsonLine(OutputStream out, AppointmentResponseDTO row) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(row));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @GetMapping("/available-slots")
@@ -78,6 +164,20 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAvailableSlots(date, type));
     }
 
+    @GetMapping("/available-slots/range")
+    @Operation(
+            summary = "Consultar disponibilidad en un rango de fechas",
+            description = "Consulta los slots disponibles de cada día laboral del rango (máximo 31 días), " +
+                    "para un tipo de cita o para todos si no se envía el tipo."
+    )
+    public ResponseEntity<@NotNull MultiDayAvailabilityResponseDTO> getAvailableSlotsBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(required = false) AppointmentType type
+    ) {
+        return ResponseEntity.ok(adminService.getAvailableSlotsBetween(start, end, type));
+    }
+
     // ---------------------------------------------------------------
     // OPERACIONES EXCLUSIVAS DEL ADMIN
     // ---------------------------------------------------------------
@@ -139,6 +239,59 @@ public class AdminController {
         return ResponseEntity.ok(adminService.changeTechnician(appointmentId, request));
     }
 
+    // ---------------------------------------------------------------
+    // CALENDARIO LABORAL (FESTIVOS Y CIERRES DEL TALLER)
+    // ---------------------------------------------------------------
+
+    @PostMapping("/closures")
+    @Operation(
+            summary = "Cerrar el taller en una fecha",
+            description = "Registra un cierre del taller. Ese día no se ofrece disponibilidad ni se aceptan " +
+                    "citas nuevas; las citas ya agendadas no se modifican."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Cierre registrado"),
+            @ApiResponse(responseCode = "400", description = "Fecha inválida o ya cerrada",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull WorkshopClosureResponseDTO> createWorkshopClosure(
+            @Valid @RequestBody CreateWorkshopClosureRequestDTO request
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(adminService.createWorkshopClosure(request));
+    }
+
+    @GetMapping("/closures")
+    @Operation(summary = "Cierres del taller de un año")
+    public ResponseEntity<@NotNull List<WorkshopClosureResponseDTO>> getWorkshopClosures(
+            @Parameter(description = "Año a consultar") @RequestParam int year
+    ) {
+        return ResponseEntity.ok(adminService.getWorkshopClosures(year));
+    }
+
+    @DeleteMapping("/closures/{closureId}")
+    @Operation(summary = "Eliminar un cierre del taller")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Cierre eliminado"),
+            @ApiResponse(responseCode = "404", description = "Cierre no encontrado",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull Object> deleteWorkshopClosure(@PathVariable Long closureId) {
+        adminService.deleteWorkshopClosure(closureId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/holidays")
+    @Operation(
+            summary = "Festivos nacionales de un año",
+            description = "Festivos de Colombia (fijos, trasladados a lunes por Ley Emiliani y basados en la Pascua)."
+    )
+    public ResponseEntity<@NotNull List<LocalDate>> getPublicHolidays(
+            @Parameter(description = "Año a consultar") @RequestParam int year
+    ) {
+        return ResponseEntity.ok(adminService.getPublicHolidays(year));
+    }
+
     // ---------------------------------------------------------------
     // CONSULTAS ADMINISTRATIVAS
     // ---------------------------------------------------------------
@@ -166,4 +319,44 @@ public class AdminController {
     ) {
         return ResponseEntity.ok(adminService.getVehicleAppointmentHistory(vehicleId));
     }
+
+    @GetMapping("/client/{clientId}/page")
+    @Operation(
+            summary = "Historial de citas de un cliente por páginas",
+            description = "Paginado por cursor, de la cita más reciente a la más antigua."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página del historial"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o tamaño de página fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull CursorPageResponseDTO<AppointmentResponseDTO>> getClientHistoryPage(
+            @PathVariable Long clientId,
+            @Parameter(description = "nextCursor de la página anterior; se omite para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-100)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(adminService.getClientAppointmentHistoryPage(clientId, cursor, size));
+    }
+
+    @GetMapping("/vehicle/{vehicleId}/page")
+    @Operation(
+            summary = "Historial de citas de un vehículo por páginas",
+            description = "Paginado por cursor, de la cita más reciente a la más antigua."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página del historial"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o tamaño de página fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull CursorPageResponseDTO<AppointmentResponseDTO>> getVehicleHistoryPage(
+            @PathVariable Long vehicleId,
+            @Parameter(description = "nextCursor de la página anterior; se omite para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-100)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(adminService.getVehicleAppointmentHistoryPage(vehicleId, cursor, size));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.sparktech.motorx.controller;
+
+import com.sparktech.motorx.Services.IKpiService;
+import com.sparktech.motorx.dto.error.ResponseErrorDTO;
+import com.sparktech.motorx.dto.kpi.KpiDashboardResponseDTO;
+import com.sparktech.motorx.dto.kpi.KpiMetric;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/admin/kpis")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Indicadores", description = "Tablero de indicadores del taller: ocupación, cancelaciones, conflictos, registros y tiempos promedio")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminKpiController {
+
+    private final IKpiService kpiService;
+
+    @GetMapping
+    @Operation(
+            summary = "Indicadores de un rango de fechas",
+            description = "Calcula los indicadores pedidos (todos si se omite metrics) entre start y end, inclusive. " +
+                    "Los resultados se cachean unos segundos por indicador y rango; un valor null indica que " +
+                    "el rango no tiene datos para calcularlo."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Indicadores calculados"),
+            @ApiResponse(responseCode = "400", description = "Rango inválido o indicador desconocido",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull KpiDashboardResponseDTO> getDashboard(
+            @Parameter(description = "Fecha inicial (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @Parameter(description = "Fecha final (yyyy-MM-dd), máximo 366 días después de start")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @Parameter(description = "Indicadores a calcular, separados por coma; se omite para todos")
+            @RequestParam(required = false) Set<KpiMetric> metrics
+    ) {
+        return ResponseEntity.ok(kpiService.getDashboard(start, end, metrics));
+    }
+}
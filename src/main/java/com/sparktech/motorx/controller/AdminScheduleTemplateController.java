@@ -0,0 +1,92 @@
+package com.sparktech.motorx.controller;
+
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateRequestDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateResponseDTO;
+import com.sparktech.motorx.dto.error.ResponseErrorDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/schedule-templates")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Plantillas de horario", description = "Versiones de los horarios de recepción, duraciones y almuerzo del taller")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminScheduleTemplateController {
+
+    private final IScheduleTemplateService scheduleTemplateService;
+
+    @PostMapping
+    @Operation(
+            summary = "Publicar una versión de la plantilla de horarios",
+            description = "Crea una versión nueva con las reglas de todos los tipos de cita y la activa sin reiniciar. " +
+                    "Las citas ya agendadas conservan su horario."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Versión publicada y activa"),
+            @ApiResponse(responseCode = "400", description = "Plantilla inválida",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull ScheduleTemplateResponseDTO> publishTemplate(
+            @Valid @RequestBody ScheduleTemplateRequestDTO request
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(scheduleTemplateService.publish(request));
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar versiones", description = "Todas las versiones, de la más reciente a la más antigua.")
+    public ResponseEntity<@NotNull List<ScheduleTemplateResponseDTO>> getTemplates() {
+        return ResponseEntity.ok(scheduleTemplateService.getTemplates());
+    }
+
+    @GetMapping("/active")
+    @Operation(summary = "Versión activa")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Versión activa"),
+            @ApiResponse(responseCode = "400", description = "No hay una versión activa",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull ScheduleTemplateResponseDTO> getActiveTemplate() {
+        return ResponseEntity.ok(scheduleTemplateService.getActiveTemplate());
+    }
+
+    @GetMapping("/{templateId}")
+    @Operation(summary = "Detalle de una versión")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Versión encontrada"),
+            @ApiResponse(responseCode = "404", description = "Versión no encontrada",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull ScheduleTemplateResponseDTO> getTemplate(@PathVariable Long templateId) {
+        return ResponseEntity.ok(scheduleTemplateService.getTemplate(templateId));
+    }
+
+    @PatchMapping("/{templateId}/activate")
+    @Operation(
+            summary = "Reactivar una versión",
+            description = "Vuelve a activar una versión anterior (p. ej. para deshacer un cambio de horarios)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Versión activa"),
+            @ApiResponse(responseCode = "404", description = "Versión no encontrada",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull ScheduleTemplateResponseDTO> activateTemplate(@PathVariable Long templateId) {
+        return ResponseEntity.ok(scheduleTemplateService.activate(templateId));
+    }
+}
@@ -2,8 +2,10 @@ package com.sparktech.motorx.controller;
 
 import com.sparktech.motorx.Services.IAdminUserService;
 import com.sparktech.motorx.dto.error.ResponseErrorDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.user.AdminUserResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -45,6 +47,26 @@ public class AdminUserController {
         return ResponseEntity.ok(adminUserService.getAllUsers());
     }
 
+    @GetMapping("/page")
+    @Operation(
+            summary = "Listar usuarios por páginas",
+            description = "Igual que el listado completo (incluye eliminados), paginado por cursor " +
+                    "(más recientes primero)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de usuarios"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o tamaño de página fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull CursorPageResponseDTO<AdminUserResponseDTO>> getAllUsersPage(
+            @Parameter(description = "nextCursor de la página anterior; se omite para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-100)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(adminUserService.getAllUsersPage(cursor, size));
+    }
+
     @GetMapping("/{userId}")
     @Operation(
             summary = "Detalle de un usuario",
@@ -2,9 +2,11 @@ package com.sparktech.motorx.controller;
 
 import com.sparktech.motorx.Services.IEmployeeService;
 import com.sparktech.motorx.dto.error.ResponseErrorDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.TransferVehicleOwnershipRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -36,6 +38,25 @@ public class AdminVehicleController {
         return ResponseEntity.ok(employeeService.getAllVehicles());
     }
 
+    @GetMapping("/page")
+    @Operation(
+            summary = "Listar vehículos por páginas",
+            description = "Igual que el listado completo, paginado por cursor (más recientes primero)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de vehículos"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o tamaño de página fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull CursorPageResponseDTO<VehicleResponseDTO>> getAllVehiclesPage(
+            @Parameter(description = "nextCursor de la página anterior; se omite para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-100)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(employeeService.getAllVehiclesPage(cursor, size));
+    }
+
     @GetMapping("/{vehicleId}")
     @Operation(summary = "Detalle de un vehículo", description = "Obtiene la información completa de un vehículo.")
     @ApiResponses(value = {
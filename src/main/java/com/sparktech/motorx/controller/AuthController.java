@@ -15,6 +15,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -47,11 +48,15 @@ public class AuthController {
             @ApiResponse(responseCode = "401", description = "Credenciales inválidas",
                     content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
             @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
+            @ApiResponse(responseCode = "429", description = "Demasiados intentos fallidos; la cabecera Retry-After indica los segundos de espera",
                     content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
     })
-    public ResponseEntity<@NotNull Object> login(@Valid @RequestBody LoginRequestDTO loginRequest) throws InvalidPasswordException {
+    public ResponseEntity<@NotNull Object> login(@Valid @RequestBody LoginRequestDTO loginRequest,
+                                                 HttpServletRequest request) throws InvalidPasswordException {
         log.info("Petición de login recibida para: {}", loginRequest.email());
-        Object response = authService.login(loginRequest);
+        // Con server.forward-headers-strategy=native es la IP del cliente aunque haya un proxy delante
+        Object response = authService.login(loginRequest, request.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
@@ -1,11 +1,16 @@
 package com.sparktech.motorx.controller;
 
+import com.sparktech.motorx.dto.appointment.BulkAppointmentResponseDTO;
+import com.sparktech.motorx.dto.appointment.BulkCreateAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
 import com.sparktech.motorx.dto.appointment.LicensePlateRestrictionResponseDTO;
 import com.sparktech.motorx.dto.appointment.ReworkRedirectResponseDTO;
+import com.sparktech.motorx.dto.appointment.WaitlistEntryResponseDTO;
 import com.sparktech.motorx.dto.error.ResponseErrorDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentType;
 import com.sparktech.motorx.Services.IUserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,10 +25,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -63,6 +70,30 @@ public class UserController {
         return ResponseEntity.ok(userService.getAvailableSlots(date, type));
     }
 
+    @GetMapping("/available-slots/range")
+    @Operation(
+            summary = "Consultar horarios disponibles en un rango de fechas",
+            description = "Devuelve los slots disponibles de cada día laboral entre start y end (máximo 31 días). " +
+                    "Si no se envía el tipo, incluye todos los tipos de cita agendables. Los fines de semana se omiten."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Slots consultados exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas o tipo de cita inválidos",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No autenticado",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull MultiDayAvailabilityResponseDTO> getAvailableSlotsBetween(
+            @Parameter(description = "Fecha inicial del rango (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @Parameter(description = "Fecha final del rango, inclusive (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @Parameter(description = "Tipo de cita (opcional)")
+            @RequestParam(required = false) AppointmentType type
+    ) {
+        return ResponseEntity.ok(userService.getAvailableSlotsBetween(start, end, type));
+    }
+
 
 
     @GetMapping("/check-plate-restriction")
@@ -130,14 +161,67 @@ public class UserController {
                 .body(userService.scheduleAppointment(request));
     }
 
+    @PostMapping("/bulk")
+    @Operation(
+            summary = "Agendar citas en lote (flotas)",
+            description = "Agenda hasta 50 citas del usuario autenticado en una sola petición. " +
+                    "Cada elemento se valida como un agendamiento individual (pico y placa, marca, " +
+                    "horario, cita activa y disponibilidad de técnicos). Los elementos que fallan " +
+                    "se reportan con su motivo sin impedir que los demás se creen. " +
+                    "Se envía un solo correo con todas las citas creadas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado; revisar el resultado de cada elemento"),
+            @ApiResponse(responseCode = "400", description = "Lote vacío, con más de 50 citas o con datos inválidos",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
+            @ApiResponse(responseCode = "401", description = "No autenticado",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull BulkAppointmentResponseDTO> scheduleAppointmentsBulk(
+            @Valid @RequestBody BulkCreateAppointmentRequestDTO request
+    ) {
+        return ResponseEntity.ok(userService.scheduleAppointmentsBulk(request));
+    }
+
     // ---------------------------------------------------------------
     // GESTIÓN DE CITAS PROPIAS
     // ---------------------------------------------------------------
 
     @GetMapping("/my")
-    @Operation(summary = "Historial de mis citas", description = "Lista todas las citas del cliente autenticado.")
-    public ResponseEntity<@NotNull List<AppointmentResponseDTO>> getMyAppointments() {
-        return ResponseEntity.ok(userService.getMyAppointmentHistory());
+    @Operation(
+            summary = "Historial de mis citas",
+            description = "Lista todas las citas del cliente autenticado. " +
+                    "Responde con ETag; si If-None-Match coincide retorna 304 sin cuerpo."
+    )
+    public ResponseEntity<@NotNull List<AppointmentResponseDTO>> getMyAppointments(WebRequest request) {
+        String eTag = userService.getMyAppointmentHistoryETag();
+        if (request.checkNotModified(eTag)) {
+            // checkNotModified ya escribió el 304 con el ETag; las citas no se consultan
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(userService.getMyAppointmentHistory());
+    }
+
+    @GetMapping("/my/page")
+    @Operation(
+            summary = "Historial de mis citas por páginas",
+            description = "Paginado por cursor, de la cita más reciente a la más antigua."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página del historial"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o tamaño de página fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull CursorPageResponseDTO<AppointmentResponseDTO>> getMyAppointmentsPage(
+            @Parameter(description = "nextCursor de la página anterior; se omite para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-100)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(userService.getMyAppointmentHistoryPage(cursor, size));
     }
 
     @GetMapping("/my/{appointmentId}")
@@ -156,6 +240,26 @@ public class UserController {
         return ResponseEntity.ok(userService.getMyVehicleAppointments(vehicleId));
     }
 
+    @GetMapping("/my/vehicle/{vehicleId}/page")
+    @Operation(
+            summary = "Citas de un vehículo por páginas",
+            description = "Historial de un vehículo del cliente paginado por cursor, de la cita más reciente a la más antigua."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página del historial"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido, tamaño fuera de rango o vehículo ajeno",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull CursorPageResponseDTO<AppointmentResponseDTO>> getMyVehicleAppointmentsPage(
+            @PathVariable Long vehicleId,
+            @Parameter(description = "nextCursor de la página anterior; se omite para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-100)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(userService.getMyVehicleAppointmentsPage(vehicleId, cursor, size));
+    }
+
     @DeleteMapping("/my/{appointmentId}")
     @Operation(summary = "Cancelar mi cita", description = "Cancela una cita del cliente autenticado.")
     @ApiResponses(value= {
@@ -170,4 +274,56 @@ public class UserController {
     ) {
         return ResponseEntity.ok(userService.cancelMyAppointment(appointmentId));
     }
+
+    // ---------------------------------------------------------------
+    // LISTA DE ESPERA
+    // ---------------------------------------------------------------
+
+    @PostMapping("/waitlist")
+    @Operation(
+            summary = "Anotarse en lista de espera",
+            description = "Anota al cliente en la lista de espera de un horario sin técnicos libres. " +
+                    "Si una cancelación libera ese horario, la cita se agenda automáticamente para el " +
+                    "primero de la fila y se le envía el correo de confirmación."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Cliente anotado en la lista de espera"),
+            @ApiResponse(responseCode = "400", description = "El horario aún tiene cupo, el vehículo ya está en espera o datos inválidos",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
+            @ApiResponse(responseCode = "403", description = "El vehículo no pertenece al usuario",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
+            @ApiResponse(responseCode = "409", description = "Pico y placa o el vehículo ya tiene una cita activa",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull WaitlistEntryResponseDTO> joinWaitlist(
+            @Valid @RequestBody CreateAppointmentRequestDTO request
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(userService.joinWaitlist(request));
+    }
+
+    @GetMapping("/waitlist")
+    @Operation(summary = "Mis solicitudes de lista de espera",
+            description = "Lista las solicitudes de lista de espera del cliente y su estado " +
+                    "(WAITING, PROMOTED con la cita creada, DISCARDED con el motivo, CANCELLED).")
+    public ResponseEntity<@NotNull List<WaitlistEntryResponseDTO>> getMyWaitlistEntries() {
+        return ResponseEntity.ok(userService.getMyWaitlistEntries());
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    @Operation(summary = "Salir de la lista de espera", description = "Retira una solicitud que sigue en espera.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitud retirada"),
+            @ApiResponse(responseCode = "400", description = "La solicitud ya no está en espera",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
+            @ApiResponse(responseCode = "403", description = "La solicitud no pertenece al usuario",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Solicitud no encontrada",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull WaitlistEntryResponseDTO> leaveWaitlist(
+            @PathVariable Long entryId
+    ) {
+        return ResponseEntity.ok(userService.leaveWaitlist(entryId));
+    }
 }
\ No newline at end of file
@@ -2,11 +2,13 @@ package com.sparktech.motorx.controller;
 
 import com.sparktech.motorx.Services.IVehicleService;
 import com.sparktech.motorx.dto.error.ResponseErrorDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.CreateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.UpdateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 import com.sparktech.motorx.exception.VehicleDoesntBelongToUserException;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -60,6 +62,25 @@ public class VehicleController {
         return ResponseEntity.ok(vehicleService.getMyVehicles());
     }
 
+    @GetMapping("/page")
+    @Operation(
+            summary = "Listar mis vehículos por páginas",
+            description = "Igual que el listado completo, paginado por cursor (más recientes primero)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de vehículos"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido o tamaño de página fuera de rango",
+                    content = @Content(schema = @Schema(implementation = ResponseErrorDTO.class)))
+    })
+    public ResponseEntity<@NotNull CursorPageResponseDTO<VehicleResponseDTO>> getMyVehiclesPage(
+            @Parameter(description = "nextCursor de la página anterior; se omite para la primera página")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-100)")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(vehicleService.getMyVehiclesPage(cursor, size));
+    }
+
     @GetMapping("/{vehicleId}")
     @Operation(summary = "Detalle de un vehículo", description = "Obtiene el detalle de un vehículo propio.")
     @ApiResponses(value = {
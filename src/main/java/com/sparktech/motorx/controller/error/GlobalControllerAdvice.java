@@ -5,6 +5,7 @@ import com.sparktech.motorx.exception.*;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -57,6 +58,40 @@ public class GlobalControllerAdvice {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
 
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<@NotNull ResponseErrorDTO> handleTooManyLoginAttemptsException(TooManyLoginAttemptsException ex) {
+        ResponseErrorDTO error = new ResponseErrorDTO(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Demasiados intentos de inicio de sesión",
+                Map.of(KEY_DETAIL, ex.getMessage(), "tipo", "TooManyLoginAttemptsException")
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<@NotNull ResponseErrorDTO> handleRateLimitExceededException(RateLimitExceededException ex) {
+        ResponseErrorDTO error = new ResponseErrorDTO(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Demasiadas peticiones",
+                Map.of(KEY_DETAIL, ex.getMessage(), "tipo", "RateLimitExceededException")
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(RateLimitedBodyException.class)
+    public ResponseEntity<@NotNull ResponseErrorDTO> handleRateLimitedBodyException(RateLimitedBodyException ex) {
+        ResponseErrorDTO error = new ResponseErrorDTO(
+                ex.getStatus().value(),
+                "Cuerpo de la petición inválido",
+                Map.of(KEY_DETAIL, ex.getMessage(), "tipo", "RateLimitedBodyException")
+        );
+        return ResponseEntity.status(ex.getStatus()).body(error);
+    }
+
     @ExceptionHandler(InvalidTokenException.class)
     public ResponseEntity<@NotNull ResponseErrorDTO> handleInvalidTokenException(InvalidTokenException ex) {
         ResponseErrorDTO error = new ResponseErrorDTO(
@@ -151,6 +186,36 @@ public class GlobalControllerAdvice {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(WaitlistEntryNotFoundException.class)
+    public ResponseEntity<@NotNull ResponseErrorDTO> handleWaitlistEntryNotFoundException(WaitlistEntryNotFoundException ex) {
+        ResponseErrorDTO error = new ResponseErrorDTO(
+                HttpStatus.NOT_FOUND.value(),
+                "Solicitud de lista de espera no encontrada",
+                Map.of(KEY_DETAIL, ex.getMessage())
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(WorkshopClosureNotFoundException.class)
+    public ResponseEntity<@NotNull ResponseErrorDTO> handleWorkshopClosureNotFoundException(WorkshopClosureNotFoundException ex) {
+        ResponseErrorDTO error = new ResponseErrorDTO(
+                HttpStatus.NOT_FOUND.value(),
+                "Cierre del taller no encontrado",
+                Map.of(KEY_DETAIL, ex.getMessage())
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(ScheduleTemplateNotFoundException.class)
+    public ResponseEntity<@NotNull ResponseErrorDTO> handleScheduleTemplateNotFoundException(ScheduleTemplateNotFoundException ex) {
+        ResponseErrorDTO error = new ResponseErrorDTO(
+                HttpStatus.NOT_FOUND.value(),
+                "Plantilla de horarios no encontrada",
+                Map.of(KEY_DETAIL, ex.getMessage())
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
     // ---------------------------------------------------------------
     // EXCEPCIONES DE VEHÍCULOS
     // ---------------------------------------------------------------
@@ -0,0 +1,26 @@
+package com.sparktech.motorx.dto.appointment;
+
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangeType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Cambio de la agenda enviado por el stream SSE del admin.
+ * Solo lleva lo necesario para ubicar la cita en la agenda; si la pantalla necesita
+ * el detalle completo lo consulta por id.
+ */
+public record AgendaChangeEventDTO(
+        AppointmentChangeType changeType,
+        Long appointmentId,
+        AppointmentType appointmentType,
+        LocalDate appointmentDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        AppointmentStatus previousStatus,
+        AppointmentStatus status,
+        Long technicianId,
+        Long previousTechnicianId
+) {}
@@ -0,0 +1,23 @@
+package com.sparktech.motorx.dto.appointment;
+
+/**
+ * Resultado de un elemento del agendamiento en lote.
+ * index es la posición del elemento en la petición original.
+ * Si created es true, appointment trae la cita creada; si no, error explica el motivo.
+ */
+public record BulkAppointmentItemResultDTO(
+        int index,
+        Long vehicleId,
+        boolean created,
+        AppointmentResponseDTO appointment,
+        String error
+) {
+
+    public static BulkAppointmentItemResultDTO created(int index, Long vehicleId, AppointmentResponseDTO appointment) {
+        return new BulkAppointmentItemResultDTO(index, vehicleId, true, appointment, null);
+    }
+
+    public static BulkAppointmentItemResultDTO failed(int index, Long vehicleId, String error) {
+        return new BulkAppointmentItemResultDTO(index, vehicleId, false, null, error);
+    }
+}
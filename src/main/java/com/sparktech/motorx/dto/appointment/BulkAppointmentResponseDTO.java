@@ -0,0 +1,15 @@
+package com.sparktech.motorx.dto.appointment;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta del agendamiento en lote.
+ * results tiene un elemento por cada cita solicitada, en el mismo orden de la petición.
+ */
+public record BulkAppointmentResponseDTO(
+        int requested,
+        int created,
+        int failed,
+        List<BulkAppointmentItemResultDTO> results
+) {
+}
@@ -0,0 +1,21 @@
+package com.sparktech.motorx.dto.appointment;
+
+import com.sparktech.motorx.config.AppointmentScheduleConfig;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO para agendar varias citas en una sola petición (flotas de mensajería).
+ * Cada elemento se valida igual que un agendamiento individual; los que fallan
+ * se reportan en la respuesta sin impedir que los demás se creen.
+ */
+public record BulkCreateAppointmentRequestDTO(
+
+        @NotEmpty(message = "Debe incluir al menos una cita")
+        @Size(max = AppointmentScheduleConfig.MAX_BULK_APPOINTMENTS,
+                message = "No se pueden agendar más de " + AppointmentScheduleConfig.MAX_BULK_APPOINTMENTS + " citas por petición")
+        List<@Valid CreateAppointmentRequestDTO> appointments
+) {}
@@ -0,0 +1,21 @@
+package com.sparktech.motorx.dto.appointment;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * DTO para que el admin cierre el taller en una fecha puntual.
+ * Las citas ya agendadas ese día no se cancelan automáticamente.
+ */
+public record CreateWorkshopClosureRequestDTO(
+
+        @NotNull(message = "La fecha del cierre es obligatoria")
+        @FutureOrPresent(message = "La fecha del cierre no puede estar en el pasado")
+        LocalDate date,
+
+        @Size(max = 255, message = "El motivo no puede superar 255 caracteres")
+        String reason
+) {}
@@ -0,0 +1,16 @@
+package com.sparktech.motorx.dto.appointment;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta con la disponibilidad de varios días consecutivos.
+ * Contiene una entrada por cada día laboral del rango y cada tipo de cita consultado;
+ * los fines de semana se omiten.
+ */
+public record MultiDayAvailabilityResponseDTO(
+        LocalDate startDate,
+        LocalDate endDate,
+        List<AvailableSlotsResponseDTO> days
+) {
+}
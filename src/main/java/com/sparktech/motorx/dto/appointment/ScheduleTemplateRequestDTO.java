@@ -0,0 +1,34 @@
+package com.sparktech.motorx.dto.appointment;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO para que el admin publique una versión nueva de la plantilla de horarios.
+ * Debe incluir las reglas de todos los tipos de cita; la versión se activa de inmediato.
+ */
+public record ScheduleTemplateRequestDTO(
+
+        @Size(max = 255, message = "La descripción no puede superar 255 caracteres")
+        String description,
+
+        @NotNull(message = "La hora de inicio de la jornada es obligatoria")
+        LocalTime workStart,
+
+        @NotNull(message = "La hora de fin de la jornada es obligatoria")
+        LocalTime workEnd,
+
+        @NotNull(message = "La hora de inicio del almuerzo es obligatoria")
+        LocalTime lunchStart,
+
+        @NotNull(message = "La hora de fin del almuerzo es obligatoria")
+        LocalTime lunchEnd,
+
+        @NotEmpty(message = "Debe incluir las reglas de los tipos de cita")
+        List<@Valid ScheduleTypeRuleDTO> types
+) {}
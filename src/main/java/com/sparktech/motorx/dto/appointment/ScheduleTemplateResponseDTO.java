@@ -0,0 +1,21 @@
+package com.sparktech.motorx.dto.appointment;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO de respuesta con una versión de la plantilla de horarios.
+ */
+public record ScheduleTemplateResponseDTO(
+        Long id,
+        Integer version,
+        String description,
+        LocalTime workStart,
+        LocalTime workEnd,
+        LocalTime lunchStart,
+        LocalTime lunchEnd,
+        boolean active,
+        LocalDateTime createdAt,
+        List<ScheduleTypeRuleDTO> types
+) {}
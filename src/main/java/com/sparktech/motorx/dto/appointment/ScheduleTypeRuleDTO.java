@@ -0,0 +1,32 @@
+package com.sparktech.motorx.dto.appointment;
+
+import com.sparktech.motorx.entity.AppointmentType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Reglas de un tipo de cita dentro de una plantilla de horarios.
+ *
+ * @param slots Horarios de recepción; vacío si el tipo no se agenda por slot (UNPLANNED, REWORK)
+ */
+public record ScheduleTypeRuleDTO(
+
+        @NotNull(message = "El tipo de cita es obligatorio")
+        AppointmentType appointmentType,
+
+        @NotNull(message = "La duración es obligatoria")
+        @Min(value = 1, message = "La duración debe ser de al menos 1 minuto")
+        @Max(value = 1440, message = "La duración no puede superar un día")
+        Integer durationMinutes,
+
+        boolean autecoOnly,
+
+        boolean userBookable,
+
+        @NotNull(message = "Los horarios de recepción son obligatorios")
+        List<@NotNull LocalTime> slots
+) {}
@@ -0,0 +1,28 @@
+package com.sparktech.motorx.dto.appointment;
+
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.entity.WaitlistStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Solicitud de lista de espera del cliente.
+ * Cuando se libera el slot y se agenda la cita, status pasa a PROMOTED y
+ * appointmentId apunta a la cita creada; si no se pudo agendar, status es
+ * DISCARDED y discardReason indica el motivo.
+ */
+public record WaitlistEntryResponseDTO(
+        Long id,
+        Long vehicleId,
+        String vehicleLicensePlate,
+        AppointmentType appointmentType,
+        LocalDate appointmentDate,
+        LocalTime startTime,
+        WaitlistStatus status,
+        Long appointmentId,
+        String discardReason,
+        LocalDateTime createdAt,
+        LocalDateTime promotedAt
+) {}
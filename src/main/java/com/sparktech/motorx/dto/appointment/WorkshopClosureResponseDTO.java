@@ -0,0 +1,14 @@
+package com.sparktech.motorx.dto.appointment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cierre del taller definido por el admin.
+ */
+public record WorkshopClosureResponseDTO(
+        Long id,
+        LocalDate date,
+        String reason,
+        LocalDateTime createdAt
+) {}
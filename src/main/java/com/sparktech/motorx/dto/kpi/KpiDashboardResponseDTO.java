@@ -0,0 +1,15 @@
+package com.sparktech.motorx.dto.kpi;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Indicadores del tablero administrativo para un rango de fechas (inclusive).
+ * Un valor es null cuando el rango no tiene datos para calcularlo (p. ej. una tasa sin denominador).
+ */
+public record KpiDashboardResponseDTO(
+        LocalDate startDate,
+        LocalDate endDate,
+        Map<KpiMetric, Double> metrics
+) {
+}
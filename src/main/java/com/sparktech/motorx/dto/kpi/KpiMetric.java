@@ -0,0 +1,28 @@
+package com.sparktech.motorx.dto.kpi;
+
+/**
+ * Indicadores del tablero administrativo. Todos se calculan sobre un rango de fechas.
+ */
+public enum KpiMetric {
+
+    // Minutos reservados / capacidad de los técnicos activos en los días hábiles (%)
+    OCCUPANCY_RATE,
+
+    // Citas canceladas / citas del rango, por fecha de la cita (%)
+    CANCELLATION_RATE,
+
+    // APPOINTMENT_CONFLICT / (APPOINTMENT_CREATED + APPOINTMENT_CONFLICT) (%)
+    CONFLICT_RATE,
+
+    // USER_REGISTER_FAILED / USER_REGISTER_ATTEMPT (%)
+    FAILED_REGISTRATION_RATE,
+
+    // Usuarios registrados en el rango
+    REGISTERED_USERS,
+
+    // Horas promedio entre la creación de la cita y su inicio
+    AVERAGE_LEAD_TIME_HOURS,
+
+    // Minutos promedio entre la solicitud del código de recuperación y su canje
+    AVERAGE_PASSWORD_RECOVERY_MINUTES
+}
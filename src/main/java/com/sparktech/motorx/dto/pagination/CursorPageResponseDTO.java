@@ -0,0 +1,15 @@
+package com.sparktech.motorx.dto.pagination;
+
+import java.util.List;
+
+/**
+ * Página de un listado paginado por cursor (keyset).
+ * Para pedir la siguiente página se envía nextCursor como parámetro cursor;
+ * el cursor es opaco para el cliente y es null cuando no hay más resultados.
+ */
+public record CursorPageResponseDTO<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasMore
+) {
+}
@@ -12,6 +12,10 @@ import java.time.LocalTime;
         name = "appointments",
         indexes = {
                 @Index(name = "idx_appointment_vehicle", columnList = "vehicle_id"),
+                @Index(name = "idx_appointment_vehicle_keyset",
+                        columnList = "vehicle_id, appointment_date DESC, start_time DESC, id DESC"),
+                @Index(name = "idx_appointment_owner_keyset",
+                        columnList = "owner_id, appointment_date DESC, start_time DESC, id DESC"),
                 @Index(name = "idx_appointment_technician", columnList = "technician_id"),
                 @Index(name = "idx_appointment_date", columnList = "appointment_date"),
                 @Index(name = "idx_appointment_status", columnList = "status")
@@ -25,7 +29,8 @@ import java.time.LocalTime;
 public class AppointmentEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_id_seq")
+    @SequenceGenerator(name = "appointments_id_seq", sequenceName = "appointments_id_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -67,6 +72,14 @@ public class AppointmentEntity {
     @JoinColumn(name = "vehicle_id", nullable = false)
     private VehicleEntity vehicle;
 
+    /**
+     * Dueño actual del vehículo, copiado en la cita para paginar el historial del cliente
+     * por idx_appointment_owner_keyset sin pasar por vehicles. Se toma del vehículo al
+     * insertar y se reasigna en bloque cuando el vehículo cambia de dueño.
+     */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "technician_id")
     private EmployeeEntity technician;
@@ -77,6 +90,7 @@ public class AppointmentEntity {
     @PrePersist
     private void prePersist() {
         validateTimes();
+        this.ownerId = vehicle.getOwner().getId();
         this.createdAt = LocalDateTime.now();
     }
 
@@ -0,0 +1,49 @@
+package com.sparktech.motorx.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Acumulado de un día del taller para un tipo de cita y un estado: cuántas citas hay
+ * y cuántos minutos (endTime - startTime) suman. Lo mantiene el servicio de estadísticas
+ * en la misma transacción de cada cambio de cita; los indicadores leen de aquí.
+ */
+@Entity
+@Table(
+        name = "daily_workshop_stats",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_daily_workshop_stats_day",
+                columnNames = {"stat_date", "appointment_type", "status"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyWorkshopStatsEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_workshop_stats_id_seq")
+    @SequenceGenerator(name = "daily_workshop_stats_id_seq", sequenceName = "daily_workshop_stats_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "appointment_type", nullable = false, length = 30)
+    private AppointmentType appointmentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private AppointmentStatus status;
+
+    @Column(name = "appointment_count", nullable = false)
+    private int appointmentCount;
+
+    @Column(name = "reserved_minutes", nullable = false)
+    private long reservedMinutes;
+}
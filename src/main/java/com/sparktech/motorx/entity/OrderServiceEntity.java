@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class OrderServiceEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_orders_id_seq")
+    @SequenceGenerator(name = "service_orders_id_seq", sequenceName = "service_orders_id_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY, optional = false)
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class PasswordResetTokenEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // AUTO_INCREMENT con Integer
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_reset_tokens_id_seq")
+    @SequenceGenerator(name = "password_reset_tokens_id_seq", sequenceName = "password_reset_tokens_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false) // Hash obligatorio y limitado en DB
@@ -0,0 +1,57 @@
+package com.sparktech.motorx.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Versión de la plantilla de horarios del taller. Cada cambio del admin crea una
+ * versión nueva; las anteriores se conservan para poder reactivarlas.
+ * Las reglas por tipo y los horarios de recepción están en
+ * {@link ScheduleTemplateTypeEntity} y {@link ScheduleTemplateSlotEntity}.
+ */
+@Entity
+@Table(name = "schedule_templates")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleTemplateEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_templates_id_seq")
+    @SequenceGenerator(name = "schedule_templates_id_seq", sequenceName = "schedule_templates_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Integer version;
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(name = "work_start", nullable = false)
+    private LocalTime workStart;
+
+    @Column(name = "work_end", nullable = false)
+    private LocalTime workEnd;
+
+    @Column(name = "lunch_start", nullable = false)
+    private LocalTime lunchStart;
+
+    @Column(name = "lunch_end", nullable = false)
+    private LocalTime lunchEnd;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    private void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
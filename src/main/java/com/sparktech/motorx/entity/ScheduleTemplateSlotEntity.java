@@ -0,0 +1,40 @@
+package com.sparktech.motorx.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalTime;
+
+/**
+ * Horario de recepción válido para un tipo de cita dentro de una versión de la plantilla.
+ */
+@Entity
+@Table(
+        name = "schedule_template_slots",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_schedule_slot", columnNames = {"template_id", "appointment_type", "start_time"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleTemplateSlotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_template_slots_id_seq")
+    @SequenceGenerator(name = "schedule_template_slots_id_seq", sequenceName = "schedule_template_slots_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "template_id", nullable = false)
+    private ScheduleTemplateEntity template;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "appointment_type", nullable = false, length = 30)
+    private AppointmentType appointmentType;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+}
@@ -0,0 +1,45 @@
+package com.sparktech.motorx.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Reglas de un tipo de cita dentro de una versión de la plantilla de horarios.
+ */
+@Entity
+@Table(
+        name = "schedule_template_types",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_schedule_type", columnNames = {"template_id", "appointment_type"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduleTemplateTypeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_template_types_id_seq")
+    @SequenceGenerator(name = "schedule_template_types_id_seq", sequenceName = "schedule_template_types_id_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "template_id", nullable = false)
+    private ScheduleTemplateEntity template;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "appointment_type", nullable = false, length = 30)
+    private AppointmentType appointmentType;
+
+    // Duración estimada del servicio; define el endTime de la cita
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    @Column(name = "auteco_only", nullable = false)
+    private boolean autecoOnly;
+
+    @Column(name = "user_bookable", nullable = false)
+    private boolean userBookable;
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class ServiceEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "services_id_seq")
+    @SequenceGenerator(name = "services_id_seq", sequenceName = "services_id_seq", allocationSize = 50)
     private Long id;
 
 
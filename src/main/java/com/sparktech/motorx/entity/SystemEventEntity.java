@@ -1,20 +1,27 @@
 package com.sparktech.motorx.entity;
 
 import jakarta.persistence.*;
+import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "system_events",
          indexes = {
-              @Index(name = "idx_event_type", columnList = "eventType"),
-              @Index(name = "idx_event_date", columnList = "eventDate")
+              @Index(name = "idx_event_date", columnList = "eventDate"),
+              @Index(name = "idx_event_type_date", columnList = "eventType, eventDate")
          }
 )
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class SystemEventEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "system_events_id_seq")
+    @SequenceGenerator(name = "system_events_id_seq", sequenceName = "system_events_id_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
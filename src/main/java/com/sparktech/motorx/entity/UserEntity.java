@@ -23,11 +23,13 @@ import java.util.List;
 @Table(name = "users"
         , indexes = {
         @Index(name = "idx_user_dni", columnList = "dni"),
-        @Index(name = "idx_user_email", columnList = "email")
+        @Index(name = "idx_user_email", columnList = "email"),
+        @Index(name = "idx_user_created_keyset", columnList = "createdAt DESC, id DESC")
 })
 public class UserEntity implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 150)
@@ -64,6 +66,10 @@ public class UserEntity implements UserDetails {
     @Column(nullable = true)
     private LocalDateTime deletedAt;
 
+    // Se incrementa con cada cambio que debe invalidar los JWT ya emitidos (claim sv)
+    @Column(nullable = false)
+    private int securityVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -76,6 +82,13 @@ public class UserEntity implements UserDetails {
     }
 
 
+    /**
+     * Invalida los JWT emitidos hasta ahora: contraseña nueva, bloqueo, desbloqueo o eliminación.
+     */
+    public void incrementSecurityVersion() {
+        this.securityVersion++;
+    }
+
     @Override
     public @NotNull Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(
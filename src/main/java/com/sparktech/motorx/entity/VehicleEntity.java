@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Table(name = "vehicles",
         indexes = {
                 @Index(name = "idx_vehicle_license_plate", columnList = "licensePlate"),
-                @Index(name = "idx_vehicle_user", columnList = "user_id")
+                @Index(name = "idx_vehicle_user", columnList = "user_id"),
+                @Index(name = "idx_vehicle_user_keyset", columnList = "user_id, createdAt DESC, id DESC"),
+                @Index(name = "idx_vehicle_created_keyset", columnList = "createdAt DESC, id DESC")
         })
 @Getter
 @Setter
@@ -21,7 +23,8 @@ import java.time.LocalDateTime;
 public class VehicleEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicles_id_seq")
+    @SequenceGenerator(name = "vehicles_id_seq", sequenceName = "vehicles_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -0,0 +1,84 @@
+package com.sparktech.motorx.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Cliente en espera de un cupo para (fecha, tipo de cita, slot).
+ * Guarda los mismos datos de la solicitud de cita para poder agendarla
+ * sin intervención del cliente cuando se libere el slot.
+ */
+@Entity
+@Table(
+        name = "appointment_waitlist",
+        indexes = {
+                @Index(name = "idx_waitlist_client", columnList = "client_id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_waitlist_id_seq")
+    @SequenceGenerator(name = "appointment_waitlist_id_seq", sequenceName = "appointment_waitlist_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "appointment_type", nullable = false, length = 30)
+    private AppointmentType appointmentType;
+
+    @Column(name = "appointment_date", nullable = false)
+    private LocalDate appointmentDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "current_mileage", nullable = false)
+    private Integer currentMileage;
+
+    @Column(name = "client_notes", length = 500)
+    private String clientNotes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WaitlistStatus status;
+
+    // Motivo por el que no se pudo agendar al promoverlo (p. ej. pico y placa)
+    @Column(name = "discard_reason", length = 500)
+    private String discardReason;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Cuándo la tomó el despachador; el barrido recupera las que quedan en PROMOTING
+    @Column(name = "promoting_since")
+    private LocalDateTime promotingSince;
+
+    @Column(name = "promoted_at")
+    private LocalDateTime promotedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vehicle_id", nullable = false)
+    private VehicleEntity vehicle;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "client_id", nullable = false)
+    private UserEntity client;
+
+    // Cita creada al promoverlo
+    @Column(name = "appointment_id")
+    private Long appointmentId;
+
+    @PrePersist
+    private void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
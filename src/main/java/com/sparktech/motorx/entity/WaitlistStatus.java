@@ -0,0 +1,9 @@
+package com.sparktech.motorx.entity;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTING,
+    PROMOTED,
+    DISCARDED,
+    CANCELLED
+}
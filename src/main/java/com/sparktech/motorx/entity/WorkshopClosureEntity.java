@@ -0,0 +1,40 @@
+package com.sparktech.motorx.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fecha en que el taller no atiende por decisión del admin (además de
+ * fines de semana y festivos). Se consulta desde el calendario laboral.
+ */
+@Entity
+@Table(name = "workshop_closures")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkshopClosureEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workshop_closures_id_seq")
+    @SequenceGenerator(name = "workshop_closures_id_seq", sequenceName = "workshop_closures_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "closure_date", nullable = false, unique = true)
+    private LocalDate closureDate;
+
+    @Column(length = 255)
+    private String reason;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    private void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,10 @@
+package com.sparktech.motorx.event;
+
+/**
+ * Tipos de cambio sobre una cita que se publican como {@link AppointmentChangedEvent}.
+ */
+public enum AppointmentChangeType {
+    CREATED,
+    CANCELLED,
+    TECHNICIAN_CHANGED
+}
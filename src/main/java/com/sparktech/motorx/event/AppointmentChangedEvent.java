@@ -0,0 +1,62 @@
+package com.sparktech.motorx.event;
+
+import com.sparktech.motorx.entity.AppointmentEntity;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Evento de dominio publicado cada vez que una cita se crea, se cancela o cambia de técnico.
+ * Lleva solo valores planos (nunca la entidad JPA) para que los listeners puedan ejecutarse
+ * después del commit o en otro hilo sin depender de la sesión de Hibernate.
+ */
+public record AppointmentChangedEvent(
+        AppointmentChangeType changeType,
+        Long appointmentId,
+        AppointmentType appointmentType,
+        LocalDate appointmentDate,
+        LocalTime startTime,
+        LocalTime endTime,
+        AppointmentStatus previousStatus,
+        AppointmentStatus status,
+        Long technicianId,
+        Long previousTechnicianId,
+        Long ownerId
+) {
+
+    public static AppointmentChangedEvent created(AppointmentEntity appointment) {
+        return of(AppointmentChangeType.CREATED, appointment, null, null);
+    }
+
+    public static AppointmentChangedEvent cancelled(AppointmentEntity appointment, AppointmentStatus previousStatus) {
+        return of(AppointmentChangeType.CANCELLED, appointment, previousStatus, null);
+    }
+
+    public static AppointmentChangedEvent technicianChanged(AppointmentEntity appointment, Long previousTechnicianId) {
+        return of(AppointmentChangeType.TECHNICIAN_CHANGED, appointment, appointment.getStatus(), previousTechnicianId);
+    }
+
+    private static AppointmentChangedEvent of(AppointmentChangeType changeType,
+                                              AppointmentEntity appointment,
+                                              AppointmentStatus previousStatus,
+                                              Long previousTechnicianId) {
+        Long ownerId = appointment.getVehicle() != null && appointment.getVehicle().getOwner() != null
+                ? appointment.getVehicle().getOwner().getId()
+                : null;
+        return new AppointmentChangedEvent(
+                changeType,
+                appointment.getId(),
+                appointment.getAppointmentType(),
+                appointment.getAppointmentDate(),
+                appointment.getStartTime(),
+                appointment.getEndTime(),
+                previousStatus,
+                appointment.getStatus(),
+                appointment.getTechnician() != null ? appointment.getTechnician().getId() : null,
+                previousTechnicianId,
+                ownerId
+        );
+    }
+}
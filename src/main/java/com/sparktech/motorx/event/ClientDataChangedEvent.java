@@ -0,0 +1,9 @@
+package com.sparktech.motorx.event;
+
+/**
+ * Evento publicado cuando cambian datos de un cliente o de sus vehículos que se muestran
+ * en las citas (nombre, marca/modelo, dueño del vehículo). Las citas no cambian, pero las
+ * respuestas ya entregadas con ETag dejan de ser válidas.
+ */
+public record ClientDataChangedEvent(Long userId) {
+}
@@ -0,0 +1,8 @@
+package com.sparktech.motorx.event;
+
+/**
+ * Evento publicado cuando un empleado se crea, se elimina o cambia de cargo/estado.
+ * Los componentes que cachean la plantilla de mecánicos activos lo usan para invalidarse.
+ */
+public record EmployeeChangedEvent(Long employeeId) {
+}
@@ -0,0 +1,8 @@
+package com.sparktech.motorx.event;
+
+/**
+ * Evento de dominio publicado cuando el admin publica o reactiva una versión de la
+ * plantilla de horarios. Después del commit se recompila y se reemplaza la plantilla activa.
+ */
+public record ScheduleTemplateChangedEvent(Long templateId) {
+}
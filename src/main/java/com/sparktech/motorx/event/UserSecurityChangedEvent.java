@@ -0,0 +1,9 @@
+package com.sparktech.motorx.event;
+
+/**
+ * Evento publicado cuando cambia la versión de seguridad de un usuario: contraseña nueva,
+ * bloqueo, desbloqueo o eliminación. Los JWT emitidos con la versión anterior dejan de ser
+ * válidos. userId null indica un cambio masivo y obliga a recargar todos los estados.
+ */
+public record UserSecurityChangedEvent(Long userId) {
+}
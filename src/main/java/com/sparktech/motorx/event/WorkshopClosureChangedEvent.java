@@ -0,0 +1,10 @@
+package com.sparktech.motorx.event;
+
+import java.time.LocalDate;
+
+/**
+ * Evento de dominio publicado cuando el admin crea o elimina un cierre del taller.
+ * El calendario laboral descarta la tabla del año afectado después del commit.
+ */
+public record WorkshopClosureChangedEvent(LocalDate closureDate) {
+}
@@ -0,0 +1,15 @@
+package com.sparktech.motorx.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    // Segundos hasta que vuelve a haber un permiso disponible (cabecera Retry-After)
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Demasiadas peticiones. Intente de nuevo en " + retryAfterSeconds + " segundos.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
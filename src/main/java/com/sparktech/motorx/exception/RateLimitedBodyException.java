@@ -0,0 +1,29 @@
+package com.sparktech.motorx.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Body de una ruta limitada por identidad que no se puede leer para aplicar el límite:
+ * demasiado grande (413) o que no es un objeto JSON con el campo de la identidad (400).
+ */
+@Getter
+public class RateLimitedBodyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    private RateLimitedBodyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public static RateLimitedBodyException tooLarge(int maxBytes) {
+        return new RateLimitedBodyException(HttpStatus.CONTENT_TOO_LARGE,
+                "El cuerpo de la petición supera los " + maxBytes + " bytes permitidos.");
+    }
+
+    public static RateLimitedBodyException malformed(String field) {
+        return new RateLimitedBodyException(HttpStatus.BAD_REQUEST,
+                "El cuerpo debe ser un objeto JSON válido, sin campos repetidos y con el campo '" + field + "'.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.sparktech.motorx.exception;
+
+public class ScheduleTemplateNotFoundException extends AppointmentException {
+    public ScheduleTemplateNotFoundException(Long id) {
+        super("No se encontró la plantilla de horarios con ID: " + id);
+    }
+}
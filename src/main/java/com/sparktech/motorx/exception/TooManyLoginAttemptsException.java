@@ -0,0 +1,15 @@
+package com.sparktech.motorx.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    // Segundos hasta que se levanta el bloqueo temporal (cabecera Retry-After)
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(long retryAfterSeconds) {
+        super("Demasiados intentos de inicio de sesión fallidos. Intente de nuevo en " + retryAfterSeconds + " segundos.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.sparktech.motorx.exception;
+
+public class WaitlistEntryNotFoundException extends AppointmentException {
+    public WaitlistEntryNotFoundException(Long id) {
+        super("No se encontró la solicitud de lista de espera con ID: " + id);
+    }
+}
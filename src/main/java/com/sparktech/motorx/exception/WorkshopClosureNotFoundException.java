@@ -0,0 +1,7 @@
+package com.sparktech.motorx.exception;
+
+public class WorkshopClosureNotFoundException extends AppointmentException {
+    public WorkshopClosureNotFoundException(Long id) {
+        super("No se encontró el cierre del taller con ID: " + id);
+    }
+}
@@ -0,0 +1,121 @@
+package com.sparktech.motorx.mapper;
+
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
+import com.sparktech.motorx.repository.projection.AppointmentKeyset;
+import com.sparktech.motorx.repository.projection.CreatedAtKeyset;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Arma las páginas de los listados paginados por cursor (keyset) y traduce
+ * entre la posición de la última fila y el cursor opaco que ve el cliente.
+ * <p>
+ * El cursor es Base64 URL-safe de "tipo|claves...". El tipo evita que un cursor
+ * de un listado se use en otro con un orden distinto.
+ */
+@Component
+public class CursorPageMapper {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String APPOINTMENT = "A";
+    private static final String CREATED_AT = "C";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Límite de la consulta: una fila más que el tamaño pedido para saber si hay otra página
+     * sin lanzar un COUNT.
+     */
+    public Limit fetchLimit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        return Limit.of(size + 1);
+    }
+
+    /**
+     * Recorta la fila extra pedida por {@link #fetchLimit} y calcula el cursor de la siguiente página
+     * a partir de la última fila devuelta.
+     */
+    public <R, T> CursorPageResponseDTO<T> toPage(List<R> rows, int size,
+                                                 Function<R, T> toItem,
+                                                 Function<R, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<R> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.getLast()) : null;
+        return new CursorPageResponseDTO<>(pageRows.stream().map(toItem).toList(), nextCursor, hasMore);
+    }
+
+    // ---------------------------------------------------------------
+    // CITAS: (appointmentDate, startTime, id)
+    // ---------------------------------------------------------------
+
+    public String encodeAppointmentCursor(LocalDate appointmentDate, LocalTime startTime, Long id) {
+        return encode(APPOINTMENT, appointmentDate.toString(), startTime.toString(), id.toString());
+    }
+
+    public AppointmentKeyset decodeAppointmentCursor(String cursor) {
+        String[] parts = decode(cursor, APPOINTMENT, 3);
+        try {
+            return new AppointmentKeyset(
+                    LocalDate.parse(parts[1]), LocalTime.parse(parts[2]), Long.valueOf(parts[3]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // VEHÍCULOS Y USUARIOS: (createdAt, id)
+    // ---------------------------------------------------------------
+
+    public String encodeCreatedAtCursor(LocalDateTime createdAt, Long id) {
+        return encode(CREATED_AT, createdAt.toString(), id.toString());
+    }
+
+    public CreatedAtKeyset decodeCreatedAtCursor(String cursor) {
+        String[] parts = decode(cursor, CREATED_AT, 2);
+        try {
+            return new CreatedAtKeyset(LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------------
+
+    private String encode(String type, String... keys) {
+        String raw = type + SEPARATOR + String.join(SEPARATOR, keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decode(String cursor, String expectedType, int keyCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != keyCount + 1 || !expectedType.equals(parts[0])) {
+            throw invalidCursor();
+        }
+        return parts;
+    }
+
+    private IllegalArgumentException invalidCursor() {
+        return new IllegalArgumentException("El cursor de paginación no es válido.");
+    }
+}
@@ -0,0 +1,57 @@
+package com.sparktech.motorx.mapper;
+
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateResponseDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTypeRuleDTO;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.entity.ScheduleTemplateEntity;
+import com.sparktech.motorx.entity.ScheduleTemplateSlotEntity;
+import com.sparktech.motorx.entity.ScheduleTemplateTypeEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class ScheduleTemplateMapper {
+
+    /**
+     * Convierte una versión de la plantilla con sus reglas y horarios en su DTO de respuesta.
+     * Los tipos se devuelven en orden de declaración y los horarios en orden ascendente.
+     */
+    public ScheduleTemplateResponseDTO toResponseDTO(ScheduleTemplateEntity template,
+                                                     List<ScheduleTemplateTypeEntity> types,
+                                                     List<ScheduleTemplateSlotEntity> slots) {
+        Map<AppointmentType, List<LocalTime>> slotsByType = slots.stream()
+                .collect(Collectors.groupingBy(
+                        ScheduleTemplateSlotEntity::getAppointmentType,
+                        () -> new EnumMap<>(AppointmentType.class),
+                        Collectors.mapping(ScheduleTemplateSlotEntity::getStartTime, Collectors.toList())));
+
+        List<ScheduleTypeRuleDTO> rules = types.stream()
+                .sorted(Comparator.comparing(ScheduleTemplateTypeEntity::getAppointmentType))
+                .map(type -> new ScheduleTypeRuleDTO(
+                        type.getAppointmentType(),
+                        type.getDurationMinutes(),
+                        type.isAutecoOnly(),
+                        type.isUserBookable(),
+                        slotsByType.getOrDefault(type.getAppointmentType(), List.of()).stream().sorted().toList()))
+                .toList();
+
+        return new ScheduleTemplateResponseDTO(
+                template.getId(),
+                template.getVersion(),
+                template.getDescription(),
+                template.getWorkStart(),
+                template.getWorkEnd(),
+                template.getLunchStart(),
+                template.getLunchEnd(),
+                template.isActive(),
+                template.getCreatedAt(),
+                rules
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.sparktech.motorx.mapper;
+
+import com.sparktech.motorx.dto.appointment.WaitlistEntryResponseDTO;
+import com.sparktech.motorx.entity.WaitlistEntryEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WaitlistMapper {
+
+    /**
+     * Convierte una solicitud de lista de espera en su DTO de respuesta.
+     */
+    public WaitlistEntryResponseDTO toResponseDTO(WaitlistEntryEntity entity) {
+        return new WaitlistEntryResponseDTO(
+                entity.getId(),
+                entity.getVehicle().getId(),
+                entity.getVehicle().getLicensePlate(),
+                entity.getAppointmentType(),
+                entity.getAppointmentDate(),
+                entity.getStartTime(),
+                entity.getStatus(),
+                entity.getAppointmentId(),
+                entity.getDiscardReason(),
+                entity.getCreatedAt(),
+                entity.getPromotedAt()
+        );
+    }
+}
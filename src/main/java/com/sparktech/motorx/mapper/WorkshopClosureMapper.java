@@ -0,0 +1,21 @@
+package com.sparktech.motorx.mapper;
+
+import com.sparktech.motorx.dto.appointment.WorkshopClosureResponseDTO;
+import com.sparktech.motorx.entity.WorkshopClosureEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WorkshopClosureMapper {
+
+    /**
+     * Convierte un cierre del taller en su DTO de respuesta.
+     */
+    public WorkshopClosureResponseDTO toResponseDTO(WorkshopClosureEntity entity) {
+        return new WorkshopClosureResponseDTO(
+                entity.getId(),
+                entity.getClosureDate(),
+                entity.getReason(),
+                entity.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.AppointmentEntity;
+
+import java.util.List;
+
+/**
+ * Operaciones de citas que se ejecutan en lote con JDBC, fuera del ciclo de vida de JPA.
+ * Se expone a través de {@link JpaAppointmentRepository}.
+ */
+public interface AppointmentBatchRepository {
+
+    /**
+     * Inserta todas las citas en un único batch JDBC, con la misma regla de exclusividad que
+     * {@link JpaAppointmentRepository#insertIfTechnicianSlotFree}: las que chocan con una cita
+     * activa del mismo técnico, fecha y startTime no se insertan.
+     *
+     * @return lista del mismo tamaño y orden que appointments, con el id generado
+     *         o null si el slot del técnico ya estaba ocupado
+     */
+    List<Long> insertAllIfTechnicianSlotFree(List<AppointmentEntity> appointments);
+}
@@ -0,0 +1,72 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.AppointmentEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link AppointmentBatchRepository}.
+ * Usa la conexión de la transacción en curso, así que el lote se confirma o se revierte
+ * junto con el resto de la operación.
+ */
+@RequiredArgsConstructor
+public class AppointmentBatchRepositoryImpl implements AppointmentBatchRepository {
+
+    private static final String INSERT_IF_SLOT_FREE = """
+            INSERT INTO appointments (
+                appointment_type, appointment_date, start_time, end_time, status,
+                client_notes, admin_notes, current_mileage, created_at, vehicle_id, owner_id, technician_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (technician_id, appointment_date, start_time)
+                WHERE status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+                DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> insertAllIfTechnicianSlotFree(List<AppointmentEntity> appointments) {
+        if (appointments.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_IF_SLOT_FREE, new String[]{"id"})) {
+                for (AppointmentEntity a : appointments) {
+                    ps.setString(1, a.getAppointmentType().name());
+                    ps.setObject(2, a.getAppointmentDate());
+                    ps.setObject(3, a.getStartTime());
+                    ps.setObject(4, a.getEndTime());
+                    ps.setString(5, a.getStatus().name());
+                    ps.setString(6, a.getClientNotes());
+                    ps.setString(7, a.getAdminNotes());
+                    ps.setObject(8, a.getCurrentMileage(), Types.INTEGER);
+                    ps.setObject(9, a.getCreatedAt());
+                    ps.setLong(10, a.getVehicle().getId());
+                    ps.setLong(11, a.getVehicle().getOwner().getId());
+                    ps.setLong(12, a.getTechnician().getId());
+                    ps.addBatch();
+                }
+
+                int[] counts = ps.executeBatch();
+
+                // Las filas descartadas por ON CONFLICT no generan id: las claves llegan
+                // solo para las insertadas, en el mismo orden del lote
+                List<Long> ids = new ArrayList<>(appointments.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (int count : counts) {
+                        ids.add(count > 0 && keys.next() ? keys.getLong(1) : null);
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+}
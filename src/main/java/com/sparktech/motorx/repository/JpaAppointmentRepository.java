@@ -1,20 +1,36 @@
 package com.sparktech.motorx.repository;
 
 
+    import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
     import com.sparktech.motorx.entity.AppointmentStatus;
     import com.sparktech.motorx.entity.AppointmentEntity;
+    import com.sparktech.motorx.repository.projection.DailyAppointmentTotals;
+    import com.sparktech.motorx.repository.projection.TechnicianBookedMinutes;
+    import com.sparktech.motorx.repository.projection.TechnicianDaySlotOccupancy;
+    import com.sparktech.motorx.repository.projection.TechnicianSlotOccupancy;
+    import jakarta.persistence.QueryHint;
+    import org.hibernate.jpa.HibernateHints;
     import org.jetbrains.annotations.NotNull;
+    import org.springframework.data.domain.Limit;
     import org.springframework.data.jpa.repository.JpaRepository;
+    import org.springframework.data.jpa.repository.Modifying;
     import org.springframework.data.jpa.repository.Query;
+    import org.springframework.data.jpa.repository.QueryHints;
     import org.springframework.data.repository.query.Param;
     import org.springframework.stereotype.Repository;
 
     import java.time.LocalDate;
     import java.time.LocalTime;
+    import java.util.Collection;
     import java.util.List;
+    import java.util.stream.Stream;
 
     @Repository
-    public interface JpaAppointmentRepository extends JpaRepository<@NotNull AppointmentEntity, @NotNull Long> {
+    public interface JpaAppointmentRepository extends JpaRepository<@NotNull AppointmentEntity, @NotNull Long>,
+            AppointmentBatchRepository {
+
+        /** Filas que el driver trae por viaje al recorrer un export en streaming */
+        String EXPORT_FETCH_SIZE = "500";
 
         /**
          * Verifica si un técnico ya tiene una cita en el mismo slot de entrada (startTime) del día.
@@ -39,19 +55,250 @@ package com.sparktech.motorx.repository;
                 @Param("endTime") LocalTime endTime
         );
 
+        /**
+         * Devuelve en una sola sentencia todos los pares (técnico, startTime) ocupados en la fecha.
+         * Aplica la misma regla que {@link #existsTechnicianConflict}: bloqueo por startTime exacto
+         * y solo citas en estado activo. Permite calcular la disponibilidad del día en memoria
+         * en lugar de lanzar una consulta por técnico y por slot.
+         */
+        @Query("""
+        SELECT new com.sparktech.motorx.repository.projection.TechnicianSlotOccupancy(a.technician.id, a.startTime)
+        FROM AppointmentEntity a
+        WHERE a.appointmentDate = :date
+          AND a.technician IS NOT NULL
+          AND a.status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+        """)
+        List<TechnicianSlotOccupancy> findOccupiedTechnicianSlotsByDate(@Param("date") LocalDate date);
+
+        /**
+         * Variante por rango de {@link #findOccupiedTechnicianSlotsByDate}: una sola sentencia
+         * devuelve los slots ocupados de todos los días entre start y end (inclusive).
+         */
+        @Query("""
+        SELECT new com.sparktech.motorx.repository.projection.TechnicianDaySlotOccupancy(
+            a.appointmentDate, a.technician.id, a.startTime)
+        FROM AppointmentEntity a
+        WHERE a.appointmentDate BETWEEN :start AND :end
+          AND a.technician IS NOT NULL
+          AND a.status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+        """)
+        List<TechnicianDaySlotOccupancy> findOccupiedTechnicianSlotsBetween(
+                @Param("start") LocalDate start,
+                @Param("end") LocalDate end
+        );
+
+        /**
+         * Minutos reservados por técnico entre start y end (inclusive), en una sola sentencia
+         * agrupada. Alimenta la asignación por menor carga; los técnicos sin citas no aparecen.
+         */
+        @Query("""
+        SELECT new com.sparktech.motorx.repository.projection.TechnicianBookedMinutes(
+            a.technician.id,
+            CAST(SUM((EXTRACT(HOUR FROM a.endTime) * 60 + EXTRACT(MINUTE FROM a.endTime))
+                   - (EXTRACT(HOUR FROM a.startTime) * 60 + EXTRACT(MINUTE FROM a.startTime))) AS Long))
+        FROM AppointmentEntity a
+        WHERE a.appointmentDate BETWEEN :start AND :end
+          AND a.technician IS NOT NULL
+          AND a.status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+        GROUP BY a.technician.id
+        """)
+        List<TechnicianBookedMinutes> sumBookedMinutesByTechnicianBetween(
+                @Param("start") LocalDate start,
+                @Param("end") LocalDate end
+        );
+
+        /**
+         * Reserva atómica del slot: inserta la cita con su técnico solo si ese técnico no tiene
+         * otra cita activa con el mismo startTime ese día. La exclusividad la garantiza el índice
+         * único parcial uq_appointment_active_technician_slot (V8), así que no hay ventana entre
+         * la verificación y el INSERT, y un choque no aborta la transacción (ON CONFLICT DO NOTHING).
+         * <p>
+         * Los textos opcionales llevan CAST explícito para que un null se envíe con tipo.
+         *
+         * @return id de la cita creada, o null si el slot del técnico ya estaba ocupado
+         */
+        @Query(value = """
+        INSERT INTO appointments (
+            appointment_type, appointment_date, start_time, end_time, status,
+            client_notes, admin_notes, current_mileage, created_at, vehicle_id, owner_id, technician_id)
+        VALUES (
+            :#{#a.appointmentType.name()}, :#{#a.appointmentDate}, :#{#a.startTime}, :#{#a.endTime},
+            :#{#a.status.name()},
+            CAST(:#{#a.clientNotes} AS VARCHAR), CAST(:#{#a.adminNotes} AS VARCHAR),
+            :#{#a.currentMileage}, :#{#a.createdAt}, :#{#a.vehicle.id}, :#{#a.vehicle.owner.id},
+            :#{#a.technician.id})
+        ON CONFLICT (technician_id, appointment_date, start_time)
+            WHERE status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+            DO NOTHING
+        RETURNING id
+        """, nativeQuery = true)
+        Long insertIfTechnicianSlotFree(@Param("a") AppointmentEntity appointment);
+
+        /**
+         * Traspaso de un vehículo: sus citas pasan al historial del nuevo dueño (owner_id).
+         * @return número de citas reasignadas
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE AppointmentEntity a SET a.ownerId = :ownerId WHERE a.vehicle.id = :vehicleId")
+        int reassignOwnerByVehicleId(@Param("vehicleId") Long vehicleId, @Param("ownerId") Long ownerId);
+
+        /*
+         * Listados de citas: cada consulta arma las filas de AppointmentResponseDTO con una sola
+         * sentencia (vehículo, dueño y técnico por JOIN) en lugar de cargar las entidades y
+         * resolver sus asociaciones LAZY una por una al mapearlas. El técnico va con LEFT JOIN
+         * porque puede no estar asignado.
+         */
+
         // --- Historial de citas por vehículo (Proceso 2 - historial de citas) ---
-        List<AppointmentEntity> findByVehicleIdOrderByAppointmentDateDesc(Long vehicleId);
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE v.id = :vehicleId
+        ORDER BY a.appointmentDate DESC
+        """)
+        List<AppointmentResponseDTO> findResponsesByVehicleId(@Param("vehicleId") Long vehicleId);
 
         // --- Historial de citas por cliente a través del vehículo (Proceso 1 - historial de servicios) ---
         @Query("""
-                SELECT a FROM AppointmentEntity a
-                WHERE a.vehicle.owner.id = :ownerId
-                ORDER BY a.appointmentDate DESC, a.startTime DESC
-                """)
-        List<AppointmentEntity> findByClientIdOrderByDateDesc(@Param("ownerId") Long ownerId);
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE a.ownerId = :ownerId
+        ORDER BY a.appointmentDate DESC, a.startTime DESC
+        """)
+        List<AppointmentResponseDTO> findResponsesByClientId(@Param("ownerId") Long ownerId);
+
+        /*
+         * Historiales paginados por cursor (keyset): orden total (appointmentDate, startTime, id)
+         * descendente. La primera página no lleva cursor; las siguientes continúan estrictamente
+         * después de la última fila recibida, sin OFFSET. El Limit pide una fila de más para saber
+         * si queda otra página.
+         * El historial por vehículo sigue idx_appointment_vehicle_keyset (V13) y el del cliente
+         * filtra por la columna owner_id de la cita, que sigue idx_appointment_owner_keyset (V18):
+         * ambos leen solo las filas de la página, sin ordenar las citas anteriores al cursor.
+         */
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE a.ownerId = :ownerId
+        ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC
+        """)
+        List<AppointmentResponseDTO> findResponsePageByClientId(
+                @Param("ownerId") Long ownerId,
+                Limit limit
+        );
+
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE a.ownerId = :ownerId
+          AND (a.appointmentDate, a.startTime, a.id) < (:date, :startTime, :id)
+        ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC
+        """)
+        List<AppointmentResponseDTO> findResponsePageByClientIdAfter(
+                @Param("ownerId") Long ownerId,
+                @Param("date") LocalDate appointmentDate,
+                @Param("startTime") LocalTime startTime,
+                @Param("id") Long id,
+                Limit limit
+        );
+
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE v.id = :vehicleId
+        ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC
+        """)
+        List<AppointmentResponseDTO> findResponsePageByVehicleId(
+                @Param("vehicleId") Long vehicleId,
+                Limit limit
+        );
+
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE v.id = :vehicleId
+          AND (a.appointmentDate, a.startTime, a.id) < (:date, :startTime, :id)
+        ORDER BY a.appointmentDate DESC, a.startTime DESC, a.id DESC
+        """)
+        List<AppointmentResponseDTO> findResponsePageByVehicleIdAfter(
+                @Param("vehicleId") Long vehicleId,
+                @Param("date") LocalDate appointmentDate,
+                @Param("startTime") LocalTime startTime,
+                @Param("id") Long id,
+                Limit limit
+        );
 
         // --- Citas por fecha (vista de agenda diaria) ---
-        List<AppointmentEntity> findByAppointmentDateOrderByStartTime(LocalDate date);
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE a.appointmentDate = :date
+        ORDER BY a.startTime ASC
+        """)
+        List<AppointmentResponseDTO> findResponsesByDate(@Param("date") LocalDate date);
 
         // --- Citas por fecha y estado ---
         List<AppointmentEntity> findByAppointmentDateAndStatus(LocalDate date, AppointmentStatus status);
@@ -73,60 +320,36 @@ package com.sparktech.motorx.repository;
                 @Param("endTime") LocalTime endTime
         );
 
-        // --- Métrica: Porcentaje de Ocupación del Taller ---
-        // Suma de minutos reservados en un rango de fechas
+        // --- Métricas de ocupación, cancelación y citas por día ---
+        // Se leen del acumulado diario (JpaDailyWorkshopStatsRepository). Esta consulta solo
+        // lo reconstruye: totales por día, tipo y estado en una sentencia agrupada.
         @Query("""
-                SELECT COALESCE(SUM(
-                    FUNCTION('TIMESTAMPDIFF', MINUTE, a.startTime, a.endTime)
-                ), 0)
+                SELECT new com.sparktech.motorx.repository.projection.DailyAppointmentTotals(
+                    a.appointmentDate, a.appointmentType, a.status, COUNT(a),
+                    CAST(SUM((EXTRACT(HOUR FROM a.endTime) * 60 + EXTRACT(MINUTE FROM a.endTime))
+                           - (EXTRACT(HOUR FROM a.startTime) * 60 + EXTRACT(MINUTE FROM a.startTime))) AS Long))
                 FROM AppointmentEntity a
                 WHERE a.appointmentDate BETWEEN :start AND :end
-                  AND a.status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+                GROUP BY a.appointmentDate, a.appointmentType, a.status
                 """)
-        long sumReservedMinutesBetween(
+        List<DailyAppointmentTotals> sumDailyTotalsBetween(
                 @Param("start") LocalDate start,
                 @Param("end") LocalDate end
         );
 
-        // --- Métrica: Tasa de cancelación de citas ---
         long countByStatus(AppointmentStatus status);
 
+        // --- Métrica: Tiempo medio de anticipación de la cita ---
+        // Promedio en minutos entre createdAt y el inicio de la cita, calculado en la BD:
+        // inicio = medianoche de appointmentDate (en segundos epoch) + minutos de startTime.
+        // null si no se crearon citas en el rango.
         @Query("""
-                SELECT COUNT(a) FROM AppointmentEntity a
-                WHERE a.status = :status
-                  AND a.appointmentDate BETWEEN :start AND :end
-                """)
-        long countByStatusBetween(
-                @Param("status") AppointmentStatus status,
-                @Param("start") LocalDate start,
-                @Param("end") LocalDate end
-        );
-
-        @Query("""
-                SELECT COUNT(a) FROM AppointmentEntity a
-                WHERE a.appointmentDate BETWEEN :start AND :end
-                """)
-        long countAllBetween(
-                @Param("start") LocalDate start,
-                @Param("end") LocalDate end
-        );
-
-        // --- Métrica: Número de citas por día ---
-        @Query("""
-                SELECT COUNT(a) FROM AppointmentEntity a
-                WHERE a.appointmentDate = :date
-                  AND a.status NOT IN ('CANCELLED', 'REJECTED')
-                """)
-        long countActiveAppointmentsByDate(@Param("date") LocalDate date);
-
-        // --- Métrica: Tiempo medio de creación de cita ---
-        // Citas creadas en un rango para calcular (appointmentDate - createdAt)
-        @Query("""
-                SELECT a FROM AppointmentEntity a
+                SELECT AVG((EXTRACT(EPOCH FROM a.appointmentDate) - EXTRACT(EPOCH FROM a.createdAt)) / 60.0
+                           + EXTRACT(HOUR FROM a.startTime) * 60 + EXTRACT(MINUTE FROM a.startTime))
+                FROM AppointmentEntity a
                 WHERE a.createdAt BETWEEN :start AND :end
-                ORDER BY a.createdAt ASC
                 """)
-        List<AppointmentEntity> findAppointmentsCreatedBetween(
+        Double averageLeadMinutesCreatedBetween(
                 @Param("start") java.time.LocalDateTime start,
                 @Param("end") java.time.LocalDateTime end
         );
@@ -139,6 +362,23 @@ package com.sparktech.motorx.repository;
                 """)
         List<AppointmentEntity> findActiveAppointmentsByVehicle(@Param("vehicleId") Long vehicleId);
 
+        // --- Cita del vehículo en un slot creada desde :since (barrido de la lista de espera) ---
+        @Query("""
+                SELECT a.id FROM AppointmentEntity a
+                WHERE a.vehicle.id = :vehicleId
+                  AND a.appointmentDate = :date
+                  AND a.startTime = :startTime
+                  AND a.createdAt >= :since
+                  AND a.status NOT IN ('CANCELLED', 'REJECTED')
+                ORDER BY a.id DESC
+                """)
+        List<Long> findIdsBookedForSlotSince(
+                @Param("vehicleId") Long vehicleId,
+                @Param("date") LocalDate date,
+                @Param("startTime") LocalTime startTime,
+                @Param("since") java.time.LocalDateTime since
+        );
+
         // Nuevo: comprobación booleana eficiente usando COUNT > 0 (aprovecha índice vehicle_id)
         @Query("""
                 SELECT COUNT(a) > 0 FROM AppointmentEntity a
@@ -147,13 +387,58 @@ package com.sparktech.motorx.repository;
                 """)
         boolean existsActiveAppointmentByVehicleId(@Param("vehicleId") Long vehicleId);
 
-        // --- Citas por rango de fechas (vista de calendario) ---
+        // Versión en lote de existsActiveAppointmentByVehicleId: una sola consulta para todos los vehículos
         @Query("""
-                SELECT a FROM AppointmentEntity a
-                WHERE a.appointmentDate BETWEEN :start AND :end
-                ORDER BY a.appointmentDate ASC, a.startTime ASC
+                SELECT DISTINCT a.vehicle.id FROM AppointmentEntity a
+                WHERE a.vehicle.id IN :vehicleIds
+                  AND a.status NOT IN ('COMPLETED', 'CANCELLED', 'REJECTED')
                 """)
-        List<AppointmentEntity> findByDateRange(
+        List<Long> findVehicleIdsWithActiveAppointment(@Param("vehicleIds") Collection<Long> vehicleIds);
+
+        // --- Citas por rango de fechas (vista de calendario) ---
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE a.appointmentDate BETWEEN :start AND :end
+        ORDER BY a.appointmentDate ASC, a.startTime ASC
+        """)
+        List<AppointmentResponseDTO> findResponsesByDateRange(
+                @Param("start") LocalDate start,
+                @Param("end") LocalDate end
+        );
+
+        /**
+         * Variante en streaming de {@link #findResponsesByDateRange} para exportaciones de rangos
+         * largos: las filas se leen del cursor JDBC por bloques de EXPORT_FETCH_SIZE y, al ser
+         * proyecciones, no se acumulan en el contexto de persistencia. Debe consumirse dentro de
+         * una transacción de solo lectura y cerrarse al terminar (try-with-resources).
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+        @Query("""
+        SELECT new com.sparktech.motorx.dto.appointment.AppointmentResponseDTO(
+            a.id, a.appointmentType, a.status, a.appointmentDate, a.startTime, a.endTime,
+            v.id, v.licensePlate, v.brand, v.model,
+            o.id, o.name, o.email,
+            t.id, tu.name,
+            a.currentMileage, a.clientNotes, a.adminNotes, a.createdAt, a.updatedAt)
+        FROM AppointmentEntity a
+        JOIN a.vehicle v
+        JOIN v.owner o
+        LEFT JOIN a.technician t
+        LEFT JOIN t.user tu
+        WHERE a.appointmentDate BETWEEN :start AND :end
+        ORDER BY a.appointmentDate ASC, a.startTime ASC
+        """)
+        Stream<AppointmentResponseDTO> streamResponsesByDateRange(
                 @Param("start") LocalDate start,
                 @Param("end") LocalDate end
         );
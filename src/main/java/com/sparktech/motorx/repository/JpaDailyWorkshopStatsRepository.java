@@ -0,0 +1,95 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.DailyWorkshopStatsEntity;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface JpaDailyWorkshopStatsRepository extends JpaRepository<@NotNull DailyWorkshopStatsEntity, @NotNull Long> {
+
+    /**
+     * Suma (o resta, con valores negativos) citas y minutos al acumulado de un día, tipo y estado.
+     * Es un único upsert atómico sobre uq_daily_workshop_stats_day: dos cambios concurrentes del
+     * mismo día no se pisan y la primera cita del día crea la fila sin abortar la transacción.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_workshop_stats (stat_date, appointment_type, status, appointment_count, reserved_minutes)
+            VALUES (:date, :type, :status, :count, :minutes)
+            ON CONFLICT (stat_date, appointment_type, status) DO UPDATE SET
+                appointment_count = daily_workshop_stats.appointment_count + EXCLUDED.appointment_count,
+                reserved_minutes  = daily_workshop_stats.reserved_minutes + EXCLUDED.reserved_minutes
+            """, nativeQuery = true)
+    void addToDay(
+            @Param("date") LocalDate date,
+            @Param("type") String appointmentType,
+            @Param("status") String status,
+            @Param("count") int count,
+            @Param("minutes") long minutes
+    );
+
+    /**
+     * Bloquea los incrementos hasta el fin de la transacción de reconstrucción. Un cambio de cita
+     * que ya sumó antes del bloqueo se confirma primero (y la reconstrucción lo ve); uno que llega
+     * después espera y suma sobre el acumulado ya reconstruido.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE daily_workshop_stats IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query("DELETE FROM DailyWorkshopStatsEntity s WHERE s.statDate BETWEEN :start AND :end")
+    int deleteBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // --- Filas del rango, para series por día ---
+    List<DailyWorkshopStatsEntity> findByStatDateBetweenOrderByStatDateAsc(LocalDate start, LocalDate end);
+
+    // --- Métrica: Porcentaje de Ocupación del Taller ---
+    // Minutos reservados por las citas que ocupan el taller en el rango
+    @Query("""
+            SELECT COALESCE(SUM(s.reservedMinutes), 0) FROM DailyWorkshopStatsEntity s
+            WHERE s.statDate BETWEEN :start AND :end
+              AND s.status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+            """)
+    long sumReservedMinutesBetween(
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
+    );
+
+    // --- Métrica: Tasa de cancelación de citas ---
+    @Query("""
+            SELECT COALESCE(SUM(s.appointmentCount), 0) FROM DailyWorkshopStatsEntity s
+            WHERE s.status = :status
+              AND s.statDate BETWEEN :start AND :end
+            """)
+    long countByStatusBetween(
+            @Param("status") AppointmentStatus status,
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
+    );
+
+    @Query("""
+            SELECT COALESCE(SUM(s.appointmentCount), 0) FROM DailyWorkshopStatsEntity s
+            WHERE s.statDate BETWEEN :start AND :end
+            """)
+    long countAllBetween(
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
+    );
+
+    // --- Métrica: Número de citas por día ---
+    @Query("""
+            SELECT COALESCE(SUM(s.appointmentCount), 0) FROM DailyWorkshopStatsEntity s
+            WHERE s.statDate = :date
+              AND s.status NOT IN ('CANCELLED', 'REJECTED')
+            """)
+    long countActiveAppointmentsByDate(@Param("date") LocalDate date);
+}
@@ -54,4 +54,13 @@ public interface JpaEmployeeRepository extends JpaRepository<@NotNull EmployeeEn
             ORDER BY e.id ASC
             """)
     List<EmployeeEntity> findAllActive();
+
+    // --- Solo los ids de los mecánicos DISPONIBLES (índice de ocupación en memoria) ---
+    @Query("""
+            SELECT e.id FROM EmployeeEntity e
+            WHERE e.position = 'MECANICO'
+              AND e.state    = 'AVAILABLE'
+            ORDER BY e.id ASC
+            """)
+    List<Long> findAllActiveIds();
 }
@@ -26,13 +26,15 @@ public interface JpaPasswordResetTokenRepository extends JpaRepository<@NotNull
 
 
     // --- Métrica: Tiempo promedio de recuperación de contraseña ---
-    // Trae tokens usados en un rango para calcular (usedAt - createdAt)
+    // Promedio en minutos de (usedAt - createdAt) de los tokens canjeados en el rango.
+    // Los tokens invalidados por una solicitud nueva quedan sin usedAt y no cuentan.
     @Query("""
-            SELECT t FROM PasswordResetTokenEntity t
+            SELECT AVG((EXTRACT(EPOCH FROM t.usedAt) - EXTRACT(EPOCH FROM t.createdAt)) / 60.0)
+            FROM PasswordResetTokenEntity t
             WHERE t.used = true
               AND t.usedAt BETWEEN :start AND :end
             """)
-    List<PasswordResetTokenEntity> findUsedTokensBetween(
+    Double averageRecoveryMinutesBetween(
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end
     );
@@ -0,0 +1,27 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.ScheduleTemplateEntity;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JpaScheduleTemplateRepository extends JpaRepository<@NotNull ScheduleTemplateEntity, @NotNull Long> {
+
+    Optional<ScheduleTemplateEntity> findByActiveTrue();
+
+    List<ScheduleTemplateEntity> findAllByOrderByVersionDesc();
+
+    @Query("SELECT COALESCE(MAX(t.version), 0) FROM ScheduleTemplateEntity t")
+    int findMaxVersion();
+
+    // --- Solo una versión activa: se desactiva la actual antes de activar otra ---
+    @Modifying
+    @Query("UPDATE ScheduleTemplateEntity t SET t.active = false WHERE t.active = true")
+    void deactivateAll();
+}
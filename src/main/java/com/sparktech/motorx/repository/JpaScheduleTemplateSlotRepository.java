@@ -0,0 +1,18 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.ScheduleTemplateSlotEntity;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JpaScheduleTemplateSlotRepository extends JpaRepository<@NotNull ScheduleTemplateSlotEntity, @NotNull Long> {
+
+    List<ScheduleTemplateSlotEntity> findByTemplateIdOrderByStartTimeAsc(Long templateId);
+
+    // --- Varias versiones en una sola consulta (listado de versiones) ---
+    List<ScheduleTemplateSlotEntity> findByTemplateIdInOrderByStartTimeAsc(Collection<Long> templateIds);
+}
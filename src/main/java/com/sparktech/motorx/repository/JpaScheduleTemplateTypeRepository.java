@@ -0,0 +1,18 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.ScheduleTemplateTypeEntity;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JpaScheduleTemplateTypeRepository extends JpaRepository<@NotNull ScheduleTemplateTypeEntity, @NotNull Long> {
+
+    List<ScheduleTemplateTypeEntity> findByTemplateId(Long templateId);
+
+    // --- Varias versiones en una sola consulta (listado de versiones) ---
+    List<ScheduleTemplateTypeEntity> findByTemplateIdIn(Collection<Long> templateIds);
+}
@@ -3,6 +3,7 @@ package com.sparktech.motorx.repository;
 import com.sparktech.motorx.entity.EventSeverity;
 import com.sparktech.motorx.entity.EventType;
 import com.sparktech.motorx.entity.SystemEventEntity;
+import com.sparktech.motorx.repository.projection.EventTypeCount;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -42,6 +44,21 @@ public interface JpaSystemEventRepository extends JpaRepository<@NotNull SystemE
             @Param("end") LocalDateTime end
     );
 
+    // --- Conteo por tipo en una sola consulta (numerador y denominador de las tasas) ---
+    // Los tipos sin eventos en el rango no aparecen en el resultado.
+    @Query("""
+            SELECT new com.sparktech.motorx.repository.projection.EventTypeCount(e.eventType, COUNT(e))
+            FROM SystemEventEntity e
+            WHERE e.eventType IN :eventTypes
+              AND e.eventDate BETWEEN :start AND :end
+            GROUP BY e.eventType
+            """)
+    List<EventTypeCount> countByEventTypesBetween(
+            @Param("eventTypes") Collection<EventType> eventTypes,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
     // --- Eventos por usuario (trazabilidad de acciones) ---
     @Query("""
             SELECT e FROM SystemEventEntity e
@@ -2,9 +2,12 @@ package com.sparktech.motorx.repository;
 
 import com.sparktech.motorx.entity.Role;
 import com.sparktech.motorx.entity.UserEntity;
+import com.sparktech.motorx.repository.projection.UserSecurityState;
 
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -37,12 +40,23 @@ public interface JpaUserRepository extends JpaRepository<@NotNull UserEntity, @N
     // --- Métrica: Cantidad de usuarios registrados por rol ---
     long countByRole(Role role);
 
-    // --- Métrica: Tiempo promedio de registro ---
-    // Usuarios registrados en un rango de fechas (para calcular volumen mensual)
-    @Query("SELECT u FROM UserEntity u WHERE u.createdAt BETWEEN :start AND :end")
-    List<UserEntity> findUsersRegisteredBetween(
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end
+    // --- Paginación por cursor (keyset) del listado admin: orden (createdAt, id) descendente ---
+    // El Limit pide una fila de más para saber si hay otra página (índice idx_user_created_keyset, V13).
+    @Query("""
+            SELECT u FROM UserEntity u
+            ORDER BY u.createdAt DESC, u.id DESC
+            """)
+    List<UserEntity> findPage(Limit limit);
+
+    @Query("""
+            SELECT u FROM UserEntity u
+            WHERE (u.createdAt, u.id) < (:createdAt, :id)
+            ORDER BY u.createdAt DESC, u.id DESC
+            """)
+    List<UserEntity> findPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
     );
 
     // --- Gestión de estado de cuenta ---
@@ -50,11 +64,39 @@ public interface JpaUserRepository extends JpaRepository<@NotNull UserEntity, @N
 
     List<UserEntity> findByAccountLockedTrue();
 
+    // Bloqueo persistente tras bloqueos temporales repetidos por intentos fallidos de login.
+    // El email llega normalizado en minúsculas; devuelve 0 si no existe o ya estaba bloqueada.
+    @Modifying
+    // También incrementa la versión de seguridad: los JWT vigentes de la cuenta dejan de valer.
+    @Query("""
+            UPDATE UserEntity u SET u.accountLocked = true, u.securityVersion = u.securityVersion + 1
+            WHERE LOWER(u.email) = :email AND u.accountLocked = false AND u.role <> :excludedRole
+            """)
+    int lockAccountByEmail(@Param("email") String email, @Param("excludedRole") Role excludedRole);
+
+    // --- Tabla de versiones de seguridad (validación de JWT sin consultar la BD) ---
+    // Un usuario que no aparece tiene versión 0 y acceso: solo se cargan los demás (idx_user_security_state, V16).
+    @Query("""
+            SELECT new com.sparktech.motorx.repository.projection.UserSecurityState(
+                u.id, u.securityVersion, u.enabled, u.accountLocked)
+            FROM UserEntity u
+            WHERE u.securityVersion > 0 OR u.enabled = false OR u.accountLocked = true
+            """)
+    List<UserSecurityState> findSecurityStates();
+
+    @Query("""
+            SELECT new com.sparktech.motorx.repository.projection.UserSecurityState(
+                u.id, u.securityVersion, u.enabled, u.accountLocked)
+            FROM UserEntity u
+            WHERE u.id = :id
+            """)
+    Optional<UserSecurityState> findSecurityStateById(@Param("id") Long id);
+
     // --- Búsqueda por nombre parcial (soporte para consulta de cliente) ---
     @Query("SELECT u FROM UserEntity u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<UserEntity> findByNameContainingIgnoreCase(@Param("name") String name);
 
-    // --- Total de usuarios registrados (KPI general) ---
+    // --- Total de usuarios registrados en un rango (KPI general) ---
     @Query("SELECT COUNT(u) FROM UserEntity u WHERE u.createdAt BETWEEN :start AND :end")
     long countUsersRegisteredBetween(
             @Param("start") LocalDateTime start,
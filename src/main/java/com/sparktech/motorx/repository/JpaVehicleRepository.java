@@ -3,11 +3,14 @@ package com.sparktech.motorx.repository;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.entity.VehicleEntity;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +40,58 @@ public interface JpaVehicleRepository extends JpaRepository<@NotNull VehicleEnti
             """)
     List<VehicleEntity> findByOwnerIdOrderByCreatedAtDesc(@Param("ownerId") Long ownerId);
 
+    // --- Paginación por cursor (keyset): orden (createdAt, id) descendente, sin OFFSET ---
+    // El Limit pide una fila de más para saber si hay otra página (índices de V13).
+    // JOIN FETCH del dueño: el mapper lo lee en cada fila.
+    @Query("""
+            SELECT v FROM VehicleEntity v
+            JOIN FETCH v.owner o
+            WHERE o.id = :ownerId
+            ORDER BY v.createdAt DESC, v.id DESC
+            """)
+    List<VehicleEntity> findPageByOwnerId(@Param("ownerId") Long ownerId, Limit limit);
+
+    @Query("""
+            SELECT v FROM VehicleEntity v
+            JOIN FETCH v.owner o
+            WHERE o.id = :ownerId
+              AND (v.createdAt, v.id) < (:createdAt, :id)
+            ORDER BY v.createdAt DESC, v.id DESC
+            """)
+    List<VehicleEntity> findPageByOwnerIdAfter(
+            @Param("ownerId") Long ownerId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    @Query("""
+            SELECT v FROM VehicleEntity v
+            JOIN FETCH v.owner
+            ORDER BY v.createdAt DESC, v.id DESC
+            """)
+    List<VehicleEntity> findPage(Limit limit);
+
+    @Query("""
+            SELECT v FROM VehicleEntity v
+            JOIN FETCH v.owner
+            WHERE (v.createdAt, v.id) < (:createdAt, :id)
+            ORDER BY v.createdAt DESC, v.id DESC
+            """)
+    List<VehicleEntity> findPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // --- Carga en lote con propietario (agendamiento de flotas: una sola consulta IN) ---
+    @Query("""
+            SELECT v FROM VehicleEntity v
+            JOIN FETCH v.owner
+            WHERE v.id IN :ids
+            """)
+    List<VehicleEntity> findAllWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
+
     // --- Búsqueda por marca y modelo (soporte administrativo) ---
     List<VehicleEntity> findByBrandIgnoreCaseAndModelIgnoreCase(String brand, String model);
 }
@@ -0,0 +1,130 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.WaitlistEntryEntity;
+import com.sparktech.motorx.entity.WaitlistStatus;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Repository
+public interface JpaWaitlistRepository extends JpaRepository<@NotNull WaitlistEntryEntity, @NotNull Long> {
+
+    // --- Fila de un slot (orden de llegada) ---
+    // Todos los tipos compiten por el mismo cupo: el slot del técnico es (fecha, startTime)
+    @Query("""
+            SELECT w FROM WaitlistEntryEntity w
+            WHERE w.appointmentDate = :date
+              AND w.startTime = :startTime
+              AND w.status = com.sparktech.motorx.entity.WaitlistStatus.WAITING
+            ORDER BY w.createdAt ASC, w.id ASC
+            """)
+    List<WaitlistEntryEntity> findWaitingForSlot(
+            @Param("date") LocalDate date,
+            @Param("startTime") LocalTime startTime
+    );
+
+    // --- Solicitudes que el despachador tomó antes de :before y siguen sin resolverse ---
+    @Query("""
+            SELECT w FROM WaitlistEntryEntity w
+            WHERE w.status = com.sparktech.motorx.entity.WaitlistStatus.PROMOTING
+              AND (w.promotingSince IS NULL OR w.promotingSince < :before)
+            ORDER BY w.id ASC
+            """)
+    List<WaitlistEntryEntity> findStalePromoting(@Param("before") LocalDateTime before);
+
+    // --- Un vehículo solo puede estar una vez en espera (uq_waitlist_active_vehicle) ---
+    @Query("""
+            SELECT COUNT(w) > 0 FROM WaitlistEntryEntity w
+            WHERE w.vehicle.id = :vehicleId
+              AND w.status IN (com.sparktech.motorx.entity.WaitlistStatus.WAITING,
+                               com.sparktech.motorx.entity.WaitlistStatus.PROMOTING)
+            """)
+    boolean existsActiveByVehicleId(@Param("vehicleId") Long vehicleId);
+
+    // --- Solicitudes del cliente, con el vehículo para la respuesta ---
+    @Query("""
+            SELECT w FROM WaitlistEntryEntity w
+            JOIN FETCH w.vehicle
+            WHERE w.client.id = :clientId
+            ORDER BY w.createdAt DESC
+            """)
+    List<WaitlistEntryEntity> findByClientIdOrderByCreatedAtDesc(@Param("clientId") Long clientId);
+
+    // --- Transiciones condicionales: solo un despachador puede tomar cada solicitud ---
+
+    /**
+     * Cambia el estado solo si la solicitud sigue en el estado esperado.
+     * @return 1 si se aplicó el cambio, 0 si otro proceso ya la había tomado
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE WaitlistEntryEntity w SET w.status = :to
+            WHERE w.id = :id AND w.status = :from
+            """)
+    int transition(@Param("id") Long id, @Param("from") WaitlistStatus from, @Param("to") WaitlistStatus to);
+
+    /**
+     * WAITING → PROMOTING, guardando cuándo se tomó para que el barrido detecte las abandonadas.
+     * @return 1 si este despachador la tomó, 0 si otro proceso ya la había tomado
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE WaitlistEntryEntity w
+            SET w.status = com.sparktech.motorx.entity.WaitlistStatus.PROMOTING,
+                w.promotingSince = :since
+            WHERE w.id = :id AND w.status = com.sparktech.motorx.entity.WaitlistStatus.WAITING
+            """)
+    int claim(@Param("id") Long id, @Param("since") LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE WaitlistEntryEntity w
+            SET w.status = com.sparktech.motorx.entity.WaitlistStatus.PROMOTED,
+                w.appointmentId = :appointmentId,
+                w.promotedAt = :promotedAt
+            WHERE w.id = :id AND w.status = com.sparktech.motorx.entity.WaitlistStatus.PROMOTING
+            """)
+    int markPromoted(@Param("id") Long id,
+                      @Param("appointmentId") Long appointmentId,
+                      @Param("promotedAt") LocalDateTime promotedAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE WaitlistEntryEntity w
+            SET w.status = com.sparktech.motorx.entity.WaitlistStatus.DISCARDED,
+                w.discardReason = :reason
+            WHERE w.id = :id
+            """)
+    void markDiscarded(@Param("id") Long id, @Param("reason") String reason);
+
+    /**
+     * Descarta las solicitudes en espera cuyo slot ya empezó: nadie va a liberarlo.
+     * @return cantidad de solicitudes descartadas
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE WaitlistEntryEntity w
+            SET w.status = com.sparktech.motorx.entity.WaitlistStatus.DISCARDED,
+                w.discardReason = :reason
+            WHERE w.status = com.sparktech.motorx.entity.WaitlistStatus.WAITING
+              AND (w.appointmentDate < :today
+                   OR (w.appointmentDate = :today AND w.startTime <= :now))
+            """)
+    int discardExpired(@Param("today") LocalDate today,
+                       @Param("now") LocalTime now,
+                       @Param("reason") String reason);
+}
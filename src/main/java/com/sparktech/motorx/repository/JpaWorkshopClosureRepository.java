@@ -0,0 +1,29 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.WorkshopClosureEntity;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface JpaWorkshopClosureRepository extends JpaRepository<@NotNull WorkshopClosureEntity, @NotNull Long> {
+
+    // --- Fechas cerradas de un rango (solo la columna: arma la tabla anual del calendario) ---
+    @Query("""
+            SELECT c.closureDate FROM WorkshopClosureEntity c
+            WHERE c.closureDate BETWEEN :start AND :end
+            """)
+    List<LocalDate> findClosureDatesBetween(
+            @Param("start") LocalDate start,
+            @Param("end") LocalDate end
+    );
+
+    List<WorkshopClosureEntity> findByClosureDateBetweenOrderByClosureDateAsc(LocalDate start, LocalDate end);
+
+    boolean existsByClosureDate(LocalDate closureDate);
+}
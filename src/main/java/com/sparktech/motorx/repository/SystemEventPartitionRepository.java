@@ -0,0 +1,108 @@
+package com.sparktech.motorx.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * DDL de las particiones mensuales de system_events (ver V15). Solo aplica en PostgreSQL;
+ * en otra BD (H2 en los tests) la tabla no está particionada y {@link #isPartitioned()}
+ * devuelve false. Usa la conexión de la transacción en curso.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SystemEventPartitionRepository {
+
+    public static final String PARENT_TABLE = "system_events";
+    public static final String DEFAULT_PARTITION = "system_events_default";
+
+    private static final String PARTITION_PREFIX = "system_events_p";
+    private static final String ARCHIVE_PREFIX = "system_events_archive_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean isPartitioned() {
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(postgres)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                Boolean.class, PARENT_TABLE));
+    }
+
+    /**
+     * Meses con partición propia adjunta a system_events (sin la DEFAULT ni las archivadas).
+     */
+    public List<YearMonth> findPartitionMonths() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = to_regclass(?)
+                        ORDER BY c.relname
+                        """, String.class, PARENT_TABLE).stream()
+                .filter(name -> name.startsWith(PARTITION_PREFIX))
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX))
+                .toList();
+    }
+
+    /**
+     * Toma el lock de mantenimiento hasta el fin de la transacción; false si otra instancia lo tiene.
+     */
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('system_events_partitions'))", Boolean.class));
+    }
+
+    public boolean partitionExists(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName(month)));
+    }
+
+    /**
+     * Crea la partición del mes. Las filas de ese mes que hayan caído en la DEFAULT se mueven
+     * primero a la tabla nueva; si no, PostgreSQL rechazaría adjuntarla.
+     */
+    public void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+
+        jdbcTemplate.execute("CREATE TABLE " + name +
+                " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE event_date >= ? AND event_date < ? RETURNING *)" +
+                        " INSERT INTO " + name + " SELECT * FROM moved",
+                from.atStartOfDay(), to.atStartOfDay());
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + name +
+                " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+    }
+
+    /**
+     * Separa la partición y la deja como tabla suelta system_events_archive_pAAAAMM,
+     * para exportarla o moverla a almacenamiento frío fuera de la aplicación.
+     */
+    public void archivePartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + ARCHIVE_PREFIX + month.format(SUFFIX));
+    }
+
+    // El nombre sale de un YearMonth, nunca de texto externo: es seguro concatenarlo en el DDL
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+}
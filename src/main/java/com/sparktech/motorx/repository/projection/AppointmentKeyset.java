@@ -0,0 +1,15 @@
+package com.sparktech.motorx.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Posición de una cita en los historiales paginados por cursor:
+ * orden (appointmentDate, startTime, id) descendente, el id desempata.
+ */
+public record AppointmentKeyset(
+        LocalDate appointmentDate,
+        LocalTime startTime,
+        Long id
+) {
+}
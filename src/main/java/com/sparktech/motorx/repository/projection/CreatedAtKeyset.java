@@ -0,0 +1,13 @@
+package com.sparktech.motorx.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posición de un vehículo o usuario en los listados paginados por cursor:
+ * orden (createdAt, id) descendente, el id desempata.
+ */
+public record CreatedAtKeyset(
+        LocalDateTime createdAt,
+        Long id
+) {
+}
@@ -0,0 +1,19 @@
+package com.sparktech.motorx.repository.projection;
+
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+
+import java.time.LocalDate;
+
+/**
+ * Totales de las citas de un día para un tipo y un estado, calculados sobre la tabla de citas.
+ * Con ellos se reconstruye el acumulado diario del taller.
+ */
+public record DailyAppointmentTotals(
+        LocalDate date,
+        AppointmentType appointmentType,
+        AppointmentStatus status,
+        Long appointmentCount,
+        Long reservedMinutes
+) {
+}
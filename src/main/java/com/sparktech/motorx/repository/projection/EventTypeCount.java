@@ -0,0 +1,12 @@
+package com.sparktech.motorx.repository.projection;
+
+import com.sparktech.motorx.entity.EventType;
+
+/**
+ * Cantidad de eventos del sistema de un tipo en un rango de fechas.
+ */
+public record EventTypeCount(
+        EventType eventType,
+        Long count
+) {
+}
@@ -0,0 +1,11 @@
+package com.sparktech.motorx.repository.projection;
+
+/**
+ * Carga agregada de un técnico en un rango de fechas:
+ * suma de los minutos (endTime - startTime) de sus citas activas.
+ */
+public record TechnicianBookedMinutes(
+        Long technicianId,
+        Long bookedMinutes
+) {
+}
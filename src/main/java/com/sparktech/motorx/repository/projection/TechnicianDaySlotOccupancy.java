@@ -0,0 +1,15 @@
+package com.sparktech.motorx.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Proyección liviana de un slot ocupado dentro de un rango de fechas:
+ * qué día, qué técnico y a qué hora de recepción (startTime) tiene una cita activa.
+ */
+public record TechnicianDaySlotOccupancy(
+        LocalDate appointmentDate,
+        Long technicianId,
+        LocalTime startTime
+) {
+}
@@ -0,0 +1,13 @@
+package com.sparktech.motorx.repository.projection;
+
+import java.time.LocalTime;
+
+/**
+ * Proyección liviana de un slot ocupado: qué técnico tiene una cita activa
+ * y a qué hora de recepción (startTime) del día consultado.
+ */
+public record TechnicianSlotOccupancy(
+        Long technicianId,
+        LocalTime startTime
+) {
+}
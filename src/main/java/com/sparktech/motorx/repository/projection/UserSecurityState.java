@@ -0,0 +1,18 @@
+package com.sparktech.motorx.repository.projection;
+
+/**
+ * Estado de seguridad de un usuario: la versión de seguridad y si puede acceder.
+ * Alimenta la tabla de versiones en memoria con la que se validan los JWT.
+ */
+public record UserSecurityState(
+        Long id,
+        int securityVersion,
+        boolean enabled,
+        boolean accountLocked
+) {
+
+    /** Sin acceso: deshabilitado, eliminado o bloqueado */
+    public boolean revoked() {
+        return !enabled || accountLocked;
+    }
+}
@@ -0,0 +1,28 @@
+package com.sparktech.motorx.security;
+
+import com.sparktech.motorx.entity.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal de las peticiones autenticadas con un JWT, armado solo con sus claims (sin
+ * consultar la BD). getName() devuelve el email, así Authentication.getName() no cambia.
+ *
+ * @param id    Id del usuario (claim uid)
+ * @param email Email del usuario (subject)
+ * @param role  Rol del usuario (claim role)
+ */
+public record AuthenticatedUser(Long id, String email, Role role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -1,4 +1,5 @@
 package com.sparktech.motorx.security;
+import com.sparktech.motorx.Services.IUserSecurityVersionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final IUserSecurityVersionService securityVersions;
 
     @Override
     protected void doFilterInternal(
@@ -32,7 +36,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         // Verificar si el header Authorization existe y tiene el formato correcto
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -44,23 +47,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Un solo parseo: verifica firma y expiración y deja los claims listos
+            VerifiedJwt token = jwtService.parse(jwt);
+            String userEmail = token.username();
 
             // Si el email existe y no hay autenticación previa
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                // Validar el token
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                    log.debug("Usuario autenticado: {} con roles: {}", userEmail, userDetails.getAuthorities());
+                if (token.hasUserClaims()) {
+                    authenticateFromClaims(token, request);
+                } else {
+                    authenticateFromDatabase(token, request);
                 }
             }
         } catch (Exception e) {
@@ -69,4 +65,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Principal armado con los claims del token; la tabla de versiones en memoria rechaza
+     * los tokens de usuarios bloqueados, eliminados o con la contraseña cambiada.
+     */
+    private void authenticateFromClaims(VerifiedJwt token, HttpServletRequest request) {
+        if (!securityVersions.isCurrent(token.userId(), token.securityVersion())) {
+            log.debug("Token revocado para el usuario {}: versión de seguridad {} vencida o cuenta sin acceso",
+                    token.userId(), token.securityVersion());
+            return;
+        }
+        AuthenticatedUser principal = token.toPrincipal();
+        authenticate(principal, principal.getAuthorities(), request);
+    }
+
+    /**
+     * Tokens emitidos antes de los claims uid/role/sv: se validan contra la BD hasta que expiran.
+     */
+    private void authenticateFromDatabase(VerifiedJwt token, HttpServletRequest request) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.username());
+
+        // Validar el token contra el usuario
+        if (token.isValidFor(userDetails)) {
+            authenticate(userDetails, userDetails.getAuthorities(), request);
+        }
+    }
+
+    private void authenticate(Object principal, Collection<? extends GrantedAuthority> authorities,
+                              HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                authorities
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        log.debug("Usuario autenticado: {} con roles: {}", authToken.getName(), authorities);
+    }
 }
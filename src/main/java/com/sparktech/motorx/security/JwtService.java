@@ -1,14 +1,19 @@
 package com.sparktech.motorx.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import com.sparktech.motorx.entity.UserEntity;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,12 +23,37 @@ import java.util.function.Function;
 @Slf4j
 public class JwtService {
 
+    // Claims con los que una petición se autentica sin consultar la BD (ver VerifiedJwt)
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+
     @Value("${jwt.secret:mySecretKeyForJwtTokenGenerationThatShouldBeVeryLongAndSecure123456789}")
     private String jwtSecret;
 
     @Value("${jwt.expiration:3600000}") // 1 hora por defecto
     private long jwtExpiration;
 
+    // La clave y el parser se construyen una vez; JwtParser es inmutable y seguro entre hilos
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verifica la firma y la expiración del token y devuelve sus claims, en un solo parseo.
+     * @throws JwtException si el token es inválido, está mal formado o expiró
+     */
+    public VerifiedJwt parse(String token) {
+        return VerifiedJwt.of(parser.parseSignedClaims(token).getPayload());
+    }
+
     /**
      * Extrae el email (username) del token JWT
      */
@@ -42,26 +72,19 @@ public class JwtService {
      * Extrae un claim específico del token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parse(token).claims());
     }
 
     /**
-     * Extrae todos los claims del token
+     * Genera un token JWT con el id, el rol y la versión de seguridad del usuario,
+     * para que las peticiones se autentiquen solo con el token
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Verifica si el token ha expirado
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(UserEntity user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        return generateToken(claims, user);
     }
 
     /**
@@ -88,7 +111,7 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -96,15 +119,6 @@ public class JwtService {
      * Valida si el token es válido para el usuario
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    /**
-     * Obtiene la clave de firma para JWT
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parse(token).isValidFor(userDetails);
     }
-}
\ No newline at end of file
+}
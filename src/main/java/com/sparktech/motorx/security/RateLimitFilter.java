@@ -0,0 +1,494 @@
+package com.sparktech.motorx.security;
+
+import com.sparktech.motorx.config.RateLimitProperties;
+import com.sparktech.motorx.exception.RateLimitExceededException;
+import com.sparktech.motorx.exception.RateLimitedBodyException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.StreamReadFeature;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de peticiones por ruta, por IP y por identidad para los endpoints públicos
+ * (login, 2FA, registro, recuperación de contraseña), que cuestan BCrypt, consultas o correos.
+ * <p>
+ * Cada clave tiene un token bucket guardado en un solo AtomicLong (algoritmo GCRA: el
+ * "tiempo teórico de llegada" avanza un intervalo por petición y se rechaza cuando se
+ * adelanta más que la ráfaga permitida), actualizado con CAS. Las peticiones a rutas no
+ * limitadas solo recorren la lista de rutas; las permitidas por IP no toman locks ni crean
+ * objetos. La identidad (el email del body) se lee solo en las rutas que la limitan, con el
+ * JsonMapper de la aplicación y detección estricta de campos repetidos: se limita por el mismo
+ * valor que Jackson entregará al controlador. En esas rutas un body mayor a max-body-bytes se
+ * rechaza con 413 y uno ilegible o sin la identidad con 400, en lugar de saltarse el límite.
+ * Los mapas están acotados por max-keys: las claves nuevas por encima del tope comparten
+ * un bucket por ruta, y las claves con el bucket lleno se liberan periódicamente.
+ * <p>
+ * Corre dentro de la cadena de Spring Security, después de CORS, para que el 429 llegue
+ * al navegador. El rechazo se delega al {@link HandlerExceptionResolver}, así el cuerpo
+ * sale de GlobalControllerAdvice como cualquier otro error. El estado es por instancia.
+ */
+@Slf4j
+public class RateLimitFilter implements Filter, MeterBinder {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final HandlerExceptionResolver exceptionResolver;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final int maxKeys;
+    private final int maxBodyBytes;
+    private final RouteLimiter[] routes;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // Reloj en nanosegundos; los tests lo reemplazan
+    LongSupplier clock = System::nanoTime;
+
+    public RateLimitFilter(RateLimitProperties properties, HandlerExceptionResolver exceptionResolver,
+                           JsonMapper jsonMapper) {
+        this.exceptionResolver = exceptionResolver;
+        // Un campo repetido es un error: si no, el límite y el controlador podrían leer valores distintos
+        this.jsonMapper = jsonMapper.rebuild()
+                .enable(StreamReadFeature.STRICT_DUPLICATE_DETECTION)
+                .build();
+        this.enabled = properties.enabled();
+        this.maxKeys = properties.maxKeys();
+        this.maxBodyBytes = properties.maxBodyBytes();
+        long now = clock.getAsLong();
+        this.routes = properties.routes().entrySet().stream()
+                .map(entry -> new RouteLimiter(entry.getKey(), entry.getValue(), now))
+                .toArray(RouteLimiter[]::new);
+        log.info("Límite de peticiones {} en {} rutas", enabled ? "activo" : "desactivado", routes.length);
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        if (!enabled
+                || !(servletRequest instanceof HttpServletRequest request)
+                || !(servletResponse instanceof HttpServletResponse response)) {
+            chain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        RouteLimiter route = match(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long now = clock.getAsLong();
+        String ip = request.getRemoteAddr() != null ? request.getRemoteAddr() : "";
+        long wait = bucket(route.ipBuckets, ip, route.ipOverflow, route, now).tryAcquire(now, route.ipInterval, route.ipTolerance);
+        if (wait > 0) {
+            route.rejectedByIp.increment();
+            reject(request, response, route, wait);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        if (route.identityField != null) {
+            CachedBodyRequest cached;
+            String identity;
+            try {
+                cached = CachedBodyRequest.read(request, maxBodyBytes);
+                identity = identity(cached.body(), route.identityField);
+            } catch (RateLimitedBodyException e) {
+                route.rejectedBody.increment();
+                resolve(request, response, e);
+                return;
+            }
+            forwarded = cached;
+            wait = bucket(route.identityBuckets, identity, route.identityOverflow, route, now)
+                    .tryAcquire(now, route.identityInterval, route.identityTolerance);
+            if (wait > 0) {
+                route.rejectedByIdentity.increment();
+                reject(request, response, route, wait);
+                return;
+            }
+        }
+        route.allowed.increment();
+        chain.doFilter(forwarded, response);
+    }
+
+    /**
+     * Libera los buckets llenos (sin peticiones recientes): volver a crearlos da el mismo resultado.
+     */
+    @Scheduled(
+            initialDelayString = "${motorx.rate-limit.cleanup-interval-ms:60000}",
+            fixedDelayString = "${motorx.rate-limit.cleanup-interval-ms:60000}"
+    )
+    public void evictIdle() {
+        evictionLock.lock();
+        try {
+            evictIdle(clock.getAsLong());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // MÉTRICAS
+    // ---------------------------------------------------------------
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        for (RouteLimiter route : routes) {
+            FunctionCounter.builder("rate.limit.allowed", route.allowed, LongAdder::sum)
+                    .tag("route", route.name)
+                    .description("Peticiones a rutas limitadas que pasaron el límite")
+                    .register(registry);
+            FunctionCounter.builder("rate.limit.rejected", route.rejectedByIp, LongAdder::sum)
+                    .tags("route", route.name, "scope", "ip")
+                    .description("Peticiones rechazadas con 429")
+                    .register(registry);
+            FunctionCounter.builder("rate.limit.rejected", route.rejectedByIdentity, LongAdder::sum)
+                    .tags("route", route.name, "scope", "identity")
+                    .description("Peticiones rechazadas con 429")
+                    .register(registry);
+            FunctionCounter.builder("rate.limit.rejected", route.rejectedBody, LongAdder::sum)
+                    .tags("route", route.name, "scope", "body")
+                    .description("Peticiones rechazadas con 413 o 400 por un body que no permite leer la identidad")
+                    .register(registry);
+            FunctionCounter.builder("rate.limit.overflow", route.overflow, LongAdder::sum)
+                    .tag("route", route.name)
+                    .description("Peticiones de claves nuevas contadas en el bucket compartido por superar max-keys")
+                    .register(registry);
+            Gauge.builder("rate.limit.tracked", route.ipBuckets, Map::size)
+                    .tags("route", route.name, "scope", "ip")
+                    .description("Claves con bucket en memoria")
+                    .register(registry);
+            Gauge.builder("rate.limit.tracked", route.identityBuckets, Map::size)
+                    .tags("route", route.name, "scope", "identity")
+                    .description("Claves con bucket en memoria")
+                    .register(registry);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // HELPERS PRIVADOS
+    // ---------------------------------------------------------------
+
+    private RouteLimiter match(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath().length();
+        for (RouteLimiter route : routes) {
+            if (route.matches(method, uri, offset)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bucket de la clave, creándolo si hace falta. Con el mapa lleno intenta liberar claves
+     * inactivas; si sigue lleno la clave usa el bucket compartido de la ruta.
+     */
+    private TokenBucket bucket(Map<String, TokenBucket> buckets, String key, TokenBucket overflowBucket,
+                               RouteLimiter route, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            // Un solo hilo recorre los mapas; los demás no esperan
+            if (evictionLock.tryLock()) {
+                try {
+                    evictIdle(now);
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            if (buckets.size() >= maxKeys) {
+                route.overflow.increment();
+                return overflowBucket;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+    }
+
+    private void evictIdle(long now) {
+        for (RouteLimiter route : routes) {
+            route.ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+            route.identityBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    /**
+     * Identidad del body: el valor de texto del campo, ya decodificado por Jackson (con sus
+     * escapes unicode resueltos), sin espacios y en minúsculas.
+     * @throws RateLimitedBodyException si el body no es un objeto JSON o no trae el campo como texto
+     */
+    private String identity(byte[] body, String field) {
+        JsonNode root;
+        try {
+            root = jsonMapper.readTree(body);
+        } catch (JacksonException e) {
+            throw RateLimitedBodyException.malformed(field);
+        }
+        JsonNode value = root == null || !root.isObject() ? null : root.get(field);
+        String identity = value != null && value.isString() ? value.stringValue().trim().toLowerCase(Locale.ROOT) : "";
+        if (identity.isEmpty()) {
+            throw RateLimitedBodyException.malformed(field);
+        }
+        return identity;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RouteLimiter route, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, Math.ceilDiv(waitNanos, NANOS_PER_SECOND));
+        log.debug("Límite de peticiones alcanzado en {} para {}", route.name, request.getRemoteAddr());
+        RateLimitExceededException ex = new RateLimitExceededException(retryAfterSeconds);
+        if (exceptionResolver.resolveException(request, response, null, ex) == null) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+    }
+
+    private void resolve(HttpServletRequest request, HttpServletResponse response, RateLimitedBodyException ex) {
+        log.debug("Body rechazado en una ruta limitada para {}: {}", request.getRemoteAddr(), ex.getMessage());
+        if (exceptionResolver.resolveException(request, response, null, ex) == null) {
+            response.setStatus(ex.getStatus().value());
+        }
+    }
+
+    /**
+     * Límites y buckets de una ruta. interval es el tiempo en que se recupera un permiso;
+     * tolerance, cuánto puede adelantarse el bucket (capacity - 1 intervalos de ráfaga).
+     */
+    static final class RouteLimiter {
+
+        final String name;
+        private final String method;
+        private final String path;
+        private final boolean prefix;
+
+        final long ipInterval;
+        final long ipTolerance;
+        final long identityInterval;
+        final long identityTolerance;
+        // Campo del body JSON con la identidad; null = la ruta solo se limita por IP
+        final String identityField;
+
+        final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+        final Map<String, TokenBucket> identityBuckets = new ConcurrentHashMap<>();
+        final TokenBucket ipOverflow;
+        final TokenBucket identityOverflow;
+
+        final LongAdder allowed = new LongAdder();
+        final LongAdder rejectedByIp = new LongAdder();
+        final LongAdder rejectedByIdentity = new LongAdder();
+        final LongAdder rejectedBody = new LongAdder();
+        final LongAdder overflow = new LongAdder();
+
+        RouteLimiter(String name, RateLimitProperties.Route route, long now) {
+            if (route.path() == null || route.perIp() == null) {
+                throw new IllegalStateException("motorx.rate-limit.routes." + name + ": path y per-ip son obligatorios.");
+            }
+            this.name = name;
+            this.method = route.method();
+            this.prefix = route.path().endsWith("/**");
+            this.path = prefix ? route.path().substring(0, route.path().length() - 3) : route.path();
+            this.ipInterval = interval(name, route.perIp());
+            this.ipTolerance = ipInterval * (route.perIp().capacity() - 1);
+            if (route.perIdentity() != null) {
+                this.identityInterval = interval(name, route.perIdentity());
+                this.identityTolerance = identityInterval * (route.perIdentity().capacity() - 1);
+                this.identityField = route.identityField();
+            } else {
+                this.identityInterval = 0;
+                this.identityTolerance = 0;
+                this.identityField = null;
+            }
+            this.ipOverflow = new TokenBucket(now);
+            this.identityOverflow = new TokenBucket(now);
+        }
+
+        private static long interval(String name, RateLimitProperties.Limit limit) {
+            if (limit.capacity() < 1 || limit.period() == null || limit.period().isZero() || limit.period().isNegative()) {
+                throw new IllegalStateException("motorx.rate-limit.routes." + name + ": capacity y period deben ser positivos.");
+            }
+            return limit.period().toNanos() / limit.capacity();
+        }
+
+        /**
+         * Ruta exacta (admite barra final) o prefijo; compara sobre la URI sin crear strings.
+         */
+        boolean matches(String requestMethod, String uri, int offset) {
+            if (method != null && !method.equalsIgnoreCase(requestMethod)) {
+                return false;
+            }
+            if (!uri.startsWith(path, offset)) {
+                return false;
+            }
+            int rest = uri.length() - offset - path.length();
+            if (rest == 0) {
+                return true;
+            }
+            char next = uri.charAt(offset + path.length());
+            return next == '/' && (prefix || rest == 1);
+        }
+    }
+
+    /**
+     * Token bucket en un AtomicLong: guarda el instante en que el bucket vuelve a estar lleno.
+     */
+    static final class TokenBucket {
+
+        private final AtomicLong fullAt;
+
+        TokenBucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * Toma un permiso.
+         * @return 0 si se concedió; si no, nanosegundos hasta que haya uno disponible
+         */
+        long tryAcquire(long now, long interval, long tolerance) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now > 0 ? current : now;
+                long wait = base - tolerance - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, base + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+
+    /**
+     * Petición con el body completo ya leído (hasta maxBytes) para buscar la identidad;
+     * el controlador lo vuelve a leer desde el buffer.
+     */
+    static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final Charset charset;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+            this.charset = request.getCharacterEncoding() != null
+                    ? Charset.forName(request.getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+        }
+
+        /**
+         * @throws RateLimitedBodyException si el body supera maxBytes: sin leerlo entero no hay identidad
+         */
+        static CachedBodyRequest read(HttpServletRequest request, int maxBytes) throws IOException {
+            if (request.getContentLengthLong() > maxBytes) {
+                throw RateLimitedBodyException.tooLarge(maxBytes);
+            }
+            byte[] body = request.getInputStream().readNBytes(maxBytes + 1);
+            if (body.length > maxBytes) {
+                throw RateLimitedBodyException.tooLarge(maxBytes);
+            }
+            return new CachedBodyRequest(request, body);
+        }
+
+        byte[] body() {
+            return body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new BufferedServletInputStream(body);
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    /**
+     * Stream sobre el body en memoria: siempre está listo, así que la lectura asíncrona
+     * avisa enseguida que hay datos y que se leyó todo.
+     */
+    static final class BufferedServletInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream buffer;
+
+        BufferedServletInputStream(byte[] body) {
+            this.buffer = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return buffer.read();
+        }
+
+        @Override
+        public int read(byte @NotNull [] bytes, int offset, int length) {
+            return buffer.read(bytes, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return buffer.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (readListener == null) {
+                throw new NullPointerException("readListener");
+            }
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sparktech.motorx.security;
+
+import com.sparktech.motorx.entity.Role;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+
+/**
+ * Token JWT ya verificado (firma y expiración) por {@link JwtService#parse(String)}.
+ * Se parsea una sola vez por petición y de aquí se leen el usuario y los demás claims.
+ *
+ * @param username   Email del usuario (subject)
+ * @param expiration Fecha de expiración
+ * @param claims     Todos los claims del token
+ */
+public record VerifiedJwt(String username, Date expiration, Claims claims) {
+
+    public static VerifiedJwt of(Claims claims) {
+        return new VerifiedJwt(claims.getSubject(), claims.getExpiration(), claims);
+    }
+
+    /**
+     * El token pertenece al usuario y sigue vigente (puede haber expirado desde que se parseó).
+     */
+    public boolean isValidFor(UserDetails userDetails) {
+        return username != null
+                && username.equals(userDetails.getUsername())
+                && (expiration == null || expiration.after(new Date()));
+    }
+
+    /**
+     * El token trae el id, el rol y la versión de seguridad del usuario. Los emitidos antes
+     * de estos claims no los traen y se validan contra la BD hasta que expiran.
+     */
+    public boolean hasUserClaims() {
+        return userId() != null && role() != null && securityVersion() != null;
+    }
+
+    /** Claim uid; null si no viene */
+    public Long userId() {
+        return claim(JwtService.CLAIM_USER_ID) instanceof Number id ? id.longValue() : null;
+    }
+
+    /** Claim role; null si no viene o no es un rol conocido */
+    public Role role() {
+        if (claim(JwtService.CLAIM_ROLE) instanceof String role) {
+            try {
+                return Role.valueOf(role);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /** Claim sv; null si no viene */
+    public Integer securityVersion() {
+        return claim(JwtService.CLAIM_SECURITY_VERSION) instanceof Number version ? version.intValue() : null;
+    }
+
+    /**
+     * Principal de la petición armado solo con los claims.
+     * @throws IllegalStateException si el token no trae los claims del usuario
+     */
+    public AuthenticatedUser toPrincipal() {
+        if (!hasUserClaims()) {
+            throw new IllegalStateException("El token no trae los claims del usuario.");
+        }
+        return new AuthenticatedUser(userId(), username, role());
+    }
+
+    private Object claim(String name) {
+        return claims == null ? null : claims.get(name);
+    }
+}
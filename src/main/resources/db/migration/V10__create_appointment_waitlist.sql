@@ -0,0 +1,55 @@
+-- ============================================================
+-- MotorX - Migración V10: Lista de espera de citas
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Cuando un horario no tiene técnicos libres el cliente puede
+--         anotarse en la lista de espera de (fecha, tipo, slot). Al
+--         cancelarse una cita de ese slot se agenda automáticamente al
+--         primero de la fila, en lugar de que los clientes consulten
+--         la disponibilidad una y otra vez esperando un cupo.
+-- ============================================================
+
+-- 1. Tabla de la lista de espera
+CREATE TABLE appointment_waitlist (
+    id               BIGSERIAL    PRIMARY KEY,
+    appointment_type VARCHAR(30)  NOT NULL,
+    appointment_date DATE         NOT NULL,
+    start_time       TIME         NOT NULL,
+    current_mileage  INTEGER      NOT NULL,
+    client_notes     VARCHAR(500) NULL,
+    status           VARCHAR(20)  NOT NULL DEFAULT 'WAITING',
+    discard_reason   VARCHAR(500) NULL,
+    created_at       TIMESTAMP    NOT NULL DEFAULT NOW(),
+    promoted_at      TIMESTAMP    NULL,
+    vehicle_id       BIGINT       NOT NULL,
+    client_id        BIGINT       NOT NULL,
+    appointment_id   BIGINT       NULL,
+
+    CONSTRAINT fk_waitlist_vehicle
+        FOREIGN KEY (vehicle_id) REFERENCES vehicles (id)
+            ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT fk_waitlist_client
+        FOREIGN KEY (client_id) REFERENCES users (id)
+            ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT fk_waitlist_appointment
+        FOREIGN KEY (appointment_id) REFERENCES appointments (id)
+            ON DELETE SET NULL ON UPDATE CASCADE,
+    CONSTRAINT chk_waitlist_status CHECK (
+        status IN ('WAITING', 'PROMOTING', 'PROMOTED', 'DISCARDED', 'CANCELLED')
+    )
+);
+
+-- 2. Incremento igual al allocationSize de la entidad (ver V9)
+ALTER SEQUENCE appointment_waitlist_id_seq INCREMENT BY 50;
+
+-- 3. Orden de la fila por slot: el despachador busca los que esperan
+--    para (fecha, hora) en orden de llegada.
+CREATE INDEX idx_waitlist_slot_queue
+    ON appointment_waitlist (appointment_date, start_time, created_at, id)
+    WHERE status = 'WAITING';
+
+CREATE INDEX idx_waitlist_client ON appointment_waitlist (client_id);
+
+-- 4. Un vehículo solo puede estar una vez en espera a la vez
+CREATE UNIQUE INDEX uq_waitlist_active_vehicle
+    ON appointment_waitlist (vehicle_id)
+    WHERE status IN ('WAITING', 'PROMOTING');
@@ -0,0 +1,21 @@
+-- ============================================================
+-- MotorX - Migración V11: Cierres del taller
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Además de fines de semana y festivos nacionales (calculados
+--         en el calendario laboral), el admin puede cerrar el taller
+--         en fechas puntuales (inventario, capacitación, etc.). En esas
+--         fechas no se ofrece disponibilidad ni se aceptan citas.
+-- ============================================================
+
+-- 1. Tabla de cierres (una fila por fecha cerrada)
+CREATE TABLE workshop_closures (
+    id           BIGSERIAL    PRIMARY KEY,
+    closure_date DATE         NOT NULL,
+    reason       VARCHAR(255) NULL,
+    created_at   TIMESTAMP    NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT uq_workshop_closure_date UNIQUE (closure_date)
+);
+
+-- 2. Incremento igual al allocationSize de la entidad (ver V9)
+ALTER SEQUENCE workshop_closures_id_seq INCREMENT BY 50;
@@ -0,0 +1,99 @@
+-- ============================================================
+-- MotorX - Migración V12: Plantillas de horario versionadas
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Los horarios de recepción, duraciones, almuerzo y tipos
+--         exclusivos de Auteco estaban fijos en AppointmentScheduleConfig
+--         y cualquier cambio requería un despliegue. Ahora el admin
+--         publica versiones nuevas de la plantilla y la aplicación las
+--         carga sin reiniciar. Solo una versión está activa a la vez.
+-- ============================================================
+
+-- 1. Cabecera de la plantilla (una fila por versión, nunca se edita)
+CREATE TABLE schedule_templates (
+    id          BIGSERIAL    PRIMARY KEY,
+    version     INTEGER      NOT NULL,
+    description VARCHAR(255) NULL,
+    work_start  TIME         NOT NULL,
+    work_end    TIME         NOT NULL,
+    lunch_start TIME         NOT NULL,
+    lunch_end   TIME         NOT NULL,
+    active      BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at  TIMESTAMP    NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT uq_schedule_template_version UNIQUE (version),
+    CONSTRAINT chk_schedule_template_hours CHECK (
+        work_start < work_end AND lunch_start < lunch_end
+    )
+);
+
+-- Solo una versión activa
+CREATE UNIQUE INDEX uq_schedule_template_active
+    ON schedule_templates (active)
+    WHERE active;
+
+-- 2. Reglas por tipo de cita dentro de una versión
+CREATE TABLE schedule_template_types (
+    id               BIGSERIAL   PRIMARY KEY,
+    template_id      BIGINT      NOT NULL,
+    appointment_type VARCHAR(30) NOT NULL,
+    duration_minutes INTEGER     NOT NULL,
+    auteco_only      BOOLEAN     NOT NULL DEFAULT FALSE,
+    user_bookable    BOOLEAN     NOT NULL DEFAULT FALSE,
+
+    CONSTRAINT fk_schedule_type_template
+        FOREIGN KEY (template_id) REFERENCES schedule_templates (id)
+            ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT uq_schedule_type UNIQUE (template_id, appointment_type),
+    CONSTRAINT chk_schedule_type_duration CHECK (duration_minutes > 0)
+);
+
+-- 3. Horarios de recepción válidos por tipo dentro de una versión
+CREATE TABLE schedule_template_slots (
+    id               BIGSERIAL   PRIMARY KEY,
+    template_id      BIGINT      NOT NULL,
+    appointment_type VARCHAR(30) NOT NULL,
+    start_time       TIME        NOT NULL,
+
+    CONSTRAINT fk_schedule_slot_template
+        FOREIGN KEY (template_id) REFERENCES schedule_templates (id)
+            ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT uq_schedule_slot UNIQUE (template_id, appointment_type, start_time)
+);
+
+-- 4. Incremento igual al allocationSize de las entidades (ver V9)
+ALTER SEQUENCE schedule_templates_id_seq      INCREMENT BY 50;
+ALTER SEQUENCE schedule_template_types_id_seq INCREMENT BY 50;
+ALTER SEQUENCE schedule_template_slots_id_seq INCREMENT BY 50;
+
+-- 5. Versión 1: los horarios que estaban en AppointmentScheduleConfig
+INSERT INTO schedule_templates (version, description, work_start, work_end, lunch_start, lunch_end, active)
+VALUES (1, 'Horario inicial de Jmmotoservicio', '07:00', '17:30', '12:00', '13:00', TRUE);
+
+INSERT INTO schedule_template_types (template_id, appointment_type, duration_minutes, auteco_only, user_bookable)
+SELECT t.id, v.appointment_type, v.duration_minutes, v.auteco_only, v.user_bookable
+FROM schedule_templates t
+CROSS JOIN (VALUES
+    ('MANUAL_WARRANTY_REVIEW', 270, TRUE,  TRUE),
+    ('AUTECO_WARRANTY',        450, TRUE,  TRUE),
+    ('QUICK_SERVICE',          255, FALSE, TRUE),
+    ('MAINTENANCE',            555, FALSE, TRUE),
+    ('OIL_CHANGE',              30, FALSE, TRUE),
+    ('UNPLANNED',              255, FALSE, FALSE),
+    ('REWORK',                 450, FALSE, FALSE)
+) AS v (appointment_type, duration_minutes, auteco_only, user_bookable)
+WHERE t.version = 1;
+
+INSERT INTO schedule_template_slots (template_id, appointment_type, start_time)
+SELECT t.id, v.appointment_type, v.start_time::TIME
+FROM schedule_templates t
+CROSS JOIN (VALUES
+    ('MANUAL_WARRANTY_REVIEW', '07:00'), ('MANUAL_WARRANTY_REVIEW', '13:00'),
+    ('AUTECO_WARRANTY',        '07:30'), ('AUTECO_WARRANTY',        '13:15'),
+    ('QUICK_SERVICE',          '07:15'), ('QUICK_SERVICE',          '13:30'),
+    ('MAINTENANCE',            '07:45'),
+    ('OIL_CHANGE', '08:00'), ('OIL_CHANGE', '08:30'), ('OIL_CHANGE', '09:00'),
+    ('OIL_CHANGE', '09:30'), ('OIL_CHANGE', '10:00'),
+    ('OIL_CHANGE', '14:00'), ('OIL_CHANGE', '14:30'), ('OIL_CHANGE', '15:00'),
+    ('OIL_CHANGE', '15:30'), ('OIL_CHANGE', '16:00'), ('OIL_CHANGE', '16:30')
+) AS v (appointment_type, start_time)
+WHERE t.version = 1;
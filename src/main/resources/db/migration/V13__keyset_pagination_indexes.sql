@@ -0,0 +1,26 @@
+-- ============================================================
+-- MotorX - Migración V13: Índices para paginación por cursor (keyset)
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Los historiales de citas y los listados de vehículos y
+--         usuarios se paginan por cursor: cada página continúa
+--         después de la última fila de la anterior, en el mismo
+--         orden del índice, sin OFFSET, y el orden es total gracias
+--         al id de desempate. Los listados que siguen uno de estos
+--         índices leen solo las filas de la página; el historial del
+--         cliente no tiene índice aquí (ver V18).
+-- ============================================================
+
+-- 1. Historial de citas de un vehículo: (appointment_date, start_time, id) DESC.
+CREATE INDEX idx_appointment_vehicle_keyset
+    ON appointments (vehicle_id, appointment_date DESC, start_time DESC, id DESC);
+
+-- 2. Vehículos de un cliente y listado admin de vehículos: (created_at, id) DESC.
+CREATE INDEX idx_vehicle_user_keyset
+    ON vehicles (user_id, created_at DESC, id DESC);
+
+CREATE INDEX idx_vehicle_created_keyset
+    ON vehicles (created_at DESC, id DESC);
+
+-- 3. Listado admin de usuarios: (created_at, id) DESC.
+CREATE INDEX idx_user_created_keyset
+    ON users (created_at DESC, id DESC);
@@ -0,0 +1,85 @@
+-- ============================================================
+-- MotorX - Migración V15: system_events particionada por mes
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Cada login, registro y agendamiento escribe un evento.
+--         Las consultas de los indicadores siempre filtran por un
+--         rango de event_date; con particiones mensuales PostgreSQL
+--         descarta los meses fuera del rango (partition pruning) y
+--         los índices de cada partición se mantienen pequeños.
+--         La retención se aplica borrando o separando particiones
+--         completas, sin DELETE masivos ni VACUUM posteriores.
+--         Las particiones futuras y las vencidas las administra
+--         SystemEventPartitionServiceImpl.
+-- ============================================================
+
+-- 1. La secuencia de BIGSERIAL pertenece a la tabla actual: se suelta para que no se borre con ella
+ALTER SEQUENCE system_events_id_seq OWNED BY NONE;
+
+-- 2. Tabla actual fuera del camino (los nombres de índices son únicos por esquema)
+ALTER TABLE system_events RENAME TO system_events_old;
+ALTER TABLE system_events_old RENAME CONSTRAINT pk_system_events TO pk_system_events_old;
+DROP INDEX idx_event_type;
+DROP INDEX idx_event_date;
+DROP INDEX idx_event_type_date;
+
+-- 3. Tabla particionada por rango de event_date
+CREATE TABLE system_events (
+    id          BIGINT          NOT NULL DEFAULT nextval('system_events_id_seq'),
+    event_type  VARCHAR(100)    NOT NULL,
+    event_date  TIMESTAMP       NOT NULL,
+    metadata    VARCHAR(500)    NULL,
+    severity    VARCHAR(20)     NOT NULL,
+    user_id     BIGINT          NULL,
+
+    -- La clave de partición tiene que formar parte de la PK
+    CONSTRAINT pk_system_events PRIMARY KEY (id, event_date),
+    CONSTRAINT fk_system_events_user FOREIGN KEY (user_id) REFERENCES users (id)
+        ON DELETE SET NULL ON UPDATE CASCADE,
+    CONSTRAINT chk_system_events_type CHECK (
+        event_type IN (
+                       'USER_REGISTER_ATTEMPT','USER_REGISTER_SUCCESS','USER_REGISTER_FAILED',
+                       'PASSWORD_RESET_REQUEST','PASSWORD_RESET_SUCCESS',
+                       'APPOINTMENT_CREATED','APPOINTMENT_CONFLICT','APPOINTMENT_CANCELLED',
+                       'LOGIN_SUCCESS','LOGIN_FAILED'
+            )
+        ),
+    CONSTRAINT chk_system_events_severity CHECK (
+        severity IN ('INFO','WARNING','ERROR')
+        )
+) PARTITION BY RANGE (event_date);
+
+ALTER SEQUENCE system_events_id_seq OWNED BY system_events.id;
+
+-- 4. Índices del padre: PostgreSQL los crea en cada partición, actual y futura.
+--    idx_event_type se elimina: (event_type, event_date) cubre las mismas búsquedas.
+CREATE INDEX idx_event_date           ON system_events (event_date);
+CREATE INDEX idx_event_type_date      ON system_events (event_type, event_date);
+-- Intentos fallidos de login de un usuario desde una fecha
+CREATE INDEX idx_event_user_type_date ON system_events (user_id, event_type, event_date);
+
+-- 5. Una partición por mes, desde el evento más antiguo hasta 3 meses después del actual.
+--    Nombre: system_events_pAAAAMM, el mismo que usa el servicio de particiones.
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(event_date) FROM system_events_old), now()))::DATE;
+    last_month  DATE := (date_trunc('month', now()) + INTERVAL '3 months')::DATE;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF system_events FOR VALUES FROM (%L) TO (%L)',
+                       'system_events_p' || to_char(month_start, 'YYYYMM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::DATE);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+-- 6. Red de seguridad para fechas sin partición (p. ej. si el mantenimiento no corrió a tiempo).
+--    El servicio mueve esas filas a su partición cuando la crea.
+CREATE TABLE system_events_default PARTITION OF system_events DEFAULT;
+
+-- 7. Copia de los eventos existentes y retiro de la tabla anterior
+INSERT INTO system_events (id, event_type, event_date, metadata, severity, user_id)
+SELECT id, event_type, event_date, metadata, severity, user_id
+FROM system_events_old;
+
+DROP TABLE system_events_old;
@@ -0,0 +1,18 @@
+-- ============================================================
+-- MotorX - Migración V16: Versión de seguridad de los usuarios
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: El JWT lleva el id, el rol y la versión de seguridad del
+--         usuario, así cada petición se autentica sin consultar la BD.
+--         La versión se incrementa al cambiar la contraseña, bloquear,
+--         desbloquear o eliminar la cuenta: los tokens emitidos con la
+--         versión anterior dejan de ser válidos.
+-- ============================================================
+
+-- 1. Versión 0 para los usuarios existentes (sus tokens vigentes no llevan versión)
+ALTER TABLE users
+    ADD COLUMN security_version INTEGER NOT NULL DEFAULT 0;
+
+-- 2. Índice parcial para la carga de la tabla de versiones en memoria:
+--    solo los usuarios con cambios de seguridad o sin acceso
+CREATE INDEX idx_user_security_state ON users (id)
+    WHERE security_version > 0 OR enabled = FALSE OR account_locked = TRUE;
@@ -0,0 +1,18 @@
+-- ============================================================
+-- MotorX - Migración V17: Barrido de la lista de espera
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Una solicitud queda en PROMOTING si el proceso se cae entre
+--         tomarla y marcarla PROMOTED, y uq_waitlist_active_vehicle
+--         impide volver a anotar el vehículo. Un barrido periódico las
+--         devuelve a WAITING (o a PROMOTED si la cita sí se creó) y
+--         descarta las solicitudes cuyo horario ya pasó.
+-- ============================================================
+
+-- 1. Momento en que el despachador tomó la solicitud (null fuera de PROMOTING)
+ALTER TABLE appointment_waitlist
+    ADD COLUMN promoting_since TIMESTAMP NULL;
+
+-- 2. Solicitudes abiertas por fecha: el barrido busca las vencidas
+CREATE INDEX idx_waitlist_open_by_date
+    ON appointment_waitlist (appointment_date, start_time)
+    WHERE status IN ('WAITING', 'PROMOTING');
@@ -0,0 +1,31 @@
+-- ============================================================
+-- MotorX - Migración V18: Dueño de la cita para el historial del cliente
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: El historial paginado del cliente filtraba por el dueño a
+--         través de vehicles, y ningún índice cubría (dueño, fecha,
+--         hora, id): cada página leía y ordenaba todas las citas del
+--         cliente anteriores al cursor. Con el dueño copiado en la
+--         cita, la página sigue un índice propio y lee solo sus filas.
+--         Al traspasar un vehículo se reasignan sus citas (owner_id).
+-- ============================================================
+
+-- 1. Dueño actual del vehículo de la cita
+ALTER TABLE appointments
+    ADD COLUMN owner_id BIGINT NULL;
+
+UPDATE appointments a
+SET owner_id = v.user_id
+FROM vehicles v
+WHERE v.id = a.vehicle_id;
+
+ALTER TABLE appointments
+    ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT fk_appointments_owner
+        FOREIGN KEY (owner_id) REFERENCES users (id)
+            ON DELETE RESTRICT ON UPDATE CASCADE;
+
+-- 2. Historial de citas de un cliente: (appointment_date, start_time, id) DESC
+CREATE INDEX idx_appointment_owner_keyset
+    ON appointments (owner_id, appointment_date DESC, start_time DESC, id DESC);
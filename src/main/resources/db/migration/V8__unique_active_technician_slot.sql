@@ -0,0 +1,38 @@
+-- ============================================================
+-- MotorX - Migración V8: Exclusividad de slot por técnico en BD
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Un técnico no puede tener dos citas activas con el mismo
+--         startTime el mismo día (regla de existsTechnicianConflict).
+--         Hasta ahora solo se validaba en la aplicación (consulta y luego
+--         INSERT), por lo que dos agendamientos simultáneos podían pasar
+--         la validación. El índice único parcial lo garantiza la BD y
+--         permite reservar con INSERT ... ON CONFLICT DO NOTHING.
+-- ============================================================
+
+-- 1. Limpieza defensiva: si ya existen duplicados activos, se conserva la cita
+--    más antigua y a las demás se les quita el técnico para reasignarlas.
+WITH duplicated AS (
+    SELECT id,
+           ROW_NUMBER() OVER (
+               PARTITION BY technician_id, appointment_date, start_time
+               ORDER BY id
+           ) AS position_in_slot
+    FROM appointments
+    WHERE technician_id IS NOT NULL
+      AND status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW')
+)
+UPDATE appointments a
+SET technician_id = NULL,
+    admin_notes   = LEFT(
+            COALESCE(a.admin_notes || ' | ', '') ||
+            'Técnico retirado en migración V8: slot duplicado, reasignar.',
+            500)
+FROM duplicated d
+WHERE a.id = d.id
+  AND d.position_in_slot > 1;
+
+-- 2. Índice único parcial: solo las citas activas ocupan el slot del técnico.
+--    Las citas sin técnico (technician_id NULL) no participan.
+CREATE UNIQUE INDEX uq_appointment_active_technician_slot
+    ON appointments (technician_id, appointment_date, start_time)
+    WHERE status NOT IN ('CANCELLED', 'REJECTED', 'NO_SHOW');
@@ -0,0 +1,33 @@
+-- ============================================================
+-- MotorX - Migración V9: Secuencias con incremento 50 para los IDs
+-- Proyecto: Spark Tech S.A.S
+-- Motivo: Con GenerationType.IDENTITY Hibernate necesita ejecutar cada
+--         INSERT de inmediato para conocer el id, lo que desactiva el
+--         batching JDBC. Las entidades pasan a GenerationType.SEQUENCE
+--         (optimizador pooled, allocationSize = 50) sobre las mismas
+--         secuencias que creó BIGSERIAL, por lo que el DEFAULT de las
+--         columnas id sigue funcionando para los INSERT nativos.
+--         El incremento de la secuencia debe coincidir con allocationSize.
+-- ============================================================
+
+-- 1. Incremento igual al allocationSize de las entidades
+ALTER SEQUENCE users_id_seq                 INCREMENT BY 50;
+ALTER SEQUENCE password_reset_tokens_id_seq INCREMENT BY 50;
+ALTER SEQUENCE employees_id_seq             INCREMENT BY 50;
+ALTER SEQUENCE vehicles_id_seq              INCREMENT BY 50;
+ALTER SEQUENCE services_id_seq              INCREMENT BY 50;
+ALTER SEQUENCE appointments_id_seq          INCREMENT BY 50;
+ALTER SEQUENCE service_orders_id_seq        INCREMENT BY 50;
+ALTER SEQUENCE system_events_id_seq         INCREMENT BY 50;
+
+-- 2. Reposicionar cada secuencia a partir del id máximo actual.
+--    El optimizador pooled usa el bloque (valor - 49 .. valor], así que el
+--    primer valor entregado debe ser MAX(id) + 50 para no reutilizar ids.
+SELECT setval('users_id_seq',                 COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+SELECT setval('password_reset_tokens_id_seq', COALESCE((SELECT MAX(id) FROM password_reset_tokens), 0) + 50, false);
+SELECT setval('employees_id_seq',             COALESCE((SELECT MAX(id) FROM employees), 0) + 50, false);
+SELECT setval('vehicles_id_seq',              COALESCE((SELECT MAX(id) FROM vehicles), 0) + 50, false);
+SELECT setval('services_id_seq',              COALESCE((SELECT MAX(id) FROM services), 0) + 50, false);
+SELECT setval('appointments_id_seq',          COALESCE((SELECT MAX(id) FROM appointments), 0) + 50, false);
+SELECT setval('service_orders_id_seq',        COALESCE((SELECT MAX(id) FROM service_orders), 0) + 50, false);
+SELECT setval('system_events_id_seq',         COALESCE((SELECT MAX(id) FROM system_events), 0) + 50, false);
@@ -2,8 +2,12 @@ package com.sparktech.motorx.Services.impl;
 
 
 import com.sparktech.motorx.dto.appointment.*;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.Services.IAgendaStreamService;
 import com.sparktech.motorx.Services.IAppointmentService;
+import com.sparktech.motorx.Services.IAppointmentVersionService;
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -11,9 +15,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -25,6 +31,15 @@ class AdminServiceImplTest {
     @Mock
     private IAppointmentService appointmentService;
 
+    @Mock
+    private IWorkingDayCalendarService workingDayCalendar;
+
+    @Mock
+    private IAppointmentVersionService appointmentVersions;
+
+    @Mock
+    private IAgendaStreamService agendaStream;
+
     @InjectMocks
     private AdminServiceImpl sut;
 
@@ -78,6 +93,20 @@ class AdminServiceImplTest {
             verifyNoMoreInteractions(appointmentService);
         }
 
+        @Test
+        @DisplayName("exportCalendar() delega a appointmentService.streamAppointmentsByDateRange() con el mismo sink")
+        void exportCalendar_delegatesCorrectly() {
+            // Arrange
+            Consumer<AppointmentResponseDTO> sink = row -> { };
+
+            // Act
+            sut.exportCalendar(DATE, DATE_END, sink);
+
+            // Assert
+            verify(appointmentService, times(1)).streamAppointmentsByDateRange(DATE, DATE_END, sink);
+            verifyNoMoreInteractions(appointmentService);
+        }
+
         @Test
         @DisplayName("getAvailableSlots() delega a appointmentService.getAvailableSlots()")
         void getAvailableSlots_delegatesCorrectly() {
@@ -93,6 +122,23 @@ class AdminServiceImplTest {
             verify(appointmentService, times(1)).getAvailableSlots(DATE, TYPE);
             verifyNoMoreInteractions(appointmentService);
         }
+
+        @Test
+        @DisplayName("getAvailableSlotsBetween() delega a appointmentService.getAvailableSlotsBetween()")
+        void getAvailableSlotsBetween_delegatesCorrectly() {
+            // Arrange
+            LocalDate end = DATE.plusDays(6);
+            MultiDayAvailabilityResponseDTO expected = mock(MultiDayAvailabilityResponseDTO.class);
+            when(appointmentService.getAvailableSlotsBetween(DATE, end, TYPE)).thenReturn(expected);
+
+            // Act
+            MultiDayAvailabilityResponseDTO result = sut.getAvailableSlotsBetween(DATE, end, TYPE);
+
+            // Assert
+            assertThat(result).isEqualTo(expected);
+            verify(appointmentService, times(1)).getAvailableSlotsBetween(DATE, end, TYPE);
+            verifyNoMoreInteractions(appointmentService);
+        }
     }
 
     // ================================================================
@@ -210,5 +256,82 @@ class AdminServiceImplTest {
             verify(appointmentService, times(1)).getAppointmentsByVehicle(VEHICLE_ID);
             verifyNoMoreInteractions(appointmentService);
         }
+
+        @Test
+        @DisplayName("Historiales paginados delegan cursor y tamaño a appointmentService")
+        void historyPages_delegateCursorAndSize() {
+            // Arrange
+            CursorPageResponseDTO<AppointmentResponseDTO> clientPage =
+                    new CursorPageResponseDTO<>(List.of(mock(AppointmentResponseDTO.class)), "next", true);
+            CursorPageResponseDTO<AppointmentResponseDTO> vehiclePage =
+                    new CursorPageResponseDTO<>(List.of(), null, false);
+            when(appointmentService.getAppointmentsByClientPage(CLIENT_ID, null, 20)).thenReturn(clientPage);
+            when(appointmentService.getAppointmentsByVehiclePage(VEHICLE_ID, "next", 5)).thenReturn(vehiclePage);
+
+            // Act + Assert
+            assertThat(sut.getClientAppointmentHistoryPage(CLIENT_ID, null, 20)).isSameAs(clientPage);
+            assertThat(sut.getVehicleAppointmentHistoryPage(VEHICLE_ID, "next", 5)).isSameAs(vehiclePage);
+        }
+
+        @Test
+        @DisplayName("ETags de agenda y calendario: se calculan sin consultar las citas")
+        void eTags_delegateToVersionsWithoutQueryingAppointments() {
+            // Arrange
+            when(appointmentVersions.agendaETag(DATE)).thenReturn("\"agenda\"");
+            when(appointmentVersions.calendarETag(DATE, DATE_END)).thenReturn("\"calendar\"");
+
+            // Act + Assert
+            assertThat(sut.getDailyAgendaETag(DATE)).isEqualTo("\"agenda\"");
+            assertThat(sut.getCalendarViewETag(DATE, DATE_END)).isEqualTo("\"calendar\"");
+            verifyNoInteractions(appointmentService);
+        }
+
+        @Test
+        @DisplayName("Stream de la agenda: delega la suscripción con el Last-Event-ID")
+        void streamAgendaChanges_delegatesToAgendaStream() {
+            // Arrange
+            SseEmitter emitter = new SseEmitter();
+            when(agendaStream.subscribe(7L)).thenReturn(emitter);
+
+            // Act + Assert
+            assertThat(sut.streamAgendaChanges(7L)).isSameAs(emitter);
+            verifyNoInteractions(appointmentService);
+        }
+    }
+
+    // ================================================================
+    // CALENDARIO LABORAL
+    // ================================================================
+
+    @Nested
+    @DisplayName("Calendario laboral")
+    class WorkingDayCalendarTests {
+
+        @Test
+        @DisplayName("createWorkshopClosure() delega a workingDayCalendar.createClosure()")
+        void createWorkshopClosure_delegatesCorrectly() {
+            // Arrange
+            CreateWorkshopClosureRequestDTO request = new CreateWorkshopClosureRequestDTO(DATE, "Inventario");
+            WorkshopClosureResponseDTO expected = mock(WorkshopClosureResponseDTO.class);
+            when(workingDayCalendar.createClosure(request)).thenReturn(expected);
+
+            // Act
+            WorkshopClosureResponseDTO result = sut.createWorkshopClosure(request);
+
+            // Assert
+            assertThat(result).isEqualTo(expected);
+            verifyNoInteractions(appointmentService);
+        }
+
+        @Test
+        @DisplayName("deleteWorkshopClosure() delega a workingDayCalendar.deleteClosure()")
+        void deleteWorkshopClosure_delegatesCorrectly() {
+            // Act
+            sut.deleteWorkshopClosure(3L);
+
+            // Assert
+            verify(workingDayCalendar, times(1)).deleteClosure(3L);
+            verifyNoMoreInteractions(workingDayCalendar);
+        }
     }
-}
\ No newline at end of file
+}
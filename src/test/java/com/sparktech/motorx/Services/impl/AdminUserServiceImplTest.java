@@ -1,10 +1,13 @@
 package com.sparktech.motorx.Services.impl;
 
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.user.AdminUserResponseDTO;
 import com.sparktech.motorx.entity.UserEntity;
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
 import com.sparktech.motorx.exception.UserAlreadyBlockedException;
 import com.sparktech.motorx.exception.UserAlreadyDeletedException;
 import com.sparktech.motorx.exception.UserNotFoundException;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.repository.JpaUserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,13 +15,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +35,12 @@ class AdminUserServiceImplTest {
     @Mock
     private JpaUserRepository jpaUserRepository;
 
+    @Spy
+    private CursorPageMapper cursorPageMapper = new CursorPageMapper();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdminUserServiceImpl sut;
 
@@ -114,6 +127,60 @@ class AdminUserServiceImplTest {
         }
     }
 
+    // ================================================================
+    // getAllUsersPage()
+    // ================================================================
+
+    @Nested
+    @DisplayName("getAllUsersPage()")
+    class GetAllUsersPageTests {
+
+        @Test
+        @DisplayName("Sin cursor: primera página mapeada, con cursor de la última fila si hay más")
+        void givenNoCursorAndExtraRow_thenReturnFirstPageWithCursor() {
+            // Arrange
+            UserEntity u1 = buildUser(2L);
+            UserEntity u2 = buildUser(1L);
+            when(jpaUserRepository.findPage(any())).thenReturn(List.of(u1, u2));
+
+            // Act
+            CursorPageResponseDTO<AdminUserResponseDTO> page = sut.getAllUsersPage(null, 1);
+
+            // Assert
+            assertThat(page.items()).extracting(AdminUserResponseDTO::id).containsExactly(2L);
+            assertThat(page.hasMore()).isTrue();
+            assertThat(page.nextCursor())
+                    .isEqualTo(cursorPageMapper.encodeCreatedAtCursor(u1.getCreatedAt(), 2L));
+        }
+
+        @Test
+        @DisplayName("Con cursor: continúa después de la posición y la última página no trae cursor")
+        void givenCursor_thenQueryAfterPosition() {
+            // Arrange
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+            String cursor = cursorPageMapper.encodeCreatedAtCursor(createdAt, 2L);
+            when(jpaUserRepository.findPageAfter(eq(createdAt), eq(2L), any()))
+                    .thenReturn(List.of(buildUser(1L)));
+
+            // Act
+            CursorPageResponseDTO<AdminUserResponseDTO> page = sut.getAllUsersPage(cursor, 20);
+
+            // Assert
+            assertThat(page.items()).extracting(AdminUserResponseDTO::id).containsExactly(1L);
+            assertThat(page.hasMore()).isFalse();
+            assertThat(page.nextCursor()).isNull();
+            verify(jpaUserRepository, never()).findPage(any());
+        }
+
+        @Test
+        @DisplayName("Tamaño fuera de rango: lanza IllegalArgumentException sin consultar")
+        void givenSizeOutOfRange_thenThrow() {
+            assertThatThrownBy(() -> sut.getAllUsersPage(null, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(jpaUserRepository);
+        }
+    }
+
     // ================================================================
     // getUserById()
     // ================================================================
@@ -193,6 +260,24 @@ class AdminUserServiceImplTest {
             verify(jpaUserRepository).save(argThat(UserEntity::isAccountLocked));
         }
 
+        @Test
+        @DisplayName("Incrementa la versión de seguridad y publica UserSecurityChangedEvent")
+        void givenUnblockedUser_thenSecurityVersionIncremented() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            user.setAccountLocked(false);
+            user.setSecurityVersion(2);
+            when(jpaUserRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(jpaUserRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+            // Act
+            sut.blockUser(1L);
+
+            // Assert — los JWT emitidos con la versión 2 dejan de valer
+            assertThat(user.getSecurityVersion()).isEqualTo(3);
+            verify(eventPublisher).publishEvent(new UserSecurityChangedEvent(1L));
+        }
+
         @Test
         @DisplayName("Lanza UserAlreadyBlockedException si el usuario ya está bloqueado")
         void givenAlreadyBlockedUser_thenThrowUserAlreadyBlockedException() {
@@ -279,6 +364,24 @@ class AdminUserServiceImplTest {
             verify(jpaUserRepository).save(argThat(u -> !u.isAccountLocked()));
         }
 
+        @Test
+        @DisplayName("Incrementa la versión de seguridad: los tokens previos al bloqueo no vuelven a valer")
+        void givenBlockedUser_thenSecurityVersionIncremented() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            user.setAccountLocked(true);
+            user.setSecurityVersion(3);
+            when(jpaUserRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(jpaUserRepository.save(user)).thenReturn(user);
+
+            // Act
+            sut.unblockUser(1L);
+
+            // Assert
+            assertThat(user.getSecurityVersion()).isEqualTo(4);
+            verify(eventPublisher).publishEvent(new UserSecurityChangedEvent(1L));
+        }
+
         @Test
         @DisplayName("Lanza UserNotFoundException si el usuario no existe")
         void givenNonExistentUser_thenThrowUserNotFoundException() {
@@ -323,6 +426,23 @@ class AdminUserServiceImplTest {
             ));
         }
 
+        @Test
+        @DisplayName("Soft-delete: incrementa la versión de seguridad y publica UserSecurityChangedEvent")
+        void givenActiveUser_thenSecurityVersionIncremented() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            user.setDeletedAt(null);
+            when(jpaUserRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(jpaUserRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+            // Act
+            sut.deleteUser(1L);
+
+            // Assert
+            assertThat(user.getSecurityVersion()).isEqualTo(1);
+            verify(eventPublisher).publishEvent(new UserSecurityChangedEvent(1L));
+        }
+
         @Test
         @DisplayName("deleteUser() no retorna valor (void) y no lanza excepción en el camino feliz")
         void givenActiveUser_thenNoExceptionThrown() {
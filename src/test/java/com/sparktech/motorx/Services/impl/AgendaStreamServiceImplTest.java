@@ -0,0 +1,280 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.dto.appointment.AgendaChangeEventDTO;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("AgendaStreamServiceImpl - Unit Tests")
+class AgendaStreamServiceImplTest {
+
+    // No @ExtendWith(MockitoExtension.class) — los emisores se graban en memoria
+    private AgendaStreamServiceImpl sut;
+
+    private static final int BUFFER_SIZE = 4;
+    private static final LocalDate DATE = LocalDate.of(2099, 5, 20);
+    private static final Duration WAIT = Duration.ofSeconds(5);
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    private final Queue<RecordingEmitter> nextEmitters = new ArrayDeque<>();
+
+    @BeforeEach
+    void setUp() {
+        sut = new AgendaStreamServiceImpl() {
+            @Override
+            SseEmitter createEmitter() {
+                return nextEmitters.remove();
+            }
+        };
+        ReflectionTestUtils.setField(sut, "bufferSize", BUFFER_SIZE);
+        ReflectionTestUtils.setField(sut, "heartbeatIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(sut, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(sut, "replaySize", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.closeAll();
+    }
+
+    private RecordingEmitter subscribe(Long lastEventId) {
+        return subscribe(new RecordingEmitter(null), lastEventId);
+    }
+
+    private RecordingEmitter subscribe(RecordingEmitter emitter, Long lastEventId) {
+        nextEmitters.add(emitter);
+        sut.subscribe(lastEventId);
+        return emitter;
+    }
+
+    private void publish(long appointmentId) {
+        sut.onAppointmentChanged(new AppointmentChangedEvent(
+                AppointmentChangeType.CANCELLED, appointmentId, AppointmentType.OIL_CHANGE, DATE,
+                LocalTime.of(8, 0), LocalTime.of(8, 30),
+                AppointmentStatus.SCHEDULED, AppointmentStatus.CANCELLED, 3L, null, 9L
+        ));
+    }
+
+    // ================================================================
+    // PUBLICACIÓN
+    // ================================================================
+
+    @Nested
+    @DisplayName("Publicación")
+    class PublishTests {
+
+        @Test
+        @DisplayName("Cada pantalla recibe los cambios en orden, con ids crecientes y sin datos del cliente")
+        void givenSubscribers_thenEveryOneReceivesChangesInOrder() {
+            RecordingEmitter first = subscribe(null);
+            RecordingEmitter second = subscribe(null);
+
+            publish(1L);
+            publish(2L);
+
+            for (RecordingEmitter emitter : List.of(first, second)) {
+                await().atMost(WAIT).until(() -> emitter.changes.size() == 2);
+                assertThat(emitter.changes).extracting(AgendaChangeEventDTO::appointmentId).containsExactly(1L, 2L);
+                assertThat(emitter.frames).allMatch(frame -> frame.contains("event:" + AgendaStreamServiceImpl.CHANGE_EVENT));
+                assertThat(emitter.ids()).isSorted().doesNotHaveDuplicates();
+            }
+            AgendaChangeEventDTO change = first.changes.getFirst();
+            assertThat(change.changeType()).isEqualTo(AppointmentChangeType.CANCELLED);
+            assertThat(change.previousStatus()).isEqualTo(AppointmentStatus.SCHEDULED);
+            assertThat(change.status()).isEqualTo(AppointmentStatus.CANCELLED);
+            assertThat(change.appointmentDate()).isEqualTo(DATE);
+        }
+
+        @Test
+        @DisplayName("Sin cambios envía un comentario heartbeat")
+        void givenIdleConnection_thenHeartbeatIsSent() {
+            ReflectionTestUtils.setField(sut, "heartbeatIntervalMs", 20L);
+
+            RecordingEmitter emitter = subscribe(null);
+
+            await().atMost(WAIT).until(() -> emitter.frames.contains(":" + AgendaStreamServiceImpl.HEARTBEAT + "\n\n"));
+            assertThat(emitter.changes).isEmpty();
+        }
+    }
+
+    // ================================================================
+    // PANTALLAS LENTAS
+    // ================================================================
+
+    @Nested
+    @DisplayName("Pantallas lentas")
+    class SlowConsumerTests {
+
+        @Test
+        @DisplayName("Se desconecta la pantalla que llena su buffer; las demás siguen recibiendo")
+        void givenFullBuffer_thenOnlySlowSubscriberIsEvicted() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            sut.bindTo(registry);
+            CountDownLatch stuck = new CountDownLatch(1);
+            RecordingEmitter slow = subscribe(new RecordingEmitter(stuck), null);
+            RecordingEmitter fast = subscribe(null);
+
+            for (long id = 1; id <= BUFFER_SIZE + 2; id++) {
+                publish(id);
+            }
+
+            assertThat(sut.subscriberCount()).isEqualTo(1);
+            assertThat(registry.get("agenda.stream.evictions").functionCounter().count()).isEqualTo(1.0);
+            assertThat(registry.get("agenda.stream.subscribers").gauge().value()).isEqualTo(1.0);
+            await().atMost(WAIT).until(() -> fast.changes.size() == BUFFER_SIZE + 2);
+
+            // Al destrabarse, el hilo de la pantalla lenta cierra su conexión
+            stuck.countDown();
+            await().atMost(WAIT).until(() -> slow.completed);
+        }
+    }
+
+    // ================================================================
+    // RECONEXIÓN (Last-Event-ID)
+    // ================================================================
+
+    @Nested
+    @DisplayName("Reconexión con Last-Event-ID")
+    class ReconnectTests {
+
+        @Test
+        @DisplayName("Reenvía solo los eventos posteriores al último recibido")
+        void givenRecentLastEventId_thenMissedEventsAreReplayed() {
+            RecordingEmitter before = subscribe(null);
+            publish(1L);
+            await().atMost(WAIT).until(() -> before.changes.size() == 1);
+            long lastSeen = before.ids().getFirst();
+            publish(2L);
+            publish(3L);
+
+            RecordingEmitter reconnected = subscribe(lastSeen);
+
+            await().atMost(WAIT).until(() -> reconnected.changes.size() == 2);
+            assertThat(reconnected.changes).extracting(AgendaChangeEventDTO::appointmentId).containsExactly(2L, 3L);
+        }
+
+        @Test
+        @DisplayName("Sin Last-Event-ID no reenvía nada")
+        void givenNoLastEventId_thenNothingIsReplayed() {
+            publish(1L);
+
+            RecordingEmitter emitter = subscribe(null);
+            publish(2L);
+
+            await().atMost(WAIT).until(() -> emitter.changes.size() == 1);
+            assertThat(emitter.changes.getFirst().appointmentId()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("Si lo perdido ya no está retenido o no cabe en el buffer, pide resync")
+        void givenTooOldLastEventId_thenResyncIsSent() {
+            RecordingEmitter before = subscribe(null);
+            publish(1L);
+            await().atMost(WAIT).until(() -> before.changes.size() == 1);
+            long lastSeen = before.ids().getFirst();
+            for (long id = 2; id <= BUFFER_SIZE + 2; id++) {
+                publish(id);
+            }
+
+            RecordingEmitter tooFarBehind = subscribe(lastSeen);
+            RecordingEmitter otherInstance = subscribe(42L);
+
+            for (RecordingEmitter emitter : List.of(tooFarBehind, otherInstance)) {
+                await().atMost(WAIT).until(() -> emitter.frames.size() == 1);
+                assertThat(emitter.frames.getFirst()).contains("event:" + AgendaStreamServiceImpl.RESYNC_EVENT);
+                assertThat(emitter.changes).isEmpty();
+            }
+        }
+    }
+
+    // ================================================================
+    // CIERRE
+    // ================================================================
+
+    @Test
+    @DisplayName("closeAll() cierra todas las conexiones")
+    void givenShutdown_thenEveryEmitterIsCompleted() {
+        RecordingEmitter first = subscribe(null);
+        RecordingEmitter second = subscribe(null);
+
+        sut.closeAll();
+
+        assertThat(sut.subscriberCount()).isZero();
+        await().atMost(WAIT).until(() -> first.completed && second.completed);
+    }
+
+    /**
+     * Emisor que guarda lo enviado en lugar de escribir en una respuesta HTTP.
+     * Con {@code stuck} simula una pantalla que no lee: el envío queda bloqueado.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final List<AgendaChangeEventDTO> changes = new CopyOnWriteArrayList<>();
+        private final CountDownLatch stuck;
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch stuck) {
+            this.stuck = stuck;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (stuck != null) {
+                try {
+                    stuck.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder frame = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof AgendaChangeEventDTO change) {
+                    changes.add(change);
+                } else {
+                    frame.append(part.getData());
+                }
+            }
+            frames.add(frame.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        private List<Long> ids() {
+            return frames.stream()
+                    .map(EVENT_ID::matcher)
+                    .filter(Matcher::find)
+                    .map(matcher -> Long.valueOf(matcher.group(1)))
+                    .toList();
+        }
+    }
+}
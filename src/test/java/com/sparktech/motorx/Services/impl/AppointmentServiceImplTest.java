@@ -2,20 +2,36 @@ package com.sparktech.motorx.Services.impl;
 
 
 import com.sparktech.motorx.config.AppointmentScheduleConfig;
+import com.sparktech.motorx.config.MobilityRestrictionProperties;
 import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.BulkAppointmentItemResultDTO;
+import com.sparktech.motorx.dto.appointment.BulkAppointmentResponseDTO;
 import com.sparktech.motorx.dto.appointment.CancelAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
 import com.sparktech.motorx.dto.appointment.CreateUnplannedAppointmentRequestDTO;
+import com.sparktech.motorx.dto.appointment.MultiDayAvailabilityResponseDTO;
 import com.sparktech.motorx.dto.appointment.UpdateAppointmentTechnicianRequestDTO;
 import com.sparktech.motorx.dto.notification.AppointmentNotificationDTO;
 import com.sparktech.motorx.entity.*;
 import com.sparktech.motorx.exception.*;
 import com.sparktech.motorx.mapper.AppointmentMapper;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.repository.JpaAppointmentRepository;
 import com.sparktech.motorx.repository.JpaEmployeeRepository;
+import com.sparktech.motorx.repository.JpaScheduleTemplateRepository;
 import com.sparktech.motorx.repository.JpaVehicleRepository;
+import com.sparktech.motorx.repository.JpaWorkshopClosureRepository;
+import com.sparktech.motorx.Services.IAvailabilityCacheService;
 import com.sparktech.motorx.Services.IEmailNotificationService;
+import com.sparktech.motorx.Services.IMobilityRestrictionService;
+import com.sparktech.motorx.Services.IOccupancyIndexService;
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.Services.ISystemEventService;
+import com.sparktech.motorx.Services.ITechnicianAssignmentStrategy;
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
 
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.DisplayName;
@@ -27,13 +43,23 @@ import org.junit.jupiter.params.provider.CsvSource;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -51,10 +77,28 @@ class AppointmentServiceImplTest {
     @Mock private JpaVehicleRepository vehicleRepository;
     @Mock private AppointmentMapper appointmentMapper;
     @Mock private IEmailNotificationService notificationService;
+    @Mock private IOccupancyIndexService occupancyIndex;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private IAvailabilityCacheService availabilityCache;
+    @Mock private ISystemEventService systemEvents;
+    // Primer libre por id: conserva el orden esperado por los tests que no prueban la estrategia
+    @Spy private ITechnicianAssignmentStrategy assignmentStrategy = new FirstFitTechnicianAssignmentStrategy();
+    // Calendario real (sin cierres) y motor de pico y placa con la rotación por defecto de Medellín
+    @Spy private IWorkingDayCalendarService workingDayCalendar =
+            new WorkingDayCalendarServiceImpl(mock(JpaWorkshopClosureRepository.class), null, null);
+    @Spy private IMobilityRestrictionService mobilityRestrictionService =
+            new MobilityRestrictionServiceImpl(new MobilityRestrictionProperties(null, null, null), workingDayCalendar);
+    // Sin versión activa en BD: plantilla de horarios por defecto de AppointmentScheduleConfig
+    @Spy private IScheduleTemplateService scheduleTemplates =
+            new ScheduleTemplateServiceImpl(mock(JpaScheduleTemplateRepository.class), null, null, null, null, null);
+    @Spy private CursorPageMapper cursorPageMapper = new CursorPageMapper();
 
     @InjectMocks
     private AppointmentServiceImpl sut; // System Under Test
 
+    /** Día sin ninguna cita activa en el índice de ocupación */
+    private static final IOccupancyIndexService.DayOccupancy FREE_DAY = (techId, start) -> false;
+
     // ================================================================
     // HELPERS — builders de entidades mínimas
     // ================================================================
@@ -151,9 +195,9 @@ class AppointmentServiceImplTest {
          */
         @ParameterizedTest(name = "[{index}] {0} placa={1}")
         @CsvSource({
-                // Lunes 2025-01-06 → restringidos 5 y 6
-                "2025-01-06, ABC56X",   // penúltimo=5 → restringido
-                "2025-01-06, ABC65X",   // penúltimo=6 → restringido
+                // Lunes 2025-01-13 → restringidos 5 y 6 (el 2025-01-06 es festivo de Reyes)
+                "2025-01-13, ABC56X",   // penúltimo=5 → restringido
+                "2025-01-13, ABC65X",   // penúltimo=6 → restringido
                 // Martes 2025-01-07 → 7 y 8
                 "2025-01-07, ABC77X",
                 "2025-01-07, ABC88X",
@@ -234,6 +278,19 @@ class AppointmentServiceImplTest {
                     .isInstanceOf(AppointmentOutsideBusinessHoursException.class);
         }
 
+        @Test
+        @DisplayName("Lanza excepción si la fecha es festivo (Reyes Magos trasladado a lunes)")
+        void givenPublicHoliday_thenThrowBusinessHoursException() {
+            // Arrange — 2099-01-06 es martes: el festivo se traslada al lunes 2099-01-12
+            LocalDate holiday = LocalDate.of(2099, 1, 12);
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.getAvailableSlots(holiday, AppointmentType.OIL_CHANGE))
+                    .isInstanceOf(AppointmentOutsideBusinessHoursException.class)
+                    .hasMessageContaining("festivos");
+            verifyNoInteractions(availabilityCache);
+        }
+
         @Test
         @DisplayName("Retorna slots disponibles cuando todos los técnicos están libres")
         void givenFutureWeekdayAndAllTechniciansFree_thenReturnAllCandidateSlots() {
@@ -242,13 +299,10 @@ class AppointmentServiceImplTest {
             LocalDate futureMonday = LocalDate.of(2099, 1, 7);
             AppointmentType type = AppointmentType.OIL_CHANGE;
 
-            List<EmployeeEntity> technicians = List.of(buildTechnician(1L), buildTechnician(2L));
-            when(technicianRepository.findAllActive()).thenReturn(technicians);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
 
             // Ningún técnico tiene conflicto
-            when(appointmentRepository.existsTechnicianConflict(
-                    anyLong(), eq(futureMonday), any(LocalTime.class), any(LocalTime.class)
-            )).thenReturn(false);
+            when(occupancyIndex.getDayOccupancy(futureMonday)).thenReturn(FREE_DAY);
 
             List<LocalTime> expectedSlots = AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE
                     .getOrDefault(type, List.of());
@@ -273,13 +327,10 @@ class AppointmentServiceImplTest {
             LocalDate futureMonday = LocalDate.of(2099, 1, 7);
             AppointmentType type = AppointmentType.OIL_CHANGE;
 
-            List<EmployeeEntity> technicians = List.of(buildTechnician(1L), buildTechnician(2L));
-            when(technicianRepository.findAllActive()).thenReturn(technicians);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
 
-            // Todos ocupados
-            when(appointmentRepository.existsTechnicianConflict(
-                    anyLong(), eq(futureMonday), any(LocalTime.class), any(LocalTime.class)
-            )).thenReturn(true);
+            // Todos ocupados en todos los slots
+            when(occupancyIndex.getDayOccupancy(futureMonday)).thenReturn((techId, start) -> true);
 
             // Act
             AvailableSlotsResponseDTO response = sut.getAvailableSlots(futureMonday, type);
@@ -295,17 +346,10 @@ class AppointmentServiceImplTest {
             LocalDate futureMonday = LocalDate.of(2099, 1, 7);
             AppointmentType type = AppointmentType.OIL_CHANGE;
 
-            EmployeeEntity tech1 = buildTechnician(1L);
-            EmployeeEntity tech2 = buildTechnician(2L);
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech1, tech2));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
 
             // tech1 ocupado, tech2 libre
-            when(appointmentRepository.existsTechnicianConflict(
-                    eq(1L), eq(futureMonday), any(LocalTime.class), any(LocalTime.class)
-            )).thenReturn(true);
-            when(appointmentRepository.existsTechnicianConflict(
-                    eq(2L), eq(futureMonday), any(LocalTime.class), any(LocalTime.class)
-            )).thenReturn(false);
+            when(occupancyIndex.getDayOccupancy(futureMonday)).thenReturn((techId, start) -> techId == 1L);
 
             // Act
             AvailableSlotsResponseDTO response = sut.getAvailableSlots(futureMonday, type);
@@ -321,7 +365,7 @@ class AppointmentServiceImplTest {
         void givenNoActiveTechnicians_thenReturnEmptySlots() {
             // Arrange
             LocalDate futureMonday = LocalDate.of(2099, 1, 7);
-            when(technicianRepository.findAllActive()).thenReturn(List.of());
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of());
 
             // Act
             AvailableSlotsResponseDTO response = sut.getAvailableSlots(futureMonday, AppointmentType.OIL_CHANGE);
@@ -335,7 +379,7 @@ class AppointmentServiceImplTest {
         void givenTypeWithNoConfiguredSlots_thenReturnEmpty() {
             // Arrange
             LocalDate futureMonday = LocalDate.of(2099, 1, 7);
-            when(technicianRepository.findAllActive()).thenReturn(List.of(buildTechnician(1L)));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
 
             // REWORK normalmente no tiene slots en el config
             // (ajustar según AppointmentScheduleConfig real)
@@ -345,6 +389,182 @@ class AppointmentServiceImplTest {
             assertThat(response).isNotNull();
             assertThat(response.date()).isEqualTo(futureMonday);
         }
+
+        @Test
+        @DisplayName("Ocupación en un slot distinto o de otro técnico no descuenta disponibilidad")
+        void givenOccupancyInOtherSlot_thenOnlyThatSlotIsAffected() {
+            // Arrange — tech1 ocupado solo a las 08:00; a las 08:30 ambos libres
+            LocalDate futureMonday = LocalDate.of(2099, 1, 7);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
+            when(occupancyIndex.getDayOccupancy(futureMonday)).thenReturn((techId, start) ->
+                    techId == 1L && start.equals(LocalTime.of(8, 0)));
+
+            // Act
+            AvailableSlotsResponseDTO response = sut.getAvailableSlots(futureMonday, AppointmentType.OIL_CHANGE);
+
+            // Assert
+            assertThat(response.availableSlots())
+                    .filteredOn(slot -> slot.startTime().equals(LocalTime.of(8, 0)))
+                    .singleElement()
+                    .extracting(AvailableSlotsResponseDTO.AvailableSlotDTO::availableTechnicians)
+                    .isEqualTo(1);
+            assertThat(response.availableSlots())
+                    .filteredOn(slot -> slot.startTime().equals(LocalTime.of(8, 30)))
+                    .singleElement()
+                    .extracting(AvailableSlotsResponseDTO.AvailableSlotDTO::availableTechnicians)
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Responde desde el índice en memoria sin consultar la BD")
+        void givenManyTechniciansAndSlots_thenNoDatabaseQueries() {
+            // Arrange — 8 mecánicos y los 11 slots de OIL_CHANGE (antes: 88 consultas)
+            LocalDate futureMonday = LocalDate.of(2099, 1, 7);
+            when(occupancyIndex.getActiveTechnicianIds())
+                    .thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L));
+            when(occupancyIndex.getDayOccupancy(futureMonday)).thenReturn(FREE_DAY);
+
+            // Act
+            sut.getAvailableSlots(futureMonday, AppointmentType.OIL_CHANGE);
+
+            // Assert
+            verify(occupancyIndex, times(1)).getDayOccupancy(futureMonday);
+            verifyNoInteractions(appointmentRepository, technicianRepository);
+        }
+
+        @Test
+        @DisplayName("Si la respuesta está en caché, la devuelve sin recalcular")
+        void givenCachedResponse_thenReturnItWithoutComputing() {
+            // Arrange
+            LocalDate futureMonday = LocalDate.of(2099, 1, 7);
+            AvailableSlotsResponseDTO cached = new AvailableSlotsResponseDTO(
+                    futureMonday, AppointmentType.OIL_CHANGE, List.of());
+            when(availabilityCache.get(futureMonday, AppointmentType.OIL_CHANGE)).thenReturn(cached);
+
+            // Act
+            AvailableSlotsResponseDTO response = sut.getAvailableSlots(futureMonday, AppointmentType.OIL_CHANGE);
+
+            // Assert
+            assertThat(response).isSameAs(cached);
+            verifyNoInteractions(occupancyIndex);
+            verify(availabilityCache, never()).put(any(), any(), any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Si no está en caché, la calcula y la guarda con la versión tomada antes del cálculo")
+        void givenCacheMiss_thenComputeAndStoreWithVersion() {
+            // Arrange
+            LocalDate futureMonday = LocalDate.of(2099, 1, 7);
+            when(availabilityCache.currentVersion()).thenReturn(7L);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(occupancyIndex.getDayOccupancy(futureMonday)).thenReturn(FREE_DAY);
+
+            // Act
+            AvailableSlotsResponseDTO response = sut.getAvailableSlots(futureMonday, AppointmentType.OIL_CHANGE);
+
+            // Assert
+            verify(availabilityCache).put(futureMonday, AppointmentType.OIL_CHANGE, response, 7L);
+        }
+    }
+
+    // ================================================================
+    // NESTED: getAvailableSlotsBetween
+    // ================================================================
+    @Nested
+    @DisplayName("getAvailableSlotsBetween()")
+    class GetAvailableSlotsBetweenTests {
+
+        private static final LocalDate MONDAY = LocalDate.of(2099, 1, 5);
+        private static final LocalDate SUNDAY = LocalDate.of(2099, 1, 11);
+
+        private Map<LocalDate, IOccupancyIndexService.DayOccupancy> freeWeek() {
+            Map<LocalDate, IOccupancyIndexService.DayOccupancy> week = new HashMap<>();
+            for (LocalDate d = MONDAY; !d.isAfter(SUNDAY); d = d.plusDays(1)) {
+                week.put(d, FREE_DAY);
+            }
+            return week;
+        }
+
+        @Test
+        @DisplayName("Omite sábado y domingo y devuelve una entrada por día laboral")
+        void givenWeekRange_thenSkipWeekend() {
+            // Arrange
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(occupancyIndex.getOccupancyBetween(MONDAY, SUNDAY)).thenReturn(freeWeek());
+
+            // Act
+            MultiDayAvailabilityResponseDTO response =
+                    sut.getAvailableSlotsBetween(MONDAY, SUNDAY, AppointmentType.OIL_CHANGE);
+
+            // Assert
+            assertThat(response.startDate()).isEqualTo(MONDAY);
+            assertThat(response.endDate()).isEqualTo(SUNDAY);
+            assertThat(response.days())
+                    .extracting(AvailableSlotsResponseDTO::date)
+                    .containsExactly(MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2),
+                            MONDAY.plusDays(3), MONDAY.plusDays(4));
+            assertThat(response.days()).allSatisfy(day ->
+                    assertThat(day.availableSlots()).hasSize(
+                            AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE.get(AppointmentType.OIL_CHANGE).size()));
+        }
+
+        @Test
+        @DisplayName("Sin tipo, incluye todos los tipos con horario de recepción por cada día")
+        void givenNullType_thenReturnAllTypesPerDay() {
+            // Arrange
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(occupancyIndex.getOccupancyBetween(MONDAY, MONDAY)).thenReturn(Map.of(MONDAY, FREE_DAY));
+
+            // Act
+            MultiDayAvailabilityResponseDTO response = sut.getAvailableSlotsBetween(MONDAY, MONDAY, null);
+
+            // Assert
+            assertThat(response.days())
+                    .extracting(AvailableSlotsResponseDTO::appointmentType)
+                    .containsExactlyInAnyOrderElementsOf(AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE.keySet());
+        }
+
+        @Test
+        @DisplayName("Obtiene la ocupación del rango con una sola llamada y sin consultar por día")
+        void givenRange_thenSingleOccupancyLookup() {
+            // Arrange — tech1 ocupado a las 08:00 solo el miércoles
+            LocalDate wednesday = MONDAY.plusDays(2);
+            Map<LocalDate, IOccupancyIndexService.DayOccupancy> week = freeWeek();
+            week.put(wednesday, (techId, start) -> techId == 1L && start.equals(LocalTime.of(8, 0)));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
+            when(occupancyIndex.getOccupancyBetween(MONDAY, SUNDAY)).thenReturn(week);
+
+            // Act
+            MultiDayAvailabilityResponseDTO response =
+                    sut.getAvailableSlotsBetween(MONDAY, SUNDAY, AppointmentType.OIL_CHANGE);
+
+            // Assert
+            assertThat(response.days())
+                    .filteredOn(day -> day.date().equals(wednesday))
+                    .singleElement()
+                    .satisfies(day -> assertThat(day.availableSlots().getFirst().availableTechnicians()).isEqualTo(1));
+            verify(occupancyIndex, times(1)).getOccupancyBetween(MONDAY, SUNDAY);
+            verify(occupancyIndex, never()).getDayOccupancy(any());
+            verifyNoInteractions(appointmentRepository, technicianRepository);
+        }
+
+        @Test
+        @DisplayName("Lanza AppointmentException si la fecha final es anterior a la inicial")
+        void givenEndBeforeStart_thenThrow() {
+            assertThatThrownBy(() -> sut.getAvailableSlotsBetween(SUNDAY, MONDAY, null))
+                    .isInstanceOf(AppointmentException.class);
+            verifyNoInteractions(occupancyIndex);
+        }
+
+        @Test
+        @DisplayName("Lanza AppointmentException si el rango supera el máximo permitido")
+        void givenRangeTooLong_thenThrow() {
+            LocalDate end = MONDAY.plusDays(AppointmentScheduleConfig.MAX_AVAILABILITY_RANGE_DAYS);
+
+            assertThatThrownBy(() -> sut.getAvailableSlotsBetween(MONDAY, end, null))
+                    .isInstanceOf(AppointmentException.class);
+            verifyNoInteractions(occupancyIndex);
+        }
     }
 
     // ================================================================
@@ -409,21 +629,6 @@ class AppointmentServiceImplTest {
             return emp;
         }
 
-        private AppointmentEntity buildSavedAppointment(VehicleEntity vehicle,
-                                                        EmployeeEntity tech,
-                                                        AppointmentType type) {
-            AppointmentEntity entity = new AppointmentEntity();
-            entity.setId(100L);
-            entity.setVehicle(vehicle);
-            entity.setTechnician(tech);
-            entity.setAppointmentType(type);
-            entity.setAppointmentDate(VALID_DATE);
-            entity.setStartTime(VALID_TIME);
-            entity.setEndTime(VALID_TIME.plusMinutes(30));
-            entity.setStatus(AppointmentStatus.SCHEDULED);
-            return entity;
-        }
-
         // ================================================================
         // CAMINOS DE ERROR — validaciones tempranas
         // ================================================================
@@ -511,6 +716,23 @@ class AppointmentServiceImplTest {
                     .hasMessageContaining("ABC59X");
         }
 
+        @Test
+        @DisplayName("Lanza AppointmentOutsideBusinessHoursException si la fecha es festivo")
+        void givenPublicHoliday_thenThrow() {
+            // Arrange — lunes 2099-01-12, festivo de Reyes Magos trasladado
+            CreateAppointmentRequestDTO request = buildRequestWith(
+                    AppointmentType.OIL_CHANGE, LocalDate.of(2099, 1, 12), VALID_TIME);
+
+            VehicleEntity vehicle = buildVehicleForClient(CLIENT_ID, "ABC12X", "HONDA");
+            when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.createAppointment(request, CLIENT_ID))
+                    .isInstanceOf(AppointmentOutsideBusinessHoursException.class)
+                    .hasMessageContaining("festivos");
+            verify(appointmentRepository, never()).save(any());
+        }
+
         @Test
         @DisplayName("Lanza AppointmentTypeNotAllowedForBrandException si tipo Auteco con marca no Auteco")
         void givenAutoWarrantyWithNonAutecoBrand_thenThrow() {
@@ -626,15 +848,15 @@ class AppointmentServiceImplTest {
                     .thenReturn(false);
 
             // Técnicos activos pero todos ocupados
-            EmployeeEntity tech = buildTechnicianWithUser(1L, "Juan");
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(
-                    anyLong(), any(), any(), any()
-            )).thenReturn(true);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(occupancyIndex.getDayOccupancy(wednesday)).thenReturn((techId, start) -> true);
 
             // Act + Assert
             assertThatThrownBy(() -> sut.createAppointment(request, CLIENT_ID))
                     .isInstanceOf(NoAvailableTechnicianException.class);
+
+            // El conflicto queda registrado para la tasa de conflictos
+            verify(systemEvents).record(eq(EventType.APPOINTMENT_CONFLICT), eq(CLIENT_ID), anyString());
         }
 
         // ================================================================
@@ -661,18 +883,16 @@ class AppointmentServiceImplTest {
 
             VehicleEntity vehicle = buildVehicleForClient(CLIENT_ID, "ABC12X", "HONDA");
             EmployeeEntity tech = buildTechnicianWithUser(1L, "Juan Técnico");
-            AppointmentEntity savedEntity = buildSavedAppointment(vehicle, tech, AppointmentType.OIL_CHANGE);
             AppointmentResponseDTO expectedDTO = mock(AppointmentResponseDTO.class);
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
             when(appointmentRepository.existsActiveAppointmentByVehicleId(VEHICLE_ID))
                     .thenReturn(false);
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(
-                    eq(1L), eq(wednesday), any(), any()
-            )).thenReturn(false);
-            when(appointmentRepository.save(any(AppointmentEntity.class))).thenReturn(savedEntity);
-            when(appointmentMapper.toResponseDTO(savedEntity)).thenReturn(expectedDTO);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(occupancyIndex.getDayOccupancy(wednesday)).thenReturn(FREE_DAY);
+            when(technicianRepository.getReferenceById(1L)).thenReturn(tech);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any(AppointmentEntity.class))).thenReturn(100L);
+            when(appointmentMapper.toResponseDTO(any(AppointmentEntity.class))).thenReturn(expectedDTO);
 
             // Act
             AppointmentResponseDTO result = sut.createAppointment(request, CLIENT_ID);
@@ -680,12 +900,23 @@ class AppointmentServiceImplTest {
             // Assert
             assertThat(result).isEqualTo(expectedDTO);
 
-            // Verificar que se guardó exactamente una vez
-            verify(appointmentRepository, times(1)).save(any(AppointmentEntity.class));
+            // Verificar que se reservó exactamente una vez, sin verificación previa de conflicto
+            verify(appointmentRepository, times(1)).insertIfTechnicianSlotFree(argThat(apt ->
+                    apt.getId().equals(100L) && apt.getCreatedAt() != null
+            ));
+            verify(appointmentRepository, never()).existsTechnicianConflict(anyLong(), any(), any(), any());
+            verify(appointmentRepository, never()).save(any());
 
             // Verificar que se notificó al cliente
             verify(notificationService, times(1))
                     .sendAppointmentCreatedNotification(any(AppointmentNotificationDTO.class));
+
+            // Verificar que se publicó el cambio para el índice de ocupación
+            verify(eventPublisher).publishEvent(argThat((Object e) ->
+                    e instanceof AppointmentChangedEvent event &&
+                            event.changeType() == AppointmentChangeType.CREATED &&
+                            event.technicianId().equals(1L)
+            ));
         }
 
         @Test
@@ -708,23 +939,22 @@ class AppointmentServiceImplTest {
 
             VehicleEntity vehicle = buildVehicleForClient(CLIENT_ID, "ABC12X", "HONDA");
             EmployeeEntity tech = buildTechnicianWithUser(1L, "Juan");
-            AppointmentEntity savedEntity = buildSavedAppointment(vehicle, tech, AppointmentType.OIL_CHANGE);
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
             when(appointmentRepository.existsActiveAppointmentByVehicleId(VEHICLE_ID))
                     .thenReturn(false);
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(anyLong(), any(), any(), any()))
-                    .thenReturn(false);
-            when(appointmentRepository.save(any())).thenReturn(savedEntity);
-            when(appointmentMapper.toResponseDTO(savedEntity)).thenReturn(mock(AppointmentResponseDTO.class));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(occupancyIndex.getDayOccupancy(wednesday)).thenReturn(FREE_DAY);
+            when(technicianRepository.getReferenceById(1L)).thenReturn(tech);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(100L);
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
 
             // Act + Assert — no debe lanzar excepción
             assertThatCode(() -> sut.createAppointment(request, CLIENT_ID))
                     .doesNotThrowAnyException();
 
             // La entidad guardada no debe tener notas (clientNotes == null)
-            verify(appointmentRepository).save(argThat(apt ->
+            verify(appointmentRepository).insertIfTechnicianSlotFree(argThat(apt ->
                     apt.getClientNotes() == null
             ));
         }
@@ -742,32 +972,96 @@ class AppointmentServiceImplTest {
                     AppointmentType.OIL_CHANGE, wednesday, firstValidSlot);
 
             VehicleEntity vehicle = buildVehicleForClient(CLIENT_ID, "ABC12X", "HONDA");
-            EmployeeEntity tech1 = buildTechnicianWithUser(1L, "Pedro");
             EmployeeEntity tech2 = buildTechnicianWithUser(2L, "Maria");
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
             when(appointmentRepository.existsActiveAppointmentByVehicleId(VEHICLE_ID))
                     .thenReturn(false);
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech1, tech2));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
 
             // tech1 ocupado, tech2 libre
-            when(appointmentRepository.existsTechnicianConflict(eq(1L), any(), any(), any()))
-                    .thenReturn(true);
-            when(appointmentRepository.existsTechnicianConflict(eq(2L), any(), any(), any()))
-                    .thenReturn(false);
-
-            AppointmentEntity savedEntity = buildSavedAppointment(vehicle, tech2, AppointmentType.OIL_CHANGE);
-            when(appointmentRepository.save(any())).thenReturn(savedEntity);
+            when(occupancyIndex.getDayOccupancy(wednesday)).thenReturn((techId, start) -> techId == 1L);
+            when(technicianRepository.getReferenceById(2L)).thenReturn(tech2);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(100L);
             when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
 
             // Act
             sut.createAppointment(request, CLIENT_ID);
 
-            // Assert — el técnico asignado en la entidad guardada debe ser tech2
-            verify(appointmentRepository).save(argThat(apt ->
+            // Assert — se intentó reservar una sola vez y con tech2
+            verify(appointmentRepository, times(1)).insertIfTechnicianSlotFree(argThat(apt ->
                     apt.getTechnician() != null &&
                             apt.getTechnician().getId().equals(2L)
             ));
+            // tech1 se descarta en memoria, sin ir a la BD
+            verify(technicianRepository, never()).getReferenceById(1L);
+        }
+
+        @Test
+        @DisplayName("Si la BD rechaza la reserva (slot tomado en paralelo), prueba el siguiente técnico")
+        void givenStaleIndex_thenReservationFailsAndNextTechnicianIsTried() {
+            // Arrange — el índice cree libres a ambos, pero tech1 ya fue tomado en otra instancia
+            LocalDate wednesday = LocalDate.of(2099, 1, 9);
+            LocalTime firstValidSlot = AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE
+                    .get(AppointmentType.OIL_CHANGE).getFirst();
+            CreateAppointmentRequestDTO request = buildRequestWith(
+                    AppointmentType.OIL_CHANGE, wednesday, firstValidSlot);
+
+            VehicleEntity vehicle = buildVehicleForClient(CLIENT_ID, "ABC12X", "HONDA");
+            EmployeeEntity tech1 = buildTechnicianWithUser(1L, "Pedro");
+            EmployeeEntity tech2 = buildTechnicianWithUser(2L, "Maria");
+
+            when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
+            when(appointmentRepository.existsActiveAppointmentByVehicleId(VEHICLE_ID)).thenReturn(false);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
+            when(occupancyIndex.getDayOccupancy(wednesday)).thenReturn(FREE_DAY);
+            when(technicianRepository.getReferenceById(1L)).thenReturn(tech1);
+            when(technicianRepository.getReferenceById(2L)).thenReturn(tech2);
+            // El INSERT con tech1 choca con el índice único (null); con tech2 se crea
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(null, 100L);
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
+
+            // Act
+            sut.createAppointment(request, CLIENT_ID);
+
+            // Assert
+            verify(appointmentRepository, times(2)).insertIfTechnicianSlotFree(any());
+            verify(eventPublisher).publishEvent(argThat((Object e) ->
+                    e instanceof AppointmentChangedEvent event && event.technicianId().equals(2L)
+            ));
+        }
+
+        @Test
+        @DisplayName("Intenta los técnicos libres en el orden que indica la estrategia de asignación")
+        void givenStrategyPrefersSecondTechnician_thenReserveWithIt() {
+            // Arrange — ambos libres, pero la estrategia prefiere a tech2 (p. ej. menor carga)
+            LocalDate wednesday = LocalDate.of(2099, 1, 9);
+            LocalTime firstValidSlot = AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE
+                    .get(AppointmentType.OIL_CHANGE).getFirst();
+            CreateAppointmentRequestDTO request = buildRequestWith(
+                    AppointmentType.OIL_CHANGE, wednesday, firstValidSlot);
+
+            VehicleEntity vehicle = buildVehicleForClient(CLIENT_ID, "ABC12X", "HONDA");
+            EmployeeEntity tech2 = buildTechnicianWithUser(2L, "Maria");
+
+            when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
+            when(appointmentRepository.existsActiveAppointmentByVehicleId(VEHICLE_ID)).thenReturn(false);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
+            when(occupancyIndex.getDayOccupancy(wednesday)).thenReturn(FREE_DAY);
+            doReturn(List.of(2L, 1L)).when(assignmentStrategy)
+                    .rank(wednesday, firstValidSlot, List.of(1L, 2L), Map.of());
+            when(technicianRepository.getReferenceById(2L)).thenReturn(tech2);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(100L);
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
+
+            // Act
+            sut.createAppointment(request, CLIENT_ID);
+
+            // Assert — una sola reserva, con el técnico preferido
+            verify(appointmentRepository, times(1)).insertIfTechnicianSlotFree(argThat(apt ->
+                    apt.getTechnician().getId().equals(2L)
+            ));
+            verify(technicianRepository, never()).getReferenceById(1L);
         }
 
         @Test
@@ -790,15 +1084,14 @@ class AppointmentServiceImplTest {
 
             VehicleEntity vehicle = buildVehicleForClient(CLIENT_ID, "ABC12X", "AUTECO");
             EmployeeEntity tech = buildTechnicianWithUser(1L, "Técnico");
-            AppointmentEntity savedEntity = buildSavedAppointment(vehicle, tech, AppointmentType.AUTECO_WARRANTY);
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
             when(appointmentRepository.existsActiveAppointmentByVehicleId(VEHICLE_ID))
                     .thenReturn(false);
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(anyLong(), any(), any(), any()))
-                    .thenReturn(false);
-            when(appointmentRepository.save(any())).thenReturn(savedEntity);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(occupancyIndex.getDayOccupancy(wednesday)).thenReturn(FREE_DAY);
+            when(technicianRepository.getReferenceById(1L)).thenReturn(tech);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(100L);
             when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
 
             // Act + Assert
@@ -807,6 +1100,167 @@ class AppointmentServiceImplTest {
         }
     }
 
+    // ================================================================
+    // NESTED: createAppointmentsBulk
+    // ================================================================
+    @Nested
+    @DisplayName("createAppointmentsBulk()")
+    class CreateAppointmentsBulkTests {
+
+        private static final Long CLIENT_ID = 10L;
+        private static final LocalDate FRIDAY = LocalDate.of(2099, 1, 9);
+        private static final LocalTime SLOT = AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE
+                .get(AppointmentType.OIL_CHANGE).getFirst();
+
+        private final UserEntity owner = buildOwner();
+
+        private UserEntity buildOwner() {
+            UserEntity user = new UserEntity();
+            user.setId(CLIENT_ID);
+            user.setEmail("flota@test.com");
+            user.setName("Mensajería Test");
+            return user;
+        }
+
+        private VehicleEntity buildVehicle(Long id, String plate) {
+            VehicleEntity vehicle = new VehicleEntity();
+            vehicle.setId(id);
+            vehicle.setLicensePlate(plate);
+            vehicle.setBrand("HONDA");
+            vehicle.setModel("CB 190");
+            vehicle.setOwner(owner);
+            return vehicle;
+        }
+
+        private EmployeeEntity buildTechnicianWithUser(Long id) {
+            UserEntity user = new UserEntity();
+            user.setName("Técnico " + id);
+            EmployeeEntity emp = new EmployeeEntity();
+            emp.setId(id);
+            emp.setUser(user);
+            emp.setPosition(EmployeePosition.MECANICO);
+            return emp;
+        }
+
+        private CreateAppointmentRequestDTO item(Long vehicleId) {
+            return new CreateAppointmentRequestDTO(vehicleId, AppointmentType.OIL_CHANGE, FRIDAY, SLOT, 1000, null);
+        }
+
+        @Test
+        @DisplayName("Valida con consultas IN, asigna técnicos distintos, inserta en un solo batch y envía un correo")
+        void givenValidFleet_thenSingleLookupsBatchInsertAndOneEmail() {
+            // Arrange — dos motos al mismo slot: cada una debe recibir un técnico distinto
+            when(vehicleRepository.findAllWithOwnerByIdIn(Set.of(1L, 2L)))
+                    .thenReturn(List.of(buildVehicle(1L, "ABC12X"), buildVehicle(2L, "DEF15X")));
+            when(appointmentRepository.findVehicleIdsWithActiveAppointment(Set.of(1L, 2L))).thenReturn(List.of());
+            when(occupancyIndex.getOccupancyBetween(FRIDAY, FRIDAY)).thenReturn(Map.of(FRIDAY, FREE_DAY));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
+            when(technicianRepository.getReferenceById(1L)).thenReturn(buildTechnicianWithUser(1L));
+            when(technicianRepository.getReferenceById(2L)).thenReturn(buildTechnicianWithUser(2L));
+            when(appointmentRepository.insertAllIfTechnicianSlotFree(anyList())).thenReturn(List.of(100L, 101L));
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
+
+            // Act
+            BulkAppointmentResponseDTO result = sut.createAppointmentsBulk(List.of(item(1L), item(2L)), CLIENT_ID);
+
+            // Assert
+            assertThat(result.created()).isEqualTo(2);
+            assertThat(result.failed()).isZero();
+            assertThat(result.results()).extracting(BulkAppointmentItemResultDTO::created).containsOnly(true);
+
+            verify(appointmentRepository, times(1)).insertAllIfTechnicianSlotFree(argThat(batch ->
+                    batch.size() == 2 &&
+                            batch.get(0).getTechnician().getId().equals(1L) &&
+                            batch.get(1).getTechnician().getId().equals(2L)
+            ));
+            verify(vehicleRepository, never()).findById(any());
+            verify(appointmentRepository, never()).existsActiveAppointmentByVehicleId(any());
+            verify(notificationService, times(1)).sendBulkAppointmentsCreatedNotification(argThat(list -> list.size() == 2));
+            verify(notificationService, never()).sendAppointmentCreatedNotification(any());
+            verify(eventPublisher, times(2)).publishEvent(any(AppointmentChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Reporta por elemento los vehículos inexistentes, con cita activa o repetidos en el lote")
+        void givenInvalidItems_thenReportedPerItemAndOthersCreated() {
+            // Arrange — 1 válido, 1 repetido, 2 con cita activa, 3 inexistente, 4 con pico y placa el viernes
+            when(vehicleRepository.findAllWithOwnerByIdIn(Set.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                    buildVehicle(1L, "ABC12X"), buildVehicle(2L, "DEF15X"), buildVehicle(4L, "GHI34X")));
+            when(appointmentRepository.findVehicleIdsWithActiveAppointment(Set.of(1L, 2L, 3L, 4L)))
+                    .thenReturn(List.of(2L));
+            when(occupancyIndex.getOccupancyBetween(FRIDAY, FRIDAY)).thenReturn(Map.of(FRIDAY, FREE_DAY));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(technicianRepository.getReferenceById(1L)).thenReturn(buildTechnicianWithUser(1L));
+            when(appointmentRepository.insertAllIfTechnicianSlotFree(anyList())).thenReturn(List.of(100L));
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
+
+            // Act
+            BulkAppointmentResponseDTO result = sut.createAppointmentsBulk(
+                    List.of(item(1L), item(1L), item(2L), item(3L), item(4L)), CLIENT_ID);
+
+            // Assert
+            assertThat(result.requested()).isEqualTo(5);
+            assertThat(result.created()).isEqualTo(1);
+            assertThat(result.failed()).isEqualTo(4);
+            assertThat(result.results()).extracting(BulkAppointmentItemResultDTO::index)
+                    .containsExactly(0, 1, 2, 3, 4);
+            assertThat(result.results().get(0).created()).isTrue();
+            assertThat(result.results().get(1).error()).contains("ya tiene una cita activa");
+            assertThat(result.results().get(2).error()).contains("ya tiene una cita activa");
+            assertThat(result.results().get(3).error()).contains("3");
+            assertThat(result.results().get(4).error()).contains("GHI34X");
+        }
+
+        @Test
+        @DisplayName("Si la BD rechaza un elemento (slot tomado en paralelo), lo reintenta con el siguiente técnico")
+        void givenSlotTakenConcurrently_thenRetryWithNextTechnician() {
+            // Arrange
+            when(vehicleRepository.findAllWithOwnerByIdIn(Set.of(1L))).thenReturn(List.of(buildVehicle(1L, "ABC12X")));
+            when(appointmentRepository.findVehicleIdsWithActiveAppointment(Set.of(1L))).thenReturn(List.of());
+            when(occupancyIndex.getOccupancyBetween(FRIDAY, FRIDAY)).thenReturn(Map.of(FRIDAY, FREE_DAY));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L, 2L));
+            when(technicianRepository.getReferenceById(1L)).thenReturn(buildTechnicianWithUser(1L));
+            when(technicianRepository.getReferenceById(2L)).thenReturn(buildTechnicianWithUser(2L));
+            when(appointmentRepository.insertAllIfTechnicianSlotFree(anyList()))
+                    .thenReturn(Collections.singletonList(null), List.of(100L));
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
+
+            // Act
+            BulkAppointmentResponseDTO result = sut.createAppointmentsBulk(List.of(item(1L)), CLIENT_ID);
+
+            // Assert
+            assertThat(result.created()).isEqualTo(1);
+            verify(appointmentRepository, times(2)).insertAllIfTechnicianSlotFree(anyList());
+            verify(eventPublisher).publishEvent(argThat((Object e) ->
+                    e instanceof AppointmentChangedEvent event && event.technicianId().equals(2L)
+            ));
+        }
+
+        @Test
+        @DisplayName("Cuando se acaban los técnicos del slot, los elementos restantes fallan sin ir a la BD")
+        void givenMoreVehiclesThanTechnicians_thenRemainingItemsFail() {
+            // Arrange — un solo técnico para dos motos en el mismo slot
+            when(vehicleRepository.findAllWithOwnerByIdIn(Set.of(1L, 2L)))
+                    .thenReturn(List.of(buildVehicle(1L, "ABC12X"), buildVehicle(2L, "DEF15X")));
+            when(appointmentRepository.findVehicleIdsWithActiveAppointment(Set.of(1L, 2L))).thenReturn(List.of());
+            when(occupancyIndex.getOccupancyBetween(FRIDAY, FRIDAY)).thenReturn(Map.of(FRIDAY, FREE_DAY));
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(1L));
+            when(technicianRepository.getReferenceById(1L)).thenReturn(buildTechnicianWithUser(1L));
+            when(appointmentRepository.insertAllIfTechnicianSlotFree(anyList())).thenReturn(List.of(100L));
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
+
+            // Act
+            BulkAppointmentResponseDTO result = sut.createAppointmentsBulk(List.of(item(1L), item(2L)), CLIENT_ID);
+
+            // Assert
+            assertThat(result.created()).isEqualTo(1);
+            assertThat(result.results().get(1).created()).isFalse();
+            assertThat(result.results().get(1).error()).contains("No hay técnicos disponibles");
+            verify(systemEvents, times(1)).record(eq(EventType.APPOINTMENT_CONFLICT), any(), anyString());
+            verify(appointmentRepository, times(1)).insertAllIfTechnicianSlotFree(argThat(batch -> batch.size() == 1));
+        }
+    }
+
     // ================================================================
     // NESTED: updateTechnician
     // ================================================================
@@ -1050,6 +1504,11 @@ class AppointmentServiceImplTest {
                     apt.getTechnician() != null &&
                             apt.getTechnician().getId().equals(NEW_TECH_ID)
             ));
+            verify(eventPublisher).publishEvent(argThat((Object e) ->
+                    e instanceof AppointmentChangedEvent event &&
+                            event.changeType() == AppointmentChangeType.TECHNICIAN_CHANGED &&
+                            NEW_TECH_ID.equals(event.technicianId())
+            ));
         }
 
         @Test
@@ -1074,6 +1533,27 @@ class AppointmentServiceImplTest {
             // Assert
             assertThat(result).isSameAs(expectedDTO);
         }
+
+        @Test
+        @DisplayName("Si otra operación tomó el slot tras la verificación, la BD lo rechaza y se lanza TechnicianSlotOccupiedException")
+        void givenConcurrentConflictOnFlush_thenThrowTechnicianSlotOccupiedException() {
+            // Arrange
+            AppointmentEntity appointment = buildAppointment();
+            EmployeeEntity newTech = buildMechanic("Ana Mecánica");
+
+            when(appointmentRepository.findById(APPOINTMENT_ID)).thenReturn(Optional.of(appointment));
+            when(technicianRepository.findById(NEW_TECH_ID)).thenReturn(Optional.of(newTech));
+            when(appointmentRepository.existsTechnicianConflict(anyLong(), any(), any(), any())).thenReturn(false);
+            when(appointmentRepository.save(any())).thenReturn(appointment);
+            doThrow(new DataIntegrityViolationException("uq_appointment_active_technician_slot"))
+                    .when(appointmentRepository).flush();
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.updateTechnician(APPOINTMENT_ID, buildRequest(true)))
+                    .isInstanceOf(TechnicianSlotOccupiedException.class);
+            verify(notificationService, never()).sendAppointmentUpdatedNotification(any());
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
     }
 
     // ================================================================
@@ -1176,6 +1656,11 @@ class AppointmentServiceImplTest {
                     "Sin tiempo".equals(a.getCancellationReason())
             ));
             verify(notificationService, never()).sendAppointmentCancelledNotification(any(), any());
+            verify(eventPublisher).publishEvent(argThat((Object e) ->
+                    e instanceof AppointmentChangedEvent event &&
+                            event.changeType() == AppointmentChangeType.CANCELLED &&
+                            event.previousStatus() == AppointmentStatus.SCHEDULED
+            ));
         }
 
         @Test
@@ -1268,19 +1753,6 @@ class AppointmentServiceImplTest {
             return e;
         }
 
-        private AppointmentEntity buildSaved(VehicleEntity vehicle, EmployeeEntity tech) {
-            AppointmentEntity a = new AppointmentEntity();
-            a.setId(999L);
-            a.setVehicle(vehicle);
-            a.setTechnician(tech);
-            a.setAppointmentType(AppointmentType.UNPLANNED);
-            a.setAppointmentDate(VALID_DATE);
-            a.setStartTime(VALID_TIME);
-            a.setEndTime(VALID_TIME.plusMinutes(255));
-            a.setStatus(AppointmentStatus.SCHEDULED);
-            return a;
-        }
-
         // ---- Errores ----
 
         @Test
@@ -1346,28 +1818,30 @@ class AppointmentServiceImplTest {
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
             when(technicianRepository.findById(TECH_ID)).thenReturn(Optional.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(
-                    eq(TECH_ID), eq(VALID_DATE), eq(VALID_TIME), any(LocalTime.class)
-            )).thenReturn(true);
+            // El índice único rechaza el INSERT: el slot ya está tomado
+            when(appointmentRepository.insertIfTechnicianSlotFree(argThat(a ->
+                    a.getTechnician().getId().equals(TECH_ID) &&
+                    a.getAppointmentDate().equals(VALID_DATE) &&
+                    a.getStartTime().equals(VALID_TIME)
+            ))).thenReturn(null);
 
             CreateUnplannedAppointmentRequestDTO req  = buildReq(TECH_ID, null);
             assertThatThrownBy(() -> sut.createUnplannedAppointment(req))
                     .isInstanceOf(TechnicianSlotOccupiedException.class)
                     .hasMessageContaining("horario");
 
-            verify(appointmentRepository, never()).save(any());
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+            verify(systemEvents).record(eq(EventType.APPOINTMENT_CONFLICT), any(), anyString());
         }
 
         @Test
         @DisplayName("Lanza NoAvailableTechnicianException en asignación automática sin técnicos libres")
         void givenAutoAssignNoTechnicianAvailable_thenThrow() {
             VehicleEntity vehicle = buildVehicle("ABC12X");
-            EmployeeEntity tech = buildMechanic(99L);
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(anyLong(), any(), any(), any()))
-                    .thenReturn(true);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(99L));
+            when(occupancyIndex.getDayOccupancy(VALID_DATE)).thenReturn((techId, start) -> true);
 
             CreateUnplannedAppointmentRequestDTO req = buildReq(null, null);
             assertThatThrownBy(() -> sut.createUnplannedAppointment(req))
@@ -1381,21 +1855,17 @@ class AppointmentServiceImplTest {
         void givenManualTechnicianFree_thenPersistAndReturn() {
             VehicleEntity vehicle = buildVehicle("ABC12X");
             EmployeeEntity tech = buildMechanic(TECH_ID);
-            AppointmentEntity saved = buildSaved(vehicle, tech);
             AppointmentResponseDTO dto = mock(AppointmentResponseDTO.class);
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
             when(technicianRepository.findById(TECH_ID)).thenReturn(Optional.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(
-                    eq(TECH_ID), eq(VALID_DATE), eq(VALID_TIME), any()
-            )).thenReturn(false);
-            when(appointmentRepository.save(any())).thenReturn(saved);
-            when(appointmentMapper.toResponseDTO(saved)).thenReturn(dto);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(999L);
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(dto);
 
             AppointmentResponseDTO result = sut.createUnplannedAppointment(buildReq(TECH_ID, "Nota admin"));
 
             assertThat(result).isSameAs(dto);
-            verify(appointmentRepository, times(1)).save(argThat(a ->
+            verify(appointmentRepository, times(1)).insertIfTechnicianSlotFree(argThat(a ->
                     a.getAppointmentType() == AppointmentType.UNPLANNED &&
                     a.getTechnician() != null &&
                     a.getTechnician().getId().equals(TECH_ID)
@@ -1409,20 +1879,19 @@ class AppointmentServiceImplTest {
         void givenAutoAssignTechnicianFree_thenPersistAndReturn() {
             VehicleEntity vehicle = buildVehicle("ABC12X");
             EmployeeEntity tech = buildMechanic(TECH_ID);
-            AppointmentEntity saved = buildSaved(vehicle, tech);
             AppointmentResponseDTO dto = mock(AppointmentResponseDTO.class);
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
-            when(technicianRepository.findAllActive()).thenReturn(List.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(anyLong(), any(), any(), any()))
-                    .thenReturn(false);
-            when(appointmentRepository.save(any())).thenReturn(saved);
-            when(appointmentMapper.toResponseDTO(saved)).thenReturn(dto);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(TECH_ID));
+            when(occupancyIndex.getDayOccupancy(VALID_DATE)).thenReturn(FREE_DAY);
+            when(technicianRepository.getReferenceById(TECH_ID)).thenReturn(tech);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(999L);
+            when(appointmentMapper.toResponseDTO(any())).thenReturn(dto);
 
             AppointmentResponseDTO result = sut.createUnplannedAppointment(buildReq(null, null));
 
             assertThat(result).isSameAs(dto);
-            verify(appointmentRepository, times(1)).save(any());
+            verify(appointmentRepository, times(1)).insertIfTechnicianSlotFree(any());
             verifyNoInteractions(notificationService);
         }
 
@@ -1431,18 +1900,15 @@ class AppointmentServiceImplTest {
         void givenAnyRequest_thenSavedEntityTypeIsUnplanned() {
             VehicleEntity vehicle = buildVehicle("ABC12X");
             EmployeeEntity tech = buildMechanic(TECH_ID);
-            AppointmentEntity saved = buildSaved(vehicle, tech);
 
             when(vehicleRepository.findById(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
             when(technicianRepository.findById(TECH_ID)).thenReturn(Optional.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(anyLong(), any(), any(), any()))
-                    .thenReturn(false);
-            when(appointmentRepository.save(any())).thenReturn(saved);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(999L);
             when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
 
             sut.createUnplannedAppointment(buildReq(TECH_ID, null));
 
-            verify(appointmentRepository).save(argThat(a ->
+            verify(appointmentRepository).insertIfTechnicianSlotFree(argThat(a ->
                     a.getAppointmentType() == AppointmentType.UNPLANNED
             ));
         }
@@ -1458,7 +1924,7 @@ class AppointmentServiceImplTest {
 
         /**
          * Invoca createUnplannedAppointment con el tipo dado y captura la entidad
-         * pasada a save(), verificando que el endTime sea el esperado.
+         * pasada a insertIfTechnicianSlotFree(), verificando que el endTime sea el esperado.
          */
         private void assertEndTime(AppointmentType type, LocalTime start, long expectedMinutes) {
             UserEntity owner = new UserEntity();
@@ -1475,24 +1941,14 @@ class AppointmentServiceImplTest {
                     1L, type, LocalDate.of(2099, 1, 9), start, 100, 1L, null
             );
 
-            AppointmentEntity saved = new AppointmentEntity();
-            saved.setId(1L); saved.setVehicle(vehicle); saved.setTechnician(tech);
-            saved.setAppointmentType(type);
-            saved.setAppointmentDate(LocalDate.of(2099, 1, 9));
-            saved.setStartTime(start);
-            saved.setEndTime(start.plusMinutes(expectedMinutes));
-            saved.setStatus(AppointmentStatus.SCHEDULED);
-
             when(vehicleRepository.findById(1L)).thenReturn(Optional.of(vehicle));
             when(technicianRepository.findById(1L)).thenReturn(Optional.of(tech));
-            when(appointmentRepository.existsTechnicianConflict(anyLong(), any(), any(), any()))
-                    .thenReturn(false);
-            when(appointmentRepository.save(any())).thenReturn(saved);
+            when(appointmentRepository.insertIfTechnicianSlotFree(any())).thenReturn(1L);
             when(appointmentMapper.toResponseDTO(any())).thenReturn(mock(AppointmentResponseDTO.class));
 
             sut.createUnplannedAppointment(req);
 
-            verify(appointmentRepository).save(argThat(a ->
+            verify(appointmentRepository).insertIfTechnicianSlotFree(argThat(a ->
                     a.getEndTime().equals(start.plusMinutes(expectedMinutes))
             ));
 
@@ -1591,7 +2047,7 @@ class AppointmentServiceImplTest {
         @Test
         @DisplayName("Retorna lista vacía cuando no hay citas para el vehículo")
         void givenNoAppointments_thenReturnEmpty() {
-            when(appointmentRepository.findByVehicleIdOrderByAppointmentDateDesc(5L))
+            when(appointmentRepository.findResponsesByVehicleId(5L))
                     .thenReturn(List.of());
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByVehicle(5L);
@@ -1601,17 +2057,13 @@ class AppointmentServiceImplTest {
         }
 
         @Test
-        @DisplayName("Retorna lista mapeada para las citas encontradas")
-        void givenAppointments_thenReturnMappedList() {
-            AppointmentEntity a1 = new AppointmentEntity(); a1.setId(1L);
-            AppointmentEntity a2 = new AppointmentEntity(); a2.setId(2L);
+        @DisplayName("Retorna las filas proyectadas para las citas encontradas")
+        void givenAppointments_thenReturnProjectedRows() {
             AppointmentResponseDTO dto1 = mock(AppointmentResponseDTO.class);
             AppointmentResponseDTO dto2 = mock(AppointmentResponseDTO.class);
 
-            when(appointmentRepository.findByVehicleIdOrderByAppointmentDateDesc(5L))
-                    .thenReturn(List.of(a1, a2));
-            when(appointmentMapper.toResponseDTO(a1)).thenReturn(dto1);
-            when(appointmentMapper.toResponseDTO(a2)).thenReturn(dto2);
+            when(appointmentRepository.findResponsesByVehicleId(5L))
+                    .thenReturn(List.of(dto1, dto2));
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByVehicle(5L);
 
@@ -1629,7 +2081,7 @@ class AppointmentServiceImplTest {
         @Test
         @DisplayName("Retorna lista vacía cuando el cliente no tiene citas")
         void givenNoAppointments_thenReturnEmpty() {
-            when(appointmentRepository.findByClientIdOrderByDateDesc(7L))
+            when(appointmentRepository.findResponsesByClientId(7L))
                     .thenReturn(List.of());
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByClient(7L);
@@ -1639,17 +2091,13 @@ class AppointmentServiceImplTest {
         }
 
         @Test
-        @DisplayName("Retorna lista mapeada para las citas del cliente")
-        void givenAppointments_thenReturnMappedList() {
-            AppointmentEntity a1 = new AppointmentEntity(); a1.setId(10L);
-            AppointmentEntity a2 = new AppointmentEntity(); a2.setId(11L);
+        @DisplayName("Retorna las filas proyectadas para las citas del cliente")
+        void givenAppointments_thenReturnProjectedRows() {
             AppointmentResponseDTO dto1 = mock(AppointmentResponseDTO.class);
             AppointmentResponseDTO dto2 = mock(AppointmentResponseDTO.class);
 
-            when(appointmentRepository.findByClientIdOrderByDateDesc(7L))
-                    .thenReturn(List.of(a1, a2));
-            when(appointmentMapper.toResponseDTO(a1)).thenReturn(dto1);
-            when(appointmentMapper.toResponseDTO(a2)).thenReturn(dto2);
+            when(appointmentRepository.findResponsesByClientId(7L))
+                    .thenReturn(List.of(dto1, dto2));
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByClient(7L);
 
@@ -1657,6 +2105,94 @@ class AppointmentServiceImplTest {
         }
     }
 
+    // ================================================================
+    // NESTED: historial paginado por cursor (keyset)
+    // ================================================================
+    @Nested
+    @DisplayName("getAppointmentsByVehiclePage() / getAppointmentsByClientPage()")
+    class AppointmentHistoryPageTests {
+
+        private static final LocalDate DATE = LocalDate.of(2099, 1, 9);
+
+        private AppointmentResponseDTO row(Long id, LocalDate date, LocalTime startTime) {
+            return new AppointmentResponseDTO(id, AppointmentType.OIL_CHANGE, AppointmentStatus.COMPLETED,
+                    date, startTime, startTime.plusMinutes(30), 5L, "ABC12D", "HONDA", "CB 190",
+                    7L, "Cliente", "cliente@test.com", null, null, 1000, null, null, null, null);
+        }
+
+        @Test
+        @DisplayName("Sin cursor: primera página pidiendo size + 1 filas")
+        void givenNoCursor_thenQueryFirstPageWithOneExtraRow() {
+            when(appointmentRepository.findResponsePageByVehicleId(eq(5L), any()))
+                    .thenReturn(List.of(row(3L, DATE, LocalTime.of(9, 0))));
+
+            var page = sut.getAppointmentsByVehiclePage(5L, null, 2);
+
+            assertThat(page.items()).hasSize(1);
+            assertThat(page.hasMore()).isFalse();
+            assertThat(page.nextCursor()).isNull();
+            verify(appointmentRepository)
+                    .findResponsePageByVehicleId(eq(5L), argThat((Limit limit) -> limit.max() == 3));
+            verify(appointmentRepository, never()).findResponsePageByVehicleIdAfter(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Fila extra: la recorta y el cursor apunta a la última fila devuelta")
+        void givenExtraRow_thenTrimAndReturnCursorOfLastItem() {
+            AppointmentResponseDTO first = row(9L, DATE, LocalTime.of(10, 0));
+            AppointmentResponseDTO last = row(8L, DATE, LocalTime.of(9, 0));
+            AppointmentResponseDTO extra = row(4L, DATE.minusDays(1), LocalTime.of(9, 0));
+            when(appointmentRepository.findResponsePageByClientId(eq(7L), any()))
+                    .thenReturn(List.of(first, last, extra));
+
+            var page = sut.getAppointmentsByClientPage(7L, " ", 2);
+
+            assertThat(page.items()).containsExactly(first, last);
+            assertThat(page.hasMore()).isTrue();
+            var keyset = cursorPageMapper.decodeAppointmentCursor(page.nextCursor());
+            assertThat(keyset.appointmentDate()).isEqualTo(DATE);
+            assertThat(keyset.startTime()).isEqualTo(LocalTime.of(9, 0));
+            assertThat(keyset.id()).isEqualTo(8L);
+        }
+
+        @Test
+        @DisplayName("Con cursor: continúa después de la posición codificada")
+        void givenCursor_thenQueryAfterDecodedPosition() {
+            String cursor = cursorPageMapper.encodeAppointmentCursor(DATE, LocalTime.of(9, 0), 8L);
+            when(appointmentRepository.findResponsePageByClientIdAfter(
+                    eq(7L), eq(DATE), eq(LocalTime.of(9, 0)), eq(8L), any()))
+                    .thenReturn(List.of());
+
+            var page = sut.getAppointmentsByClientPage(7L, cursor, 20);
+
+            assertThat(page.items()).isEmpty();
+            assertThat(page.hasMore()).isFalse();
+            verify(appointmentRepository, never()).findResponsePageByClientId(any(), any());
+        }
+
+        @Test
+        @DisplayName("Cursor de otro listado o ilegible: IllegalArgumentException sin consultar")
+        void givenForeignOrInvalidCursor_thenThrow() {
+            String vehicleCursor = cursorPageMapper.encodeCreatedAtCursor(DATE.atStartOfDay(), 1L);
+
+            assertThatThrownBy(() -> sut.getAppointmentsByVehiclePage(5L, vehicleCursor, 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> sut.getAppointmentsByVehiclePage(5L, "no-es-un-cursor!", 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(appointmentRepository);
+        }
+
+        @ParameterizedTest
+        @CsvSource({"0", "101"})
+        @DisplayName("Tamaño de página fuera de 1..100: IllegalArgumentException")
+        void givenSizeOutOfRange_thenThrow(int size) {
+            assertThatThrownBy(() -> sut.getAppointmentsByClientPage(7L, null, size))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("tamaño de página");
+            verifyNoInteractions(appointmentRepository);
+        }
+    }
+
     // ================================================================
     // NESTED: getAppointmentsByDate
     // ================================================================
@@ -1669,7 +2205,7 @@ class AppointmentServiceImplTest {
         @Test
         @DisplayName("Retorna lista vacía si no hay citas ese día")
         void givenNoAppointments_thenReturnEmpty() {
-            when(appointmentRepository.findByAppointmentDateOrderByStartTime(DATE))
+            when(appointmentRepository.findResponsesByDate(DATE))
                     .thenReturn(List.of());
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByDate(DATE);
@@ -1678,14 +2214,12 @@ class AppointmentServiceImplTest {
         }
 
         @Test
-        @DisplayName("Retorna la lista mapeada de citas para la fecha dada")
-        void givenAppointments_thenReturnMappedList() {
-            AppointmentEntity a1 = new AppointmentEntity(); a1.setId(20L);
+        @DisplayName("Retorna las filas proyectadas de citas para la fecha dada")
+        void givenAppointments_thenReturnProjectedRows() {
             AppointmentResponseDTO dto1 = mock(AppointmentResponseDTO.class);
 
-            when(appointmentRepository.findByAppointmentDateOrderByStartTime(DATE))
-                    .thenReturn(List.of(a1));
-            when(appointmentMapper.toResponseDTO(a1)).thenReturn(dto1);
+            when(appointmentRepository.findResponsesByDate(DATE))
+                    .thenReturn(List.of(dto1));
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByDate(DATE);
 
@@ -1706,7 +2240,7 @@ class AppointmentServiceImplTest {
         @Test
         @DisplayName("Retorna lista vacía si no hay citas en el rango")
         void givenNoAppointments_thenReturnEmpty() {
-            when(appointmentRepository.findByDateRange(START, END)).thenReturn(List.of());
+            when(appointmentRepository.findResponsesByDateRange(START, END)).thenReturn(List.of());
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByDateRange(START, END);
 
@@ -1714,16 +2248,12 @@ class AppointmentServiceImplTest {
         }
 
         @Test
-        @DisplayName("Retorna lista mapeada de todas las citas en el rango")
-        void givenAppointments_thenReturnMappedList() {
-            AppointmentEntity a1 = new AppointmentEntity(); a1.setId(30L);
-            AppointmentEntity a2 = new AppointmentEntity(); a2.setId(31L);
+        @DisplayName("Retorna las filas proyectadas de todas las citas en el rango")
+        void givenAppointments_thenReturnProjectedRows() {
             AppointmentResponseDTO dto1 = mock(AppointmentResponseDTO.class);
             AppointmentResponseDTO dto2 = mock(AppointmentResponseDTO.class);
 
-            when(appointmentRepository.findByDateRange(START, END)).thenReturn(List.of(a1, a2));
-            when(appointmentMapper.toResponseDTO(a1)).thenReturn(dto1);
-            when(appointmentMapper.toResponseDTO(a2)).thenReturn(dto2);
+            when(appointmentRepository.findResponsesByDateRange(START, END)).thenReturn(List.of(dto1, dto2));
 
             List<AppointmentResponseDTO> result = sut.getAppointmentsByDateRange(START, END);
 
@@ -1733,11 +2263,28 @@ class AppointmentServiceImplTest {
         @Test
         @DisplayName("Pasa exactamente los parámetros start y end al repositorio")
         void givenRange_thenRepositoryCalledWithCorrectParams() {
-            when(appointmentRepository.findByDateRange(START, END)).thenReturn(List.of());
+            when(appointmentRepository.findResponsesByDateRange(START, END)).thenReturn(List.of());
 
             sut.getAppointmentsByDateRange(START, END);
 
-            verify(appointmentRepository).findByDateRange(START, END);
+            verify(appointmentRepository).findResponsesByDateRange(START, END);
+        }
+
+        @Test
+        @DisplayName("streamAppointmentsByDateRange() entrega cada fila en orden y cierra el stream")
+        void givenStream_thenEachRowDeliveredAndStreamClosed() {
+            AppointmentResponseDTO dto1 = mock(AppointmentResponseDTO.class);
+            AppointmentResponseDTO dto2 = mock(AppointmentResponseDTO.class);
+            AtomicBoolean closed = new AtomicBoolean(false);
+            when(appointmentRepository.streamResponsesByDateRange(START, END))
+                    .thenReturn(Stream.of(dto1, dto2).onClose(() -> closed.set(true)));
+
+            List<AppointmentResponseDTO> received = new ArrayList<>();
+            sut.streamAppointmentsByDateRange(START, END, received::add);
+
+            assertThat(received).containsExactly(dto1, dto2);
+            assertThat(closed).isTrue();
+            verify(appointmentMapper, never()).toResponseDTO(any());
         }
     }
 }
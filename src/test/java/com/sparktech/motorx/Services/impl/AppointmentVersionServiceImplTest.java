@@ -0,0 +1,229 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AppointmentVersionServiceImpl - Unit Tests")
+class AppointmentVersionServiceImplTest {
+
+    // No @ExtendWith(MockitoExtension.class) — no hay mocks
+    private AppointmentVersionServiceImpl sut;
+
+    private static final LocalDate DATE = LocalDate.of(2099, 3, 10);
+    private static final LocalDate OTHER_DATE = DATE.plusDays(1);
+    private static final Long OWNER_ID = 5L;
+    private static final Long OTHER_OWNER_ID = 6L;
+    private static final long MAX_STALE_SECONDS = 30;
+
+    // Reloj fijo al inicio de una ventana; los tests lo avanzan a mano
+    private final AtomicLong now = new AtomicLong(1_000 * MAX_STALE_SECONDS * 1000);
+
+    @BeforeEach
+    void setUp() {
+        sut = newService();
+    }
+
+    private AppointmentVersionServiceImpl newService() {
+        AppointmentVersionServiceImpl service = new AppointmentVersionServiceImpl();
+        ReflectionTestUtils.setField(service, "maxStaleSeconds", MAX_STALE_SECONDS);
+        service.clock = now::get;
+        return service;
+    }
+
+    private AppointmentChangedEvent createdOn(LocalDate date, Long ownerId) {
+        return new AppointmentChangedEvent(
+                AppointmentChangeType.CREATED, 1L, AppointmentType.OIL_CHANGE, date,
+                LocalTime.of(8, 0), LocalTime.of(8, 30),
+                null, AppointmentStatus.SCHEDULED, 1L, null, ownerId
+        );
+    }
+
+    // ================================================================
+    // FORMATO
+    // ================================================================
+
+    @Nested
+    @DisplayName("Formato del ETag")
+    class FormatTests {
+
+        @Test
+        @DisplayName("Es un ETag fuerte entre comillas y estable mientras no haya cambios")
+        void givenNoChanges_thenETagIsQuotedAndStable() {
+            String eTag = sut.agendaETag(DATE);
+
+            assertThat(eTag).startsWith("\"agenda-").endsWith("\"").doesNotStartWith("W/");
+            assertThat(sut.agendaETag(DATE)).isEqualTo(eTag);
+            assertThat(sut.calendarETag(DATE, OTHER_DATE)).isEqualTo(sut.calendarETag(DATE, OTHER_DATE));
+            assertThat(sut.clientHistoryETag(OWNER_ID)).isEqualTo(sut.clientHistoryETag(OWNER_ID));
+        }
+
+        @Test
+        @DisplayName("Cada listado tiene su propio ETag aunque la clave coincida")
+        void givenDifferentLists_thenETagsDiffer() {
+            assertThat(sut.agendaETag(DATE)).isNotEqualTo(sut.calendarETag(DATE, DATE));
+            assertThat(sut.agendaETag(DATE)).isNotEqualTo(sut.agendaETag(OTHER_DATE));
+            assertThat(sut.clientHistoryETag(OWNER_ID)).isNotEqualTo(sut.clientHistoryETag(OTHER_OWNER_ID));
+        }
+
+        @Test
+        @DisplayName("Un rango invertido no lanza excepción")
+        void givenEndBeforeStart_thenNoException() {
+            assertThatCode(() -> sut.calendarETag(OTHER_DATE, DATE)).doesNotThrowAnyException();
+        }
+    }
+
+    // ================================================================
+    // onAppointmentChanged()
+    // ================================================================
+
+    @Nested
+    @DisplayName("onAppointmentChanged()")
+    class AppointmentChangedTests {
+
+        @Test
+        @DisplayName("Cambia la agenda de su fecha y el historial de su dueño, nada más")
+        void givenAppointmentChange_thenOnlyItsDateAndOwnerChange() {
+            String agenda = sut.agendaETag(DATE);
+            String otherAgenda = sut.agendaETag(OTHER_DATE);
+            String history = sut.clientHistoryETag(OWNER_ID);
+            String otherHistory = sut.clientHistoryETag(OTHER_OWNER_ID);
+
+            sut.onAppointmentChanged(createdOn(DATE, OWNER_ID));
+
+            assertThat(sut.agendaETag(DATE)).isNotEqualTo(agenda);
+            assertThat(sut.clientHistoryETag(OWNER_ID)).isNotEqualTo(history);
+            assertThat(sut.agendaETag(OTHER_DATE)).isEqualTo(otherAgenda);
+            assertThat(sut.clientHistoryETag(OTHER_OWNER_ID)).isEqualTo(otherHistory);
+        }
+
+        @Test
+        @DisplayName("El calendario cambia solo si la fecha cae dentro del rango")
+        void givenAppointmentChange_thenOnlyRangesContainingItChange() {
+            String containing = sut.calendarETag(DATE.minusDays(3), DATE);
+            String before = sut.calendarETag(DATE.minusDays(10), DATE.minusDays(1));
+
+            sut.onAppointmentChanged(createdOn(DATE, OWNER_ID));
+
+            assertThat(sut.calendarETag(DATE.minusDays(3), DATE)).isNotEqualTo(containing);
+            assertThat(sut.calendarETag(DATE.minusDays(10), DATE.minusDays(1))).isEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("Dos cambios seguidos nunca devuelven un ETag anterior")
+        void givenSuccessiveChanges_thenETagsNeverRepeat() {
+            String first = sut.calendarETag(DATE, OTHER_DATE);
+            sut.onAppointmentChanged(createdOn(DATE, OWNER_ID));
+            String second = sut.calendarETag(DATE, OTHER_DATE);
+            sut.onAppointmentChanged(createdOn(OTHER_DATE, OWNER_ID));
+            String third = sut.calendarETag(DATE, OTHER_DATE);
+
+            assertThat(first).isNotEqualTo(second).isNotEqualTo(third);
+            assertThat(second).isNotEqualTo(third);
+        }
+
+        @Test
+        @DisplayName("Sin dueño conocido solo cambia la fecha")
+        void givenNullOwner_thenOnlyDateChanges() {
+            String agenda = sut.agendaETag(DATE);
+
+            assertThatCode(() -> sut.onAppointmentChanged(createdOn(DATE, null))).doesNotThrowAnyException();
+            assertThat(sut.agendaETag(DATE)).isNotEqualTo(agenda);
+        }
+    }
+
+    // ================================================================
+    // INVALIDACIÓN TOTAL
+    // ================================================================
+
+    @Nested
+    @DisplayName("Invalidación total")
+    class InvalidateAllTests {
+
+        @Test
+        @DisplayName("Un cambio de empleado cambia todos los ETags")
+        void givenEmployeeChange_thenEveryETagChanges() {
+            String agenda = sut.agendaETag(DATE);
+            String calendar = sut.calendarETag(DATE, OTHER_DATE);
+            String history = sut.clientHistoryETag(OWNER_ID);
+
+            sut.onEmployeeChanged(new EmployeeChangedEvent(1L));
+
+            assertThat(sut.agendaETag(DATE)).isNotEqualTo(agenda);
+            assertThat(sut.calendarETag(DATE, OTHER_DATE)).isNotEqualTo(calendar);
+            assertThat(sut.clientHistoryETag(OWNER_ID)).isNotEqualTo(history);
+        }
+
+        @Test
+        @DisplayName("Un cambio de datos del cliente o de sus vehículos cambia todos los ETags")
+        void givenClientDataChange_thenEveryETagChanges() {
+            String agenda = sut.agendaETag(DATE);
+            String history = sut.clientHistoryETag(OTHER_OWNER_ID);
+
+            sut.onClientDataChanged(new ClientDataChangedEvent(OWNER_ID));
+
+            assertThat(sut.agendaETag(DATE)).isNotEqualTo(agenda);
+            assertThat(sut.clientHistoryETag(OTHER_OWNER_ID)).isNotEqualTo(history);
+        }
+
+        @Test
+        @DisplayName("Otra instancia (reinicio) no reproduce los ETags anteriores")
+        void givenNewInstance_thenETagsDiffer() throws InterruptedException {
+            String agenda = sut.agendaETag(DATE);
+
+            Thread.sleep(5);
+            AppointmentVersionServiceImpl restarted = newService();
+
+            assertThat(restarted.agendaETag(DATE)).isNotEqualTo(agenda);
+        }
+    }
+
+    // ================================================================
+    // VENTANA DE TIEMPO (cambios de otras instancias)
+    // ================================================================
+
+    @Nested
+    @DisplayName("Ventana de tiempo")
+    class StalenessWindowTests {
+
+        @Test
+        @DisplayName("Dentro de la misma ventana el ETag no cambia si no hay cambios locales")
+        void givenSameWindow_thenETagIsStable() {
+            String agenda = sut.agendaETag(DATE);
+            String history = sut.clientHistoryETag(OWNER_ID);
+
+            now.addAndGet(MAX_STALE_SECONDS * 1000 - 1);
+
+            assertThat(sut.agendaETag(DATE)).isEqualTo(agenda);
+            assertThat(sut.clientHistoryETag(OWNER_ID)).isEqualTo(history);
+        }
+
+        @Test
+        @DisplayName("Al cerrar la ventana cambian todos los ETags, aunque el cambio fuera en otra instancia")
+        void givenWindowElapsed_thenEveryETagChanges() {
+            String agenda = sut.agendaETag(DATE);
+            String calendar = sut.calendarETag(DATE, OTHER_DATE);
+            String history = sut.clientHistoryETag(OWNER_ID);
+
+            now.addAndGet(MAX_STALE_SECONDS * 1000);
+
+            assertThat(sut.agendaETag(DATE)).isNotEqualTo(agenda);
+            assertThat(sut.calendarETag(DATE, OTHER_DATE)).isNotEqualTo(calendar);
+            assertThat(sut.clientHistoryETag(OWNER_ID)).isNotEqualTo(history);
+        }
+    }
+}
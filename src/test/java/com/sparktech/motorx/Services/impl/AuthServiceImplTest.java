@@ -1,6 +1,8 @@
 package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.ICurrentUserService;
+import com.sparktech.motorx.Services.ILoginAttemptService;
+import com.sparktech.motorx.Services.ISystemEventService;
 import com.sparktech.motorx.Services.IUserService;
 import com.sparktech.motorx.Services.IVerificationCodeCacheService;
 import com.sparktech.motorx.Services.IVerificationCodeService;
@@ -8,13 +10,18 @@ import com.sparktech.motorx.dto.auth.AuthResponseDTO;
 import com.sparktech.motorx.dto.auth.LoginRequestDTO;
 import com.sparktech.motorx.dto.auth.RegisterUserDTO;
 import com.sparktech.motorx.dto.user.UserDTO;
+import com.sparktech.motorx.entity.EventType;
 import com.sparktech.motorx.entity.Role;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.exception.BlockedAccountException;
 import com.sparktech.motorx.exception.InvalidPasswordException;
+import com.sparktech.motorx.exception.TooManyLoginAttemptsException;
 import com.sparktech.motorx.mapper.UserEntityMapper;
 import com.sparktech.motorx.security.CustomUserDetailsService;
 import com.sparktech.motorx.security.JwtService;
+import com.sparktech.motorx.security.VerifiedJwt;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -29,6 +36,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Date;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -48,6 +57,8 @@ class AuthServiceImplTest {
     @Mock private UserEntityMapper userMapper;
     @Mock private IVerificationCodeService verificationCodeService;
     @Mock private IVerificationCodeCacheService cacheService;
+    @Mock private ISystemEventService systemEvents;
+    @Mock private ILoginAttemptService loginAttempts;
 
     @InjectMocks
     private AuthServiceImpl sut;
@@ -83,7 +94,7 @@ class AuthServiceImplTest {
         when(auth.getPrincipal()).thenReturn(userDetails);
         when(userDetails.getUsername()).thenReturn(email);
         when(userDetailsService.getUserEntityByEmail(email)).thenReturn(user);
-        when(jwtService.generateToken(userDetails)).thenReturn(token);
+        when(jwtService.generateToken(user)).thenReturn(token);
     }
 
     // ================================================================
@@ -94,6 +105,8 @@ class AuthServiceImplTest {
     @DisplayName("login()")
     class LoginTests {
 
+        private static final String CLIENT_IP = "203.0.113.7";
+
         private final LoginRequestDTO request =
                 new LoginRequestDTO("user@test.com", "pass123");
 
@@ -105,7 +118,7 @@ class AuthServiceImplTest {
             stubAuthentication("user@test.com", admin, "jwt-token");
 
             // Act
-            Object result = sut.login(request);
+            Object result = sut.login(request, CLIENT_IP);
 
             // Assert
             assertThat(result).isInstanceOf(AuthResponseDTO.class);
@@ -116,6 +129,9 @@ class AuthServiceImplTest {
 
             // 2FA NO debe invocarse para admin
             verifyNoInteractions(verificationCodeService);
+            verify(systemEvents).record(EventType.LOGIN_SUCCESS, 1L, null);
+            verify(loginAttempts).checkAllowed("user@test.com", CLIENT_IP);
+            verify(loginAttempts).recordSuccess("user@test.com");
         }
 
         @Test
@@ -126,7 +142,7 @@ class AuthServiceImplTest {
             stubAuthentication("user@test.com", client, "jwt-token");
 
             // Act
-            Object result = sut.login(request);
+            Object result = sut.login(request, CLIENT_IP);
 
             // Assert
             assertThat(result).isInstanceOf(String.class);
@@ -144,10 +160,13 @@ class AuthServiceImplTest {
             stubAuthentication("user@test.com", locked, "jwt-token");
 
             // Act + Assert
-            assertThatThrownBy(() -> sut.login(request))
+            assertThatThrownBy(() -> sut.login(request, CLIENT_IP))
                     .isInstanceOf(BlockedAccountException.class);
 
             verifyNoInteractions(verificationCodeService);
+            verify(systemEvents).record(eq(EventType.LOGIN_FAILED), eq(3L), anyString());
+            verify(systemEvents, never()).record(eq(EventType.LOGIN_SUCCESS), any(), any());
+            verify(loginAttempts, never()).recordSuccess(any());
         }
 
         @Test
@@ -158,7 +177,7 @@ class AuthServiceImplTest {
             stubAuthentication("user@test.com", disabled, "jwt-token");
 
             // Act + Assert
-            assertThatThrownBy(() -> sut.login(request))
+            assertThatThrownBy(() -> sut.login(request, CLIENT_IP))
                     .isInstanceOf(BlockedAccountException.class);
         }
 
@@ -170,11 +189,28 @@ class AuthServiceImplTest {
                     .thenThrow(new BadCredentialsException("bad creds"));
 
             // Act + Assert
-            assertThatThrownBy(() -> sut.login(request))
+            assertThatThrownBy(() -> sut.login(request, CLIENT_IP))
                     .isInstanceOf(InvalidPasswordException.class)
                     .hasMessageContaining("Credenciales inválidas");
 
             verifyNoInteractions(verificationCodeService, userDetailsService);
+            verify(systemEvents).record(EventType.LOGIN_FAILED, null, "email=user@test.com");
+            verify(loginAttempts).recordFailure("user@test.com", CLIENT_IP);
+        }
+
+        @Test
+        @DisplayName("Email o IP en bloqueo temporal: rechaza sin verificar la contraseña")
+        void givenThrottled_thenRejectBeforeAuthenticate() {
+            // Arrange
+            doThrow(new TooManyLoginAttemptsException(120))
+                    .when(loginAttempts).checkAllowed("user@test.com", CLIENT_IP);
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.login(request, CLIENT_IP))
+                    .isInstanceOf(TooManyLoginAttemptsException.class);
+
+            verifyNoInteractions(authenticationManager, systemEvents);
+            verify(loginAttempts, never()).recordFailure(any(), any());
         }
 
         @Test
@@ -185,7 +221,7 @@ class AuthServiceImplTest {
             stubAuthentication("user@test.com", lockedAdmin, "jwt-token");
 
             // Act + Assert
-            assertThatThrownBy(() -> sut.login(request))
+            assertThatThrownBy(() -> sut.login(request, CLIENT_IP))
                     .isInstanceOf(BlockedAccountException.class);
         }
     }
@@ -221,6 +257,8 @@ class AuthServiceImplTest {
 
             // userService.register() debe haberse llamado exactamente una vez
             verify(userService, times(1)).register(request);
+            verify(systemEvents).record(EventType.USER_REGISTER_ATTEMPT, null, "email=nuevo@test.com");
+            verify(systemEvents).record(EventType.USER_REGISTER_SUCCESS, 10L, null);
         }
 
         @Test
@@ -252,6 +290,10 @@ class AuthServiceImplTest {
 
             // authenticationManager nunca debe llamarse si el registro falla
             verifyNoInteractions(authenticationManager);
+            verify(systemEvents).record(EventType.USER_REGISTER_ATTEMPT, null, "email=nuevo@test.com");
+            verify(systemEvents).record(EventType.USER_REGISTER_FAILED, null,
+                    "email=nuevo@test.com, motivo=Email ya registrado");
+            verify(systemEvents, never()).record(eq(EventType.USER_REGISTER_SUCCESS), any(), any());
         }
     }
 
@@ -322,6 +364,10 @@ class AuthServiceImplTest {
     @DisplayName("refreshToken()")
     class RefreshTokenTests {
 
+        private Date inOneHour() {
+            return new Date(System.currentTimeMillis() + 3_600_000);
+        }
+
         @Test
         @DisplayName("Token válido: retorna nuevo AuthResponseDTO con nuevo token")
         void givenValidRefreshToken_thenReturnNewToken() throws InvalidPasswordException {
@@ -330,13 +376,10 @@ class AuthServiceImplTest {
             String newToken = "new-jwt-token";
             String email = "user@test.com";
             UserEntity user = buildUser(1L, email, Role.CLIENT, false, true);
-            UserDetails userDetails = mock(UserDetails.class);
 
-            when(jwtService.extractUsername(refreshToken)).thenReturn(email);
-            when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
-            when(jwtService.isTokenValid(refreshToken, userDetails)).thenReturn(true);
-            when(jwtService.generateToken(userDetails)).thenReturn(newToken);
+            when(jwtService.parse(refreshToken)).thenReturn(new VerifiedJwt(email, inOneHour(), null));
             when(userDetailsService.getUserEntityByEmail(email)).thenReturn(user);
+            when(jwtService.generateToken(user)).thenReturn(newToken);
 
             // Act
             AuthResponseDTO result = sut.refreshToken(refreshToken);
@@ -351,7 +394,7 @@ class AuthServiceImplTest {
         @DisplayName("Email null extraído del token: lanza InvalidPasswordException")
         void givenTokenWithNullEmail_thenThrowInvalidPasswordException() {
             // Arrange
-            when(jwtService.extractUsername(anyString())).thenReturn(null);
+            when(jwtService.parse(anyString())).thenReturn(new VerifiedJwt(null, inOneHour(), null));
 
             // Act + Assert
             assertThatThrownBy(() -> sut.refreshToken("bad-token"))
@@ -364,23 +407,69 @@ class AuthServiceImplTest {
         void givenInvalidToken_thenThrowInvalidPasswordException() {
             // Arrange
             String token = "expired-token";
-            UserDetails userDetails = mock(UserDetails.class);
 
-            when(jwtService.extractUsername(token)).thenReturn("user@test.com");
-            when(userDetailsService.loadUserByUsername("user@test.com"))
-                    .thenReturn(userDetails);
-            when(jwtService.isTokenValid(token, userDetails)).thenReturn(false);
+            // Verificado antes, pero ya vencido
+            when(jwtService.parse(token)).thenReturn(
+                    new VerifiedJwt("user@test.com", new Date(System.currentTimeMillis() - 1_000), null));
+            when(userDetailsService.getUserEntityByEmail("user@test.com"))
+                    .thenReturn(buildUser(1L, "user@test.com", Role.CLIENT, false, true));
 
             // Act + Assert
             assertThatThrownBy(() -> sut.refreshToken(token))
                     .isInstanceOf(InvalidPasswordException.class);
         }
 
+        @Test
+        @DisplayName("Versión de seguridad vieja (contraseña cambiada o bloqueo): lanza InvalidPasswordException")
+        void givenStaleSecurityVersion_thenThrowInvalidPasswordException() {
+            // Arrange
+            UserEntity user = buildUser(1L, "user@test.com", Role.CLIENT, false, true);
+            user.setSecurityVersion(3);
+            Claims claims = Jwts.claims().subject("user@test.com").add(JwtService.CLAIM_SECURITY_VERSION, 2).build();
+
+            when(jwtService.parse("old-token")).thenReturn(new VerifiedJwt("user@test.com", inOneHour(), claims));
+            when(userDetailsService.getUserEntityByEmail("user@test.com")).thenReturn(user);
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.refreshToken("old-token"))
+                    .isInstanceOf(InvalidPasswordException.class);
+            verify(jwtService, never()).generateToken(any(UserEntity.class));
+        }
+
+        @Test
+        @DisplayName("Versión de seguridad vigente: renueva el token con los claims actuales")
+        void givenCurrentSecurityVersion_thenReturnNewToken() throws InvalidPasswordException {
+            // Arrange
+            UserEntity user = buildUser(1L, "user@test.com", Role.CLIENT, false, true);
+            user.setSecurityVersion(3);
+            Claims claims = Jwts.claims().subject("user@test.com").add(JwtService.CLAIM_SECURITY_VERSION, 3).build();
+
+            when(jwtService.parse("token")).thenReturn(new VerifiedJwt("user@test.com", inOneHour(), claims));
+            when(userDetailsService.getUserEntityByEmail("user@test.com")).thenReturn(user);
+            when(jwtService.generateToken(user)).thenReturn("new-token");
+
+            // Act + Assert
+            assertThat(sut.refreshToken("token").token()).isEqualTo("new-token");
+        }
+
+        @Test
+        @DisplayName("Cuenta bloqueada: lanza InvalidPasswordException")
+        void givenLockedUser_thenThrowInvalidPasswordException() {
+            // Arrange
+            when(jwtService.parse("token")).thenReturn(new VerifiedJwt("user@test.com", inOneHour(), null));
+            when(userDetailsService.getUserEntityByEmail("user@test.com"))
+                    .thenReturn(buildUser(1L, "user@test.com", Role.CLIENT, true, true));
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.refreshToken("token"))
+                    .isInstanceOf(InvalidPasswordException.class);
+        }
+
         @Test
         @DisplayName("Excepción inesperada durante refresh: relanza como InvalidPasswordException")
         void givenUnexpectedException_thenWrapInInvalidPasswordException() {
             // Arrange
-            when(jwtService.extractUsername(anyString()))
+            when(jwtService.parse(anyString()))
                     .thenThrow(new RuntimeException("Error interno"));
 
             // Act + Assert
@@ -406,13 +495,11 @@ class AuthServiceImplTest {
         void givenValidCode_thenReturnAuthResponseDTO() throws InvalidPasswordException {
             // Arrange
             UserEntity user = buildUser(1L, EMAIL, Role.CLIENT, false, true);
-            UserDetails userDetails = mock(UserDetails.class);
             String token = "2fa-token";
 
             when(cacheService.validateCode(EMAIL, VALID_CODE)).thenReturn(true);
             when(userDetailsService.getUserEntityByEmail(EMAIL)).thenReturn(user);
-            when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(userDetails);
-            when(jwtService.generateToken(userDetails)).thenReturn(token);
+            when(jwtService.generateToken(user)).thenReturn(token);
 
             // Act
             AuthResponseDTO result = sut.verify2FA(EMAIL, VALID_CODE);
@@ -428,12 +515,10 @@ class AuthServiceImplTest {
         void givenValidCode_thenDTOContainsUserData() throws InvalidPasswordException {
             // Arrange
             UserEntity user = buildUser(1L, EMAIL, Role.CLIENT, false, true);
-            UserDetails userDetails = mock(UserDetails.class);
 
             when(cacheService.validateCode(EMAIL, VALID_CODE)).thenReturn(true);
             when(userDetailsService.getUserEntityByEmail(EMAIL)).thenReturn(user);
-            when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(userDetails);
-            when(jwtService.generateToken(userDetails)).thenReturn("token");
+            when(jwtService.generateToken(user)).thenReturn("token");
 
             // Act
             AuthResponseDTO result = sut.verify2FA(EMAIL, VALID_CODE);
@@ -443,6 +528,20 @@ class AuthServiceImplTest {
             assertThat(result.role()).isEqualTo(Role.CLIENT);
         }
 
+        @Test
+        @DisplayName("Cuenta bloqueada tras enviar el código: lanza BlockedAccountException sin emitir token")
+        void givenBlockedUser_thenThrowBlockedAccountException() {
+            // Arrange
+            when(cacheService.validateCode(EMAIL, VALID_CODE)).thenReturn(true);
+            when(userDetailsService.getUserEntityByEmail(EMAIL))
+                    .thenReturn(buildUser(1L, EMAIL, Role.CLIENT, true, true));
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.verify2FA(EMAIL, VALID_CODE))
+                    .isInstanceOf(BlockedAccountException.class);
+            verifyNoInteractions(jwtService);
+        }
+
         @Test
         @DisplayName("Código inválido o expirado: lanza InvalidPasswordException")
         void givenInvalidCode_thenThrowInvalidPasswordException() {
@@ -0,0 +1,181 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AvailabilityCacheServiceImpl - Unit Tests")
+class AvailabilityCacheServiceImplTest {
+
+    // No @ExtendWith(MockitoExtension.class) — no hay mocks
+    private AvailabilityCacheServiceImpl sut;
+
+    private static final LocalDate TODAY = LocalDate.now(ZoneId.of("America/Bogota"));
+    private static final LocalDate FUTURE = TODAY.plusDays(3);
+    private static final AppointmentType TYPE = AppointmentType.OIL_CHANGE;
+
+    @BeforeEach
+    void setUp() {
+        sut = new AvailabilityCacheServiceImpl();
+        ReflectionTestUtils.setField(sut, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(sut, "maxEntries", 100);
+    }
+
+    private AvailableSlotsResponseDTO response(LocalDate date, AppointmentType type) {
+        return new AvailableSlotsResponseDTO(date, type, List.of());
+    }
+
+    private AppointmentChangedEvent createdOn(LocalDate date) {
+        return new AppointmentChangedEvent(
+                AppointmentChangeType.CREATED, 1L, TYPE, date, LocalTime.of(8, 0), LocalTime.of(8, 30),
+                null, AppointmentStatus.SCHEDULED, 1L, null, 5L
+        );
+    }
+
+    // ================================================================
+    // get() + put()
+    // ================================================================
+
+    @Nested
+    @DisplayName("get() y put()")
+    class GetAndPutTests {
+
+        @Test
+        @DisplayName("Guarda y recupera la respuesta para la misma fecha y tipo")
+        void givenPutResponse_thenGetReturnsIt() {
+            AvailableSlotsResponseDTO expected = response(FUTURE, TYPE);
+
+            sut.put(FUTURE, TYPE, expected, sut.currentVersion());
+
+            assertThat(sut.get(FUTURE, TYPE)).isSameAs(expected);
+            assertThat(sut.get(FUTURE, AppointmentType.MAINTENANCE)).isNull();
+        }
+
+        @Test
+        @DisplayName("No cachea el día de hoy (los slots dependen de la hora actual)")
+        void givenToday_thenNotCached() {
+            sut.put(TODAY, TYPE, response(TODAY, TYPE), sut.currentVersion());
+
+            assertThat(sut.get(TODAY, TYPE)).isNull();
+        }
+
+        @Test
+        @DisplayName("Descarta la respuesta si hubo una invalidación durante el cálculo")
+        void givenInvalidationAfterVersionTaken_thenNotCached() {
+            long version = sut.currentVersion();
+            sut.invalidate(FUTURE);
+
+            sut.put(FUTURE, TYPE, response(FUTURE, TYPE), version);
+
+            assertThat(sut.get(FUTURE, TYPE)).isNull();
+        }
+
+        @Test
+        @DisplayName("Las entradas expiradas no se devuelven")
+        void givenExpiredEntry_thenReturnNull() {
+            ReflectionTestUtils.setField(sut, "ttlSeconds", -1L);
+
+            sut.put(FUTURE, TYPE, response(FUTURE, TYPE), sut.currentVersion());
+
+            assertThat(sut.get(FUTURE, TYPE)).isNull();
+        }
+
+        @Test
+        @DisplayName("Al llegar al máximo de entradas expulsa una para hacer espacio")
+        void givenFullCache_thenEvictToFit() {
+            ReflectionTestUtils.setField(sut, "maxEntries", 2);
+
+            sut.put(FUTURE, TYPE, response(FUTURE, TYPE), sut.currentVersion());
+            sut.put(FUTURE.plusDays(1), TYPE, response(FUTURE.plusDays(1), TYPE), sut.currentVersion());
+            sut.put(FUTURE.plusDays(2), TYPE, response(FUTURE.plusDays(2), TYPE), sut.currentVersion());
+
+            long cached = List.of(FUTURE, FUTURE.plusDays(1), FUTURE.plusDays(2)).stream()
+                    .filter(date -> sut.get(date, TYPE) != null)
+                    .count();
+            assertThat(cached).isEqualTo(2);
+            assertThat(sut.get(FUTURE.plusDays(2), TYPE)).isNotNull();
+        }
+    }
+
+    // ================================================================
+    // Invalidación por eventos
+    // ================================================================
+
+    @Nested
+    @DisplayName("Invalidación")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Un cambio de cita invalida solo la fecha afectada (todos sus tipos)")
+        void givenAppointmentChanged_thenOnlyThatDateInvalidated() {
+            LocalDate otherDay = FUTURE.plusDays(1);
+            sut.put(FUTURE, TYPE, response(FUTURE, TYPE), sut.currentVersion());
+            sut.put(FUTURE, AppointmentType.MAINTENANCE, response(FUTURE, AppointmentType.MAINTENANCE), sut.currentVersion());
+            sut.put(otherDay, TYPE, response(otherDay, TYPE), sut.currentVersion());
+
+            sut.onAppointmentChanged(createdOn(FUTURE));
+
+            assertThat(sut.get(FUTURE, TYPE)).isNull();
+            assertThat(sut.get(FUTURE, AppointmentType.MAINTENANCE)).isNull();
+            assertThat(sut.get(otherDay, TYPE)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Un cambio de empleado invalida todo el caché")
+        void givenEmployeeChanged_thenEverythingInvalidated() {
+            sut.put(FUTURE, TYPE, response(FUTURE, TYPE), sut.currentVersion());
+            sut.put(FUTURE.plusDays(1), TYPE, response(FUTURE.plusDays(1), TYPE), sut.currentVersion());
+
+            sut.onEmployeeChanged(new EmployeeChangedEvent(1L));
+
+            assertThat(sut.get(FUTURE, TYPE)).isNull();
+            assertThat(sut.get(FUTURE.plusDays(1), TYPE)).isNull();
+        }
+    }
+
+    // ================================================================
+    // Métricas
+    // ================================================================
+
+    @Nested
+    @DisplayName("Métricas")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Publica aciertos, fallos, expulsiones y tamaño con tag cache=availability")
+        void givenActivity_thenMetricsReflectIt() {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            sut.bindTo(registry);
+
+            sut.get(FUTURE, TYPE);                                             // miss
+            sut.put(FUTURE, TYPE, response(FUTURE, TYPE), sut.currentVersion());
+            sut.get(FUTURE, TYPE);                                             // hit
+            sut.get(FUTURE, TYPE);                                             // hit
+
+            assertThat(registry.get("cache.gets").tags("cache", "availability", "result", "hit")
+                    .functionCounter().count()).isEqualTo(2.0);
+            assertThat(registry.get("cache.gets").tags("cache", "availability", "result", "miss")
+                    .functionCounter().count()).isEqualTo(1.0);
+            assertThat(registry.get("cache.size").tags("cache", "availability")
+                    .gauge().value()).isEqualTo(1.0);
+            assertThat(registry.get("cache.evictions").tags("cache", "availability")
+                    .functionCounter().count()).isZero();
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.sparktech.motorx.Services.impl;
 
+import com.sparktech.motorx.entity.Role;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.security.AuthenticatedUser;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -113,4 +117,53 @@ class CurrentUserServiceImplTest {
         assertTrue(ex.getMessage().contains("missing@example.com"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getAuthenticatedUserId_whenPrincipalFromJwtClaims_returnsIdWithoutQuery() {
+        authenticateWithClaims(new AuthenticatedUser(7L, "claims@example.com", Role.CLIENT));
+
+        assertEquals(7L, currentUserService.getAuthenticatedUserId());
+        verifyNoInteractions(jpaUserRepository);
+    }
+
+    @Test
+    void getAuthenticatedUserId_whenPrincipalIsUserEntity_returnsItsId() {
+        UserEntity user = new UserEntity();
+        user.setId(3L);
+        authenticateWithClaims(user);
+
+        assertEquals(3L, currentUserService.getAuthenticatedUserId());
+        verifyNoInteractions(jpaUserRepository);
+    }
+
+    @Test
+    void getAuthenticatedUserId_whenLegacyPrincipal_looksUpByEmail() {
+        UserEntity user = new UserEntity();
+        user.setId(4L);
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(new Object());
+        when(authentication.getName()).thenReturn("legacy@example.com");
+        when(jpaUserRepository.findByEmail("legacy@example.com")).thenReturn(Optional.of(user));
+        SecurityContext context = mock(SecurityContext.class);
+        when(context.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(context);
+
+        assertEquals(4L, currentUserService.getAuthenticatedUserId());
+    }
+
+    @Test
+    void getAuthenticatedUser_whenPrincipalFromJwtClaims_loadsById() {
+        UserEntity user = new UserEntity();
+        user.setId(7L);
+        when(jpaUserRepository.findById(7L)).thenReturn(Optional.of(user));
+        authenticateWithClaims(new AuthenticatedUser(7L, "claims@example.com", Role.CLIENT));
+
+        assertSame(user, currentUserService.getAuthenticatedUser());
+        verify(jpaUserRepository, never()).findByEmail(any());
+    }
+
+    private void authenticateWithClaims(Object principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, List.of()));
+    }
+}
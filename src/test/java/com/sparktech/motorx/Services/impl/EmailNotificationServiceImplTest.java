@@ -15,6 +15,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -144,6 +145,44 @@ class EmailNotificationServiceImplTest {
         }
     }
 
+    // ================================================================
+    // sendBulkAppointmentsCreatedNotification()
+    // ================================================================
+
+    @Nested
+    @DisplayName("sendBulkAppointmentsCreatedNotification()")
+    class SendBulkCreatedTests {
+
+        @Test
+        @DisplayName("Envía un solo correo al propietario con una línea por cita")
+        void givenSeveralAppointments_thenSingleMailListingAll() {
+            // Arrange
+            doNothing().when(sut).sendMail(any());
+            AppointmentNotificationDTO second = new AppointmentNotificationDTO(
+                    "cliente@test.com", "Carlos Pérez", LocalDate.of(2099, 6, 15), LocalTime.of(9, 30),
+                    "OIL_CHANGE", "YAMAHA", "FZ 2.0", "XYZ98A", null
+            );
+
+            // Act
+            sut.sendBulkAppointmentsCreatedNotification(List.of(buildNotificationDTO(null), second));
+
+            // Assert
+            verify(sut, times(1)).sendMail(emailCaptor.capture());
+            EmailDTO sent = emailCaptor.getValue();
+            assertThat(sent.recipient()).isEqualTo("cliente@test.com");
+            assertThat(sent.subject()).contains("2");
+            assertThat(sent.body()).contains("Carlos Pérez", "ABC3AX", "XYZ98A", "09:30");
+        }
+
+        @Test
+        @DisplayName("Con lista vacía no envía correo")
+        void givenEmptyList_thenNoMail() {
+            sut.sendBulkAppointmentsCreatedNotification(List.of());
+
+            verify(sut, never()).sendMail(any());
+        }
+    }
+
     // ================================================================
     // sendAppointmentCancelledNotification()
     // ================================================================
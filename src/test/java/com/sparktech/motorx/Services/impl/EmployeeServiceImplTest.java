@@ -4,14 +4,19 @@ import com.sparktech.motorx.dto.auth.RegisterUserDTO;
 import com.sparktech.motorx.dto.employee.CreateEmployeeRequestDTO;
 import com.sparktech.motorx.dto.employee.EmployeeResponseDTO;
 import com.sparktech.motorx.dto.employee.UpdateEmployeeRequestDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.TransferVehicleOwnershipRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 import com.sparktech.motorx.entity.*;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
 import com.sparktech.motorx.exception.EmployeeNotFoundException;
 import com.sparktech.motorx.exception.VehicleAlreadyOwnedException;
 import com.sparktech.motorx.exception.VehicleNotFoundException;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.mapper.EmployeeMapper;
 import com.sparktech.motorx.mapper.VehicleMapper;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
 import com.sparktech.motorx.repository.JpaEmployeeRepository;
 import com.sparktech.motorx.repository.JpaUserRepository;
 import com.sparktech.motorx.repository.JpaVehicleRepository;
@@ -23,9 +28,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,9 +51,12 @@ class EmployeeServiceImplTest {
     @Mock private JpaEmployeeRepository employeeRepository;
     @Mock private JpaUserRepository userRepository;
     @Mock private JpaVehicleRepository vehicleRepository;
+    @Mock private JpaAppointmentRepository appointmentRepository;
     @Mock private EmployeeMapper employeeMapper;
     @Mock private VehicleMapper vehicleMapper;
+    @Spy private CursorPageMapper cursorPageMapper = new CursorPageMapper();
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private EmployeeServiceImpl sut;
@@ -370,6 +381,8 @@ class EmployeeServiceImplTest {
             verify(employeeRepository, times(1)).delete(emp);
             // userRepository NO debe ser llamado — cascade está en la DB
             verifyNoInteractions(userRepository);
+            // El índice de ocupación debe refrescar su plantilla de técnicos
+            verify(eventPublisher).publishEvent(new EmployeeChangedEvent(1L));
         }
 
         @Test
@@ -421,6 +434,8 @@ class EmployeeServiceImplTest {
             verify(vehicleRepository).save(argThat(v ->
                     v.getOwner().getId().equals(2L)
             ));
+            verify(appointmentRepository).reassignOwnerByVehicleId(10L, 2L);
+            verify(eventPublisher).publishEvent(new ClientDataChangedEvent(2L));
         }
         @Test
         @DisplayName("Lanza VehicleNotFoundException si el vehículo no existe")
@@ -621,5 +636,46 @@ class EmployeeServiceImplTest {
             assertThatThrownBy(() -> sut.getVehicleById(99L))
                     .isInstanceOf(VehicleNotFoundException.class);
         }
+
+        @Test
+        @DisplayName("getAllVehiclesPage() sin cursor: primera página y cursor de la última fila")
+        void givenNoCursorAndExtraRow_thenReturnFirstPageWithCursor() {
+            // Arrange
+            UserEntity owner = buildUser(1L, Role.CLIENT, true);
+            LocalDateTime created = LocalDateTime.of(2026, 3, 1, 8, 0);
+            VehicleEntity v1 = buildVehicle(2L, "AAA1AX", owner);
+            v1.setCreatedAt(created);
+            VehicleEntity v2 = buildVehicle(1L, "BBB2BX", owner);
+            v2.setCreatedAt(created.minusDays(1));
+            VehicleResponseDTO dto1 = mock(VehicleResponseDTO.class);
+
+            when(vehicleRepository.findPage(any())).thenReturn(List.of(v1, v2));
+            when(vehicleMapper.toResponseDTO(v1)).thenReturn(dto1);
+
+            // Act
+            CursorPageResponseDTO<VehicleResponseDTO> page = sut.getAllVehiclesPage(null, 1);
+
+            // Assert
+            assertThat(page.items()).containsExactly(dto1);
+            assertThat(page.hasMore()).isTrue();
+            assertThat(page.nextCursor()).isEqualTo(cursorPageMapper.encodeCreatedAtCursor(created, 2L));
+        }
+
+        @Test
+        @DisplayName("getAllVehiclesPage() con cursor: continúa después de la posición")
+        void givenCursor_thenQueryAfterPosition() {
+            // Arrange
+            LocalDateTime created = LocalDateTime.of(2026, 3, 1, 8, 0);
+            String cursor = cursorPageMapper.encodeCreatedAtCursor(created, 2L);
+            when(vehicleRepository.findPageAfter(eq(created), eq(2L), any())).thenReturn(List.of());
+
+            // Act
+            CursorPageResponseDTO<VehicleResponseDTO> page = sut.getAllVehiclesPage(cursor, 20);
+
+            // Assert
+            assertThat(page.items()).isEmpty();
+            assertThat(page.nextCursor()).isNull();
+            verify(vehicleRepository, never()).findPage(any());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IOccupancyIndexService;
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
+import com.sparktech.motorx.dto.kpi.KpiDashboardResponseDTO;
+import com.sparktech.motorx.dto.kpi.KpiMetric;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.EventType;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaDailyWorkshopStatsRepository;
+import com.sparktech.motorx.repository.JpaPasswordResetTokenRepository;
+import com.sparktech.motorx.repository.JpaSystemEventRepository;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.repository.projection.EventTypeCount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KpiServiceImpl - Unit Tests")
+class KpiServiceImplTest {
+
+    @Mock private JpaDailyWorkshopStatsRepository statsRepository;
+    @Mock private JpaAppointmentRepository appointmentRepository;
+    @Mock private JpaSystemEventRepository systemEventRepository;
+    @Mock private JpaUserRepository userRepository;
+    @Mock private JpaPasswordResetTokenRepository passwordResetTokenRepository;
+    @Mock private IOccupancyIndexService occupancyIndex;
+    @Mock private IScheduleTemplateService scheduleTemplates;
+    @Mock private IWorkingDayCalendarService workingDayCalendar;
+
+    @InjectMocks
+    private KpiServiceImpl sut;
+
+    // ================================================================
+    // Constantes reutilizables
+    // ================================================================
+    // Lunes a viernes
+    private static final LocalDate START = LocalDate.of(2099, 3, 2);
+    private static final LocalDate END = LocalDate.of(2099, 3, 6);
+    private static final LocalDateTime FROM = START.atStartOfDay();
+    private static final LocalDateTime TO = END.atTime(LocalTime.MAX);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sut, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(sut, "maxEntries", 100);
+        ReflectionTestUtils.setField(sut, "parallelism", 4);
+        sut.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.shutdown();
+    }
+
+    private Double single(KpiMetric metric) {
+        KpiDashboardResponseDTO dashboard = sut.getDashboard(START, END, Set.of(metric));
+        assertThat(dashboard.metrics()).containsOnlyKeys(metric);
+        return dashboard.metrics().get(metric);
+    }
+
+    // ================================================================
+    // CÁLCULO DE LOS INDICADORES
+    // ================================================================
+
+    @Nested
+    @DisplayName("Cálculo de los indicadores")
+    class ComputeTests {
+
+        @Test
+        @DisplayName("Ocupación: minutos reservados sobre días hábiles × técnicos activos × jornada sin almuerzo")
+        void givenReservedMinutes_thenOccupancyUsesWorkingCapacity() {
+            // Arrange — 4 días hábiles (el miércoles es festivo), 2 técnicos, jornada 07:00-17:30 con 1 h de almuerzo
+            IScheduleTemplateService.Schedule schedule = mock(IScheduleTemplateService.Schedule.class);
+            when(schedule.workStart()).thenReturn(LocalTime.of(7, 0));
+            when(schedule.workEnd()).thenReturn(LocalTime.of(17, 30));
+            when(schedule.lunchStart()).thenReturn(LocalTime.of(12, 0));
+            when(schedule.lunchEnd()).thenReturn(LocalTime.of(13, 0));
+            when(scheduleTemplates.current()).thenReturn(schedule);
+            when(workingDayCalendar.isWorkingDay(any())).thenReturn(true);
+            when(workingDayCalendar.isWorkingDay(START.plusDays(2))).thenReturn(false);
+            when(occupancyIndex.getActiveTechnicianIds()).thenReturn(List.of(3L, 4L));
+            // capacidad = 4 × 2 × 570 = 4560
+            when(statsRepository.sumReservedMinutesBetween(START, END)).thenReturn(2280L);
+
+            // Act + Assert
+            assertThat(single(KpiMetric.OCCUPANCY_RATE)).isEqualTo(50.0);
+        }
+
+        @Test
+        @DisplayName("Cancelación: canceladas sobre el total del acumulado diario")
+        void givenRollupCounts_thenCancellationRate() {
+            when(statsRepository.countByStatusBetween(AppointmentStatus.CANCELLED, START, END)).thenReturn(3L);
+            when(statsRepository.countAllBetween(START, END)).thenReturn(12L);
+
+            assertThat(single(KpiMetric.CANCELLATION_RATE)).isEqualTo(25.0);
+            verifyNoInteractions(appointmentRepository);
+        }
+
+        @Test
+        @DisplayName("Conflictos y registros fallidos: un conteo agrupado por tipo de evento cada uno")
+        void givenEventCounts_thenRatesFromGroupedCounts() {
+            when(systemEventRepository.countByEventTypesBetween(
+                    eq(EnumSet.of(EventType.APPOINTMENT_CONFLICT, EventType.APPOINTMENT_CREATED)), eq(FROM), eq(TO)))
+                    .thenReturn(List.of(
+                            new EventTypeCount(EventType.APPOINTMENT_CONFLICT, 1L),
+                            new EventTypeCount(EventType.APPOINTMENT_CREATED, 3L)));
+            when(systemEventRepository.countByEventTypesBetween(
+                    eq(EnumSet.of(EventType.USER_REGISTER_FAILED, EventType.USER_REGISTER_ATTEMPT)), eq(FROM), eq(TO)))
+                    .thenReturn(List.of(
+                            new EventTypeCount(EventType.USER_REGISTER_ATTEMPT, 8L),
+                            new EventTypeCount(EventType.USER_REGISTER_FAILED, 2L)));
+
+            KpiDashboardResponseDTO dashboard = sut.getDashboard(START, END,
+                    Set.of(KpiMetric.CONFLICT_RATE, KpiMetric.FAILED_REGISTRATION_RATE));
+
+            assertThat(dashboard.metrics())
+                    .containsEntry(KpiMetric.CONFLICT_RATE, 25.0)
+                    .containsEntry(KpiMetric.FAILED_REGISTRATION_RATE, 25.0);
+        }
+
+        @Test
+        @DisplayName("Tiempos promedio y registros se toman de los agregados de la BD")
+        void givenAggregates_thenAveragesAndCount() {
+            when(appointmentRepository.averageLeadMinutesCreatedBetween(FROM, TO)).thenReturn(1500.0);
+            when(passwordResetTokenRepository.averageRecoveryMinutesBetween(FROM, TO)).thenReturn(12.5);
+            when(userRepository.countUsersRegisteredBetween(FROM, TO)).thenReturn(7L);
+
+            KpiDashboardResponseDTO dashboard = sut.getDashboard(START, END, Set.of(
+                    KpiMetric.AVERAGE_LEAD_TIME_HOURS,
+                    KpiMetric.AVERAGE_PASSWORD_RECOVERY_MINUTES,
+                    KpiMetric.REGISTERED_USERS));
+
+            assertThat(dashboard.metrics())
+                    .containsEntry(KpiMetric.AVERAGE_LEAD_TIME_HOURS, 25.0)
+                    .containsEntry(KpiMetric.AVERAGE_PASSWORD_RECOVERY_MINUTES, 12.5)
+                    .containsEntry(KpiMetric.REGISTERED_USERS, 7.0);
+        }
+
+        @Test
+        @DisplayName("Sin datos en el rango el indicador es null, no 0")
+        void givenNoData_thenNull() {
+            when(statsRepository.countAllBetween(START, END)).thenReturn(0L);
+            when(systemEventRepository.countByEventTypesBetween(anySet(), any(), any())).thenReturn(List.of());
+            when(appointmentRepository.averageLeadMinutesCreatedBetween(FROM, TO)).thenReturn(null);
+
+            KpiDashboardResponseDTO dashboard = sut.getDashboard(START, END, Set.of(
+                    KpiMetric.CANCELLATION_RATE, KpiMetric.CONFLICT_RATE, KpiMetric.AVERAGE_LEAD_TIME_HOURS));
+
+            assertThat(dashboard.metrics())
+                    .containsOnlyKeys(KpiMetric.CANCELLATION_RATE, KpiMetric.CONFLICT_RATE, KpiMetric.AVERAGE_LEAD_TIME_HOURS)
+                    .allSatisfy((metric, value) -> assertThat(value).isNull());
+        }
+
+        @Test
+        @DisplayName("Solo consulta los indicadores pedidos")
+        void givenSubset_thenOtherSourcesAreNotQueried() {
+            when(statsRepository.countAllBetween(START, END)).thenReturn(4L);
+
+            single(KpiMetric.CANCELLATION_RATE);
+
+            verifyNoInteractions(appointmentRepository, systemEventRepository, userRepository,
+                    passwordResetTokenRepository, occupancyIndex, scheduleTemplates, workingDayCalendar);
+        }
+
+        @Test
+        @DisplayName("Los indicadores independientes se calculan en paralelo")
+        void givenSeveralMetrics_thenTheyRunConcurrently() {
+            // Cada consulta espera a la otra: en serie, la primera agotaría el tiempo y fallaría
+            CountDownLatch bothRunning = new CountDownLatch(2);
+            when(statsRepository.countAllBetween(START, END)).thenAnswer(invocation -> {
+                bothRunning.countDown();
+                return bothRunning.await(5, TimeUnit.SECONDS) ? 10L : 0L;
+            });
+            when(userRepository.countUsersRegisteredBetween(FROM, TO)).thenAnswer(invocation -> {
+                bothRunning.countDown();
+                return bothRunning.await(5, TimeUnit.SECONDS) ? 7L : 0L;
+            });
+
+            KpiDashboardResponseDTO dashboard = sut.getDashboard(START, END,
+                    Set.of(KpiMetric.CANCELLATION_RATE, KpiMetric.REGISTERED_USERS));
+
+            assertThat(dashboard.metrics())
+                    .containsEntry(KpiMetric.CANCELLATION_RATE, 0.0)
+                    .containsEntry(KpiMetric.REGISTERED_USERS, 7.0);
+        }
+    }
+
+    // ================================================================
+    // CACHÉ
+    // ================================================================
+
+    @Nested
+    @DisplayName("Caché por (indicador, rango)")
+    class CacheTests {
+
+        @Test
+        @DisplayName("El mismo indicador y rango se responde desde el caché")
+        void givenSameMetricAndRange_thenComputedOnce() {
+            when(userRepository.countUsersRegisteredBetween(any(), any())).thenReturn(7L);
+
+            single(KpiMetric.REGISTERED_USERS);
+            single(KpiMetric.REGISTERED_USERS);
+            sut.getDashboard(START, END.plusDays(1), Set.of(KpiMetric.REGISTERED_USERS));
+
+            verify(userRepository).countUsersRegisteredBetween(FROM, TO);
+            verify(userRepository).countUsersRegisteredBetween(FROM, END.plusDays(1).atTime(LocalTime.MAX));
+        }
+
+        @Test
+        @DisplayName("Un error no se cachea: la siguiente consulta lo recalcula")
+        void givenFailure_thenNextRequestRetries() {
+            when(userRepository.countUsersRegisteredBetween(FROM, TO))
+                    .thenThrow(new IllegalStateException("Conexión cerrada"))
+                    .thenReturn(7L);
+
+            assertThatThrownBy(() -> single(KpiMetric.REGISTERED_USERS))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Conexión cerrada");
+
+            assertThat(single(KpiMetric.REGISTERED_USERS)).isEqualTo(7.0);
+            verify(userRepository, times(2)).countUsersRegisteredBetween(FROM, TO);
+        }
+    }
+
+    // ================================================================
+    // VALIDACIÓN DEL RANGO
+    // ================================================================
+
+    @Nested
+    @DisplayName("Validación del rango")
+    class RangeTests {
+
+        @Test
+        @DisplayName("Lanza IllegalArgumentException si el rango está invertido")
+        void givenInvertedRange_thenThrow() {
+            assertThatThrownBy(() -> sut.getDashboard(END, START, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Lanza IllegalArgumentException si el rango supera el máximo de días")
+        void givenTooLongRange_thenThrow() {
+            LocalDate tooFar = START.plusDays(KpiServiceImpl.MAX_RANGE_DAYS);
+
+            assertThatThrownBy(() -> sut.getDashboard(START, tooFar, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining(String.valueOf(KpiServiceImpl.MAX_RANGE_DAYS));
+
+            verifyNoInteractions(statsRepository, appointmentRepository, systemEventRepository, userRepository,
+                    passwordResetTokenRepository);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ITechnicianAssignmentStrategy;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.projection.TechnicianBookedMinutes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeastLoadedTechnicianAssignmentStrategy - Unit Tests")
+class LeastLoadedTechnicianAssignmentStrategyTest {
+
+    @Mock private JpaAppointmentRepository appointmentRepository;
+
+    @InjectMocks
+    private LeastLoadedTechnicianAssignmentStrategy sut;
+
+    // 2099-01-09 es viernes; la semana empieza el lunes 2099-01-05
+    private static final LocalDate FRIDAY = LocalDate.of(2099, 1, 9);
+    private static final LocalDate MONDAY = LocalDate.of(2099, 1, 5);
+    private static final LocalTime SLOT = LocalTime.of(8, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sut, "loadWindow", "day");
+        ReflectionTestUtils.setField(sut, "loadTtlSeconds", 300L);
+    }
+
+    private AppointmentChangedEvent event(AppointmentChangeType type, Long technicianId, Long previousTechnicianId,
+                                          LocalTime start, LocalTime end) {
+        return event(type, technicianId, previousTechnicianId, start, end, null, AppointmentStatus.SCHEDULED);
+    }
+
+    private AppointmentChangedEvent event(AppointmentChangeType type, Long technicianId, Long previousTechnicianId,
+                                          LocalTime start, LocalTime end,
+                                          AppointmentStatus previousStatus, AppointmentStatus status) {
+        return new AppointmentChangedEvent(
+                type, 1L, AppointmentType.OIL_CHANGE, FRIDAY, start, end,
+                previousStatus, status, technicianId, previousTechnicianId, 5L
+        );
+    }
+
+    // ================================================================
+    // rank()
+    // ================================================================
+
+    @Nested
+    @DisplayName("rank()")
+    class RankTests {
+
+        @Test
+        @DisplayName("Ordena por minutos reservados en el día; los técnicos sin citas van primero")
+        void givenBookedMinutes_thenLeastLoadedFirst() {
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY)).thenReturn(List.of(
+                    new TechnicianBookedMinutes(1L, 240L),
+                    new TechnicianBookedMinutes(2L, 60L)));
+
+            List<Long> ranked = sut.rank(FRIDAY, SLOT, List.of(1L, 2L, 3L), Map.of());
+
+            assertThat(ranked).containsExactly(3L, 2L, 1L);
+        }
+
+        @Test
+        @DisplayName("A igual carga conserva el orden por id")
+        void givenTie_thenKeepIdOrder() {
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY)).thenReturn(List.of());
+
+            assertThat(sut.rank(FRIDAY, SLOT, List.of(1L, 2L, 3L), Map.of())).containsExactly(1L, 2L, 3L);
+        }
+
+        @Test
+        @DisplayName("Suma los minutos pendientes del lote en curso")
+        void givenPendingMinutes_thenAddedToLoad() {
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY)).thenReturn(List.of(
+                    new TechnicianBookedMinutes(2L, 60L)));
+
+            List<Long> ranked = sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of(1L, 90L));
+
+            assertThat(ranked).containsExactly(2L, 1L);
+        }
+
+        @Test
+        @DisplayName("Con ventana semanal consulta de lunes a domingo")
+        void givenWeekWindow_thenQueryWholeWeek() {
+            ReflectionTestUtils.setField(sut, "loadWindow", "week");
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(MONDAY, MONDAY.plusDays(6)))
+                    .thenReturn(List.of(new TechnicianBookedMinutes(1L, 30L)));
+
+            assertThat(sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of())).containsExactly(2L, 1L);
+        }
+
+        @Test
+        @DisplayName("Con un solo candidato no consulta la BD")
+        void givenSingleCandidate_thenNoQuery() {
+            assertThat(sut.rank(FRIDAY, SLOT, List.of(1L), Map.of())).containsExactly(1L);
+
+            verifyNoInteractions(appointmentRepository);
+        }
+    }
+
+    // ================================================================
+    // Contador en memoria
+    // ================================================================
+
+    @Nested
+    @DisplayName("Contador en memoria")
+    class CounterTests {
+
+        @Test
+        @DisplayName("La carga del día se lee una sola vez y los eventos la mantienen al día")
+        void givenEvents_thenCounterUpdatedWithoutNewQuery() {
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY)).thenReturn(List.of());
+            sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of());
+
+            // tech1 recibe 2 h y luego se le pasa una cita de 1 h a tech2 → 1h vs 1h
+            sut.onAppointmentChanged(event(AppointmentChangeType.CREATED, 1L, null,
+                    LocalTime.of(8, 0), LocalTime.of(10, 0)));
+            sut.onAppointmentChanged(event(AppointmentChangeType.TECHNICIAN_CHANGED, 2L, 1L,
+                    LocalTime.of(10, 0), LocalTime.of(11, 0)));
+            assertThat(sut.rank(FRIDAY, SLOT, List.of(2L, 1L), Map.of())).containsExactly(2L, 1L);
+
+            // Cancelar la cita de tech2 lo deja como el menos cargado
+            sut.onAppointmentChanged(event(AppointmentChangeType.CANCELLED, 2L, null,
+                    LocalTime.of(10, 0), LocalTime.of(11, 0)));
+            assertThat(sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of())).containsExactly(2L, 1L);
+
+            verify(appointmentRepository, times(1)).sumBookedMinutesByTechnicianBetween(any(), any());
+        }
+
+        @Test
+        @DisplayName("Las citas inactivas no mueven la carga al cancelarse ni al reasignarse")
+        void givenInactiveAppointmentEvents_thenLoadUnchanged() {
+            // tech1 tiene 2 h reservadas y tech2 1 h
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY)).thenReturn(List.of(
+                    new TechnicianBookedMinutes(1L, 120L), new TechnicianBookedMinutes(2L, 60L)));
+            sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of());
+
+            // Una cita cancelada de 3 h de tech1 se reasigna a tech2 y luego se vuelve a cancelar
+            sut.onAppointmentChanged(event(AppointmentChangeType.TECHNICIAN_CHANGED, 2L, 1L,
+                    LocalTime.of(8, 0), LocalTime.of(11, 0), AppointmentStatus.CANCELLED, AppointmentStatus.CANCELLED));
+            sut.onAppointmentChanged(event(AppointmentChangeType.CANCELLED, 2L, null,
+                    LocalTime.of(8, 0), LocalTime.of(11, 0), AppointmentStatus.NO_SHOW, AppointmentStatus.CANCELLED));
+
+            assertThat(sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of())).containsExactly(2L, 1L);
+        }
+
+        @Test
+        @DisplayName("Al expirar la ventana vuelve a leer la carga de la BD")
+        void givenExpiredWindow_thenReloaded() {
+            ReflectionTestUtils.setField(sut, "loadTtlSeconds", -1L);
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY)).thenReturn(List.of());
+
+            sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of());
+            sut.rank(FRIDAY, SLOT, List.of(1L, 2L), Map.of());
+
+            verify(appointmentRepository, times(2)).sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY);
+        }
+    }
+
+    // ================================================================
+    // Comparación de estrategias
+    // ================================================================
+
+    @Nested
+    @DisplayName("Comparación de estrategias")
+    class ComparisonTests {
+
+        private static final List<Long> TECHNICIANS = List.of(1L, 2L, 3L, 4L);
+        private static final List<LocalTime> SLOTS = List.of(
+                LocalTime.of(7, 0), LocalTime.of(7, 30), LocalTime.of(8, 0), LocalTime.of(8, 30),
+                LocalTime.of(9, 0), LocalTime.of(9, 30), LocalTime.of(10, 0), LocalTime.of(10, 30));
+
+        /**
+         * Simula un día con 24 reservas (3 por slot, 4 técnicos) de 30 o 120 minutos
+         * y devuelve la diferencia de minutos entre el técnico más y el menos cargado.
+         */
+        private long simulateSpread(ITechnicianAssignmentStrategy strategy) {
+            Map<Long, Long> minutesByTechnician = new HashMap<>();
+            Set<String> occupied = new HashSet<>();
+
+            for (int i = 0; i < 24; i++) {
+                LocalTime start = SLOTS.get(i % SLOTS.size());
+                LocalTime end = start.plusMinutes(i % 3 == 0 ? 120 : 30);
+                List<Long> free = new ArrayList<>();
+                for (Long technicianId : TECHNICIANS) {
+                    if (!occupied.contains(technicianId + "|" + start)) {
+                        free.add(technicianId);
+                    }
+                }
+
+                Long chosen = strategy.rank(FRIDAY, start, free, Map.of()).getFirst();
+                occupied.add(chosen + "|" + start);
+                minutesByTechnician.merge(chosen, (long) (end.toSecondOfDay() - start.toSecondOfDay()) / 60, Long::sum);
+                if (strategy instanceof LeastLoadedTechnicianAssignmentStrategy leastLoaded) {
+                    leastLoaded.onAppointmentChanged(event(AppointmentChangeType.CREATED, chosen, null, start, end));
+                }
+            }
+
+            List<Long> loads = TECHNICIANS.stream().map(id -> minutesByTechnician.getOrDefault(id, 0L)).toList();
+            return loads.stream().mapToLong(Long::longValue).max().orElseThrow()
+                    - loads.stream().mapToLong(Long::longValue).min().orElseThrow();
+        }
+
+        @Test
+        @DisplayName("Menor carga reparte los minutos mejor que primero libre y que round-robin")
+        void givenSameBookings_thenLeastLoadedHasSmallestSpread() {
+            when(appointmentRepository.sumBookedMinutesByTechnicianBetween(FRIDAY, FRIDAY)).thenReturn(List.of());
+
+            long firstFit = simulateSpread(new FirstFitTechnicianAssignmentStrategy());
+            long roundRobin = simulateSpread(new RoundRobinTechnicianAssignmentStrategy());
+            long leastLoaded = simulateSpread(sut);
+
+            // Primero libre deja al técnico 4 sin trabajo en todo el día
+            assertThat(firstFit).isGreaterThanOrEqualTo(300L);
+            assertThat(leastLoaded).isLessThan(firstFit);
+            assertThat(leastLoaded).isLessThanOrEqualTo(roundRobin);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ISystemEventService;
+import com.sparktech.motorx.entity.EventType;
+import com.sparktech.motorx.entity.Role;
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
+import com.sparktech.motorx.exception.TooManyLoginAttemptsException;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginAttemptServiceImpl - Unit Tests")
+class LoginAttemptServiceImplTest {
+
+    private static final String EMAIL = "cliente@mail.com";
+    private static final String IP = "203.0.113.7";
+
+    @Mock private JpaUserRepository userRepository;
+    @Mock private ISystemEventService systemEvents;
+    // getTransaction devuelve null y commit/rollback no hacen nada: el callback se ejecuta directo
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private LoginAttemptServiceImpl sut;
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sut, "enabled", true);
+        ReflectionTestUtils.setField(sut, "windowSeconds", 900L);
+        ReflectionTestUtils.setField(sut, "emailThreshold", 5);
+        ReflectionTestUtils.setField(sut, "ipThreshold", 20);
+        ReflectionTestUtils.setField(sut, "lockoutSeconds", 900L);
+        ReflectionTestUtils.setField(sut, "accountLockAfterLockouts", 3);
+        ReflectionTestUtils.setField(sut, "lockoutMemorySeconds", 86400L);
+        ReflectionTestUtils.setField(sut, "maxTrackedKeys", 100);
+        sut.clock = now::get;
+        sut.init();
+    }
+
+    private void failTimes(String email, String ip, int times) {
+        for (int i = 0; i < times; i++) {
+            sut.recordFailure(email, ip);
+        }
+    }
+
+    private void advanceSeconds(long seconds) {
+        now.addAndGet(seconds * 1000);
+    }
+
+    // ================================================================
+    // Bloqueo temporal
+    // ================================================================
+
+    @Nested
+    @DisplayName("Bloqueo temporal")
+    class LockoutTests {
+
+        @Test
+        @DisplayName("Por debajo del umbral del email no bloquea")
+        void givenFailuresBelowThreshold_thenAllowed() {
+            failTimes(EMAIL, IP, 4);
+
+            assertThatCode(() -> sut.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Al llegar al umbral bloquea el email, sin importar mayúsculas ni espacios")
+        void givenThresholdReached_thenEmailLocked() {
+            failTimes(EMAIL, IP, 5);
+
+            assertThatThrownBy(() -> sut.checkAllowed(" Cliente@Mail.com ", "198.51.100.1"))
+                    .isInstanceOfSatisfying(TooManyLoginAttemptsException.class,
+                            e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(900L));
+        }
+
+        @Test
+        @DisplayName("El bloqueo se levanta al cumplirse lockout-seconds")
+        void givenLockoutExpired_thenAllowedAgain() {
+            failTimes(EMAIL, IP, 5);
+            advanceSeconds(600);
+
+            assertThatThrownBy(() -> sut.checkAllowed(EMAIL, IP))
+                    .isInstanceOfSatisfying(TooManyLoginAttemptsException.class,
+                            e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(300L));
+
+            advanceSeconds(300);
+            assertThatCode(() -> sut.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Los fallos que salen de la ventana dejan de contar")
+        void givenOldFailures_thenNotCounted() {
+            failTimes(EMAIL, IP, 4);
+            advanceSeconds(900);
+            failTimes(EMAIL, IP, 4);
+
+            assertThatCode(() -> sut.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Muchos emails desde una IP bloquean la IP")
+        void givenManyEmailsFromOneIp_thenIpLocked() {
+            for (int i = 0; i < 20; i++) {
+                sut.recordFailure("user" + i + "@mail.com", IP);
+            }
+
+            assertThatThrownBy(() -> sut.checkAllowed("otro@mail.com", IP))
+                    .isInstanceOf(TooManyLoginAttemptsException.class);
+            assertThatCode(() -> sut.checkAllowed("otro@mail.com", "198.51.100.1")).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Un login correcto olvida los fallos del email")
+        void givenSuccess_thenEmailCounterReset() {
+            failTimes(EMAIL, IP, 4);
+            sut.recordSuccess(EMAIL);
+            failTimes(EMAIL, IP, 4);
+
+            assertThatCode(() -> sut.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Deshabilitado: nunca bloquea")
+        void givenDisabled_thenNeverLocked() {
+            ReflectionTestUtils.setField(sut, "enabled", false);
+            failTimes(EMAIL, IP, 50);
+
+            assertThatCode(() -> sut.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Fallos concurrentes: se cuentan todos, sin perder ninguno")
+        void givenConcurrentFailures_thenAllCounted() throws InterruptedException {
+            ReflectionTestUtils.setField(sut, "emailThreshold", 1000);
+            ReflectionTestUtils.setField(sut, "ipThreshold", 400);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                threads.add(Thread.ofVirtual().start(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    failTimes(EMAIL, IP, 100);
+                }));
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // 800 fallos: la IP (umbral 400) queda bloqueada, el email (umbral 1000) no
+            assertThatThrownBy(() -> sut.checkAllowed("otro@mail.com", IP))
+                    .isInstanceOf(TooManyLoginAttemptsException.class);
+            failTimes(EMAIL, "198.51.100.1", 199);
+            assertThatCode(() -> sut.checkAllowed(EMAIL, "198.51.100.1")).doesNotThrowAnyException();
+            failTimes(EMAIL, "198.51.100.1", 1);
+            assertThatThrownBy(() -> sut.checkAllowed(EMAIL, "198.51.100.1"))
+                    .isInstanceOf(TooManyLoginAttemptsException.class);
+        }
+    }
+
+    // ================================================================
+    // Bloqueo de la cuenta
+    // ================================================================
+
+    @Nested
+    @DisplayName("Bloqueo de la cuenta")
+    class AccountLockTests {
+
+        @Test
+        @DisplayName("Tras account-lock-after-lockouts bloqueos temporales marca la cuenta como bloqueada")
+        void givenRepeatedLockouts_thenAccountLocked() {
+            when(userRepository.lockAccountByEmail(EMAIL, Role.ADMIN)).thenReturn(1);
+
+            for (int i = 0; i < 2; i++) {
+                failTimes(EMAIL, IP, 5);
+                advanceSeconds(900);
+            }
+            verify(userRepository, never()).lockAccountByEmail(any(), any());
+
+            failTimes(EMAIL, IP, 5);
+
+            verify(userRepository).lockAccountByEmail(EMAIL, Role.ADMIN);
+            // El UPDATE masivo no devuelve el id: se pide recargar la tabla de versiones completa
+            verify(eventPublisher).publishEvent(new UserSecurityChangedEvent(null));
+            verify(systemEvents).record(eq(EventType.LOGIN_FAILED), isNull(), contains("cuenta bloqueada"));
+        }
+
+        @Test
+        @DisplayName("Un error al bloquear la cuenta no rompe el registro del fallo")
+        void givenLockFails_thenFailureStillRecorded() {
+            when(userRepository.lockAccountByEmail(EMAIL, Role.ADMIN)).thenThrow(new RuntimeException("db down"));
+
+            for (int i = 0; i < 3; i++) {
+                failTimes(EMAIL, IP, 5);
+                if (i < 2) {
+                    advanceSeconds(900);
+                }
+            }
+
+            assertThatThrownBy(() -> sut.checkAllowed(EMAIL, IP))
+                    .isInstanceOf(TooManyLoginAttemptsException.class);
+            verifyNoInteractions(systemEvents, eventPublisher);
+        }
+    }
+
+    // ================================================================
+    // Memoria acotada
+    // ================================================================
+
+    @Nested
+    @DisplayName("Memoria acotada")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("Libera las claves inactivas y conserva las bloqueadas")
+        void givenIdleKeys_thenEvicted() {
+            sut.recordFailure("inactivo@mail.com", "198.51.100.1");
+            failTimes(EMAIL, IP, 5);
+            advanceSeconds(900);
+            failTimes(EMAIL, IP, 5);
+
+            sut.evictIdle();
+
+            @SuppressWarnings("unchecked")
+            Map<String, ?> emails = (Map<String, ?>) ReflectionTestUtils.getField(sut, "emailCounters");
+            assertThat(emails).containsOnlyKeys(EMAIL);
+        }
+
+        @Test
+        @DisplayName("Con el mapa lleno de claves activas las nuevas no se cuentan")
+        void givenFull_thenNewKeysUntracked() {
+            ReflectionTestUtils.setField(sut, "maxTrackedKeys", 2);
+            sut.recordFailure("a@mail.com", "198.51.100.1");
+            sut.recordFailure("b@mail.com", "198.51.100.2");
+
+            failTimes(EMAIL, IP, 10);
+
+            assertThatCode(() -> sut.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    @DisplayName("Una ventana menor a un segundo es un error de configuración")
+    void givenInvalidWindow_thenInitFails() {
+        ReflectionTestUtils.setField(sut, "windowSeconds", 0L);
+
+        assertThatThrownBy(() -> sut.init()).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,215 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IWorkingDayCalendarService;
+import com.sparktech.motorx.config.MobilityRestrictionProperties;
+import com.sparktech.motorx.config.MobilityRestrictionProperties.CityRules;
+import com.sparktech.motorx.config.MobilityRestrictionProperties.Rule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("MobilityRestrictionServiceImpl - Unit Tests")
+class MobilityRestrictionServiceImplTest {
+
+    // No @ExtendWith(MockitoExtension.class): calendario sin festivos para comparar contra
+    // la implementación anterior, que no los conocía
+    private final IWorkingDayCalendarService noHolidays = mock(IWorkingDayCalendarService.class);
+    private final MobilityRestrictionServiceImpl sut =
+            new MobilityRestrictionServiceImpl(new MobilityRestrictionProperties(null, null, null), noHolidays);
+
+    // 2099-01-09 es viernes
+    private static final LocalDate FRIDAY = LocalDate.of(2099, 1, 9);
+
+    /** Implementación anterior (mapa por llamada), usada como referencia */
+    private static boolean legacyHasRestriction(String plate, LocalDate date) {
+        if (plate == null || plate.isBlank()) return false;
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) return false;
+        String cleanPlate = plate.trim().toUpperCase();
+        char lastChar = cleanPlate.charAt(cleanPlate.length() - 2);
+        if (!Character.isDigit(lastChar)) return false;
+        int lastDigit = Character.getNumericValue(lastChar);
+        Map<DayOfWeek, List<Integer>> restrictions = Map.of(
+                DayOfWeek.MONDAY,    List.of(5, 6),
+                DayOfWeek.TUESDAY,   List.of(7, 8),
+                DayOfWeek.WEDNESDAY, List.of(9, 0),
+                DayOfWeek.THURSDAY,  List.of(1, 2),
+                DayOfWeek.FRIDAY,    List.of(3, 4)
+        );
+        return restrictions.getOrDefault(dayOfWeek, List.of()).contains(lastDigit);
+    }
+
+    private MobilityRestrictionServiceImpl engineFor(String city, CityRules rules) {
+        return new MobilityRestrictionServiceImpl(
+                new MobilityRestrictionProperties(city, 30, Map.of(city, rules)), noHolidays);
+    }
+
+    // ================================================================
+    // Reglas por defecto
+    // ================================================================
+
+    @Nested
+    @DisplayName("Reglas por defecto (Medellín)")
+    class DefaultRulesTests {
+
+        @Test
+        @DisplayName("Coincide con la implementación anterior dentro y fuera de la tabla precompilada")
+        void givenAnyDateAndDigit_thenSameAsLegacy() {
+            LocalDate from = LocalDate.now().minusDays(30);
+            for (LocalDate date = from; date.isBefore(from.plusYears(3)); date = date.plusDays(1)) {
+                for (int digit = 0; digit <= 9; digit++) {
+                    String plate = "ABC1" + digit + "X";
+                    assertThat(sut.isRestricted(plate, date))
+                            .as("%s %s", plate, date)
+                            .isEqualTo(legacyHasRestriction(plate, date));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Máscara del viernes: dígitos 3 y 4; fin de semana sin restricción")
+        void givenFridayAndWeekend_thenExpectedMasks() {
+            assertThat(sut.restrictedDigitsMask(FRIDAY)).isEqualTo((1 << 3) | (1 << 4));
+            assertThat(sut.restrictedDigitsMask(FRIDAY.plusDays(1))).isZero();
+            assertThat(sut.restrictedDigitsMask(FRIDAY.plusDays(2))).isZero();
+        }
+
+        @Test
+        @DisplayName("Placas nulas, cortas o sin dígito en el penúltimo carácter no se restringen")
+        void givenInvalidPlates_thenNoRestriction() {
+            assertThat(sut.isRestricted(null, FRIDAY)).isFalse();
+            assertThat(sut.isRestricted("   ", FRIDAY)).isFalse();
+            assertThat(sut.isRestricted(" 3 ", FRIDAY)).isFalse();
+            assertThat(sut.isRestricted("ABCXYZ", FRIDAY)).isFalse();
+            assertThat(sut.isRestricted("  ABC34X  ", FRIDAY)).isTrue();
+        }
+    }
+
+    // ================================================================
+    // Reglas configuradas
+    // ================================================================
+
+    @Nested
+    @DisplayName("Reglas configuradas")
+    class ConfiguredRulesTests {
+
+        @Test
+        @DisplayName("Los festivos nacionales del calendario laboral quedan exentos, dentro y fuera de la tabla")
+        void givenPublicHoliday_thenNoRestriction() {
+            IWorkingDayCalendarService calendar = new WorkingDayCalendarServiceImpl(null, null, null);
+            MobilityRestrictionServiceImpl engine =
+                    new MobilityRestrictionServiceImpl(new MobilityRestrictionProperties(null, null, null), calendar);
+            LocalDate reyesMagos = LocalDate.of(2099, 1, 12); // lunes festivo
+            LocalDate nextHoliday = calendar.getPublicHolidays(LocalDate.now().getYear() + 1).stream()
+                    .filter(date -> date.getDayOfWeek() == DayOfWeek.MONDAY)
+                    .findFirst().orElseThrow();
+
+            assertThat(engine.isRestricted("ABC56X", reyesMagos)).isFalse();
+            assertThat(engine.isRestricted("ABC56X", reyesMagos.plusWeeks(1))).isTrue();
+            assertThat(engine.isRestricted("ABC56X", nextHoliday)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Las exenciones propias de la ciudad también aplican")
+        void givenCityExemption_thenNoRestriction() {
+            MobilityRestrictionServiceImpl engine = engineFor("medellin", new CityRules(
+                    List.of(FRIDAY), MobilityRestrictionProperties.medellinDefaults().rules()));
+
+            assertThat(engine.isRestricted("ABC34X", FRIDAY)).isFalse();
+            assertThat(engine.isRestricted("ABC34X", FRIDAY.plusWeeks(1))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Cada vigencia aplica solo dentro de su rango de fechas")
+        void givenConsecutiveRules_thenEachAppliesInItsRange() {
+            MobilityRestrictionServiceImpl engine = engineFor("medellin", new CityRules(List.of(), List.of(
+                    new Rule(null, LocalDate.of(2099, 1, 31), Map.of(DayOfWeek.FRIDAY, List.of(3, 4))),
+                    new Rule(LocalDate.of(2099, 2, 1), null, Map.of(DayOfWeek.FRIDAY, List.of(7, 8))))));
+
+            assertThat(engine.isRestricted("ABC13X", LocalDate.of(2099, 1, 30))).isTrue();
+            assertThat(engine.isRestricted("ABC13X", LocalDate.of(2099, 2, 6))).isFalse();
+            assertThat(engine.isRestricted("ABC17X", LocalDate.of(2099, 2, 6))).isTrue();
+        }
+
+        @Test
+        @DisplayName("Usa las reglas de la ciudad activa; una ciudad sin reglas no restringe")
+        void givenActiveCity_thenItsRulesApply() {
+            Map<String, CityRules> cities = Map.of(
+                    "medellin", MobilityRestrictionProperties.medellinDefaults(),
+                    "bogota", new CityRules(List.of(), List.of(
+                            new Rule(null, null, Map.of(DayOfWeek.FRIDAY, List.of(0, 1))))));
+
+            MobilityRestrictionServiceImpl bogota =
+                    new MobilityRestrictionServiceImpl(new MobilityRestrictionProperties("bogota", 30, cities), noHolidays);
+            MobilityRestrictionServiceImpl cali =
+                    new MobilityRestrictionServiceImpl(new MobilityRestrictionProperties("cali", 30, cities), noHolidays);
+
+            assertThat(bogota.isRestricted("ABC01X", FRIDAY)).isTrue();
+            assertThat(bogota.isRestricted("ABC34X", FRIDAY)).isFalse();
+            assertThat(cali.restrictedDigitsMask(FRIDAY)).isZero();
+        }
+
+        @Test
+        @DisplayName("Un dígito fuera de 0-9 falla al compilar")
+        void givenInvalidDigit_thenFailOnCompile() {
+            CityRules invalid = new CityRules(List.of(), List.of(
+                    new Rule(null, null, Map.of(DayOfWeek.MONDAY, List.of(10)))));
+
+            assertThatThrownBy(() -> engineFor("medellin", invalid))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("MONDAY");
+        }
+    }
+
+    // ================================================================
+    // Comparación de rendimiento (manual: -Dmotorx.benchmark=true)
+    // ================================================================
+
+    @Nested
+    @DisplayName("Comparación de rendimiento")
+    @EnabledIfSystemProperty(named = "motorx.benchmark", matches = "true")
+    class BenchmarkTests {
+
+        private static final Logger log = LoggerFactory.getLogger(BenchmarkTests.class);
+        private static final int ITERATIONS = 5_000_000;
+        private static final String[] PLATES = {"ABC01X", "ABC23X", "ABC45X", "ABC67X", "ABC89X"};
+
+        private long nanosPerCheck(BiPredicate<String, LocalDate> check, LocalDate[] dates) {
+            int hits = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                if (check.test(PLATES[i % PLATES.length], dates[i % dates.length])) hits++;
+            }
+            long elapsed = System.nanoTime() - start;
+            assertThat(hits).isPositive(); // evita que el JIT descarte el bucle
+            return elapsed / ITERATIONS;
+        }
+
+        @Test
+        @DisplayName("Motor compilado frente a construir el mapa en cada llamada")
+        void givenSameChecks_thenMeasureCompiledAndLegacy() {
+            LocalDate[] dates = new LocalDate[60];
+            for (int i = 0; i < dates.length; i++) dates[i] = LocalDate.now().plusDays(i);
+
+            // Calentamiento
+            nanosPerCheck(MobilityRestrictionServiceImplTest::legacyHasRestriction, dates);
+            nanosPerCheck(sut::isRestricted, dates);
+
+            long legacy = nanosPerCheck(MobilityRestrictionServiceImplTest::legacyHasRestriction, dates);
+            long compiled = nanosPerCheck(sut::isRestricted, dates);
+            log.info("Pico y placa: anterior {} ns/op, compilado {} ns/op", legacy, compiled);
+        }
+    }
+}
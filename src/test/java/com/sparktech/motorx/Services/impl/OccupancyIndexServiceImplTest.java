@@ -0,0 +1,290 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IOccupancyIndexService;
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.EmployeeChangedEvent;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaEmployeeRepository;
+import com.sparktech.motorx.repository.projection.TechnicianDaySlotOccupancy;
+import com.sparktech.motorx.repository.projection.TechnicianSlotOccupancy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OccupancyIndexServiceImpl - Unit Tests")
+class OccupancyIndexServiceImplTest {
+
+    @Mock private JpaAppointmentRepository appointmentRepository;
+    @Mock private JpaEmployeeRepository technicianRepository;
+
+    @InjectMocks
+    private OccupancyIndexServiceImpl sut;
+
+    private static final LocalDate TOMORROW = LocalDate.now(ZoneId.of("America/Bogota")).plusDays(1);
+    private static final LocalTime SLOT = LocalTime.of(7, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sut, "daysBehind", 1);
+        ReflectionTestUtils.setField(sut, "daysAhead", 60);
+    }
+
+    private AppointmentChangedEvent event(AppointmentChangeType type, Long techId, Long previousTechId) {
+        return event(type, techId, previousTechId, null, AppointmentStatus.SCHEDULED);
+    }
+
+    private AppointmentChangedEvent event(AppointmentChangeType type, Long techId, Long previousTechId,
+                                          AppointmentStatus previousStatus, AppointmentStatus status) {
+        return new AppointmentChangedEvent(
+                type, 1L, AppointmentType.OIL_CHANGE, TOMORROW, SLOT, SLOT.plusMinutes(30),
+                previousStatus, status, techId, previousTechId, 5L
+        );
+    }
+
+    // ================================================================
+    // getDayOccupancy()
+    // ================================================================
+
+    @Nested
+    @DisplayName("getDayOccupancy()")
+    class GetDayOccupancyTests {
+
+        @Test
+        @DisplayName("Carga el día con una consulta y lo reutiliza en llamadas siguientes")
+        void givenDayInWindow_thenLoadOnceAndCache() {
+            // Arrange
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW))
+                    .thenReturn(List.of(new TechnicianSlotOccupancy(1L, SLOT)));
+
+            // Act
+            IOccupancyIndexService.DayOccupancy first = sut.getDayOccupancy(TOMORROW);
+            IOccupancyIndexService.DayOccupancy second = sut.getDayOccupancy(TOMORROW);
+
+            // Assert
+            assertThat(first.isOccupied(1L, SLOT)).isTrue();
+            assertThat(first.isOccupied(1L, LocalTime.of(7, 15))).isFalse();
+            assertThat(first.isOccupied(2L, SLOT)).isFalse();
+            assertThat(second).isSameAs(first);
+            verify(appointmentRepository, times(1)).findOccupiedTechnicianSlotsByDate(TOMORROW);
+        }
+
+        @Test
+        @DisplayName("No cachea días fuera de la ventana configurada")
+        void givenDayOutsideWindow_thenQueryEveryTime() {
+            // Arrange
+            LocalDate farAway = TOMORROW.plusYears(1);
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(farAway)).thenReturn(List.of());
+
+            // Act
+            sut.getDayOccupancy(farAway);
+            sut.getDayOccupancy(farAway);
+
+            // Assert
+            verify(appointmentRepository, times(2)).findOccupiedTechnicianSlotsByDate(farAway);
+        }
+    }
+
+    // ================================================================
+    // getOccupancyBetween()
+    // ================================================================
+
+    @Nested
+    @DisplayName("getOccupancyBetween()")
+    class GetOccupancyBetweenTests {
+
+        @Test
+        @DisplayName("Carga los días faltantes con una sola consulta de rango y los cachea")
+        void givenUnloadedRange_thenSingleRangeQuery() {
+            // Arrange
+            LocalDate end = TOMORROW.plusDays(4);
+            when(appointmentRepository.findOccupiedTechnicianSlotsBetween(TOMORROW, end))
+                    .thenReturn(List.of(new TechnicianDaySlotOccupancy(TOMORROW.plusDays(2), 1L, SLOT)));
+
+            // Act
+            Map<LocalDate, IOccupancyIndexService.DayOccupancy> range = sut.getOccupancyBetween(TOMORROW, end);
+
+            // Assert
+            assertThat(range).hasSize(5);
+            assertThat(range.get(TOMORROW.plusDays(2)).isOccupied(1L, SLOT)).isTrue();
+            assertThat(range.get(TOMORROW).isOccupied(1L, SLOT)).isFalse();
+            // Los días quedan en el índice: las lecturas por día ya no consultan la BD
+            assertThat(sut.getDayOccupancy(TOMORROW.plusDays(2))).isSameAs(range.get(TOMORROW.plusDays(2)));
+            verify(appointmentRepository, times(1)).findOccupiedTechnicianSlotsBetween(TOMORROW, end);
+            verify(appointmentRepository, never()).findOccupiedTechnicianSlotsByDate(any());
+        }
+
+        @Test
+        @DisplayName("Solo consulta el tramo que aún no está cargado")
+        void givenPartiallyLoadedRange_thenQueryOnlyMissingSpan() {
+            // Arrange — el primer día ya está en el índice
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW)).thenReturn(List.of());
+            sut.getDayOccupancy(TOMORROW);
+            LocalDate end = TOMORROW.plusDays(2);
+            when(appointmentRepository.findOccupiedTechnicianSlotsBetween(TOMORROW.plusDays(1), end))
+                    .thenReturn(List.of());
+
+            // Act
+            sut.getOccupancyBetween(TOMORROW, end);
+
+            // Assert
+            verify(appointmentRepository).findOccupiedTechnicianSlotsBetween(TOMORROW.plusDays(1), end);
+        }
+    }
+
+    // ================================================================
+    // onAppointmentChanged()
+    // ================================================================
+
+    @Nested
+    @DisplayName("onAppointmentChanged()")
+    class OnAppointmentChangedTests {
+
+        @Test
+        @DisplayName("CREATED marca el slot del técnico en el día cargado")
+        void givenCreatedEvent_thenSlotOccupied() {
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW)).thenReturn(List.of());
+            IOccupancyIndexService.DayOccupancy day = sut.getDayOccupancy(TOMORROW);
+
+            sut.onAppointmentChanged(event(AppointmentChangeType.CREATED, 1L, null));
+
+            assertThat(day.isOccupied(1L, SLOT)).isTrue();
+        }
+
+        @Test
+        @DisplayName("CANCELLED libera el slot del técnico")
+        void givenCancelledEvent_thenSlotReleased() {
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW))
+                    .thenReturn(List.of(new TechnicianSlotOccupancy(1L, SLOT)));
+            IOccupancyIndexService.DayOccupancy day = sut.getDayOccupancy(TOMORROW);
+
+            sut.onAppointmentChanged(event(AppointmentChangeType.CANCELLED, 1L, null));
+
+            assertThat(day.isOccupied(1L, SLOT)).isFalse();
+        }
+
+        @Test
+        @DisplayName("TECHNICIAN_CHANGED mueve la ocupación del técnico anterior al nuevo")
+        void givenTechnicianChangedEvent_thenOccupancyMoves() {
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW))
+                    .thenReturn(List.of(new TechnicianSlotOccupancy(1L, SLOT)));
+            IOccupancyIndexService.DayOccupancy day = sut.getDayOccupancy(TOMORROW);
+
+            sut.onAppointmentChanged(event(AppointmentChangeType.TECHNICIAN_CHANGED, 2L, 1L));
+
+            assertThat(day.isOccupied(1L, SLOT)).isFalse();
+            assertThat(day.isOccupied(2L, SLOT)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Reasignar una cita cancelada no libera al técnico anterior ni ocupa al nuevo")
+        void givenCancelledAppointmentReassigned_thenOccupancyUnchanged() {
+            // El técnico 1 tiene otra cita activa en el mismo slot
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW))
+                    .thenReturn(List.of(new TechnicianSlotOccupancy(1L, SLOT)));
+            IOccupancyIndexService.DayOccupancy day = sut.getDayOccupancy(TOMORROW);
+
+            sut.onAppointmentChanged(event(AppointmentChangeType.TECHNICIAN_CHANGED, 2L, 1L,
+                    AppointmentStatus.CANCELLED, AppointmentStatus.CANCELLED));
+
+            assertThat(day.isOccupied(1L, SLOT)).isTrue();
+            assertThat(day.isOccupied(2L, SLOT)).isFalse();
+        }
+
+        @Test
+        @DisplayName("CANCELLED de una cita que ya estaba inactiva no libera el slot")
+        void givenCancelledFromInactive_thenSlotKept() {
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW))
+                    .thenReturn(List.of(new TechnicianSlotOccupancy(1L, SLOT)));
+            IOccupancyIndexService.DayOccupancy day = sut.getDayOccupancy(TOMORROW);
+
+            sut.onAppointmentChanged(event(AppointmentChangeType.CANCELLED, 1L, null,
+                    AppointmentStatus.NO_SHOW, AppointmentStatus.CANCELLED));
+
+            assertThat(day.isOccupied(1L, SLOT)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Eventos de días no cargados no disparan consultas")
+        void givenEventForUnloadedDay_thenNoQuery() {
+            sut.onAppointmentChanged(event(AppointmentChangeType.CREATED, 1L, null));
+
+            verifyNoInteractions(appointmentRepository);
+        }
+    }
+
+    // ================================================================
+    // getActiveTechnicianIds() + onEmployeeChanged()
+    // ================================================================
+
+    @Nested
+    @DisplayName("getActiveTechnicianIds()")
+    class ActiveTechnicianIdsTests {
+
+        @Test
+        @DisplayName("Cachea la plantilla hasta que cambia un empleado")
+        void givenEmployeeChanged_thenRosterReloaded() {
+            when(technicianRepository.findAllActiveIds())
+                    .thenReturn(List.of(1L, 2L))
+                    .thenReturn(List.of(1L, 2L, 3L));
+
+            assertThat(sut.getActiveTechnicianIds()).containsExactly(1L, 2L);
+            assertThat(sut.getActiveTechnicianIds()).containsExactly(1L, 2L);
+
+            sut.onEmployeeChanged(new EmployeeChangedEvent(3L));
+
+            assertThat(sut.getActiveTechnicianIds()).containsExactly(1L, 2L, 3L);
+            verify(technicianRepository, times(2)).findAllActiveIds();
+        }
+    }
+
+    // ================================================================
+    // reconcile()
+    // ================================================================
+
+    @Nested
+    @DisplayName("reconcile()")
+    class ReconcileTests {
+
+        @Test
+        @DisplayName("Sin desfase contra la BD no reemplaza el día cargado")
+        void givenNoDrift_thenReturnZero() {
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW))
+                    .thenReturn(List.of(new TechnicianSlotOccupancy(1L, SLOT)));
+            IOccupancyIndexService.DayOccupancy day = sut.getDayOccupancy(TOMORROW);
+
+            assertThat(sut.reconcile()).isZero();
+            assertThat(sut.getDayOccupancy(TOMORROW)).isSameAs(day);
+        }
+
+        @Test
+        @DisplayName("Corrige el día cuando la BD tiene cambios hechos por otra instancia")
+        void givenDrift_thenReplaceDay() {
+            when(appointmentRepository.findOccupiedTechnicianSlotsByDate(TOMORROW))
+                    .thenReturn(List.of())
+                    .thenReturn(List.of(new TechnicianSlotOccupancy(3L, SLOT)));
+            sut.getDayOccupancy(TOMORROW);
+
+            assertThat(sut.reconcile()).isEqualTo(1);
+            assertThat(sut.getDayOccupancy(TOMORROW).isOccupied(3L, SLOT)).isTrue();
+        }
+    }
+}
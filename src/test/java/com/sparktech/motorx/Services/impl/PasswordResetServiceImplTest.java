@@ -1,12 +1,15 @@
 package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.IEmailNotificationService;
+import com.sparktech.motorx.Services.ISystemEventService;
 import com.sparktech.motorx.Services.IVerificationCodeService;
 import com.sparktech.motorx.dto.auth.PasswordResetDTO;
 import com.sparktech.motorx.dto.auth.PasswordResetRequestDTO;
 import com.sparktech.motorx.dto.notification.EmailDTO;
+import com.sparktech.motorx.entity.EventType;
 import com.sparktech.motorx.entity.PasswordResetTokenEntity;
 import com.sparktech.motorx.entity.UserEntity;
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
 import com.sparktech.motorx.exception.InvalidTokenException;
 import com.sparktech.motorx.exception.RecoveryTokenException;
 import com.sparktech.motorx.exception.UserNotFoundException;
@@ -21,6 +24,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -43,6 +47,8 @@ class PasswordResetServiceImplTest {
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private IEmailNotificationService notificationService;
     @Mock private IVerificationCodeService verificationCodeService;
+    @Mock private ISystemEventService systemEvents;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private PasswordResetServiceImpl sut;
@@ -121,6 +127,9 @@ class PasswordResetServiceImplTest {
             // Assert — email enviado
             verify(notificationService, times(1)).sendMail(emailCaptor.capture());
             assertThat(emailCaptor.getValue().recipient()).isEqualTo("user@test.com");
+
+            // Assert — evento de solicitud registrado
+            verify(systemEvents).record(EventType.PASSWORD_RESET_REQUEST, 1L, null);
         }
 
         @Test
@@ -183,6 +192,8 @@ class PasswordResetServiceImplTest {
             // save() se llama: 1 vez para el token antiguo + 1 para el nuevo
             verify(tokenRepository, atLeast(2)).save(any());
             assertThat(oldToken.getUsed()).isTrue();
+            // Invalidado, no canjeado: no cuenta para el tiempo de recuperación
+            assertThat(oldToken.getUsedAt()).isNull();
         }
 
         @Test
@@ -235,7 +246,7 @@ class PasswordResetServiceImplTest {
                     .isInstanceOf(UserNotFoundException.class);
 
             // Verificamos que no se disparó ningún proceso posterior
-            verifyNoInteractions(tokenRepository, verificationCodeService, notificationService);
+            verifyNoInteractions(tokenRepository, verificationCodeService, notificationService, systemEvents);
         }
 
         @Test
@@ -286,13 +297,21 @@ class PasswordResetServiceImplTest {
             verify(userRepository).save(userCaptor.capture());
             assertThat(userCaptor.getValue().getPassword()).isEqualTo("new-encoded");
 
-            // Assert — token marcado como usado
+            // Assert — versión de seguridad incrementada: se cierran las sesiones abiertas
+            assertThat(userCaptor.getValue().getSecurityVersion()).isEqualTo(1);
+            verify(eventPublisher).publishEvent(new UserSecurityChangedEvent(1L));
+
+            // Assert — token marcado como usado, con la hora de canje
             assertThat(token.getUsed()).isTrue();
+            assertThat(token.getUsedAt()).isNotNull();
             verify(tokenRepository, atLeastOnce()).save(token);
 
             // Assert — email de confirmación enviado
             verify(notificationService, times(1)).sendMail(emailCaptor.capture());
             assertThat(emailCaptor.getValue().recipient()).isEqualTo("user@test.com");
+
+            // Assert — evento de recuperación exitosa registrado
+            verify(systemEvents).record(EventType.PASSWORD_RESET_SUCCESS, 1L, null);
         }
 
         @Test
@@ -342,7 +361,7 @@ class PasswordResetServiceImplTest {
                     .hasMessageContaining("inválido");
 
             // Verificamos que el sistema se detuvo a tiempo
-            verifyNoInteractions(passwordEncoder, notificationService);
+            verifyNoInteractions(passwordEncoder, notificationService, systemEvents);
             verify(userRepository, never()).save(any());
         }
 
@@ -0,0 +1,39 @@
+package com.sparktech.motorx.Services.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RoundRobinTechnicianAssignmentStrategy - Unit Tests")
+class RoundRobinTechnicianAssignmentStrategyTest {
+
+    // No @ExtendWith(MockitoExtension.class) — no hay mocks
+    private final RoundRobinTechnicianAssignmentStrategy sut = new RoundRobinTechnicianAssignmentStrategy();
+
+    private static final LocalDate DATE = LocalDate.of(2099, 1, 9);
+    private static final LocalTime SLOT = LocalTime.of(8, 0);
+
+    @Test
+    @DisplayName("Rota el técnico preferido en cada asignación y mantiene a los demás como respaldo")
+    void givenConsecutiveAssignments_thenPreferredTechnicianRotates() {
+        List<Long> technicians = List.of(1L, 2L, 3L);
+
+        assertThat(sut.rank(DATE, SLOT, technicians, Map.of())).containsExactly(1L, 2L, 3L);
+        assertThat(sut.rank(DATE, SLOT, technicians, Map.of())).containsExactly(2L, 3L, 1L);
+        assertThat(sut.rank(DATE, SLOT, technicians, Map.of())).containsExactly(3L, 1L, 2L);
+        assertThat(sut.rank(DATE, SLOT, technicians, Map.of())).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Con uno o ningún candidato devuelve la lista tal cual")
+    void givenSingleOrNoCandidate_thenReturnAsIs() {
+        assertThat(sut.rank(DATE, SLOT, List.of(7L), Map.of())).containsExactly(7L);
+        assertThat(sut.rank(DATE, SLOT, List.of(), Map.of())).isEmpty();
+    }
+}
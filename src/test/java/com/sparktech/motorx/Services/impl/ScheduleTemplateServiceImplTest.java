@@ -0,0 +1,365 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IAvailabilityCacheService;
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.config.AppointmentScheduleConfig;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateRequestDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateResponseDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTypeRuleDTO;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.entity.ScheduleTemplateEntity;
+import com.sparktech.motorx.entity.ScheduleTemplateSlotEntity;
+import com.sparktech.motorx.entity.ScheduleTemplateTypeEntity;
+import com.sparktech.motorx.event.ScheduleTemplateChangedEvent;
+import com.sparktech.motorx.exception.AppointmentException;
+import com.sparktech.motorx.exception.ScheduleTemplateNotFoundException;
+import com.sparktech.motorx.mapper.ScheduleTemplateMapper;
+import com.sparktech.motorx.repository.JpaScheduleTemplateRepository;
+import com.sparktech.motorx.repository.JpaScheduleTemplateSlotRepository;
+import com.sparktech.motorx.repository.JpaScheduleTemplateTypeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleTemplateServiceImpl - Unit Tests")
+class ScheduleTemplateServiceImplTest {
+
+    @Mock private JpaScheduleTemplateRepository templateRepository;
+    @Mock private JpaScheduleTemplateTypeRepository typeRepository;
+    @Mock private JpaScheduleTemplateSlotRepository slotRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private IAvailabilityCacheService availabilityCache;
+    @Spy private ScheduleTemplateMapper templateMapper = new ScheduleTemplateMapper();
+
+    @InjectMocks
+    private ScheduleTemplateServiceImpl sut;
+
+    // ================================================================
+    // HELPERS
+    // ================================================================
+
+    /** Reglas de la plantilla por defecto de AppointmentScheduleConfig (semilla de V12), una por tipo */
+    private static List<ScheduleTypeRuleDTO> defaultRules() {
+        return Arrays.stream(AppointmentType.values())
+                .map(type -> new ScheduleTypeRuleDTO(
+                        type,
+                        AppointmentScheduleConfig.DURATION_MINUTES_BY_TYPE.get(type),
+                        AppointmentScheduleConfig.AUTECO_ONLY_TYPES.contains(type),
+                        AppointmentScheduleConfig.USER_BOOKABLE_TYPES.contains(type),
+                        AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE.getOrDefault(type, List.of())))
+                .toList();
+    }
+
+    private static List<ScheduleTypeRuleDTO> withOilChange(int durationMinutes, LocalTime slot) {
+        return defaultRules().stream()
+                .map(rule -> rule.appointmentType() != AppointmentType.OIL_CHANGE ? rule
+                        : new ScheduleTypeRuleDTO(AppointmentType.OIL_CHANGE, durationMinutes,
+                                rule.autecoOnly(), rule.userBookable(), List.of(slot)))
+                .toList();
+    }
+
+    private static ScheduleTemplateRequestDTO requestWith(List<ScheduleTypeRuleDTO> rules) {
+        return new ScheduleTemplateRequestDTO("Horario de prueba",
+                LocalTime.of(7, 0), LocalTime.of(17, 30), LocalTime.of(12, 0), LocalTime.of(13, 0), rules);
+    }
+
+    private static ScheduleTemplateEntity template(Long id, int version, boolean active) {
+        return ScheduleTemplateEntity.builder()
+                .id(id).version(version).active(active)
+                .workStart(LocalTime.of(7, 0)).workEnd(LocalTime.of(17, 30))
+                .lunchStart(LocalTime.of(12, 0)).lunchEnd(LocalTime.of(13, 0))
+                .build();
+    }
+
+    /** Simula en los repositorios una versión activa con un solo tipo agendable (OIL_CHANGE) */
+    private void givenActiveTemplate(Long id, int version, int oilChangeMinutes, LocalTime... oilChangeSlots) {
+        ScheduleTemplateEntity template = template(id, version, true);
+        when(templateRepository.findByActiveTrue()).thenReturn(Optional.of(template));
+        when(typeRepository.findByTemplateId(id)).thenReturn(List.of(ScheduleTemplateTypeEntity.builder()
+                .template(template).appointmentType(AppointmentType.OIL_CHANGE)
+                .durationMinutes(oilChangeMinutes).userBookable(true).build()));
+        List<ScheduleTemplateSlotEntity> slots = new ArrayList<>();
+        for (LocalTime slot : oilChangeSlots) {
+            slots.add(ScheduleTemplateSlotEntity.builder()
+                    .template(template).appointmentType(AppointmentType.OIL_CHANGE).startTime(slot).build());
+        }
+        when(slotRepository.findByTemplateIdOrderByStartTimeAsc(id)).thenReturn(slots);
+    }
+
+    // ================================================================
+    // Plantilla activa compilada
+    // ================================================================
+
+    @Nested
+    @DisplayName("current()")
+    class CurrentScheduleTests {
+
+        @Test
+        @DisplayName("Sin versión activa en BD usa la plantilla de AppointmentScheduleConfig")
+        void givenNoActiveTemplate_thenDefaults() {
+            IScheduleTemplateService.Schedule schedule = sut.current();
+
+            assertThat(schedule.version()).isZero();
+            for (AppointmentType type : AppointmentType.values()) {
+                List<LocalTime> slots = AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE.getOrDefault(type, List.of());
+                assertThat(schedule.slotsFor(type)).containsExactlyElementsOf(slots.stream().sorted().toList());
+                slots.forEach(slot -> assertThat(schedule.isValidSlot(type, slot)).isTrue());
+                assertThat(schedule.durationMinutes(type))
+                        .isEqualTo(AppointmentScheduleConfig.DURATION_MINUTES_BY_TYPE.get(type));
+                assertThat(schedule.isAutecoOnly(type))
+                        .isEqualTo(AppointmentScheduleConfig.AUTECO_ONLY_TYPES.contains(type));
+                assertThat(schedule.isUserBookable(type))
+                        .isEqualTo(AppointmentScheduleConfig.USER_BOOKABLE_TYPES.contains(type));
+            }
+            assertThat(schedule.typesWithSlots())
+                    .containsExactlyElementsOf(AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE.keySet().stream().sorted().toList());
+        }
+
+        @Test
+        @DisplayName("Valida slots, jornada y almuerzo al minuto exacto")
+        void givenDefaults_thenBoundariesMatchPreviousRules() {
+            IScheduleTemplateService.Schedule schedule = sut.current();
+
+            assertThat(schedule.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(8, 30))).isTrue();
+            assertThat(schedule.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(8, 15))).isFalse();
+            assertThat(schedule.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(8, 30, 30))).isFalse();
+            assertThat(schedule.isValidSlot(AppointmentType.MAINTENANCE, LocalTime.of(13, 0))).isFalse();
+            assertThat(schedule.isWithinWorkHours(LocalTime.of(17, 30))).isTrue();
+            assertThat(schedule.isWithinWorkHours(LocalTime.of(17, 30, 1))).isFalse();
+            assertThat(schedule.isWithinWorkHours(LocalTime.of(6, 59))).isFalse();
+            assertThat(schedule.isLunchTime(LocalTime.of(12, 0))).isTrue();
+            assertThat(schedule.isLunchTime(LocalTime.of(13, 0))).isFalse();
+            assertThat(schedule.endTime(AppointmentType.MAINTENANCE, LocalTime.of(7, 45)))
+                    .isEqualTo(LocalTime.of(17, 0));
+        }
+
+        @Test
+        @DisplayName("Compila la versión activa una sola vez")
+        void givenActiveTemplate_thenCompiledOnce() {
+            givenActiveTemplate(1L, 3, 40, LocalTime.of(8, 0), LocalTime.of(8, 40));
+
+            IScheduleTemplateService.Schedule schedule = sut.current();
+            sut.current();
+
+            assertThat(schedule.version()).isEqualTo(3);
+            assertThat(schedule.slotsFor(AppointmentType.OIL_CHANGE)).containsExactly(LocalTime.of(8, 0), LocalTime.of(8, 40));
+            assertThat(schedule.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(8, 40))).isTrue();
+            assertThat(schedule.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(8, 30))).isFalse();
+            assertThat(schedule.endTime(AppointmentType.OIL_CHANGE, LocalTime.of(8, 0))).isEqualTo(LocalTime.of(8, 40));
+            assertThat(schedule.typesWithSlots()).containsExactly(AppointmentType.OIL_CHANGE);
+            verify(templateRepository, times(1)).findByActiveTrue();
+        }
+
+        @Test
+        @DisplayName("Al cambiar la plantilla se reemplaza la tabla y se descarta la disponibilidad cacheada")
+        void givenTemplateChanged_thenSwapAndInvalidateCache() {
+            givenActiveTemplate(1L, 1, 30, LocalTime.of(8, 0));
+            IScheduleTemplateService.Schedule before = sut.current();
+
+            givenActiveTemplate(51L, 2, 45, LocalTime.of(9, 15));
+            sut.onTemplateChanged(new ScheduleTemplateChangedEvent(51L));
+            IScheduleTemplateService.Schedule after = sut.current();
+
+            // La instancia anterior sigue siendo consistente para quien ya la tenía
+            assertThat(before.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(8, 0))).isTrue();
+            assertThat(after.version()).isEqualTo(2);
+            assertThat(after.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(8, 0))).isFalse();
+            assertThat(after.isValidSlot(AppointmentType.OIL_CHANGE, LocalTime.of(9, 15))).isTrue();
+            verify(availabilityCache).invalidateAll();
+        }
+
+        @Test
+        @DisplayName("refresh() no descarta el caché si la versión activa no cambió")
+        void givenSameVersion_thenRefreshKeepsCache() {
+            givenActiveTemplate(1L, 1, 30, LocalTime.of(8, 0));
+            sut.current();
+
+            sut.refresh();
+
+            verify(templateRepository, times(2)).findByActiveTrue();
+            verifyNoInteractions(availabilityCache);
+        }
+    }
+
+    // ================================================================
+    // Publicación de versiones
+    // ================================================================
+
+    @Nested
+    @DisplayName("publish()")
+    class PublishTests {
+
+        @Test
+        @DisplayName("Desactiva la versión actual, guarda la nueva como activa y publica el evento")
+        void givenValidTemplate_thenSaveNextVersionAndPublish() {
+            when(templateRepository.findMaxVersion()).thenReturn(4);
+            when(templateRepository.saveAndFlush(any(ScheduleTemplateEntity.class))).thenAnswer(inv -> {
+                ScheduleTemplateEntity saved = inv.getArgument(0);
+                saved.setId(201L);
+                return saved;
+            });
+
+            ScheduleTemplateResponseDTO response = sut.publish(requestWith(defaultRules()));
+
+            InOrder inOrder = inOrder(templateRepository);
+            inOrder.verify(templateRepository).deactivateAll();
+            inOrder.verify(templateRepository).saveAndFlush(argThat(t -> t.getVersion() == 5 && t.isActive()));
+            verify(typeRepository).saveAll(anyList());
+            verify(slotRepository).saveAll(anyList());
+            verify(eventPublisher).publishEvent(new ScheduleTemplateChangedEvent(201L));
+            assertThat(response.version()).isEqualTo(5);
+            assertThat(response.types()).hasSize(AppointmentType.values().length);
+        }
+
+        @Test
+        @DisplayName("La plantilla en producción se republica tal cual, aunque sus citas de la tarde terminen después del cierre")
+        void givenProductionDefaults_thenAfternoonSlotsPastClosingAccepted() {
+            // AUTECO_WARRANTY 13:15 + 450 min = 20:45 y QUICK_SERVICE 13:30 + 255 min = 17:45, cierre 17:30
+            assertThat(AppointmentScheduleConfig.VALID_SLOTS_BY_TYPE.get(AppointmentType.AUTECO_WARRANTY))
+                    .contains(LocalTime.of(13, 15));
+            when(templateRepository.saveAndFlush(any(ScheduleTemplateEntity.class))).thenAnswer(inv -> {
+                ScheduleTemplateEntity saved = inv.getArgument(0);
+                saved.setId(202L);
+                return saved;
+            });
+
+            assertThatCode(() -> sut.publish(requestWith(defaultRules()))).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Rechaza la plantilla si falta algún tipo de cita")
+        void givenMissingType_thenThrow() {
+            List<ScheduleTypeRuleDTO> rules = defaultRules().stream()
+                    .filter(rule -> rule.appointmentType() != AppointmentType.REWORK)
+                    .toList();
+
+            assertThatThrownBy(() -> sut.publish(requestWith(rules)))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("REWORK");
+            verifyNoInteractions(templateRepository, eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Rechaza horarios de recepción en el almuerzo")
+        void givenSlotDuringLunch_thenThrow() {
+            List<ScheduleTypeRuleDTO> rules = defaultRules().stream()
+                    .map(rule -> rule.appointmentType() != AppointmentType.QUICK_SERVICE ? rule
+                            : new ScheduleTypeRuleDTO(rule.appointmentType(), rule.durationMinutes(),
+                                    rule.autecoOnly(), rule.userBookable(), List.of(LocalTime.of(12, 30))))
+                    .toList();
+
+            assertThatThrownBy(() -> sut.publish(requestWith(rules)))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("almuerzo");
+            verifyNoInteractions(templateRepository);
+        }
+
+        @Test
+        @DisplayName("Rechaza horarios de recepción a la hora de cierre")
+        void givenSlotAtWorkEnd_thenThrow() {
+            assertThatThrownBy(() -> sut.publish(requestWith(withOilChange(30, LocalTime.of(17, 30)))))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("fuera de la jornada");
+            verifyNoInteractions(templateRepository);
+        }
+
+        @Test
+        @DisplayName("Rechaza duraciones que dan la vuelta a medianoche y parecen terminar temprano")
+        void givenDurationWrappingMidnight_thenThrow() {
+            // 16:00 + 1000 min = 08:40 del día siguiente con LocalTime
+            assertThatThrownBy(() -> sut.publish(requestWith(withOilChange(1000, LocalTime.of(16, 0)))))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("después de medianoche");
+            verifyNoInteractions(templateRepository);
+        }
+
+        @Test
+        @DisplayName("REWORK no puede quedar agendable por el cliente")
+        void givenReworkUserBookable_thenThrow() {
+            List<ScheduleTypeRuleDTO> rules = defaultRules().stream()
+                    .map(rule -> rule.appointmentType() != AppointmentType.REWORK ? rule
+                            : new ScheduleTypeRuleDTO(AppointmentType.REWORK, 450, false, true, List.of(LocalTime.of(8, 0))))
+                    .toList();
+
+            assertThatThrownBy(() -> sut.publish(requestWith(rules)))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("REWORK");
+            verifyNoInteractions(templateRepository);
+        }
+
+        @Test
+        @DisplayName("Si otro admin publicó al mismo tiempo lanza AppointmentException")
+        void givenConcurrentPublish_thenThrow() {
+            when(templateRepository.saveAndFlush(any(ScheduleTemplateEntity.class)))
+                    .thenThrow(new DataIntegrityViolationException("uq_schedule_template_version"));
+
+            assertThatThrownBy(() -> sut.publish(requestWith(defaultRules())))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("al mismo tiempo");
+            verifyNoInteractions(typeRepository, slotRepository, eventPublisher);
+        }
+    }
+
+    // ================================================================
+    // Reactivación de versiones
+    // ================================================================
+
+    @Nested
+    @DisplayName("activate()")
+    class ActivateTests {
+
+        @Test
+        @DisplayName("Reactiva una versión anterior y publica el evento")
+        void givenInactiveTemplate_thenActivate() {
+            ScheduleTemplateEntity previous = template(1L, 1, false);
+            when(templateRepository.findById(1L)).thenReturn(Optional.of(previous));
+
+            ScheduleTemplateResponseDTO response = sut.activate(1L);
+
+            verify(templateRepository).deactivateAll();
+            verify(eventPublisher).publishEvent(new ScheduleTemplateChangedEvent(1L));
+            assertThat(response.active()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Si la versión ya está activa no hace cambios")
+        void givenActiveTemplate_thenNoChange() {
+            when(templateRepository.findById(1L)).thenReturn(Optional.of(template(1L, 1, true)));
+
+            sut.activate(1L);
+
+            verify(templateRepository, never()).deactivateAll();
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Lanza ScheduleTemplateNotFoundException si la versión no existe")
+        void givenUnknownId_thenThrowNotFound() {
+            when(templateRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> sut.activate(99L))
+                    .isInstanceOf(ScheduleTemplateNotFoundException.class);
+            verifyNoInteractions(eventPublisher);
+        }
+    }
+}
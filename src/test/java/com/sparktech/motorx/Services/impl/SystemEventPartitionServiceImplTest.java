@@ -0,0 +1,179 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.ISystemEventPartitionService.Maintenance;
+import com.sparktech.motorx.repository.SystemEventPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SystemEventPartitionServiceImpl - Unit Tests")
+class SystemEventPartitionServiceImplTest {
+
+    @Mock private SystemEventPartitionRepository partitionRepository;
+    // getTransaction devuelve null y commit/rollback no hacen nada: el callback se ejecuta directo
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SystemEventPartitionServiceImpl sut;
+
+    private final YearMonth current = YearMonth.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sut, "enabled", true);
+        ReflectionTestUtils.setField(sut, "monthsAhead", 3);
+        ReflectionTestUtils.setField(sut, "retentionMonths", 13);
+        ReflectionTestUtils.setField(sut, "expiredAction", "drop");
+        sut.init();
+    }
+
+    // ================================================================
+    // maintain()
+    // ================================================================
+
+    @Nested
+    @DisplayName("maintain()")
+    class MaintainTests {
+
+        @Test
+        @DisplayName("Sin tabla particionada no hace nada")
+        void givenNotPartitioned_thenNoop() {
+            when(partitionRepository.isPartitioned()).thenReturn(false);
+
+            assertThat(sut.maintain()).isEqualTo(Maintenance.NONE);
+
+            verify(partitionRepository, never()).findPartitionMonths();
+            verifyNoInteractions(transactionManager);
+        }
+
+        @Test
+        @DisplayName("Crea solo las particiones faltantes del mes actual y los próximos meses")
+        void givenMissingFutureMonths_thenCreated() {
+            when(partitionRepository.isPartitioned()).thenReturn(true);
+            when(partitionRepository.findPartitionMonths()).thenReturn(List.of(current, current.plusMonths(1)));
+            when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+
+            Maintenance result = sut.maintain();
+
+            assertThat(result.created()).containsExactly(current.plusMonths(2), current.plusMonths(3));
+            assertThat(result.expired()).isEmpty();
+            verify(partitionRepository).createPartition(current.plusMonths(2));
+            verify(partitionRepository).createPartition(current.plusMonths(3));
+            verify(partitionRepository, never()).createPartition(current);
+        }
+
+        @Test
+        @DisplayName("Si otra instancia la creó entre la lectura y el lock, no la vuelve a crear")
+        void givenCreatedConcurrently_thenSkipped() {
+            when(partitionRepository.isPartitioned()).thenReturn(true);
+            when(partitionRepository.findPartitionMonths())
+                    .thenReturn(List.of(current, current.plusMonths(1), current.plusMonths(2)));
+            when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+            when(partitionRepository.partitionExists(current.plusMonths(3))).thenReturn(true);
+
+            sut.maintain();
+
+            verify(partitionRepository, never()).createPartition(any());
+        }
+
+        @Test
+        @DisplayName("Borra las particiones anteriores a la retención y conserva las demás")
+        void givenExpiredMonths_thenDropped() {
+            YearMonth oldestKept = current.minusMonths(12);
+            when(partitionRepository.isPartitioned()).thenReturn(true);
+            when(partitionRepository.findPartitionMonths()).thenReturn(List.of(
+                    oldestKept.minusMonths(2), oldestKept.minusMonths(1), oldestKept,
+                    current, current.plusMonths(1), current.plusMonths(2), current.plusMonths(3)));
+            when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+
+            Maintenance result = sut.maintain();
+
+            assertThat(result.expired()).containsExactly(oldestKept.minusMonths(2), oldestKept.minusMonths(1));
+            verify(partitionRepository).dropPartition(oldestKept.minusMonths(2));
+            verify(partitionRepository).dropPartition(oldestKept.minusMonths(1));
+            verify(partitionRepository, never()).dropPartition(oldestKept);
+            verify(partitionRepository, never()).archivePartition(any());
+        }
+
+        @Test
+        @DisplayName("Con expired-action=detach archiva en lugar de borrar")
+        void givenDetachAction_thenArchived() {
+            ReflectionTestUtils.setField(sut, "expiredAction", "detach");
+            YearMonth expired = current.minusMonths(13);
+            when(partitionRepository.isPartitioned()).thenReturn(true);
+            when(partitionRepository.findPartitionMonths()).thenReturn(List.of(
+                    expired, current, current.plusMonths(1), current.plusMonths(2), current.plusMonths(3)));
+            when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+
+            assertThat(sut.maintain().expired()).containsExactly(expired);
+
+            verify(partitionRepository).archivePartition(expired);
+            verify(partitionRepository, never()).dropPartition(any());
+        }
+
+        @Test
+        @DisplayName("Si otra instancia tiene el lock no ejecuta DDL")
+        void givenLockTaken_thenNothingDone() {
+            when(partitionRepository.isPartitioned()).thenReturn(true);
+            when(partitionRepository.findPartitionMonths()).thenReturn(List.of(current.minusMonths(20)));
+            when(partitionRepository.tryLockMaintenance()).thenReturn(false);
+
+            assertThat(sut.maintain()).isEqualTo(new Maintenance(List.of(), List.of()));
+
+            verify(partitionRepository, never()).createPartition(any());
+            verify(partitionRepository, never()).dropPartition(any());
+        }
+
+        @Test
+        @DisplayName("Un error en una partición no impide procesar las siguientes")
+        void givenOneFailure_thenOthersContinue() {
+            when(partitionRepository.isPartitioned()).thenReturn(true);
+            when(partitionRepository.findPartitionMonths())
+                    .thenReturn(List.of(current.plusMonths(1), current.plusMonths(2), current.plusMonths(3)));
+            when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+            doThrow(new RuntimeException("lock timeout")).when(partitionRepository).createPartition(current);
+
+            assertThat(sut.maintain().created()).isEmpty();
+
+            verify(partitionRepository).createPartition(current);
+            verify(transactionManager).rollback(any());
+        }
+    }
+
+    // ================================================================
+    // scheduledMaintenance() / init()
+    // ================================================================
+
+    @Test
+    @DisplayName("Deshabilitado: la tarea programada no consulta la BD")
+    void givenDisabled_thenScheduledMaintenanceSkipped() {
+        ReflectionTestUtils.setField(sut, "enabled", false);
+
+        sut.scheduledMaintenance();
+
+        verifyNoInteractions(partitionRepository);
+    }
+
+    @Test
+    @DisplayName("Una retención menor a un mes es un error de configuración")
+    void givenRetentionBelowOne_thenInitFails() {
+        ReflectionTestUtils.setField(sut, "retentionMonths", 0);
+
+        assertThatThrownBy(() -> sut.init()).isInstanceOf(IllegalStateException.class);
+    }
+}
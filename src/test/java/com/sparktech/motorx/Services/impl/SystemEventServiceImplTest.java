@@ -0,0 +1,351 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.entity.EventSeverity;
+import com.sparktech.motorx.entity.EventType;
+import com.sparktech.motorx.entity.SystemEventEntity;
+import com.sparktech.motorx.entity.UserEntity;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.repository.JpaSystemEventRepository;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SystemEventServiceImpl - Unit Tests")
+class SystemEventServiceImplTest {
+
+    @Mock private JpaSystemEventRepository systemEventRepository;
+    @Mock private JpaUserRepository userRepository;
+    // getTransaction devuelve null y commit/rollback no hacen nada: el callback se ejecuta directo
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SystemEventServiceImpl sut;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // Lotes recibidos por saveAll, en orden
+    private final List<List<SystemEventEntity>> savedBatches = Collections.synchronizedList(new ArrayList<>());
+
+    private void configure(boolean synchronous, int bufferSize, int batchSize, long flushIntervalMs) {
+        ReflectionTestUtils.setField(sut, "synchronous", synchronous);
+        ReflectionTestUtils.setField(sut, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(sut, "batchSize", batchSize);
+        ReflectionTestUtils.setField(sut, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(sut, "shutdownTimeoutMs", 5000L);
+        sut.start();
+        sut.bindTo(registry);
+    }
+
+    private void captureSaves() {
+        when(systemEventRepository.saveAll(any())).thenAnswer(inv -> {
+            List<SystemEventEntity> batch = new ArrayList<>();
+            inv.<Iterable<SystemEventEntity>>getArgument(0).forEach(batch::add);
+            savedBatches.add(batch);
+            return batch;
+        });
+    }
+
+    private double counter(String name) {
+        return registry.get(name).functionCounter().count();
+    }
+
+    private int totalSaved() {
+        synchronized (savedBatches) {
+            return savedBatches.stream().mapToInt(List::size).sum();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.shutdown();
+    }
+
+    // ================================================================
+    // MODO SÍNCRONO
+    // ================================================================
+
+    @Nested
+    @DisplayName("Modo síncrono")
+    class SynchronousMode {
+
+        @BeforeEach
+        void setUp() {
+            configure(true, 16, 50, 500);
+        }
+
+        @Test
+        @DisplayName("Escribe el evento en el hilo que llama, con severidad derivada del tipo y referencia al usuario")
+        void givenEvent_thenWrittenImmediately() {
+            captureSaves();
+            UserEntity user = new UserEntity();
+            user.setId(7L);
+            when(userRepository.getReferenceById(7L)).thenReturn(user);
+
+            sut.record(EventType.LOGIN_FAILED, 7L, "cuenta bloqueada");
+
+            assertThat(savedBatches).hasSize(1);
+            SystemEventEntity saved = savedBatches.getFirst().getFirst();
+            assertThat(saved.getEventType()).isEqualTo(EventType.LOGIN_FAILED);
+            assertThat(saved.getSeverity()).isEqualTo(EventSeverity.WARNING);
+            assertThat(saved.getUser()).isSameAs(user);
+            assertThat(saved.getMetadata()).isEqualTo("cuenta bloqueada");
+            assertThat(saved.getEventDate()).isNotNull();
+            assertThat(counter("system.events.written")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Sin usuario no consulta la referencia y la severidad es INFO")
+        void givenNoUser_thenNullUserAndInfo() {
+            captureSaves();
+
+            sut.record(EventType.USER_REGISTER_ATTEMPT, null, null);
+
+            SystemEventEntity saved = savedBatches.getFirst().getFirst();
+            assertThat(saved.getUser()).isNull();
+            assertThat(saved.getSeverity()).isEqualTo(EventSeverity.INFO);
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        @DisplayName("La metadata se recorta al largo de la columna")
+        void givenLongMetadata_thenTruncated() {
+            captureSaves();
+
+            sut.record(EventType.APPOINTMENT_CONFLICT, null, "x".repeat(800));
+
+            assertThat(savedBatches.getFirst().getFirst().getMetadata())
+                    .hasSize(SystemEventServiceImpl.MAX_METADATA_LENGTH);
+        }
+
+        @Test
+        @DisplayName("Un error de la BD no se propaga al que registra; se cuenta como fallido")
+        void givenRepositoryFails_thenCountedAndSwallowed() {
+            when(systemEventRepository.saveAll(any())).thenThrow(new RuntimeException("BD caída"));
+
+            assertThatCode(() -> sut.record(EventType.LOGIN_SUCCESS, null, null))
+                    .doesNotThrowAnyException();
+
+            assertThat(counter("system.events.failed")).isEqualTo(1);
+            assertThat(counter("system.events.written")).isZero();
+        }
+    }
+
+    // ================================================================
+    // ESCRITOR EN SEGUNDO PLANO
+    // ================================================================
+
+    @Nested
+    @DisplayName("Escritor en segundo plano")
+    class BackgroundWriter {
+
+        @Test
+        @DisplayName("Agrupa los eventos en lotes de batch-size y al apagar guarda lo pendiente")
+        void givenManyEvents_thenBatchedAndFlushedOnShutdown() {
+            configure(false, 1024, 50, 60_000);
+            captureSaves();
+
+            for (int i = 0; i < 120; i++) {
+                sut.record(EventType.APPOINTMENT_CREATED, null, "cita=" + i);
+            }
+            sut.shutdown();
+
+            assertThat(totalSaved()).isEqualTo(120);
+            assertThat(savedBatches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(50));
+            // Orden de llegada conservado
+            assertThat(savedBatches.getFirst().getFirst().getMetadata()).isEqualTo("cita=0");
+            assertThat(counter("system.events.recorded")).isEqualTo(120);
+            assertThat(counter("system.events.written")).isEqualTo(120);
+            assertThat(counter("system.events.dropped")).isZero();
+        }
+
+        @Test
+        @DisplayName("Con un lote completo despierta al escritor sin esperar el intervalo")
+        void givenFullBatch_thenWriterWakesUp() throws InterruptedException {
+            configure(false, 1024, 10, 60_000);
+            CountDownLatch written = new CountDownLatch(1);
+            when(systemEventRepository.saveAll(any())).thenAnswer(inv -> {
+                written.countDown();
+                return List.of();
+            });
+
+            for (int i = 0; i < 10; i++) {
+                sut.record(EventType.LOGIN_SUCCESS, null, null);
+            }
+
+            assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Si el buffer está lleno los eventos nuevos se descartan y se cuentan, sin bloquear")
+        void givenFullBuffer_thenDroppedAndCounted() throws InterruptedException {
+            configure(false, 4, 1, 10);
+            CountDownLatch writerBusy = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            when(systemEventRepository.saveAll(any())).thenAnswer(inv -> {
+                writerBusy.countDown();
+                release.await();
+                return List.of();
+            });
+
+            // El primero ocupa al escritor dentro de saveAll
+            sut.record(EventType.LOGIN_SUCCESS, null, null);
+            assertThat(writerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 4 caben en el buffer, 2 se descartan
+            for (int i = 0; i < 6; i++) {
+                sut.record(EventType.LOGIN_SUCCESS, null, null);
+            }
+            assertThat(counter("system.events.dropped")).isEqualTo(2);
+            assertThat(registry.get("system.events.pending").gauge().value()).isEqualTo(4);
+
+            release.countDown();
+            sut.shutdown();
+
+            assertThat(counter("system.events.written")).isEqualTo(5);
+            assertThat(counter("system.events.recorded")).isEqualTo(7);
+        }
+    }
+
+    // ================================================================
+    // EVENTOS DE CITAS
+    // ================================================================
+
+    @Nested
+    @DisplayName("onAppointmentChanged()")
+    class AppointmentEvents {
+
+        @BeforeEach
+        void setUp() {
+            configure(true, 16, 50, 500);
+        }
+
+        private AppointmentChangedEvent event(AppointmentChangeType changeType) {
+            return new AppointmentChangedEvent(changeType, 100L, AppointmentType.OIL_CHANGE,
+                    LocalDate.of(2099, 1, 9), LocalTime.of(7, 0), LocalTime.of(8, 0),
+                    null, AppointmentStatus.SCHEDULED, 1L, null, 20L);
+        }
+
+        @Test
+        @DisplayName("Creación y cancelación se registran con el propietario del vehículo")
+        void givenCreatedAndCancelled_thenRecorded() {
+            captureSaves();
+            UserEntity owner = new UserEntity();
+            owner.setId(20L);
+            when(userRepository.getReferenceById(20L)).thenReturn(owner);
+
+            sut.onAppointmentChanged(event(AppointmentChangeType.CREATED));
+            sut.onAppointmentChanged(event(AppointmentChangeType.CANCELLED));
+
+            assertThat(savedBatches.stream().map(batch -> batch.getFirst().getEventType()).toList())
+                    .containsExactly(EventType.APPOINTMENT_CREATED, EventType.APPOINTMENT_CANCELLED);
+            assertThat(savedBatches.getFirst().getFirst().getMetadata()).contains("cita=100");
+            assertThat(savedBatches.getFirst().getFirst().getUser()).isSameAs(owner);
+        }
+
+        @Test
+        @DisplayName("El cambio de técnico no genera evento")
+        void givenTechnicianChanged_thenIgnored() {
+            sut.onAppointmentChanged(event(AppointmentChangeType.TECHNICIAN_CHANGED));
+
+            verifyNoInteractions(systemEventRepository);
+        }
+    }
+
+    // ================================================================
+    // BUFFER CIRCULAR
+    // ================================================================
+
+    @Nested
+    @DisplayName("EventRing")
+    class EventRingTests {
+
+        @Test
+        @DisplayName("La capacidad se redondea a la siguiente potencia de dos")
+        void givenCapacity_thenRoundedToPowerOfTwo() {
+            assertThat(new SystemEventServiceImpl.EventRing<Integer>(4096).capacity()).isEqualTo(4096);
+            assertThat(new SystemEventServiceImpl.EventRing<Integer>(5).capacity()).isEqualTo(8);
+            assertThat(new SystemEventServiceImpl.EventRing<Integer>(1).capacity()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Entrega en orden, rechaza al llenarse y reutiliza las casillas en la siguiente vuelta")
+        void givenOffersAndPolls_thenFifoAndBounded() {
+            SystemEventServiceImpl.EventRing<Integer> ring = new SystemEventServiceImpl.EventRing<>(4);
+
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < 4; i++) {
+                    assertThat(ring.offer(round * 10 + i)).isTrue();
+                }
+                assertThat(ring.offer(99)).isFalse();
+                assertThat(ring.size()).isEqualTo(4);
+                for (int i = 0; i < 4; i++) {
+                    assertThat(ring.poll()).isEqualTo(round * 10 + i);
+                }
+                assertThat(ring.poll()).isNull();
+            }
+        }
+
+        @Test
+        @DisplayName("Con varios productores concurrentes cada elemento se entrega exactamente una vez")
+        void givenConcurrentProducers_thenEachElementOnce() throws InterruptedException {
+            SystemEventServiceImpl.EventRing<Integer> ring = new SystemEventServiceImpl.EventRing<>(64);
+            int producers = 8;
+            int perProducer = 5_000;
+            Set<Integer> received = ConcurrentHashMap.newKeySet();
+
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!ring.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                });
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+                Integer value = ring.poll();
+                if (value != null) {
+                    assertThat(received.add(value)).isTrue();
+                }
+            }
+            executor.shutdown();
+
+            assertThat(received).hasSize(producers * perProducer);
+            assertThat(ring.poll()).isNull();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.event.UserSecurityChangedEvent;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.repository.projection.UserSecurityState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSecurityVersionServiceImpl - Unit Tests")
+class UserSecurityVersionServiceImplTest {
+
+    @Mock private JpaUserRepository userRepository;
+
+    @InjectMocks
+    private UserSecurityVersionServiceImpl sut;
+
+    private static UserSecurityState active(Long id, int version) {
+        return new UserSecurityState(id, version, true, false);
+    }
+
+    private static UserSecurityState locked(Long id, int version) {
+        return new UserSecurityState(id, version, true, true);
+    }
+
+    // ================================================================
+    // isCurrent()
+    // ================================================================
+
+    @Nested
+    @DisplayName("isCurrent()")
+    class IsCurrentTests {
+
+        @Test
+        @DisplayName("Usuario sin cambios: vale la versión 0 y ninguna otra")
+        void givenUnknownUser_thenOnlyVersionZero() {
+            when(userRepository.findSecurityStates()).thenReturn(List.of());
+
+            assertThat(sut.isCurrent(1L, 0)).isTrue();
+            assertThat(sut.isCurrent(1L, 1)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Versión incrementada: el token con la anterior deja de valer")
+        void givenIncrementedVersion_thenOldTokenRejected() {
+            when(userRepository.findSecurityStates()).thenReturn(List.of(active(1L, 2)));
+
+            assertThat(sut.isCurrent(1L, 1)).isFalse();
+            assertThat(sut.isCurrent(1L, 2)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Cuenta bloqueada, deshabilitada o eliminada: ningún token vale")
+        void givenRevokedUser_thenRejected() {
+            when(userRepository.findSecurityStates()).thenReturn(List.of(
+                    locked(1L, 0),
+                    new UserSecurityState(2L, 0, false, false)));
+
+            assertThat(sut.isCurrent(1L, 0)).isFalse();
+            assertThat(sut.isCurrent(2L, 0)).isFalse();
+        }
+
+        @Test
+        @DisplayName("La tabla se carga una sola vez, en la primera consulta")
+        void givenManyChecks_thenLoadedOnce() {
+            when(userRepository.findSecurityStates()).thenReturn(List.of());
+
+            for (int i = 0; i < 10; i++) {
+                sut.isCurrent((long) i, 0);
+            }
+
+            verify(userRepository, times(1)).findSecurityStates();
+            verifyNoMoreInteractions(userRepository);
+        }
+    }
+
+    // ================================================================
+    // Actualización tras los cambios
+    // ================================================================
+
+    @Nested
+    @DisplayName("Actualización")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("El evento de un usuario relee solo su estado")
+        void givenUserEvent_thenRefreshOnlyThatUser() {
+            when(userRepository.findSecurityStates()).thenReturn(List.of());
+            when(userRepository.findSecurityStateById(1L)).thenReturn(Optional.of(locked(1L, 1)));
+            sut.refreshAll();
+
+            sut.onUserSecurityChanged(new UserSecurityChangedEvent(1L));
+
+            assertThat(sut.isCurrent(1L, 0)).isFalse();
+            assertThat(sut.isCurrent(1L, 1)).isFalse();
+            verify(userRepository, times(1)).findSecurityStates();
+        }
+
+        @Test
+        @DisplayName("El evento sin usuario (bloqueo masivo) recarga la tabla completa")
+        void givenBulkEvent_thenRefreshAll() {
+            when(userRepository.findSecurityStates()).thenReturn(List.of(), List.of(locked(5L, 1)));
+            sut.refreshAll();
+
+            sut.onUserSecurityChanged(new UserSecurityChangedEvent(null));
+
+            assertThat(sut.isCurrent(5L, 0)).isFalse();
+            verify(userRepository, never()).findSecurityStateById(any());
+        }
+
+        @Test
+        @DisplayName("Una lectura vieja nunca pisa un estado más nuevo")
+        void givenStaleRead_thenNewerStateKept() {
+            // Bloqueado (versión 1) y desbloqueado (versión 2); la recarga trae aún la versión 1
+            when(userRepository.findSecurityStateById(1L)).thenReturn(Optional.of(active(1L, 2)));
+            when(userRepository.findSecurityStates()).thenReturn(List.of(locked(1L, 1)));
+            sut.refresh(1L);
+
+            sut.refreshAll();
+
+            assertThat(sut.isCurrent(1L, 2)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Un error al releer no propaga: lo recoge la recarga periódica")
+        void givenRefreshFails_thenNoException() {
+            when(userRepository.findSecurityStateById(1L)).thenThrow(new RuntimeException("db down"));
+
+            assertThatCode(() -> sut.onUserSecurityChanged(new UserSecurityChangedEvent(1L)))
+                    .doesNotThrowAnyException();
+        }
+    }
+}
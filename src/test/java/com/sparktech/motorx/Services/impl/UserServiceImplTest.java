@@ -1,11 +1,17 @@
 package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.IAppointmentService;
+import com.sparktech.motorx.Services.IAppointmentVersionService;
 import com.sparktech.motorx.Services.ICurrentUserService;
+import com.sparktech.motorx.Services.IWaitlistService;
 import com.sparktech.motorx.dto.appointment.*;
 import com.sparktech.motorx.dto.auth.RegisterUserDTO;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.user.UpdateUserRequestDTO;
 import com.sparktech.motorx.entity.*;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
 import com.sparktech.motorx.exception.AppointmentException;
 import com.sparktech.motorx.exception.AppointmentNotFoundException;
 import com.sparktech.motorx.mapper.AppointmentMapper;
@@ -21,6 +27,7 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
@@ -42,9 +49,12 @@ class UserServiceImplTest {
     @Mock private JpaVehicleRepository vehicleRepository;
     @Mock private JpaAppointmentRepository appointmentRepository;
     @Mock private IAppointmentService appointmentService;
+    @Mock private IWaitlistService waitlistService;
     @Mock private AppointmentMapper appointmentMapper;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private ICurrentUserService currentUserService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private IAppointmentVersionService appointmentVersions;
 
     @InjectMocks
     private UserServiceImpl sut;
@@ -175,6 +185,7 @@ class UserServiceImplTest {
             verify(jpaUserRepository).save(userCaptor.capture());
             assertThat(userCaptor.getValue().getName()).isEqualTo("Nuevo Nombre");
             assertThat(userCaptor.getValue().getPhone()).isEqualTo("3119998877");
+            verify(eventPublisher).publishEvent(new ClientDataChangedEvent(1L));
         }
 
         @Test
@@ -222,6 +233,23 @@ class UserServiceImplTest {
             verify(appointmentService, times(1))
                     .getAvailableSlots(date, AppointmentType.OIL_CHANGE);
         }
+
+        @Test
+        @DisplayName("La consulta por rango delega correctamente a appointmentService")
+        void givenRange_thenDelegateToAppointmentService() {
+            // Arrange
+            LocalDate start = LocalDate.of(2099, 1, 5);
+            LocalDate end = LocalDate.of(2099, 1, 16);
+            MultiDayAvailabilityResponseDTO expected = mock(MultiDayAvailabilityResponseDTO.class);
+            when(appointmentService.getAvailableSlotsBetween(start, end, null)).thenReturn(expected);
+
+            // Act
+            MultiDayAvailabilityResponseDTO result = sut.getAvailableSlotsBetween(start, end, null);
+
+            // Assert
+            assertThat(result).isEqualTo(expected);
+            verify(appointmentService, times(1)).getAvailableSlotsBetween(start, end, null);
+        }
     }
 
     // ================================================================
@@ -240,7 +268,7 @@ class UserServiceImplTest {
             // Arrange
             UserEntity user = buildUser(1L);
             VehicleEntity vehicle = buildVehicle(10L, "ABC32X", user);
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
             when(appointmentService.hasLicensePlateRestriction("ABC32X", date))
                     .thenReturn(false);
@@ -263,7 +291,7 @@ class UserServiceImplTest {
             // Arrange
             UserEntity user = buildUser(1L);
             VehicleEntity vehicle = buildVehicle(10L, "ABC51X", user);
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
             when(appointmentService.hasLicensePlateRestriction("ABC51X", date))
                     .thenReturn(true);
@@ -283,7 +311,7 @@ class UserServiceImplTest {
         @DisplayName("Lanza AppointmentException si el vehículo no existe")
         void givenNonExistentVehicle_thenThrow() {
             // Arrange
-            when(currentUserService.getAuthenticatedUser()).thenReturn(buildUser(1L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
             when(vehicleRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act + Assert
@@ -300,7 +328,7 @@ class UserServiceImplTest {
             UserEntity otherUser   = buildUser(2L);
             VehicleEntity vehicle  = buildVehicle(10L, "ABC33X", otherUser);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(currentUser);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(currentUser.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
 
             // Act + Assert
@@ -346,7 +374,7 @@ class UserServiceImplTest {
             CreateAppointmentRequestDTO request = mock(CreateAppointmentRequestDTO.class);
             AppointmentResponseDTO expected = mock(AppointmentResponseDTO.class);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(appointmentService.createAppointment(request, 1L)).thenReturn(expected);
 
             // Act
@@ -356,6 +384,68 @@ class UserServiceImplTest {
             assertThat(result).isEqualTo(expected);
             verify(appointmentService, times(1)).createAppointment(request, 1L);
         }
+
+        @Test
+        @DisplayName("Lote: delega la lista de citas con el ID del usuario autenticado")
+        void givenBulkRequest_thenDelegateWithCurrentUserId() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            List<CreateAppointmentRequestDTO> items = List.of(mock(CreateAppointmentRequestDTO.class));
+            BulkAppointmentResponseDTO expected = new BulkAppointmentResponseDTO(1, 1, 0, List.of());
+
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(appointmentService.createAppointmentsBulk(items, 1L)).thenReturn(expected);
+
+            // Act
+            BulkAppointmentResponseDTO result = sut.scheduleAppointmentsBulk(new BulkCreateAppointmentRequestDTO(items));
+
+            // Assert
+            assertThat(result).isSameAs(expected);
+            verify(appointmentService, times(1)).createAppointmentsBulk(items, 1L);
+        }
+    }
+
+    // ================================================================
+    // Lista de espera
+    // ================================================================
+
+    @Nested
+    @DisplayName("Lista de espera")
+    class WaitlistTests {
+
+        @Test
+        @DisplayName("Anotarse: delega con el ID del usuario autenticado")
+        void givenJoinRequest_thenDelegateWithCurrentUserId() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            CreateAppointmentRequestDTO request = mock(CreateAppointmentRequestDTO.class);
+            WaitlistEntryResponseDTO expected = mock(WaitlistEntryResponseDTO.class);
+
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(waitlistService.joinWaitlist(request, 1L)).thenReturn(expected);
+
+            // Act
+            WaitlistEntryResponseDTO result = sut.joinWaitlist(request);
+
+            // Assert
+            assertThat(result).isSameAs(expected);
+        }
+
+        @Test
+        @DisplayName("Salir: delega con el ID de la solicitud y del usuario autenticado")
+        void givenLeaveRequest_thenDelegateWithCurrentUserId() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            WaitlistEntryResponseDTO expected = mock(WaitlistEntryResponseDTO.class);
+
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(waitlistService.leaveWaitlist(7L, 1L)).thenReturn(expected);
+
+            // Act + Assert
+            assertThat(sut.leaveWaitlist(7L)).isSameAs(expected);
+            assertThat(sut.getMyWaitlistEntries()).isEmpty();
+            verify(waitlistService).getWaitlistEntriesByClient(1L);
+        }
     }
 
     // ================================================================
@@ -374,7 +464,7 @@ class UserServiceImplTest {
             AppointmentEntity appointment = buildAppointment(10L, user, AppointmentStatus.SCHEDULED);
             AppointmentResponseDTO expected = mock(AppointmentResponseDTO.class);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
             when(appointmentRepository.save(any())).thenReturn(appointment);
             when(appointmentMapper.toResponseDTO(appointment)).thenReturn(expected);
@@ -389,13 +479,18 @@ class UserServiceImplTest {
                     .isEqualTo(AppointmentStatus.CANCELLED);
             assertThat(appointmentCaptor.getValue().getCancellationReason())
                     .contains("cliente");
+            verify(eventPublisher).publishEvent(argThat((Object e) ->
+                    e instanceof AppointmentChangedEvent event &&
+                            event.changeType() == AppointmentChangeType.CANCELLED &&
+                            event.previousStatus() == AppointmentStatus.SCHEDULED
+            ));
         }
 
         @Test
         @DisplayName("Lanza AppointmentNotFoundException si la cita no existe")
         void givenNonExistentAppointment_thenThrow() {
             // Arrange
-            when(currentUserService.getAuthenticatedUser()).thenReturn(buildUser(1L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
             when(appointmentRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act + Assert
@@ -414,7 +509,7 @@ class UserServiceImplTest {
             AppointmentEntity appointment =
                     buildAppointment(10L, otherUser, AppointmentStatus.SCHEDULED);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(currentUser);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(currentUser.getId());
             when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
 
             // Act + Assert
@@ -433,7 +528,7 @@ class UserServiceImplTest {
             AppointmentEntity appointment =
                     buildAppointment(10L, user, AppointmentStatus.CANCELLED);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
 
             // Act + Assert
@@ -452,7 +547,7 @@ class UserServiceImplTest {
             AppointmentEntity appointment =
                     buildAppointment(10L, user, AppointmentStatus.IN_PROGRESS);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
 
             // Act + Assert
@@ -471,7 +566,7 @@ class UserServiceImplTest {
             AppointmentEntity appointment =
                     buildAppointment(10L, user, AppointmentStatus.COMPLETED);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
 
             // Act + Assert
@@ -492,26 +587,23 @@ class UserServiceImplTest {
     class AppointmentHistoryTests {
 
         @Test
-        @DisplayName("Retorna lista mapeada del usuario autenticado")
-        void givenAuthenticatedUser_thenReturnMappedHistory() {
+        @DisplayName("Retorna las filas proyectadas del usuario autenticado sin pasar por el mapper")
+        void givenAuthenticatedUser_thenReturnProjectedHistory() {
             // Arrange
             UserEntity user = buildUser(1L);
-            AppointmentEntity a1 = buildAppointment(1L, user, AppointmentStatus.COMPLETED);
-            AppointmentEntity a2 = buildAppointment(2L, user, AppointmentStatus.CANCELLED);
             AppointmentResponseDTO dto1 = mock(AppointmentResponseDTO.class);
             AppointmentResponseDTO dto2 = mock(AppointmentResponseDTO.class);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
-            when(appointmentRepository.findByClientIdOrderByDateDesc(1L))
-                    .thenReturn(List.of(a1, a2));
-            when(appointmentMapper.toResponseDTO(a1)).thenReturn(dto1);
-            when(appointmentMapper.toResponseDTO(a2)).thenReturn(dto2);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(appointmentRepository.findResponsesByClientId(1L))
+                    .thenReturn(List.of(dto1, dto2));
 
             // Act
             List<AppointmentResponseDTO> result = sut.getMyAppointmentHistory();
 
             // Assert
             assertThat(result).containsExactly(dto1, dto2);
+            verify(appointmentMapper, never()).toResponseDTO(any());
         }
 
         @Test
@@ -519,13 +611,26 @@ class UserServiceImplTest {
         void givenNoAppointments_thenReturnEmptyList() {
             // Arrange
             UserEntity user = buildUser(1L);
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
-            when(appointmentRepository.findByClientIdOrderByDateDesc(1L))
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(appointmentRepository.findResponsesByClientId(1L))
                     .thenReturn(List.of());
 
             // Act + Assert
             assertThat(sut.getMyAppointmentHistory()).isEmpty();
         }
+
+        @Test
+        @DisplayName("El ETag del historial se calcula sin consultar las citas")
+        void givenAuthenticatedUser_thenETagDoesNotQueryAppointments() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(appointmentVersions.clientHistoryETag(1L)).thenReturn("\"history\"");
+
+            // Act + Assert
+            assertThat(sut.getMyAppointmentHistoryETag()).isEqualTo("\"history\"");
+            verifyNoInteractions(appointmentRepository, appointmentMapper);
+        }
     }
 
     // ================================================================
@@ -542,14 +647,12 @@ class UserServiceImplTest {
             // Arrange
             UserEntity user = buildUser(1L);
             VehicleEntity vehicle = buildVehicle(10L, "ABC33X", user);
-            AppointmentEntity a = buildAppointment(1L, user, AppointmentStatus.SCHEDULED);
             AppointmentResponseDTO dto = mock(AppointmentResponseDTO.class);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
-            when(appointmentRepository.findByVehicleIdOrderByAppointmentDateDesc(10L))
-                    .thenReturn(List.of(a));
-            when(appointmentMapper.toResponseDTO(a)).thenReturn(dto);
+            when(appointmentRepository.findResponsesByVehicleId(10L))
+                    .thenReturn(List.of(dto));
 
             // Act
             List<AppointmentResponseDTO> result = sut.getMyVehicleAppointments(10L);
@@ -562,7 +665,7 @@ class UserServiceImplTest {
         @DisplayName("Lanza AppointmentException si el vehículo no existe")
         void givenNonExistentVehicle_thenThrow() {
             // Arrange
-            when(currentUserService.getAuthenticatedUser()).thenReturn(buildUser(1L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
             when(vehicleRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act + Assert
@@ -579,7 +682,7 @@ class UserServiceImplTest {
             UserEntity otherUser   = buildUser(2L);
             VehicleEntity vehicle  = buildVehicle(10L, "ABC33X", otherUser);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(currentUser);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(currentUser.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
 
             // Act + Assert
@@ -589,6 +692,61 @@ class UserServiceImplTest {
         }
     }
 
+    // ================================================================
+    // getMyAppointmentHistoryPage() / getMyVehicleAppointmentsPage()
+    // ================================================================
+
+    @Nested
+    @DisplayName("Historial paginado por cursor")
+    class AppointmentHistoryPageTests {
+
+        @Test
+        @DisplayName("El historial paginado se pide con el id del usuario autenticado")
+        void givenAuthenticatedUser_thenDelegateWithOwnId() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            CursorPageResponseDTO<AppointmentResponseDTO> page =
+                    new CursorPageResponseDTO<>(List.of(mock(AppointmentResponseDTO.class)), "next", true);
+
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(appointmentService.getAppointmentsByClientPage(1L, "cur", 10)).thenReturn(page);
+
+            // Act + Assert
+            assertThat(sut.getMyAppointmentHistoryPage("cur", 10)).isSameAs(page);
+        }
+
+        @Test
+        @DisplayName("Vehículo propio: devuelve la página del historial del vehículo")
+        void givenOwnVehicle_thenDelegate() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            VehicleEntity vehicle = buildVehicle(10L, "ABC33X", user);
+            CursorPageResponseDTO<AppointmentResponseDTO> page = new CursorPageResponseDTO<>(List.of(), null, false);
+
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
+            when(appointmentService.getAppointmentsByVehiclePage(10L, null, 20)).thenReturn(page);
+
+            // Act + Assert
+            assertThat(sut.getMyVehicleAppointmentsPage(10L, null, 20)).isSameAs(page);
+        }
+
+        @Test
+        @DisplayName("Vehículo ajeno: lanza AppointmentException sin consultar el historial")
+        void givenVehicleOfAnotherUser_thenThrow() {
+            // Arrange
+            VehicleEntity vehicle = buildVehicle(10L, "ABC33X", buildUser(2L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
+            when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.getMyVehicleAppointmentsPage(10L, null, 20))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("no pertenece");
+            verify(appointmentService, never()).getAppointmentsByVehiclePage(any(), any(), anyInt());
+        }
+    }
+
     // ================================================================
     // getMyAppointmentById()
     // ================================================================
@@ -606,7 +764,7 @@ class UserServiceImplTest {
                     buildAppointment(10L, user, AppointmentStatus.SCHEDULED);
             AppointmentResponseDTO expected = mock(AppointmentResponseDTO.class);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
             when(appointmentMapper.toResponseDTO(appointment)).thenReturn(expected);
 
@@ -621,7 +779,7 @@ class UserServiceImplTest {
         @DisplayName("Lanza AppointmentNotFoundException si la cita no existe")
         void givenNonExistentAppointment_thenThrow() {
             // Arrange
-            when(currentUserService.getAuthenticatedUser()).thenReturn(buildUser(1L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
             when(appointmentRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act + Assert
@@ -638,7 +796,7 @@ class UserServiceImplTest {
             AppointmentEntity appointment =
                     buildAppointment(10L, otherUser, AppointmentStatus.SCHEDULED);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(currentUser);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(currentUser.getId());
             when(appointmentRepository.findById(10L)).thenReturn(Optional.of(appointment));
 
             // Act + Assert
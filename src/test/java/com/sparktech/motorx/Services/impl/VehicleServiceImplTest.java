@@ -1,16 +1,20 @@
 package com.sparktech.motorx.Services.impl;
 
 import com.sparktech.motorx.Services.ICurrentUserService;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.CreateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.UpdateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 import com.sparktech.motorx.entity.UserEntity;
 import com.sparktech.motorx.entity.VehicleEntity;
+import com.sparktech.motorx.event.ClientDataChangedEvent;
 import com.sparktech.motorx.exception.VehicleAlreadyOwnedException;
 import com.sparktech.motorx.exception.VehicleDoesntBelongToUserException;
 import com.sparktech.motorx.exception.VehicleNotFoundException;
+import com.sparktech.motorx.mapper.CursorPageMapper;
 import com.sparktech.motorx.mapper.VehicleMapper;
 import com.sparktech.motorx.repository.JpaVehicleRepository;
+import com.sparktech.motorx.repository.projection.CreatedAtKeyset;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -19,13 +23,17 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +46,8 @@ class VehicleServiceImplTest {
     @Mock private JpaVehicleRepository vehicleRepository;
     @Mock private VehicleMapper vehicleMapper;
     @Mock private ICurrentUserService currentUserService;
+    @Spy private CursorPageMapper cursorPageMapper = new CursorPageMapper();
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private VehicleServiceImpl sut;
@@ -225,7 +235,7 @@ class VehicleServiceImplTest {
             VehicleResponseDTO dto1 = mock(VehicleResponseDTO.class);
             VehicleResponseDTO dto2 = mock(VehicleResponseDTO.class);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findByOwnerIdOrderByCreatedAtDesc(1L))
                     .thenReturn(List.of(v1, v2));
             when(vehicleMapper.toResponseDTO(v1)).thenReturn(dto1);
@@ -243,7 +253,7 @@ class VehicleServiceImplTest {
         void givenNoVehicles_thenReturnEmptyList() {
             // Arrange
             UserEntity user = buildUser(1L);
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findByOwnerIdOrderByCreatedAtDesc(1L))
                     .thenReturn(List.of());
 
@@ -252,6 +262,81 @@ class VehicleServiceImplTest {
         }
     }
 
+    // ================================================================
+    // getMyVehiclesPage()
+    // ================================================================
+
+    @Nested
+    @DisplayName("getMyVehiclesPage()")
+    class GetMyVehiclesPageTests {
+
+        private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 1, 8, 0);
+
+        private VehicleEntity buildVehicleCreatedAt(Long id, LocalDateTime createdAt, UserEntity owner) {
+            VehicleEntity v = buildVehicle(id, "PLT" + id + "X", owner);
+            v.setCreatedAt(createdAt);
+            return v;
+        }
+
+        @Test
+        @DisplayName("Sin cursor: primera página del usuario autenticado, con cursor si hay más")
+        void givenNoCursorAndExtraRow_thenReturnFirstPageWithCursor() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            VehicleEntity v1 = buildVehicleCreatedAt(3L, CREATED, user);
+            VehicleEntity v2 = buildVehicleCreatedAt(2L, CREATED.minusDays(1), user);
+            VehicleResponseDTO dto1 = mock(VehicleResponseDTO.class);
+
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(vehicleRepository.findPageByOwnerId(eq(1L), any())).thenReturn(List.of(v1, v2));
+            when(vehicleMapper.toResponseDTO(v1)).thenReturn(dto1);
+
+            // Act
+            CursorPageResponseDTO<VehicleResponseDTO> page = sut.getMyVehiclesPage(null, 1);
+
+            // Assert
+            assertThat(page.items()).containsExactly(dto1);
+            assertThat(page.hasMore()).isTrue();
+            CreatedAtKeyset keyset = cursorPageMapper.decodeCreatedAtCursor(page.nextCursor());
+            assertThat(keyset.createdAt()).isEqualTo(CREATED);
+            assertThat(keyset.id()).isEqualTo(3L);
+            verify(vehicleMapper, never()).toResponseDTO(v2);
+        }
+
+        @Test
+        @DisplayName("Con cursor: continúa después de la posición, sin salirse del dueño")
+        void givenCursor_thenQueryAfterPositionForOwner() {
+            // Arrange
+            UserEntity user = buildUser(1L);
+            String cursor = cursorPageMapper.encodeCreatedAtCursor(CREATED, 3L);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
+            when(vehicleRepository.findPageByOwnerIdAfter(eq(1L), eq(CREATED), eq(3L), any()))
+                    .thenReturn(List.of());
+
+            // Act
+            CursorPageResponseDTO<VehicleResponseDTO> page = sut.getMyVehiclesPage(cursor, 20);
+
+            // Assert
+            assertThat(page.items()).isEmpty();
+            assertThat(page.hasMore()).isFalse();
+            assertThat(page.nextCursor()).isNull();
+            verify(vehicleRepository, never()).findPageByOwnerId(any(), any());
+        }
+
+        @Test
+        @DisplayName("Cursor inválido: lanza IllegalArgumentException")
+        void givenInvalidCursor_thenThrow() {
+            // Arrange
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.getMyVehiclesPage("%%%", 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("cursor");
+            verifyNoInteractions(vehicleRepository);
+        }
+    }
+
     // ================================================================
     // getMyVehicleById()
     // ================================================================
@@ -268,7 +353,7 @@ class VehicleServiceImplTest {
             VehicleEntity vehicle = buildVehicle(10L, "ABC123", user);
             VehicleResponseDTO expected = mock(VehicleResponseDTO.class);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
             when(vehicleMapper.toResponseDTO(vehicle)).thenReturn(expected);
 
@@ -283,7 +368,7 @@ class VehicleServiceImplTest {
         @DisplayName("Lanza VehicleNotFoundException si el vehículo no existe")
         void givenNonExistentVehicle_thenThrow() {
             // Arrange
-            when(currentUserService.getAuthenticatedUser()).thenReturn(buildUser(1L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
             when(vehicleRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act + Assert
@@ -299,7 +384,7 @@ class VehicleServiceImplTest {
             UserEntity otherUser   = buildUser(2L);
             VehicleEntity vehicle  = buildVehicle(10L, "ABC123", otherUser);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(currentUser);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(currentUser.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
 
             // Act + Assert
@@ -330,7 +415,7 @@ class VehicleServiceImplTest {
             String originalPlate   = vehicle.getLicensePlate();
             String originalChassis = vehicle.getChassisNumber();
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
             when(vehicleRepository.save(any())).thenReturn(vehicle);
             when(vehicleMapper.toResponseDTO(vehicle)).thenReturn(mock(VehicleResponseDTO.class));
@@ -344,6 +429,7 @@ class VehicleServiceImplTest {
             assertThat(persisted.getBrand()).isEqualTo("YAMAHA");
             assertThat(persisted.getModel()).isEqualTo("FZ 25");
             assertThat(persisted.getCylinderCapacity()).isEqualTo(250);
+            verify(eventPublisher).publishEvent(new ClientDataChangedEvent(1L));
 
             // Assert — campos inmutables sin cambiar
             assertThat(persisted.getLicensePlate()).isEqualTo(originalPlate);
@@ -359,7 +445,7 @@ class VehicleServiceImplTest {
             UpdateVehicleRequestDTO request =
                     new UpdateVehicleRequestDTO("  YAMAHA  ", "  FZ 25  ", 250);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
             when(vehicleRepository.save(any())).thenReturn(vehicle);
             when(vehicleMapper.toResponseDTO(any())).thenReturn(mock(VehicleResponseDTO.class));
@@ -377,7 +463,7 @@ class VehicleServiceImplTest {
         @DisplayName("Lanza VehicleNotFoundException si el vehículo no existe")
         void givenNonExistentVehicle_thenThrow() {
             // Arrange
-            when(currentUserService.getAuthenticatedUser()).thenReturn(buildUser(1L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
             when(vehicleRepository.findById(99L)).thenReturn(Optional.empty());
             UpdateVehicleRequestDTO updateVehicleRequestDTO = buildUpdateRequest();
             // Act + Assert
@@ -395,7 +481,7 @@ class VehicleServiceImplTest {
             UserEntity otherUser   = buildUser(2L);
             VehicleEntity vehicle  = buildVehicle(10L, "ABC123", otherUser);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(currentUser);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(currentUser.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
 
             UpdateVehicleRequestDTO updateVehicleRequestDTO = buildUpdateRequest();
@@ -422,7 +508,7 @@ class VehicleServiceImplTest {
             UserEntity user = buildUser(1L);
             VehicleEntity vehicle = buildVehicle(10L, "ABC123", user);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(user);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(user.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
 
             // Act
@@ -431,13 +517,14 @@ class VehicleServiceImplTest {
 
             // Assert
             verify(vehicleRepository, times(1)).delete(vehicle);
+            verify(eventPublisher).publishEvent(new ClientDataChangedEvent(1L));
         }
 
         @Test
         @DisplayName("Lanza VehicleNotFoundException si el vehículo no existe")
         void givenNonExistentVehicle_thenThrow() {
             // Arrange
-            when(currentUserService.getAuthenticatedUser()).thenReturn(buildUser(1L));
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(1L);
             when(vehicleRepository.findById(99L)).thenReturn(Optional.empty());
 
             // Act + Assert
@@ -455,7 +542,7 @@ class VehicleServiceImplTest {
             UserEntity otherUser   = buildUser(2L);
             VehicleEntity vehicle  = buildVehicle(10L, "ABC123", otherUser);
 
-            when(currentUserService.getAuthenticatedUser()).thenReturn(currentUser);
+            when(currentUserService.getAuthenticatedUserId()).thenReturn(currentUser.getId());
             when(vehicleRepository.findById(10L)).thenReturn(Optional.of(vehicle));
 
             // Act + Assert
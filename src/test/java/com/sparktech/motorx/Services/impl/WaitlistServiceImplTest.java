@@ -0,0 +1,428 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.Services.IAppointmentService;
+import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
+import com.sparktech.motorx.dto.appointment.AvailableSlotsResponseDTO;
+import com.sparktech.motorx.dto.appointment.CreateAppointmentRequestDTO;
+import com.sparktech.motorx.dto.appointment.WaitlistEntryResponseDTO;
+import com.sparktech.motorx.entity.*;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.exception.AppointmentException;
+import com.sparktech.motorx.exception.AppointmentForbiddenException;
+import com.sparktech.motorx.exception.NoAvailableTechnicianException;
+import com.sparktech.motorx.exception.VehicleHasActiveAppointmentException;
+import com.sparktech.motorx.mapper.WaitlistMapper;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaUserRepository;
+import com.sparktech.motorx.repository.JpaVehicleRepository;
+import com.sparktech.motorx.repository.JpaWaitlistRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WaitlistServiceImpl - Unit Tests")
+class WaitlistServiceImplTest {
+
+    // ================================================================
+    // MOCKS
+    // ================================================================
+    @Mock private JpaWaitlistRepository waitlistRepository;
+    @Mock private JpaVehicleRepository vehicleRepository;
+    @Mock private JpaUserRepository userRepository;
+    @Mock private IAppointmentService appointmentService;
+    @Mock private WaitlistMapper waitlistMapper;
+    @Mock private JpaAppointmentRepository appointmentRepository;
+
+    @InjectMocks
+    private WaitlistServiceImpl sut;
+
+    private static final Long CLIENT_ID = 1L;
+    private static final Long VEHICLE_ID = 5L;
+    private static final LocalDate DATE = LocalDate.of(2099, 1, 9);
+    private static final LocalTime SLOT = LocalTime.of(8, 0);
+
+    // ================================================================
+    // HELPERS
+    // ================================================================
+
+    private CreateAppointmentRequestDTO buildRequest() {
+        return new CreateAppointmentRequestDTO(
+                VEHICLE_ID, AppointmentType.OIL_CHANGE, DATE, SLOT, 15000, Set.of("Ruido en el motor"));
+    }
+
+    private WaitlistEntryEntity buildEntry(Long id, Long clientId) {
+        UserEntity client = new UserEntity();
+        client.setId(clientId);
+        VehicleEntity vehicle = new VehicleEntity();
+        vehicle.setId(VEHICLE_ID + id);
+        return WaitlistEntryEntity.builder()
+                .id(id)
+                .client(client)
+                .vehicle(vehicle)
+                .appointmentType(AppointmentType.OIL_CHANGE)
+                .appointmentDate(DATE)
+                .startTime(SLOT)
+                .currentMileage(15000)
+                .status(WaitlistStatus.WAITING)
+                .build();
+    }
+
+    private AppointmentResponseDTO appointmentWithId(Long id) {
+        AppointmentResponseDTO appointment = mock(AppointmentResponseDTO.class);
+        when(appointment.id()).thenReturn(id);
+        return appointment;
+    }
+
+    private AppointmentChangedEvent cancelled(LocalDate date, AppointmentStatus previousStatus) {
+        return new AppointmentChangedEvent(
+                AppointmentChangeType.CANCELLED, 10L, AppointmentType.OIL_CHANGE, date, SLOT, SLOT.plusMinutes(30),
+                previousStatus, AppointmentStatus.CANCELLED, 3L, null, CLIENT_ID
+        );
+    }
+
+    // ================================================================
+    // joinWaitlist()
+    // ================================================================
+
+    @Nested
+    @DisplayName("joinWaitlist()")
+    class JoinWaitlistTests {
+
+        @Test
+        @DisplayName("Slot lleno: guarda la solicitud en WAITING con los datos de la cita")
+        void givenFullSlot_thenSaveWaitingEntry() {
+            // Arrange
+            CreateAppointmentRequestDTO request = buildRequest();
+            WaitlistEntryResponseDTO expected = mock(WaitlistEntryResponseDTO.class);
+
+            when(appointmentService.getAvailableSlots(DATE, AppointmentType.OIL_CHANGE))
+                    .thenReturn(new AvailableSlotsResponseDTO(DATE, AppointmentType.OIL_CHANGE, List.of(
+                            new AvailableSlotsResponseDTO.AvailableSlotDTO(LocalTime.of(8, 30), LocalTime.of(9, 0), 1))));
+            when(waitlistRepository.existsActiveByVehicleId(VEHICLE_ID)).thenReturn(false);
+            when(waitlistRepository.save(any(WaitlistEntryEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(waitlistMapper.toResponseDTO(any())).thenReturn(expected);
+
+            // Act
+            WaitlistEntryResponseDTO result = sut.joinWaitlist(request, CLIENT_ID);
+
+            // Assert
+            assertThat(result).isSameAs(expected);
+            verify(appointmentService).validateBookingRequest(request, CLIENT_ID);
+            verify(waitlistRepository).save(argThat(entry ->
+                    entry.getStatus() == WaitlistStatus.WAITING &&
+                            entry.getAppointmentDate().equals(DATE) &&
+                            entry.getStartTime().equals(SLOT) &&
+                            entry.getCurrentMileage() == 15000 &&
+                            "Ruido en el motor".equals(entry.getClientNotes())
+            ));
+        }
+
+        @Test
+        @DisplayName("Slot con técnicos libres: lanza AppointmentException y no guarda")
+        void givenSlotWithRoom_thenThrow() {
+            // Arrange
+            when(appointmentService.getAvailableSlots(DATE, AppointmentType.OIL_CHANGE))
+                    .thenReturn(new AvailableSlotsResponseDTO(DATE, AppointmentType.OIL_CHANGE, List.of(
+                            new AvailableSlotsResponseDTO.AvailableSlotDTO(SLOT, SLOT.plusMinutes(30), 2))));
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.joinWaitlist(buildRequest(), CLIENT_ID))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("Agenda la cita directamente");
+            verify(waitlistRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Vehículo ya en espera: lanza AppointmentException")
+        void givenVehicleAlreadyWaiting_thenThrow() {
+            // Arrange
+            when(appointmentService.getAvailableSlots(DATE, AppointmentType.OIL_CHANGE))
+                    .thenReturn(new AvailableSlotsResponseDTO(DATE, AppointmentType.OIL_CHANGE, List.of()));
+            when(waitlistRepository.existsActiveByVehicleId(VEHICLE_ID)).thenReturn(true);
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.joinWaitlist(buildRequest(), CLIENT_ID))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("ya está en una lista de espera");
+            verify(waitlistRepository, never()).save(any());
+        }
+    }
+
+    // ================================================================
+    // leaveWaitlist()
+    // ================================================================
+
+    @Nested
+    @DisplayName("leaveWaitlist()")
+    class LeaveWaitlistTests {
+
+        @Test
+        @DisplayName("Solicitud propia en espera: pasa a CANCELLED")
+        void givenOwnWaitingEntry_thenCancelled() {
+            // Arrange
+            WaitlistEntryEntity entry = buildEntry(7L, CLIENT_ID);
+            when(waitlistRepository.findById(7L)).thenReturn(Optional.of(entry));
+            when(waitlistRepository.transition(7L, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED)).thenReturn(1);
+
+            // Act
+            sut.leaveWaitlist(7L, CLIENT_ID);
+
+            // Assert
+            assertThat(entry.getStatus()).isEqualTo(WaitlistStatus.CANCELLED);
+            verify(waitlistMapper).toResponseDTO(entry);
+        }
+
+        @Test
+        @DisplayName("Solicitud de otro cliente: lanza AppointmentForbiddenException")
+        void givenOtherClientEntry_thenThrowForbidden() {
+            when(waitlistRepository.findById(7L)).thenReturn(Optional.of(buildEntry(7L, 99L)));
+
+            assertThatThrownBy(() -> sut.leaveWaitlist(7L, CLIENT_ID))
+                    .isInstanceOf(AppointmentForbiddenException.class);
+            verify(waitlistRepository, never()).transition(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Solicitud ya tomada por el despachador: lanza AppointmentException")
+        void givenEntryNoLongerWaiting_thenThrow() {
+            when(waitlistRepository.findById(7L)).thenReturn(Optional.of(buildEntry(7L, CLIENT_ID)));
+            when(waitlistRepository.transition(7L, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED)).thenReturn(0);
+
+            assertThatThrownBy(() -> sut.leaveWaitlist(7L, CLIENT_ID))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("ya no está en espera");
+        }
+    }
+
+    // ================================================================
+    // promoteNext()
+    // ================================================================
+
+    @Nested
+    @DisplayName("promoteNext()")
+    class PromoteNextTests {
+
+        @Test
+        @DisplayName("Agenda al primero de la fila con sus datos y lo marca PROMOTED")
+        void givenWaitingEntries_thenFirstIsBooked() {
+            // Arrange
+            WaitlistEntryEntity first = buildEntry(1L, CLIENT_ID);
+            WaitlistEntryEntity second = buildEntry(2L, 2L);
+            AppointmentResponseDTO appointment = appointmentWithId(100L);
+
+            when(waitlistRepository.findWaitingForSlot(DATE, SLOT)).thenReturn(List.of(first, second));
+            when(waitlistRepository.claim(eq(1L), any())).thenReturn(1);
+            when(appointmentService.createAppointment(any(), eq(CLIENT_ID))).thenReturn(appointment);
+
+            // Act
+            Long appointmentId = sut.promoteNext(DATE, SLOT);
+
+            // Assert
+            assertThat(appointmentId).isEqualTo(100L);
+            verify(appointmentService).createAppointment(argThat(req ->
+                    req.vehicleId().equals(first.getVehicle().getId()) &&
+                            req.appointmentType() == AppointmentType.OIL_CHANGE &&
+                            req.appointmentDate().equals(DATE) &&
+                            req.startTime().equals(SLOT)
+            ), eq(CLIENT_ID));
+            verify(waitlistRepository).markPromoted(eq(1L), eq(100L), any());
+            verify(waitlistRepository, never()).claim(eq(2L), any());
+        }
+
+        @Test
+        @DisplayName("Si el primero ya no se puede agendar, lo descarta y agenda al siguiente")
+        void givenFirstNoLongerBookable_thenDiscardAndPromoteNext() {
+            // Arrange
+            WaitlistEntryEntity first = buildEntry(1L, CLIENT_ID);
+            WaitlistEntryEntity second = buildEntry(2L, 2L);
+            AppointmentResponseDTO appointment = appointmentWithId(101L);
+
+            when(waitlistRepository.findWaitingForSlot(DATE, SLOT)).thenReturn(List.of(first, second));
+            when(waitlistRepository.claim(anyLong(), any())).thenReturn(1);
+            when(appointmentService.createAppointment(any(), eq(CLIENT_ID)))
+                    .thenThrow(new VehicleHasActiveAppointmentException("La moto ya tiene una cita activa."));
+            when(appointmentService.createAppointment(any(), eq(2L))).thenReturn(appointment);
+
+            // Act
+            Long appointmentId = sut.promoteNext(DATE, SLOT);
+
+            // Assert
+            assertThat(appointmentId).isEqualTo(101L);
+            verify(waitlistRepository).markDiscarded(1L, "La moto ya tiene una cita activa.");
+            verify(waitlistRepository).markPromoted(eq(2L), eq(101L), any());
+        }
+
+        @Test
+        @DisplayName("Si otro agendamiento tomó el cupo, la solicitud vuelve a WAITING y conserva su turno")
+        void givenSlotTakenMeanwhile_thenEntryBackToWaiting() {
+            // Arrange
+            WaitlistEntryEntity first = buildEntry(1L, CLIENT_ID);
+            when(waitlistRepository.findWaitingForSlot(DATE, SLOT)).thenReturn(List.of(first, buildEntry(2L, 2L)));
+            when(waitlistRepository.claim(eq(1L), any())).thenReturn(1);
+            when(appointmentService.createAppointment(any(), eq(CLIENT_ID)))
+                    .thenThrow(new NoAvailableTechnicianException("No hay técnicos disponibles"));
+
+            // Act
+            Long appointmentId = sut.promoteNext(DATE, SLOT);
+
+            // Assert
+            assertThat(appointmentId).isNull();
+            verify(waitlistRepository).transition(1L, WaitlistStatus.PROMOTING, WaitlistStatus.WAITING);
+            verify(waitlistRepository, never()).markDiscarded(any(), any());
+            verify(appointmentService, times(1)).createAppointment(any(), any());
+        }
+
+        @Test
+        @DisplayName("Si falla marcarla PROMOTED con la cita creada, no la descarta: queda en PROMOTING para el barrido")
+        void givenMarkPromotedFails_thenNotDiscarded() {
+            // Arrange
+            WaitlistEntryEntity first = buildEntry(1L, CLIENT_ID);
+            AppointmentResponseDTO appointment = appointmentWithId(103L);
+            when(waitlistRepository.findWaitingForSlot(DATE, SLOT)).thenReturn(List.of(first));
+            when(waitlistRepository.claim(eq(1L), any())).thenReturn(1);
+            when(appointmentService.createAppointment(any(), eq(CLIENT_ID))).thenReturn(appointment);
+            when(waitlistRepository.markPromoted(eq(1L), eq(103L), any()))
+                    .thenThrow(new IllegalStateException("Conexión perdida"));
+
+            // Act + Assert
+            assertThatThrownBy(() -> sut.promoteNext(DATE, SLOT)).isInstanceOf(IllegalStateException.class);
+            verify(waitlistRepository, never()).markDiscarded(any(), any());
+            verify(waitlistRepository, never()).transition(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Omite las solicitudes que otro despachador ya tomó")
+        void givenEntryClaimedByOther_thenSkipped() {
+            // Arrange
+            WaitlistEntryEntity first = buildEntry(1L, CLIENT_ID);
+            WaitlistEntryEntity second = buildEntry(2L, 2L);
+            AppointmentResponseDTO appointment = appointmentWithId(102L);
+
+            when(waitlistRepository.findWaitingForSlot(DATE, SLOT)).thenReturn(List.of(first, second));
+            when(waitlistRepository.claim(eq(1L), any())).thenReturn(0);
+            when(waitlistRepository.claim(eq(2L), any())).thenReturn(1);
+            when(appointmentService.createAppointment(any(), eq(2L))).thenReturn(appointment);
+
+            // Act + Assert
+            assertThat(sut.promoteNext(DATE, SLOT)).isEqualTo(102L);
+            verify(appointmentService, never()).createAppointment(any(), eq(CLIENT_ID));
+        }
+    }
+
+    // ================================================================
+    // sweep() — barrido periódico
+    // ================================================================
+
+    @Nested
+    @DisplayName("sweep()")
+    class SweepTests {
+
+        @Test
+        @DisplayName("Una solicitud colgada en PROMOTING cuya cita sí se creó pasa a PROMOTED")
+        void givenStalePromotingWithAppointment_thenPromoted() {
+            // Arrange
+            WaitlistEntryEntity entry = buildEntry(1L, CLIENT_ID);
+            entry.setStatus(WaitlistStatus.PROMOTING);
+            entry.setPromotingSince(LocalDateTime.of(2099, 1, 1, 10, 0));
+            when(waitlistRepository.findStalePromoting(any())).thenReturn(List.of(entry));
+            when(appointmentRepository.findIdsBookedForSlotSince(
+                    entry.getVehicle().getId(), DATE, SLOT, entry.getPromotingSince())).thenReturn(List.of(200L));
+            when(waitlistRepository.markPromoted(eq(1L), eq(200L), any())).thenReturn(1);
+
+            // Act
+            sut.sweep();
+
+            // Assert
+            verify(waitlistRepository).markPromoted(eq(1L), eq(200L), any());
+            verify(waitlistRepository, never()).transition(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Una solicitud colgada en PROMOTING sin cita vuelve a WAITING")
+        void givenStalePromotingWithoutAppointment_thenBackToWaiting() {
+            // Arrange
+            WaitlistEntryEntity entry = buildEntry(1L, CLIENT_ID);
+            entry.setStatus(WaitlistStatus.PROMOTING);
+            entry.setPromotingSince(LocalDateTime.of(2099, 1, 1, 10, 0));
+            when(waitlistRepository.findStalePromoting(any())).thenReturn(List.of(entry));
+            when(appointmentRepository.findIdsBookedForSlotSince(any(), any(), any(), any())).thenReturn(List.of());
+            when(waitlistRepository.transition(1L, WaitlistStatus.PROMOTING, WaitlistStatus.WAITING)).thenReturn(1);
+
+            // Act
+            sut.sweep();
+
+            // Assert
+            verify(waitlistRepository).transition(1L, WaitlistStatus.PROMOTING, WaitlistStatus.WAITING);
+            verify(waitlistRepository, never()).markPromoted(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Descarta las solicitudes en espera cuyo horario ya pasó, después de recuperar las colgadas")
+        void givenSweep_thenExpiredEntriesDiscarded() {
+            // Arrange
+            when(waitlistRepository.findStalePromoting(any())).thenReturn(List.of());
+
+            // Act
+            sut.sweep();
+
+            // Assert
+            var order = inOrder(waitlistRepository);
+            order.verify(waitlistRepository).findStalePromoting(any());
+            order.verify(waitlistRepository).discardExpired(any(), any(), contains("pasó"));
+        }
+    }
+
+    // ================================================================
+    // onAppointmentChanged() — despachador
+    // ================================================================
+
+    @Nested
+    @DisplayName("onAppointmentChanged()")
+    class DispatcherTests {
+
+        @Test
+        @DisplayName("La cancelación de una cita activa promueve la fila de su slot")
+        void givenActiveAppointmentCancelled_thenPromote() {
+            when(waitlistRepository.findWaitingForSlot(DATE, SLOT)).thenReturn(List.of());
+
+            sut.onAppointmentChanged(cancelled(DATE, AppointmentStatus.SCHEDULED));
+
+            verify(waitlistRepository).findWaitingForSlot(DATE, SLOT);
+        }
+
+        @Test
+        @DisplayName("Creaciones, cambios de técnico y slots pasados no disparan promociones")
+        void givenEventThatFreesNothing_thenIgnore() {
+            AppointmentChangedEvent created = new AppointmentChangedEvent(
+                    AppointmentChangeType.CREATED, 10L, AppointmentType.OIL_CHANGE, DATE, SLOT, SLOT.plusMinutes(30),
+                    null, AppointmentStatus.SCHEDULED, 3L, null, CLIENT_ID);
+            AppointmentChangedEvent technicianChanged = new AppointmentChangedEvent(
+                    AppointmentChangeType.TECHNICIAN_CHANGED, 10L, AppointmentType.OIL_CHANGE, DATE, SLOT,
+                    SLOT.plusMinutes(30), AppointmentStatus.SCHEDULED, AppointmentStatus.SCHEDULED, 3L, 2L, CLIENT_ID);
+
+            sut.onAppointmentChanged(created);
+            sut.onAppointmentChanged(technicianChanged);
+            sut.onAppointmentChanged(cancelled(LocalDate.of(2000, 1, 7), AppointmentStatus.SCHEDULED));
+            sut.onAppointmentChanged(cancelled(DATE, AppointmentStatus.NO_SHOW));
+
+            verifyNoInteractions(waitlistRepository, appointmentService);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.dto.appointment.CreateWorkshopClosureRequestDTO;
+import com.sparktech.motorx.entity.WorkshopClosureEntity;
+import com.sparktech.motorx.event.WorkshopClosureChangedEvent;
+import com.sparktech.motorx.exception.AppointmentException;
+import com.sparktech.motorx.exception.WorkshopClosureNotFoundException;
+import com.sparktech.motorx.mapper.WorkshopClosureMapper;
+import com.sparktech.motorx.repository.JpaWorkshopClosureRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkingDayCalendarServiceImpl - Unit Tests")
+class WorkingDayCalendarServiceImplTest {
+
+    @Mock private JpaWorkshopClosureRepository closureRepository;
+    @Mock private WorkshopClosureMapper closureMapper;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private WorkingDayCalendarServiceImpl sut;
+
+    // ================================================================
+    // Festivos nacionales
+    // ================================================================
+
+    @Nested
+    @DisplayName("Festivos de Colombia")
+    class PublicHolidayTests {
+
+        @Test
+        @DisplayName("2024: fijos, Ley Emiliani y basados en la Pascua (31 de marzo)")
+        void given2024_thenOfficialHolidays() {
+            assertThat(sut.getPublicHolidays(2024)).containsExactly(
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 8), LocalDate.of(2024, 3, 25),
+                    LocalDate.of(2024, 3, 28), LocalDate.of(2024, 3, 29), LocalDate.of(2024, 5, 1),
+                    LocalDate.of(2024, 5, 13), LocalDate.of(2024, 6, 3), LocalDate.of(2024, 6, 10),
+                    LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 20), LocalDate.of(2024, 8, 7),
+                    LocalDate.of(2024, 8, 19), LocalDate.of(2024, 10, 14), LocalDate.of(2024, 11, 4),
+                    LocalDate.of(2024, 11, 11), LocalDate.of(2024, 12, 8), LocalDate.of(2024, 12, 25));
+        }
+
+        @Test
+        @DisplayName("2025: San Pedro y Sagrado Corazón coinciden el 30 de junio")
+        void given2025_thenCoincidingHolidaysCountOnce() {
+            List<LocalDate> holidays = sut.getPublicHolidays(2025);
+
+            assertThat(holidays).hasSize(17)
+                    .contains(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 4, 17), LocalDate.of(2025, 6, 30));
+        }
+
+        @Test
+        @DisplayName("Domingo de Pascua según el calendario gregoriano")
+        void givenYears_thenEasterSunday() {
+            assertThat(WorkingDayCalendarServiceImpl.easterSunday(2024)).isEqualTo(LocalDate.of(2024, 3, 31));
+            assertThat(WorkingDayCalendarServiceImpl.easterSunday(2025)).isEqualTo(LocalDate.of(2025, 4, 20));
+            assertThat(WorkingDayCalendarServiceImpl.easterSunday(2026)).isEqualTo(LocalDate.of(2026, 4, 5));
+        }
+
+        @Test
+        @DisplayName("Los festivos no consultan la BD")
+        void givenHolidayCheck_thenNoQuery() {
+            assertThat(sut.isPublicHoliday(LocalDate.of(2026, 1, 12))).isTrue();
+            assertThat(sut.isPublicHoliday(LocalDate.of(2026, 1, 6))).isFalse();
+
+            verifyNoInteractions(closureRepository);
+        }
+    }
+
+    // ================================================================
+    // Días hábiles
+    // ================================================================
+
+    @Nested
+    @DisplayName("isWorkingDay()")
+    class WorkingDayTests {
+
+        @Test
+        @DisplayName("Excluye fines de semana, festivos y cierres con una sola consulta por año")
+        void givenYear_thenSingleQueryAndAllRulesApplied() {
+            when(closureRepository.findClosureDatesBetween(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+                    .thenReturn(List.of(LocalDate.of(2026, 2, 4)));
+
+            assertThat(sut.isWorkingDay(LocalDate.of(2026, 2, 3))).isTrue();   // martes
+            assertThat(sut.isWorkingDay(LocalDate.of(2026, 2, 4))).isFalse();  // cierre
+            assertThat(sut.isWorkingDay(LocalDate.of(2026, 2, 7))).isFalse();  // sábado
+            assertThat(sut.isWorkingDay(LocalDate.of(2026, 1, 12))).isFalse(); // Reyes (lunes)
+
+            verify(closureRepository, times(1)).findClosureDatesBetween(any(), any());
+        }
+
+        @Test
+        @DisplayName("Un cambio de cierre invalida solo el año afectado")
+        void givenClosureChanged_thenOnlyThatYearReloaded() {
+            when(closureRepository.findClosureDatesBetween(any(), any())).thenReturn(List.of());
+            sut.isWorkingDay(LocalDate.of(2026, 2, 3));
+            sut.isWorkingDay(LocalDate.of(2027, 2, 3));
+
+            sut.onClosureChanged(new WorkshopClosureChangedEvent(LocalDate.of(2026, 3, 3)));
+            sut.isWorkingDay(LocalDate.of(2026, 2, 3));
+            sut.isWorkingDay(LocalDate.of(2027, 2, 3));
+
+            verify(closureRepository, times(2))
+                    .findClosureDatesBetween(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+            verify(closureRepository, times(1))
+                    .findClosureDatesBetween(LocalDate.of(2027, 1, 1), LocalDate.of(2027, 12, 31));
+        }
+    }
+
+    // ================================================================
+    // Cierres del taller
+    // ================================================================
+
+    @Nested
+    @DisplayName("Cierres del taller")
+    class ClosureTests {
+
+        private static final LocalDate CLOSURE_DATE = LocalDate.of(2099, 1, 9);
+
+        @Test
+        @DisplayName("createClosure() guarda el cierre y publica el evento de invalidación")
+        void givenNewDate_thenSaveAndPublish() {
+            when(closureRepository.existsByClosureDate(CLOSURE_DATE)).thenReturn(false);
+            when(closureRepository.save(any(WorkshopClosureEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            sut.createClosure(new CreateWorkshopClosureRequestDTO(CLOSURE_DATE, "Inventario"));
+
+            verify(closureRepository).save(argThat(closure ->
+                    closure.getClosureDate().equals(CLOSURE_DATE) && "Inventario".equals(closure.getReason())));
+            verify(eventPublisher).publishEvent(new WorkshopClosureChangedEvent(CLOSURE_DATE));
+        }
+
+        @Test
+        @DisplayName("createClosure() lanza AppointmentException si la fecha ya está cerrada")
+        void givenExistingDate_thenThrow() {
+            when(closureRepository.existsByClosureDate(CLOSURE_DATE)).thenReturn(true);
+
+            assertThatThrownBy(() -> sut.createClosure(new CreateWorkshopClosureRequestDTO(CLOSURE_DATE, null)))
+                    .isInstanceOf(AppointmentException.class)
+                    .hasMessageContaining("ya tiene un cierre");
+            verify(closureRepository, never()).save(any());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("deleteClosure() lanza WorkshopClosureNotFoundException si no existe")
+        void givenUnknownId_thenThrowNotFound() {
+            when(closureRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> sut.deleteClosure(99L))
+                    .isInstanceOf(WorkshopClosureNotFoundException.class);
+            verifyNoInteractions(eventPublisher);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.sparktech.motorx.Services.impl;
+
+import com.sparktech.motorx.entity.AppointmentStatus;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.event.AppointmentChangeType;
+import com.sparktech.motorx.event.AppointmentChangedEvent;
+import com.sparktech.motorx.repository.JpaAppointmentRepository;
+import com.sparktech.motorx.repository.JpaDailyWorkshopStatsRepository;
+import com.sparktech.motorx.repository.projection.DailyAppointmentTotals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkshopStatsServiceImpl - Unit Tests")
+class WorkshopStatsServiceImplTest {
+
+    @Mock private JpaDailyWorkshopStatsRepository statsRepository;
+    @Mock private JpaAppointmentRepository appointmentRepository;
+
+    @InjectMocks
+    private WorkshopStatsServiceImpl sut;
+
+    // ================================================================
+    // Constantes reutilizables
+    // ================================================================
+    private static final LocalDate DATE = LocalDate.of(2099, 4, 14);
+    private static final AppointmentType TYPE = AppointmentType.OIL_CHANGE;
+
+    private AppointmentChangedEvent event(AppointmentChangeType changeType,
+                                          AppointmentStatus previousStatus,
+                                          AppointmentStatus status) {
+        return new AppointmentChangedEvent(
+                changeType, 1L, TYPE, DATE, LocalTime.of(8, 0), LocalTime.of(8, 45),
+                previousStatus, status, 3L, null, 9L
+        );
+    }
+
+    // ================================================================
+    // onAppointmentChanged()
+    // ================================================================
+
+    @Nested
+    @DisplayName("onAppointmentChanged()")
+    class IncrementTests {
+
+        @Test
+        @DisplayName("Cita creada: suma una cita y sus minutos a su día, tipo y estado")
+        void givenCreated_thenAddOneToItsStatus() {
+            sut.onAppointmentChanged(event(AppointmentChangeType.CREATED, null, AppointmentStatus.SCHEDULED));
+
+            verify(statsRepository).addToDay(DATE, "OIL_CHANGE", "SCHEDULED", 1, 45L);
+            verifyNoMoreInteractions(statsRepository);
+        }
+
+        @Test
+        @DisplayName("Cita cancelada: la mueve del estado anterior a CANCELLED con sus minutos")
+        void givenCancelled_thenMoveBetweenStatuses() {
+            sut.onAppointmentChanged(event(
+                    AppointmentChangeType.CANCELLED, AppointmentStatus.SCHEDULED, AppointmentStatus.CANCELLED));
+
+            verify(statsRepository).addToDay(DATE, "OIL_CHANGE", "SCHEDULED", -1, -45L);
+            verify(statsRepository).addToDay(DATE, "OIL_CHANGE", "CANCELLED", 1, 45L);
+            verifyNoMoreInteractions(statsRepository);
+        }
+
+        @Test
+        @DisplayName("Cambio de técnico: el acumulado no cambia")
+        void givenTechnicianChanged_thenNothingIsWritten() {
+            sut.onAppointmentChanged(event(
+                    AppointmentChangeType.TECHNICIAN_CHANGED, AppointmentStatus.SCHEDULED, AppointmentStatus.SCHEDULED));
+
+            verifyNoInteractions(statsRepository);
+        }
+    }
+
+    // ================================================================
+    // rebuild()
+    // ================================================================
+
+    @Nested
+    @DisplayName("rebuild()")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Bloquea, borra el rango y escribe los totales recalculados desde las citas")
+        void givenRange_thenReplaceRowsWithRecomputedTotals() {
+            // Arrange
+            LocalDate end = DATE.plusDays(2);
+            when(appointmentRepository.sumDailyTotalsBetween(DATE, end)).thenReturn(List.of(
+                    new DailyAppointmentTotals(DATE, TYPE, AppointmentStatus.COMPLETED, 3L, 90L),
+                    new DailyAppointmentTotals(end, AppointmentType.MAINTENANCE, AppointmentStatus.CANCELLED, 1L, 120L)
+            ));
+
+            // Act
+            int rows = sut.rebuild(DATE, end);
+
+            // Assert
+            assertThat(rows).isEqualTo(2);
+            InOrder inOrder = inOrder(statsRepository, appointmentRepository);
+            inOrder.verify(statsRepository).lockForRebuild();
+            inOrder.verify(statsRepository).deleteBetween(DATE, end);
+            inOrder.verify(appointmentRepository).sumDailyTotalsBetween(DATE, end);
+            inOrder.verify(statsRepository).addToDay(DATE, "OIL_CHANGE", "COMPLETED", 3, 90L);
+            inOrder.verify(statsRepository).addToDay(end, "MAINTENANCE", "CANCELLED", 1, 120L);
+        }
+
+        @Test
+        @DisplayName("Lanza IllegalArgumentException si el rango está invertido")
+        void givenInvertedRange_thenThrow() {
+            LocalDate before = DATE.minusDays(1);
+
+            assertThatThrownBy(() -> sut.rebuild(DATE, before))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            verifyNoInteractions(statsRepository, appointmentRepository);
+        }
+
+        @Test
+        @DisplayName("La reconstrucción nocturna cubre los días configurados alrededor de hoy")
+        void givenNightlyJob_thenRebuildConfiguredWindow() {
+            // Arrange
+            ReflectionTestUtils.setField(sut, "rebuildDaysBehind", 7);
+            ReflectionTestUtils.setField(sut, "rebuildDaysAhead", 60);
+            LocalDate today = LocalDate.now(ZoneId.of("America/Bogota"));
+            when(appointmentRepository.sumDailyTotalsBetween(any(), any())).thenReturn(List.of());
+
+            // Act
+            sut.rebuildRecentDays();
+
+            // Assert
+            verify(statsRepository).deleteBetween(today.minusDays(7), today.plusDays(60));
+            verify(statsRepository, never()).addToDay(any(), anyString(), anyString(), anyInt(), anyLong());
+        }
+    }
+}
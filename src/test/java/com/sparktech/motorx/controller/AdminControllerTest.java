@@ -5,8 +5,10 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sparktech.motorx.Services.IAdminService;
 import com.sparktech.motorx.controller.error.GlobalControllerAdvice;
 import com.sparktech.motorx.dto.appointment.*;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentStatus;
 import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.exception.WorkshopClosureNotFoundException;
 import com.sparktech.motorx.security.CustomUserDetailsService;
 import com.sparktech.motorx.security.JwtAuthenticationFilter;
 import com.sparktech.motorx.security.JwtService;
@@ -24,12 +26,16 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -51,6 +57,9 @@ class AdminControllerTest {
 
     private ObjectMapper objectMapper;
 
+    private static final String AGENDA_ETAG = "\"agenda-test-0-2025-06-15:3\"";
+    private static final String CALENDAR_ETAG = "\"calendar-test-0-2025-06-01:2025-06-30:7\"";
+
     // ---------------------------------------------------------------
     // Helpers / Fixtures
     // ---------------------------------------------------------------
@@ -58,6 +67,9 @@ class AdminControllerTest {
     @BeforeEach
     void setUp() {
         reset(adminService);
+        // ETags vigentes: sin If-None-Match las consultas responden 200 con cuerpo
+        when(adminService.getDailyAgendaETag(any())).thenReturn(AGENDA_ETAG);
+        when(adminService.getCalendarViewETag(any(), any())).thenReturn(CALENDAR_ETAG);
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -116,6 +128,49 @@ class AdminControllerTest {
             verify(adminService).getDailyAgenda(date);
         }
 
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - incluye el ETag de la fecha y pide revalidar")
+        void shouldReturnETagWithAgenda() throws Exception {
+            when(adminService.getDailyAgenda(LocalDate.of(2025, 6, 15))).thenReturn(List.of());
+
+            mockMvc.perform(get("/api/v1/admin/appointments/agenda")
+                            .param("date", "2025-06-15"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", AGENDA_ETAG))
+                    .andExpect(header().string("Cache-Control", containsString("no-cache")));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("304 - If-None-Match vigente: no consulta la agenda")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/appointments/agenda")
+                            .param("date", "2025-06-15")
+                            .header("If-None-Match", AGENDA_ETAG))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", AGENDA_ETAG))
+                    .andExpect(content().string(""));
+
+            verify(adminService, never()).getDailyAgenda(any());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - If-None-Match de otra versión: vuelve a consultar")
+        void shouldReturn200WhenETagIsStale() throws Exception {
+            LocalDate date = LocalDate.of(2025, 6, 15);
+            when(adminService.getDailyAgenda(date)).thenReturn(List.of(buildAppointmentResponse(1L)));
+
+            mockMvc.perform(get("/api/v1/admin/appointments/agenda")
+                            .param("date", "2025-06-15")
+                            .header("If-None-Match", "\"agenda-test-0-2025-06-15:2\""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)));
+
+            verify(adminService).getDailyAgenda(date);
+        }
+
         @Test
         @WithMockUser(roles = "ADMIN")
         @DisplayName("200 - retorna lista vacía cuando no hay citas")
@@ -179,6 +234,20 @@ class AdminControllerTest {
             verify(adminService).getCalendarView(start, end);
         }
 
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("304 - If-None-Match vigente: no consulta el rango")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/appointments/calendar")
+                            .param("start", "2025-06-01")
+                            .param("end",   "2025-06-30")
+                            .header("If-None-Match", CALENDAR_ETAG))
+                    .andExpect(status().isNotModified());
+
+            verify(adminService).getCalendarViewETag(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30));
+            verify(adminService, never()).getCalendarView(any(), any());
+        }
+
         @Test
         @WithMockUser(roles = "ADMIN")
         @DisplayName("400 - start param faltante")
@@ -198,6 +267,121 @@ class AdminControllerTest {
         }
     }
 
+    // ---------------------------------------------------------------
+    // GET /stream
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/v1/admin/appointments/stream")
+    class StreamAgendaChanges {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - abre el stream SSE sin Last-Event-ID")
+        void shouldOpenStream() throws Exception {
+            when(adminService.streamAgendaChanges(null)).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/v1/admin/appointments/stream")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isOk())
+                    .andExpect(request().asyncStarted());
+
+            verify(adminService).streamAgendaChanges(null);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - al reconectar pasa el Last-Event-ID al servicio")
+        void shouldPassLastEventId() throws Exception {
+            when(adminService.streamAgendaChanges(42L)).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/v1/admin/appointments/stream")
+                            .header("Last-Event-ID", "42"))
+                    .andExpect(request().asyncStarted());
+
+            verify(adminService).streamAgendaChanges(42L);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - Last-Event-ID no numérico")
+        void shouldReturn400WhenLastEventIdInvalid() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/appointments/stream")
+                            .header("Last-Event-ID", "abc"))
+                    .andExpect(status().isBadRequest());
+
+            verify(adminService, never()).streamAgendaChanges(any());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // GET /calendar/export
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/v1/admin/appointments/calendar/export")
+    class ExportCalendar {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - escribe una línea JSON por cita (NDJSON) como adjunto")
+        void shouldStreamCalendarAsNdjson() throws Exception {
+            LocalDate start = LocalDate.of(2025, 1, 1);
+            LocalDate end   = LocalDate.of(2025, 12, 31);
+            doAnswer(invocation -> {
+                Consumer<AppointmentResponseDTO> sink = invocation.getArgument(2);
+                sink.accept(buildAppointmentResponse(10L));
+                sink.accept(buildAppointmentResponse(11L));
+                sink.accept(buildAppointmentResponse(12L));
+                return null;
+            }).when(adminService).exportCalendar(eq(start), eq(end), any());
+
+            MvcResult started = mockMvc.perform(get("/api/v1/admin/appointments/calendar/export")
+                            .param("start", "2025-01-01")
+                            .param("end",   "2025-12-31"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(header().string("Content-Disposition",
+                            containsString("calendario_2025-01-01_2025-12-31.ndjson")))
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> lines = body.lines().toList();
+            assertThat(lines).hasSize(3);
+            assertThat(objectMapper.readValue(lines.get(0), AppointmentResponseDTO.class).id()).isEqualTo(10L);
+            assertThat(objectMapper.readValue(lines.get(2), AppointmentResponseDTO.class).id()).isEqualTo(12L);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - rango sin citas devuelve un cuerpo vacío")
+        void shouldReturnEmptyBodyWhenNoAppointments() throws Exception {
+            MvcResult started = mockMvc.perform(get("/api/v1/admin/appointments/calendar/export")
+                            .param("start", "2025-01-01")
+                            .param("end",   "2025-01-31"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - end param faltante")
+        void shouldReturn400WhenEndMissing() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/appointments/calendar/export")
+                            .param("start", "2025-01-01"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(adminService);
+        }
+    }
+
     // ---------------------------------------------------------------
     // GET /available-slots
     // ---------------------------------------------------------------
@@ -250,6 +434,48 @@ class AdminControllerTest {
         }
     }
 
+    // ---------------------------------------------------------------
+    // GET /available-slots/range
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/v1/admin/appointments/available-slots/range")
+    class GetAvailableSlotsBetween {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - retorna la disponibilidad del rango para todos los tipos")
+        void shouldReturnAvailabilityForAllTypes() throws Exception {
+            LocalDate start = LocalDate.of(2025, 6, 16);
+            LocalDate end = LocalDate.of(2025, 6, 20);
+            MultiDayAvailabilityResponseDTO response = new MultiDayAvailabilityResponseDTO(
+                    start, end,
+                    List.of(
+                            new AvailableSlotsResponseDTO(start, AppointmentType.MAINTENANCE, List.of()),
+                            new AvailableSlotsResponseDTO(start, AppointmentType.OIL_CHANGE, List.of())
+                    )
+            );
+            when(adminService.getAvailableSlotsBetween(start, end, null)).thenReturn(response);
+
+            mockMvc.perform(get("/api/v1/admin/appointments/available-slots/range")
+                            .param("start", "2025-06-16")
+                            .param("end", "2025-06-20"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.days", hasSize(2)));
+
+            verify(adminService).getAvailableSlotsBetween(start, end, null);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - start param faltante")
+        void shouldReturn400WhenStartMissing() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/appointments/available-slots/range")
+                            .param("end", "2025-06-20"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     // ---------------------------------------------------------------
     // POST /unplanned
     // ---------------------------------------------------------------
@@ -548,6 +774,123 @@ class AdminControllerTest {
         }
     }
 
+
+    @Nested
+    @DisplayName("GET /api/v1/admin/appointments/{client|vehicle}/{id}/page")
+    class GetHistoryPages {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - historial del cliente por página con cursor siguiente")
+        void shouldReturnClientHistoryPage() throws Exception {
+            when(adminService.getClientAppointmentHistoryPage(10L, null, 2)).thenReturn(new CursorPageResponseDTO<>(
+                    List.of(buildAppointmentResponse(2L), buildAppointmentResponse(1L)), "def", true));
+
+            mockMvc.perform(get("/api/v1/admin/appointments/client/10/page").param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[0].id", is(2)))
+                    .andExpect(jsonPath("$.nextCursor", is("def")))
+                    .andExpect(jsonPath("$.hasMore", is(true)));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - historial del vehículo continúa desde el cursor")
+        void shouldPassCursorForVehicleHistoryPage() throws Exception {
+            when(adminService.getVehicleAppointmentHistoryPage(7L, "def", 20)).thenReturn(
+                    new CursorPageResponseDTO<>(List.of(buildAppointmentResponse(20L)), null, false));
+
+            mockMvc.perform(get("/api/v1/admin/appointments/vehicle/7/page").param("cursor", "def"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id", is(20)))
+                    .andExpect(jsonPath("$.hasMore", is(false)));
+
+            verify(adminService).getVehicleAppointmentHistoryPage(7L, "def", 20);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - cursor inválido")
+        void shouldReturn400WhenCursorInvalid() throws Exception {
+            when(adminService.getClientAppointmentHistoryPage(10L, "roto", 20))
+                    .thenThrow(new IllegalArgumentException("El cursor de paginación no es válido."));
+
+            mockMvc.perform(get("/api/v1/admin/appointments/client/10/page").param("cursor", "roto"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // /closures — cierres del taller
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("/api/v1/admin/appointments/closures")
+    class WorkshopClosures {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("POST 201 - registra el cierre")
+        void shouldCreateClosure() throws Exception {
+            LocalDate date = LocalDate.now().plusDays(10);
+            when(adminService.createWorkshopClosure(any(CreateWorkshopClosureRequestDTO.class)))
+                    .thenReturn(new WorkshopClosureResponseDTO(7L, date, "Inventario", LocalDateTime.now()));
+
+            mockMvc.perform(post("/api/v1/admin/appointments/closures")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(new CreateWorkshopClosureRequestDTO(date, "Inventario"))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id", is(7)))
+                    .andExpect(jsonPath("$.reason", is("Inventario")));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("POST 400 - fecha en el pasado")
+        void shouldRejectPastDate() throws Exception {
+            mockMvc.perform(post("/api/v1/admin/appointments/closures")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(new CreateWorkshopClosureRequestDTO(LocalDate.now().minusDays(1), null))))
+                    .andExpect(status().isBadRequest());
+
+            verify(adminService, never()).createWorkshopClosure(any());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("DELETE 204 - elimina el cierre")
+        void shouldDeleteClosure() throws Exception {
+            mockMvc.perform(delete("/api/v1/admin/appointments/closures/7"))
+                    .andExpect(status().isNoContent());
+
+            verify(adminService).deleteWorkshopClosure(7L);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("DELETE 404 - cierre inexistente")
+        void shouldReturn404WhenClosureNotFound() throws Exception {
+            doThrow(new WorkshopClosureNotFoundException(99L)).when(adminService).deleteWorkshopClosure(99L);
+
+            mockMvc.perform(delete("/api/v1/admin/appointments/closures/99"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("GET /holidays 200 - festivos del año")
+        void shouldReturnPublicHolidays() throws Exception {
+            when(adminService.getPublicHolidays(2026))
+                    .thenReturn(List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 12)));
+
+            mockMvc.perform(get("/api/v1/admin/appointments/holidays").param("year", "2026"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[1]", is("2026-01-12")));
+        }
+    }
+
     // ---------------------------------------------------------------
     // TestConfiguration: beans mock con @Primary
     // ---------------------------------------------------------------
@@ -0,0 +1,176 @@
+package com.sparktech.motorx.controller;
+
+import com.sparktech.motorx.Services.IKpiService;
+import com.sparktech.motorx.controller.error.GlobalControllerAdvice;
+import com.sparktech.motorx.dto.kpi.KpiDashboardResponseDTO;
+import com.sparktech.motorx.dto.kpi.KpiMetric;
+import com.sparktech.motorx.security.CustomUserDetailsService;
+import com.sparktech.motorx.security.JwtAuthenticationFilter;
+import com.sparktech.motorx.security.JwtService;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AdminKpiController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({GlobalControllerAdvice.class, AdminKpiControllerTest.TestConfig.class})
+@DisplayName("AdminKpiController - Tests")
+class AdminKpiControllerTest {
+
+    private static final String BASE_URL = "/api/v1/admin/kpis";
+    private static final LocalDate START = LocalDate.of(2026, 3, 1);
+    private static final LocalDate END = LocalDate.of(2026, 3, 31);
+
+    @Resource
+    private MockMvc mockMvc;
+
+    @Resource
+    private IKpiService kpiService;
+
+    @BeforeEach
+    void setUp() {
+        reset(kpiService);
+    }
+
+    private KpiDashboardResponseDTO buildDashboard() {
+        Map<KpiMetric, Double> metrics = new EnumMap<>(KpiMetric.class);
+        metrics.put(KpiMetric.OCCUPANCY_RATE, 62.35);
+        metrics.put(KpiMetric.CANCELLATION_RATE, null);
+        return new KpiDashboardResponseDTO(START, END, metrics);
+    }
+
+    // ---------------------------------------------------------------
+    // GET /api/v1/admin/kpis
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET " + BASE_URL)
+    class GetDashboard {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - sin metrics pide todos los indicadores")
+        void shouldReturnAllMetricsWhenNoneRequested() throws Exception {
+            when(kpiService.getDashboard(eq(START), eq(END), isNull())).thenReturn(buildDashboard());
+
+            mockMvc.perform(get(BASE_URL)
+                            .param("start", "2026-03-01")
+                            .param("end", "2026-03-31"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.startDate", is("2026-03-01")))
+                    .andExpect(jsonPath("$.endDate", is("2026-03-31")))
+                    .andExpect(jsonPath("$.metrics.OCCUPANCY_RATE", is(62.35)))
+                    .andExpect(jsonPath("$.metrics.CANCELLATION_RATE", nullValue()));
+
+            verify(kpiService).getDashboard(START, END, null);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - metrics separados por coma llegan como conjunto")
+        void shouldPassRequestedMetrics() throws Exception {
+            when(kpiService.getDashboard(any(), any(), any())).thenReturn(buildDashboard());
+
+            mockMvc.perform(get(BASE_URL)
+                            .param("start", "2026-03-01")
+                            .param("end", "2026-03-31")
+                            .param("metrics", "OCCUPANCY_RATE,CANCELLATION_RATE"))
+                    .andExpect(status().isOk());
+
+            verify(kpiService).getDashboard(START, END,
+                    Set.of(KpiMetric.OCCUPANCY_RATE, KpiMetric.CANCELLATION_RATE));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - indicador desconocido")
+        void shouldReturn400WhenMetricUnknown() throws Exception {
+            mockMvc.perform(get(BASE_URL)
+                            .param("start", "2026-03-01")
+                            .param("end", "2026-03-31")
+                            .param("metrics", "REVENUE"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(kpiService);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - start param faltante")
+        void shouldReturn400WhenStartMissing() throws Exception {
+            mockMvc.perform(get(BASE_URL)
+                            .param("end", "2026-03-31"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(kpiService);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - rango rechazado por el servicio")
+        void shouldReturn400WhenRangeInvalid() throws Exception {
+            when(kpiService.getDashboard(any(), any(), any()))
+                    .thenThrow(new IllegalArgumentException("La fecha final no puede ser anterior a la fecha inicial."));
+
+            mockMvc.perform(get(BASE_URL)
+                            .param("start", "2026-03-31")
+                            .param("end", "2026-03-01"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // TestConfiguration
+    // ---------------------------------------------------------------
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        @Primary
+        IKpiService kpiService() {
+            return mock(IKpiService.class);
+        }
+
+        @Bean
+        @Primary
+        JwtService jwtService() {
+            return mock(JwtService.class);
+        }
+
+        @Bean
+        @Primary
+        JwtAuthenticationFilter jwtAuthenticationFilter() {
+            return mock(JwtAuthenticationFilter.class);
+        }
+
+        @Bean
+        @Primary
+        CustomUserDetailsService customUserDetailsService() {
+            return mock(CustomUserDetailsService.class);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.sparktech.motorx.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sparktech.motorx.Services.IScheduleTemplateService;
+import com.sparktech.motorx.controller.error.GlobalControllerAdvice;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateRequestDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTemplateResponseDTO;
+import com.sparktech.motorx.dto.appointment.ScheduleTypeRuleDTO;
+import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.exception.AppointmentException;
+import com.sparktech.motorx.exception.ScheduleTemplateNotFoundException;
+import com.sparktech.motorx.security.CustomUserDetailsService;
+import com.sparktech.motorx.security.JwtAuthenticationFilter;
+import com.sparktech.motorx.security.JwtService;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AdminScheduleTemplateController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({GlobalControllerAdvice.class, AdminScheduleTemplateControllerTest.TestConfig.class})
+@DisplayName("AdminScheduleTemplateController - Tests")
+class AdminScheduleTemplateControllerTest {
+
+    private static final String BASE_URL = "/api/v1/admin/schedule-templates";
+
+    @Resource
+    private MockMvc mockMvc;
+
+    @Resource
+    private IScheduleTemplateService scheduleTemplateService;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        reset(scheduleTemplateService);
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static final ScheduleTypeRuleDTO OIL_CHANGE_RULE = new ScheduleTypeRuleDTO(
+            AppointmentType.OIL_CHANGE, 30, false, true, List.of(LocalTime.of(8, 0), LocalTime.of(8, 30)));
+
+    private ScheduleTemplateRequestDTO buildRequest(List<ScheduleTypeRuleDTO> types) {
+        return new ScheduleTemplateRequestDTO("Horario de diciembre",
+                LocalTime.of(7, 0), LocalTime.of(17, 30), LocalTime.of(12, 0), LocalTime.of(13, 0), types);
+    }
+
+    private ScheduleTemplateResponseDTO buildResponse(Long id, int version, boolean active) {
+        return new ScheduleTemplateResponseDTO(id, version, "Horario de diciembre",
+                LocalTime.of(7, 0), LocalTime.of(17, 30), LocalTime.of(12, 0), LocalTime.of(13, 0),
+                active, LocalDateTime.of(2026, 11, 30, 8, 0), List.of(OIL_CHANGE_RULE));
+    }
+
+    private String json(Object o) throws Exception {
+        return objectMapper.writeValueAsString(o);
+    }
+
+    // ---------------------------------------------------------------
+    // POST /api/v1/admin/schedule-templates
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("POST " + BASE_URL)
+    class PublishTemplate {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("201 - publica y activa la versión")
+        void shouldPublishTemplate() throws Exception {
+            when(scheduleTemplateService.publish(any(ScheduleTemplateRequestDTO.class)))
+                    .thenReturn(buildResponse(51L, 2, true));
+
+            mockMvc.perform(post(BASE_URL)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(buildRequest(List.of(OIL_CHANGE_RULE)))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.version", is(2)))
+                    .andExpect(jsonPath("$.active", is(true)))
+                    .andExpect(jsonPath("$.types[0].slots", hasSize(2)));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - sin reglas por tipo")
+        void shouldRejectEmptyTypes() throws Exception {
+            mockMvc.perform(post(BASE_URL)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(buildRequest(List.of()))))
+                    .andExpect(status().isBadRequest());
+
+            verify(scheduleTemplateService, never()).publish(any());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - plantilla rechazada por las reglas de negocio")
+        void shouldReturn400WhenTemplateInvalid() throws Exception {
+            when(scheduleTemplateService.publish(any(ScheduleTemplateRequestDTO.class)))
+                    .thenThrow(new AppointmentException("Faltan las reglas de los tipos de cita: [REWORK]"));
+
+            mockMvc.perform(post(BASE_URL)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(buildRequest(List.of(OIL_CHANGE_RULE)))))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // GET / PATCH de versiones
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("Consulta y reactivación de versiones")
+    class Versions {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("GET 200 - lista las versiones")
+        void shouldListTemplates() throws Exception {
+            when(scheduleTemplateService.getTemplates())
+                    .thenReturn(List.of(buildResponse(51L, 2, true), buildResponse(1L, 1, false)));
+
+            mockMvc.perform(get(BASE_URL))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[1].version", is(1)));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("GET /active 200 - versión activa")
+        void shouldReturnActiveTemplate() throws Exception {
+            when(scheduleTemplateService.getActiveTemplate()).thenReturn(buildResponse(51L, 2, true));
+
+            mockMvc.perform(get(BASE_URL + "/active"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(51)))
+                    .andExpect(jsonPath("$.workStart", startsWith("07:00")));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("PATCH /{id}/activate 200 - reactiva una versión anterior")
+        void shouldActivateTemplate() throws Exception {
+            when(scheduleTemplateService.activate(1L)).thenReturn(buildResponse(1L, 1, true));
+
+            mockMvc.perform(patch(BASE_URL + "/1/activate"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.active", is(true)));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("PATCH /{id}/activate 404 - versión inexistente")
+        void shouldReturn404WhenTemplateNotFound() throws Exception {
+            when(scheduleTemplateService.activate(99L)).thenThrow(new ScheduleTemplateNotFoundException(99L));
+
+            mockMvc.perform(patch(BASE_URL + "/99/activate"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // TestConfiguration
+    // ---------------------------------------------------------------
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        @Primary
+        IScheduleTemplateService scheduleTemplateService() {
+            return mock(IScheduleTemplateService.class);
+        }
+
+        @Bean
+        @Primary
+        JwtService jwtService() {
+            return mock(JwtService.class);
+        }
+
+        @Bean
+        @Primary
+        JwtAuthenticationFilter jwtAuthenticationFilter() {
+            return mock(JwtAuthenticationFilter.class);
+        }
+
+        @Bean
+        @Primary
+        CustomUserDetailsService customUserDetailsService() {
+            return mock(CustomUserDetailsService.class);
+        }
+    }
+}
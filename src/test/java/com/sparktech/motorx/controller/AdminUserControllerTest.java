@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sparktech.motorx.Services.IAdminUserService;
 import com.sparktech.motorx.controller.error.GlobalControllerAdvice;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.user.AdminUserResponseDTO;
 import com.sparktech.motorx.entity.Role;
 import com.sparktech.motorx.exception.UserAlreadyBlockedException;
@@ -156,6 +157,45 @@ class AdminUserControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/admin/users/page")
+    class GetAllUsersPage {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - retorna la página pedida con cursor siguiente")
+        void shouldReturnRequestedPage() throws Exception {
+            // Arrange
+            when(adminUserService.getAllUsersPage("abc", 2)).thenReturn(new CursorPageResponseDTO<>(
+                    List.of(buildActiveUser(1L), buildBlockedUser(2L)), "def", true));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/admin/users/page")
+                            .param("cursor", "abc")
+                            .param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[1].accountLocked", is(true)))
+                    .andExpect(jsonPath("$.nextCursor", is("def")))
+                    .andExpect(jsonPath("$.hasMore", is(true)));
+
+            verify(adminUserService).getAllUsersPage("abc", 2);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - tamaño de página fuera de rango")
+        void shouldReturn400WhenSizeOutOfRange() throws Exception {
+            // Arrange
+            when(adminUserService.getAllUsersPage(null, 0))
+                    .thenThrow(new IllegalArgumentException("El tamaño de página debe estar entre 1 y 100."));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/admin/users/page").param("size", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
 
     @Nested
     @DisplayName("GET /api/v1/admin/users/{userId}")
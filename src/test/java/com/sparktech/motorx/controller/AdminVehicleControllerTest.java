@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sparktech.motorx.Services.IEmployeeService;
 import com.sparktech.motorx.controller.error.GlobalControllerAdvice;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.TransferVehicleOwnershipRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
 
@@ -153,6 +154,44 @@ class AdminVehicleControllerTest {
     }
 
 
+    @Nested
+    @DisplayName("GET /api/v1/admin/vehicles/page")
+    class GetAllVehiclesPage {
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("200 - primera página con tamaño por defecto")
+        void shouldReturnFirstPage() throws Exception {
+            // Arrange
+            when(employeeService.getAllVehiclesPage(null, 20)).thenReturn(new CursorPageResponseDTO<>(
+                    List.of(buildVehicleResponse(2L), buildVehicleResponse(1L)), null, false));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/admin/vehicles/page"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[0].id", is(2)))
+                    .andExpect(jsonPath("$.nextCursor", nullValue()))
+                    .andExpect(jsonPath("$.hasMore", is(false)));
+
+            verify(employeeService).getAllVehiclesPage(null, 20);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("400 - cursor inválido")
+        void shouldReturn400WhenCursorInvalid() throws Exception {
+            // Arrange
+            when(employeeService.getAllVehiclesPage("roto", 20))
+                    .thenThrow(new IllegalArgumentException("El cursor de paginación no es válido."));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/admin/vehicles/page").param("cursor", "roto"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+
     @Nested
     @DisplayName("GET /api/v1/admin/vehicles/{vehicleId}")
     class GetVehicleById {
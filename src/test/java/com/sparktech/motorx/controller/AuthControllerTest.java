@@ -12,6 +12,7 @@ import com.sparktech.motorx.dto.auth.Verify2FADTO;
 import com.sparktech.motorx.dto.user.UserDTO;
 import com.sparktech.motorx.entity.Role;
 import com.sparktech.motorx.exception.InvalidPasswordException;
+import com.sparktech.motorx.exception.TooManyLoginAttemptsException;
 import com.sparktech.motorx.exception.UserNotFoundException;
 import com.sparktech.motorx.security.CustomUserDetailsService;
 import com.sparktech.motorx.security.JwtAuthenticationFilter;
@@ -116,7 +117,7 @@ class AuthControllerTest {
             // Arrange
             LoginRequestDTO req = new LoginRequestDTO("admin@mail.com", "Admin123!");
             AuthResponseDTO response = buildAuthResponse(Role.ADMIN);
-            when(authService.login(any(LoginRequestDTO.class))).thenReturn(response);
+            when(authService.login(any(LoginRequestDTO.class), anyString())).thenReturn(response);
 
             // Act & Assert
             mockMvc.perform(post("/api/auth/login")
@@ -136,7 +137,7 @@ class AuthControllerTest {
         void shouldReturn2FAResponseForClient() throws Exception {
             // Arrange
             LoginRequestDTO req = new LoginRequestDTO("cliente@mail.com", "Pass123!");
-            when(authService.login(any(LoginRequestDTO.class)))
+            when(authService.login(any(LoginRequestDTO.class), anyString()))
                     .thenReturn("Código 2FA enviado a su email");
 
             // Act & Assert
@@ -153,7 +154,7 @@ class AuthControllerTest {
         void shouldReturn401WhenInvalidCredentials() throws Exception {
             // Arrange
             LoginRequestDTO req = new LoginRequestDTO("user@mail.com", "wrongpass");
-            when(authService.login(any(LoginRequestDTO.class)))
+            when(authService.login(any(LoginRequestDTO.class), anyString()))
                     .thenThrow(new InvalidPasswordException("Credenciales inválidas"));
 
             // Act & Assert
@@ -163,6 +164,42 @@ class AuthControllerTest {
                     .andExpect(status().isUnauthorized());
         }
 
+        @Test
+        @DisplayName("429 - demasiados intentos fallidos: responde con Retry-After")
+        void shouldReturn429WhenTooManyAttempts() throws Exception {
+            // Arrange
+            LoginRequestDTO req = new LoginRequestDTO("user@mail.com", "wrongpass");
+            when(authService.login(any(LoginRequestDTO.class), anyString()))
+                    .thenThrow(new TooManyLoginAttemptsException(300));
+
+            // Act & Assert
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(req)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "300"));
+        }
+
+        @Test
+        @DisplayName("200 - pasa la IP del cliente al servicio")
+        void shouldPassClientIpToService() throws Exception {
+            // Arrange
+            LoginRequestDTO req = new LoginRequestDTO("cliente@mail.com", "Pass123!");
+            when(authService.login(any(LoginRequestDTO.class), anyString())).thenReturn("Código 2FA enviado a su email");
+
+            // Act & Assert
+            mockMvc.perform(post("/api/auth/login")
+                            .with(request -> {
+                                request.setRemoteAddr("198.51.100.20");
+                                return request;
+                            })
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(req)))
+                    .andExpect(status().isOk());
+
+            verify(authService).login(any(LoginRequestDTO.class), eq("198.51.100.20"));
+        }
+
         @ParameterizedTest
         @MethodSource("com.sparktech.motorx.controller.AuthControllerTest#invalidLoginRequests")
         @DisplayName("400 - validaciones de LoginRequestDTO fallan para varios inputs inválidos")
@@ -6,8 +6,10 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sparktech.motorx.Services.IUserService;
 import com.sparktech.motorx.controller.error.GlobalControllerAdvice;
 import com.sparktech.motorx.dto.appointment.*;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.entity.AppointmentStatus;
 import com.sparktech.motorx.entity.AppointmentType;
+import com.sparktech.motorx.entity.WaitlistStatus;
 import com.sparktech.motorx.exception.*;
 
 import com.sparktech.motorx.security.CustomUserDetailsService;
@@ -54,9 +56,13 @@ class UserControllerTest {
 
     private ObjectMapper objectMapper;
 
+    private static final String HISTORY_ETAG = "\"history-test-0-2:4\"";
+
     @BeforeEach
     void setUp() {
         reset(userService);
+        // ETag vigente: sin If-None-Match el historial responde 200 con cuerpo
+        when(userService.getMyAppointmentHistoryETag()).thenReturn(HISTORY_ETAG);
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -203,6 +209,90 @@ class UserControllerTest {
         }
     }
 
+    // ---------------------------------------------------------------
+    // GET /api/v1/user/appointments/available-slots/range
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/v1/user/appointments/available-slots/range")
+    class GetAvailableSlotsBetween {
+
+        @Test
+        @WithMockUser
+        @DisplayName("200 - retorna la disponibilidad por día del rango")
+        void shouldReturnAvailabilityPerDay() throws Exception {
+            // Arrange
+            LocalDate start = futureDate();
+            LocalDate end = start.plusDays(6);
+            MultiDayAvailabilityResponseDTO response = new MultiDayAvailabilityResponseDTO(
+                    start, end,
+                    List.of(new AvailableSlotsResponseDTO(
+                            start,
+                            AppointmentType.OIL_CHANGE,
+                            List.of(new AvailableSlotsResponseDTO.AvailableSlotDTO(LocalTime.of(8, 0), LocalTime.of(8, 30), 2))
+                    ))
+            );
+            when(userService.getAvailableSlotsBetween(start, end, AppointmentType.OIL_CHANGE)).thenReturn(response);
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/available-slots/range")
+                            .param("start", start.toString())
+                            .param("end", end.toString())
+                            .param("type", "OIL_CHANGE"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.days", hasSize(1)))
+                    .andExpect(jsonPath("$.days[0].availableSlots[0].availableTechnicians", is(2)));
+
+            verify(userService).getAvailableSlotsBetween(start, end, AppointmentType.OIL_CHANGE);
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("200 - el tipo es opcional")
+        void shouldAllowMissingType() throws Exception {
+            // Arrange
+            LocalDate start = futureDate();
+            LocalDate end = start.plusDays(1);
+            when(userService.getAvailableSlotsBetween(start, end, null))
+                    .thenReturn(new MultiDayAvailabilityResponseDTO(start, end, List.of()));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/available-slots/range")
+                            .param("start", start.toString())
+                            .param("end", end.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.days", hasSize(0)));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("400 - rango inválido reportado por el servicio")
+        void shouldReturn400WhenRangeInvalid() throws Exception {
+            // Arrange
+            LocalDate start = futureDate();
+            LocalDate end = start.minusDays(1);
+            when(userService.getAvailableSlotsBetween(start, end, null))
+                    .thenThrow(new AppointmentException("La fecha final no puede ser anterior a la fecha inicial."));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/available-slots/range")
+                            .param("start", start.toString())
+                            .param("end", end.toString()))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("400 - end param faltante")
+        void shouldReturn400WhenEndMissing() throws Exception {
+            mockMvc.perform(get("/api/v1/user/appointments/available-slots/range")
+                            .param("start", futureDate().toString()))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(userService);
+        }
+    }
+
     // ---------------------------------------------------------------
     // GET /api/v1/user/appointments/check-plate-restriction
     // ---------------------------------------------------------------
@@ -607,6 +697,70 @@ class UserControllerTest {
         }
     }
 
+    // ---------------------------------------------------------------
+    // POST /api/v1/user/appointments/bulk
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("POST /api/v1/user/appointments/bulk")
+    class ScheduleAppointmentsBulk {
+
+        @Test
+        @WithMockUser
+        @DisplayName("200 - devuelve el resultado de cada elemento del lote")
+        void shouldReturnPerItemResults() throws Exception {
+            // Arrange
+            BulkCreateAppointmentRequestDTO req = new BulkCreateAppointmentRequestDTO(
+                    List.of(buildValidCreateRequest(), buildValidCreateRequest()));
+            BulkAppointmentResponseDTO response = new BulkAppointmentResponseDTO(2, 1, 1, List.of(
+                    BulkAppointmentItemResultDTO.created(0, 1L, buildAppointmentResponse(1L)),
+                    BulkAppointmentItemResultDTO.failed(1, 1L, "La moto ya tiene una cita activa")
+            ));
+            when(userService.scheduleAppointmentsBulk(any(BulkCreateAppointmentRequestDTO.class)))
+                    .thenReturn(response);
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/user/appointments/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(req)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created", is(1)))
+                    .andExpect(jsonPath("$.failed", is(1)))
+                    .andExpect(jsonPath("$.results[0].appointment.id", is(1)))
+                    .andExpect(jsonPath("$.results[1].created", is(false)))
+                    .andExpect(jsonPath("$.results[1].error", is("La moto ya tiene una cita activa")));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("400 - lote vacío")
+        void shouldReturn400WhenEmpty() throws Exception {
+            mockMvc.perform(post("/api/v1/user/appointments/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(new BulkCreateAppointmentRequestDTO(List.of()))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(userService);
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("400 - un elemento inválido rechaza el lote completo")
+        void shouldReturn400WhenAnItemIsInvalid() throws Exception {
+            CreateAppointmentRequestDTO invalid = new CreateAppointmentRequestDTO(
+                    null, AppointmentType.MAINTENANCE, futureDate(), LocalTime.of(9, 0), 1000, null
+            );
+
+            mockMvc.perform(post("/api/v1/user/appointments/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(new BulkCreateAppointmentRequestDTO(
+                                    List.of(buildValidCreateRequest(), invalid)))))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(userService);
+        }
+    }
+
     // ---------------------------------------------------------------
     // GET /api/v1/user/appointments/my
     // ---------------------------------------------------------------
@@ -648,6 +802,34 @@ class UserControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(0)));
         }
+
+        @Test
+        @WithMockUser
+        @DisplayName("200 - incluye el ETag del historial y pide revalidar")
+        void shouldReturnETagWithHistory() throws Exception {
+            // Arrange
+            when(userService.getMyAppointmentHistory()).thenReturn(List.of(buildAppointmentResponse(1L)));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/my"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", HISTORY_ETAG))
+                    .andExpect(header().string("Cache-Control", containsString("no-cache")));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("304 - If-None-Match vigente: no consulta las citas")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/my")
+                            .header("If-None-Match", HISTORY_ETAG))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(userService).getMyAppointmentHistoryETag();
+            verify(userService, never()).getMyAppointmentHistory();
+        }
     }
 
 
@@ -740,6 +922,61 @@ class UserControllerTest {
     }
 
 
+    @Nested
+    @DisplayName("GET /api/v1/user/appointments/my/page y /my/vehicle/{vehicleId}/page")
+    class GetMyAppointmentPages {
+
+        @Test
+        @WithMockUser
+        @DisplayName("200 - primera página con tamaño por defecto y cursor siguiente")
+        void shouldReturnFirstPageWithDefaultSize() throws Exception {
+            // Arrange
+            when(userService.getMyAppointmentHistoryPage(null, 20)).thenReturn(new CursorPageResponseDTO<>(
+                    List.of(buildAppointmentResponse(1L), buildAppointmentResponse(2L)), "QXxuZXh0", true));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/my/page"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[0].id", is(1)))
+                    .andExpect(jsonPath("$.nextCursor", is("QXxuZXh0")))
+                    .andExpect(jsonPath("$.hasMore", is(true)));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("200 - pasa cursor y tamaño del historial del vehículo")
+        void shouldPassCursorAndSizeForVehicle() throws Exception {
+            // Arrange
+            when(userService.getMyVehicleAppointmentsPage(7L, "abc", 5))
+                    .thenReturn(new CursorPageResponseDTO<>(List.of(buildAppointmentResponse(10L)), null, false));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/my/vehicle/7/page")
+                            .param("cursor", "abc")
+                            .param("size", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id", is(10)))
+                    .andExpect(jsonPath("$.hasMore", is(false)));
+
+            verify(userService).getMyVehicleAppointmentsPage(7L, "abc", 5);
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("400 - cursor inválido")
+        void shouldReturn400WhenCursorInvalid() throws Exception {
+            // Arrange
+            when(userService.getMyAppointmentHistoryPage("roto", 20))
+                    .thenThrow(new IllegalArgumentException("El cursor de paginación no es válido."));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/appointments/my/page").param("cursor", "roto"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+
     @Nested
     @DisplayName("DELETE /api/v1/user/appointments/my/{appointmentId}")
     class CancelMyAppointment {
@@ -797,6 +1034,79 @@ class UserControllerTest {
         }
     }
 
+    // ---------------------------------------------------------------
+    // /api/v1/user/appointments/waitlist
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("/api/v1/user/appointments/waitlist")
+    class Waitlist {
+
+        private WaitlistEntryResponseDTO buildEntry(WaitlistStatus status) {
+            return new WaitlistEntryResponseDTO(
+                    7L, 1L, "ABC123", AppointmentType.MAINTENANCE, futureDate(), LocalTime.of(9, 0),
+                    status, null, null, LocalDateTime.now(), null
+            );
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("POST 201 - anota al cliente en la lista de espera")
+        void shouldReturn201WhenJoined() throws Exception {
+            // Arrange
+            when(userService.joinWaitlist(any(CreateAppointmentRequestDTO.class)))
+                    .thenReturn(buildEntry(WaitlistStatus.WAITING));
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/user/appointments/waitlist")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(buildValidCreateRequest())))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id", is(7)))
+                    .andExpect(jsonPath("$.status", is("WAITING")));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("POST 400 - el horario aún tiene cupo")
+        void shouldReturn400WhenSlotHasRoom() throws Exception {
+            // Arrange
+            when(userService.joinWaitlist(any(CreateAppointmentRequestDTO.class)))
+                    .thenThrow(new AppointmentException("El horario aún tiene técnicos disponibles."));
+
+            // Act & Assert
+            mockMvc.perform(post("/api/v1/user/appointments/waitlist")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(buildValidCreateRequest())))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("DELETE 404 - solicitud inexistente")
+        void shouldReturn404WhenEntryNotFound() throws Exception {
+            // Arrange
+            when(userService.leaveWaitlist(99L)).thenThrow(new WaitlistEntryNotFoundException(99L));
+
+            // Act & Assert
+            mockMvc.perform(delete("/api/v1/user/appointments/waitlist/99"))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("DELETE 200 - retira la solicitud")
+        void shouldReturn200WhenLeft() throws Exception {
+            // Arrange
+            when(userService.leaveWaitlist(7L)).thenReturn(buildEntry(WaitlistStatus.CANCELLED));
+
+            // Act & Assert
+            mockMvc.perform(delete("/api/v1/user/appointments/waitlist/7"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status", is("CANCELLED")));
+        }
+    }
+
     // ---------------------------------------------------------------
     // TestConfiguration
     // ---------------------------------------------------------------
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.sparktech.motorx.Services.IVehicleService;
 import com.sparktech.motorx.controller.error.GlobalControllerAdvice;
+import com.sparktech.motorx.dto.pagination.CursorPageResponseDTO;
 import com.sparktech.motorx.dto.vehicle.CreateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.UpdateVehicleRequestDTO;
 import com.sparktech.motorx.dto.vehicle.VehicleResponseDTO;
@@ -506,6 +507,47 @@ class VehicleControllerTest {
         }
     }
 
+    // ---------------------------------------------------------------
+    // GET /api/v1/user/vehicles/page
+    // ---------------------------------------------------------------
+
+    @Nested
+    @DisplayName("GET /api/v1/user/vehicles/page")
+    class GetMyVehiclesPage {
+
+        @Test
+        @WithMockUser
+        @DisplayName("200 - retorna la página con cursor siguiente")
+        void shouldReturnPageWithCursor() throws Exception {
+            // Arrange
+            when(vehicleService.getMyVehiclesPage("abc", 1)).thenReturn(
+                    new CursorPageResponseDTO<>(List.of(buildVehicleResponse(1L)), "def", true));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/vehicles/page")
+                            .param("cursor", "abc")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].licensePlate", is("ABC12A")))
+                    .andExpect(jsonPath("$.nextCursor", is("def")))
+                    .andExpect(jsonPath("$.hasMore", is(true)));
+        }
+
+        @Test
+        @WithMockUser
+        @DisplayName("400 - tamaño de página fuera de rango")
+        void shouldReturn400WhenSizeOutOfRange() throws Exception {
+            // Arrange
+            when(vehicleService.getMyVehiclesPage(null, 500))
+                    .thenThrow(new IllegalArgumentException("El tamaño de página debe estar entre 1 y 100."));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/v1/user/vehicles/page").param("size", "500"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     // ---------------------------------------------------------------
     // GET /api/v1/user/vehicles/{vehicleId}
     // ---------------------------------------------------------------
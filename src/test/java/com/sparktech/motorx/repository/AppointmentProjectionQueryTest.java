@@ -0,0 +1,166 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
+import com.sparktech.motorx.entity.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@DisplayName("JpaAppointmentRepository - listados proyectados a AppointmentResponseDTO")
+class AppointmentProjectionQueryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2099, 1, 9);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JpaAppointmentRepository appointmentRepository;
+
+    private RepositoryTestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new RepositoryTestFixtures(entityManager);
+    }
+
+    // ================================================================
+    // FIXTURES
+    // ================================================================
+
+    /**
+     * Crea {@code count} citas del mismo cliente en DATE, cada una con su propio vehículo y
+     * técnico (la mitad sin técnico), para que cargar las entidades implicara resolver una
+     * asociación LAZY distinta por fila.
+     */
+    private UserEntity persistAppointments(int count) {
+        UserEntity owner = fixtures.persistClient();
+        for (int i = 0; i < count; i++) {
+            AppointmentEntity appointment = new AppointmentEntity();
+            appointment.setAppointmentType(AppointmentType.OIL_CHANGE);
+            appointment.setAppointmentDate(DATE);
+            appointment.setStartTime(LocalTime.of(7, 0).plusMinutes(i));
+            appointment.setEndTime(LocalTime.of(8, 0).plusMinutes(i));
+            appointment.setStatus(AppointmentStatus.SCHEDULED);
+            appointment.setCurrentMileage(1000 + i);
+            appointment.setVehicle(fixtures.persistVehicle(owner));
+            appointment.setTechnician(i % 2 == 0 ? fixtures.persistTechnician() : null);
+            entityManager.persist(appointment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return owner;
+    }
+
+    /**
+     * Ejecuta la consulta con las estadísticas limpias y devuelve cuántas sentencias preparó.
+     */
+    private long countStatements(Supplier<List<AppointmentResponseDTO>> query, int expectedRows) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<AppointmentResponseDTO> rows = query.get();
+
+        assertThat(rows).hasSize(expectedRows);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // ================================================================
+    // TESTS
+    // ================================================================
+
+    @Test
+    @DisplayName("Cada fila trae vehículo, cliente y técnico; sin técnico quedan en null")
+    void givenAppointments_thenRowsCarryJoinedColumns() {
+        UserEntity owner = persistAppointments(2);
+
+        List<AppointmentResponseDTO> rows = appointmentRepository.findResponsesByDate(DATE);
+
+        assertThat(rows).hasSize(2);
+        AppointmentResponseDTO withTechnician = rows.get(0);
+        assertThat(withTechnician.clientId()).isEqualTo(owner.getId());
+        assertThat(withTechnician.clientEmail()).isEqualTo(owner.getEmail());
+        assertThat(withTechnician.vehiclePlate()).startsWith(RepositoryTestFixtures.PLATE_PREFIX);
+        assertThat(withTechnician.technicianId()).isNotNull();
+        assertThat(withTechnician.technicianFullName()).startsWith("Usuario");
+
+        AppointmentResponseDTO withoutTechnician = rows.get(1);
+        assertThat(withoutTechnician.technicianId()).isNull();
+        assertThat(withoutTechnician.technicianFullName()).isNull();
+    }
+
+    @Test
+    @DisplayName("Agenda del día y rango: una sola sentencia sin importar cuántas citas haya")
+    void givenManyAppointments_thenDateQueriesUseOneStatement() {
+        persistAppointments(12);
+
+        assertThat(countStatements(() -> appointmentRepository.findResponsesByDate(DATE), 12))
+                .isEqualTo(1);
+        assertThat(countStatements(
+                () -> appointmentRepository.findResponsesByDateRange(DATE.minusDays(1), DATE.plusDays(1)), 12))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Export en streaming: mismas filas y orden que el listado, en una sola sentencia")
+    void givenManyAppointments_thenStreamMatchesListInOneStatement() {
+        persistAppointments(12);
+        LocalDate start = DATE.minusDays(1);
+        LocalDate end = DATE.plusDays(1);
+        List<AppointmentResponseDTO> expected = appointmentRepository.findResponsesByDateRange(start, end);
+
+        List<AppointmentResponseDTO> streamed = new ArrayList<>();
+        long statements = countStatements(() -> {
+            try (Stream<AppointmentResponseDTO> rows = appointmentRepository.streamResponsesByDateRange(start, end)) {
+                rows.forEach(streamed::add);
+            }
+            return streamed;
+        }, 12);
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(streamed).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Historial del cliente: el número de sentencias no crece con el número de citas")
+    void givenMoreAppointments_thenClientHistoryStatementCountIsConstant() {
+        UserEntity fewOwner = persistAppointments(1);
+        UserEntity manyOwner = persistAppointments(15);
+
+        long few = countStatements(() -> appointmentRepository.findResponsesByClientId(fewOwner.getId()), 1);
+        long many = countStatements(() -> appointmentRepository.findResponsesByClientId(manyOwner.getId()), 15);
+
+        assertThat(many).isEqualTo(few).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Historial del vehículo: una sola sentencia")
+    void givenVehicleAppointments_thenOneStatement() {
+        persistAppointments(1);
+        Long vehicleId = appointmentRepository.findResponsesByDate(DATE).getFirst().vehicleId();
+
+        assertThat(countStatements(() -> appointmentRepository.findResponsesByVehicleId(vehicleId), 1))
+                .isEqualTo(1);
+    }
+}
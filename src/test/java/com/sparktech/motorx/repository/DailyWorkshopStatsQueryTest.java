@@ -0,0 +1,130 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.*;
+import com.sparktech.motorx.repository.projection.DailyAppointmentTotals;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Consultas de lectura del acumulado diario y la agregación que lo reconstruye.
+ * El upsert (ON CONFLICT) y el LOCK TABLE son SQL de PostgreSQL y no corren sobre H2.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@DisplayName("Acumulado diario del taller - consultas de indicadores y reconstrucción")
+class DailyWorkshopStatsQueryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2099, 2, 3);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JpaDailyWorkshopStatsRepository statsRepository;
+
+    @Autowired
+    private JpaAppointmentRepository appointmentRepository;
+
+    private RepositoryTestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new RepositoryTestFixtures(entityManager);
+    }
+
+    // ================================================================
+    // FIXTURES
+    // ================================================================
+
+    private void persistStats(LocalDate date, AppointmentType type, AppointmentStatus status, int count, long minutes) {
+        entityManager.persist(DailyWorkshopStatsEntity.builder()
+                .statDate(date)
+                .appointmentType(type)
+                .status(status)
+                .appointmentCount(count)
+                .reservedMinutes(minutes)
+                .build());
+    }
+
+    private void persistAppointment(VehicleEntity vehicle, LocalDate date, AppointmentType type,
+                                    AppointmentStatus status, LocalTime start, LocalTime end) {
+        AppointmentEntity appointment = new AppointmentEntity();
+        appointment.setAppointmentType(type);
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        appointment.setStatus(status);
+        appointment.setCurrentMileage(1000);
+        appointment.setVehicle(vehicle);
+        entityManager.persist(appointment);
+    }
+
+    // ================================================================
+    // TESTS
+    // ================================================================
+
+    @Test
+    @DisplayName("Los indicadores suman las filas del rango con los mismos filtros de estado que antes")
+    void givenStatsRows_thenKpiQueriesAggregateThem() {
+        persistStats(DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.SCHEDULED, 4, 120);
+        persistStats(DATE, AppointmentType.MAINTENANCE, AppointmentStatus.COMPLETED, 2, 300);
+        persistStats(DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.CANCELLED, 3, 90);
+        persistStats(DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.NO_SHOW, 1, 30);
+        persistStats(DATE.plusDays(1), AppointmentType.OIL_CHANGE, AppointmentStatus.CANCELLED, 5, 150);
+        persistStats(DATE.plusDays(10), AppointmentType.OIL_CHANGE, AppointmentStatus.SCHEDULED, 7, 210);
+        entityManager.flush();
+
+        LocalDate end = DATE.plusDays(1);
+        assertThat(statsRepository.sumReservedMinutesBetween(DATE, end)).isEqualTo(420);
+        assertThat(statsRepository.countByStatusBetween(AppointmentStatus.CANCELLED, DATE, end)).isEqualTo(8);
+        assertThat(statsRepository.countAllBetween(DATE, end)).isEqualTo(15);
+        // NO_SHOW cuenta como cita del día; CANCELLED y REJECTED no
+        assertThat(statsRepository.countActiveAppointmentsByDate(DATE)).isEqualTo(7);
+        assertThat(statsRepository.findByStatDateBetweenOrderByStatDateAsc(DATE, end)).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("Un rango sin filas devuelve 0, no null")
+    void givenNoRows_thenZero() {
+        assertThat(statsRepository.sumReservedMinutesBetween(DATE, DATE)).isZero();
+        assertThat(statsRepository.countAllBetween(DATE, DATE)).isZero();
+        assertThat(statsRepository.countActiveAppointmentsByDate(DATE)).isZero();
+    }
+
+    @Test
+    @DisplayName("La agregación de reconstrucción agrupa por día, tipo y estado con los minutos de cada cita")
+    void givenAppointments_thenDailyTotalsAreGrouped() {
+        VehicleEntity vehicle = fixtures.persistVehicle();
+        persistAppointment(vehicle, DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.SCHEDULED,
+                LocalTime.of(8, 0), LocalTime.of(8, 30));
+        persistAppointment(vehicle, DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.SCHEDULED,
+                LocalTime.of(9, 15), LocalTime.of(10, 0));
+        persistAppointment(vehicle, DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.CANCELLED,
+                LocalTime.of(14, 0), LocalTime.of(14, 30));
+        persistAppointment(vehicle, DATE.plusDays(1), AppointmentType.MAINTENANCE, AppointmentStatus.COMPLETED,
+                LocalTime.of(7, 45), LocalTime.of(11, 45));
+        persistAppointment(vehicle, DATE.plusDays(30), AppointmentType.MAINTENANCE, AppointmentStatus.COMPLETED,
+                LocalTime.of(7, 45), LocalTime.of(11, 45));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DailyAppointmentTotals> totals = appointmentRepository.sumDailyTotalsBetween(DATE, DATE.plusDays(1));
+
+        assertThat(totals).containsExactlyInAnyOrder(
+                new DailyAppointmentTotals(DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.SCHEDULED, 2L, 75L),
+                new DailyAppointmentTotals(DATE, AppointmentType.OIL_CHANGE, AppointmentStatus.CANCELLED, 1L, 30L),
+                new DailyAppointmentTotals(DATE.plusDays(1), AppointmentType.MAINTENANCE, AppointmentStatus.COMPLETED, 1L, 240L)
+        );
+    }
+}
@@ -0,0 +1,78 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.Role;
+import com.sparktech.motorx.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@DisplayName("Hibernate - batching de INSERT con IDs por secuencia")
+class HibernateBatchingTest {
+
+    private static final int USERS = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private UserEntity buildUser(int i) {
+        UserEntity user = new UserEntity();
+        user.setName("Usuario " + i);
+        user.setDni("DNI-" + i);
+        user.setEmail("usuario" + i + "@test.com");
+        user.setPassword("hash");
+        user.setPhone("3000000000");
+        user.setRole(Role.CLIENT);
+        user.setEnabled(true);
+        return user;
+    }
+
+    @Test
+    @DisplayName("persist() no ejecuta el INSERT de inmediato: los ids salen de la secuencia")
+    void givenPersist_thenInsertDeferredUntilFlush() {
+        // Act
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(buildUser(i));
+        }
+
+        // Assert — con IDENTITY cada persist() ya habría ejecutado su INSERT
+        assertThat(statistics.getEntityInsertCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Al hacer flush, los INSERT de varias entidades comparten un solo statement en batch")
+    void givenManyEntities_thenInsertsAreBatched() {
+        // Arrange
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(buildUser(i));
+        }
+
+        // Act
+        entityManager.flush();
+
+        // Assert — 1-2 llamadas a la secuencia (un bloque de 50 ids) + 1 INSERT reutilizado en el batch,
+        // en lugar de un statement por fila
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(USERS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+}
@@ -0,0 +1,232 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.dto.appointment.AppointmentResponseDTO;
+import com.sparktech.motorx.entity.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@DisplayName("Paginación por cursor (keyset) - recorrido completo sin huecos ni duplicados")
+class KeysetPaginationQueryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2099, 1, 9);
+    private static final int PAGE_SIZE = 4;
+    private static final Limit ALL = Limit.of(1000);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JpaAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JpaVehicleRepository vehicleRepository;
+
+    @Autowired
+    private JpaUserRepository userRepository;
+
+    private Statistics statistics;
+    private RepositoryTestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new RepositoryTestFixtures(entityManager);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // ================================================================
+    // FIXTURES
+    // ================================================================
+
+    /**
+     * Crea 11 citas repartidas en dos vehículos del mismo cliente. Hay empates de fecha y hora
+     * entre vehículos para que el id tenga que desempatar.
+     */
+    private UserEntity persistHistory() {
+        UserEntity owner = fixtures.persistClient();
+        List<VehicleEntity> vehicles = List.of(fixtures.persistVehicle(owner), fixtures.persistVehicle(owner));
+        for (int i = 0; i < 11; i++) {
+            AppointmentEntity appointment = new AppointmentEntity();
+            appointment.setAppointmentType(AppointmentType.OIL_CHANGE);
+            appointment.setAppointmentDate(DATE.minusDays(i / 4));
+            appointment.setStartTime(LocalTime.of(8, 0).plusMinutes(30L * (i % 2)));
+            appointment.setEndTime(LocalTime.of(9, 0));
+            appointment.setStatus(AppointmentStatus.COMPLETED);
+            appointment.setCurrentMileage(1000 + i);
+            appointment.setVehicle(vehicles.get(i % 2));
+            entityManager.persist(appointment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return owner;
+    }
+
+    /**
+     * Recorre todas las páginas pidiendo una fila de más, igual que el servicio, y comprueba
+     * que cada página es una sola sentencia.
+     */
+    private <R> List<Long> walk(Function<Limit, List<R>> firstPage,
+                                BiFunction<R, Limit, List<R>> nextPage,
+                                Function<R, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        R last = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            statistics.clear();
+            List<R> rows = last == null
+                    ? firstPage.apply(Limit.of(PAGE_SIZE + 1))
+                    : nextPage.apply(last, Limit.of(PAGE_SIZE + 1));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+            hasMore = rows.size() > PAGE_SIZE;
+            List<R> page = hasMore ? rows.subList(0, PAGE_SIZE) : rows;
+            page.forEach(row -> ids.add(idOf.apply(row)));
+            last = page.isEmpty() ? null : page.getLast();
+        }
+        return ids;
+    }
+
+    // ================================================================
+    // TESTS
+    // ================================================================
+
+    @Test
+    @DisplayName("Historial del cliente: las páginas concatenadas son el listado completo en orden")
+    void givenClientHistory_thenPagesCoverEveryRowOnce() {
+        Long ownerId = persistHistory().getId();
+        List<Long> expected = appointmentRepository.findResponsePageByClientId(ownerId, ALL).stream()
+                .map(AppointmentResponseDTO::id).toList();
+
+        List<Long> walked = walk(
+                limit -> appointmentRepository.findResponsePageByClientId(ownerId, limit),
+                (last, limit) -> appointmentRepository.findResponsePageByClientIdAfter(
+                        ownerId, last.appointmentDate(), last.startTime(), last.id(), limit),
+                AppointmentResponseDTO::id);
+
+        assertThat(expected).hasSize(11);
+        assertThat(walked).containsExactlyElementsOf(expected).doesNotHaveDuplicates();
+        assertThat(appointmentRepository.findResponsesByClientId(ownerId))
+                .extracting(AppointmentResponseDTO::id)
+                .containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Traspaso de vehículo: sus citas pasan al historial paginado del nuevo dueño")
+    void givenVehicleTransferred_thenClientHistoriesFollowOwner() {
+        Long ownerId = persistHistory().getId();
+        UserEntity newOwner = fixtures.persistClient();
+        Long vehicleId = appointmentRepository.findResponsesByDate(DATE).getFirst().vehicleId();
+        List<Long> vehicleIds = appointmentRepository.findResponsesByVehicleId(vehicleId).stream()
+                .map(AppointmentResponseDTO::id).toList();
+
+        vehicleRepository.findById(vehicleId).orElseThrow().setOwner(newOwner);
+        int moved = appointmentRepository.reassignOwnerByVehicleId(vehicleId, newOwner.getId());
+
+        assertThat(moved).isEqualTo(vehicleIds.size());
+        assertThat(appointmentRepository.findResponsePageByClientId(newOwner.getId(), ALL))
+                .extracting(AppointmentResponseDTO::id)
+                .containsExactlyInAnyOrderElementsOf(vehicleIds);
+        assertThat(appointmentRepository.findResponsePageByClientId(ownerId, ALL))
+                .hasSize(11 - vehicleIds.size())
+                .extracting(AppointmentResponseDTO::id)
+                .doesNotContainAnyElementsOf(vehicleIds);
+    }
+
+    @Test
+    @DisplayName("Historial del vehículo: solo sus citas, ordenadas de la más reciente a la más antigua")
+    void givenVehicleHistory_thenPagesAreOrderedAndScoped() {
+        persistHistory();
+        Long vehicleId = appointmentRepository.findResponsesByDate(DATE).getFirst().vehicleId();
+
+        List<AppointmentResponseDTO> rows = new ArrayList<>();
+        List<Long> walked = walk(
+                limit -> appointmentRepository.findResponsePageByVehicleId(vehicleId, limit),
+                (last, limit) -> appointmentRepository.findResponsePageByVehicleIdAfter(
+                        vehicleId, last.appointmentDate(), last.startTime(), last.id(), limit),
+                row -> {
+                    rows.add(row);
+                    return row.id();
+                });
+
+        assertThat(walked).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(appointmentRepository.findResponsesByVehicleId(vehicleId)
+                        .stream().map(AppointmentResponseDTO::id).toList());
+        assertThat(rows).allMatch(row -> row.vehicleId().equals(vehicleId));
+        assertThat(rows).extracting(AppointmentResponseDTO::appointmentDate)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("Vehículos del cliente y listado admin: recorrido completo con el dueño ya cargado")
+    void givenVehicles_thenPagesCoverEveryRowOnce() {
+        UserEntity owner = fixtures.persistClient();
+        UserEntity other = fixtures.persistClient();
+        for (int i = 0; i < 7; i++) {
+            fixtures.persistVehicle(owner);
+        }
+        fixtures.persistVehicle(other);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> expectedOwn = vehicleRepository.findPageByOwnerId(owner.getId(), ALL).stream()
+                .map(VehicleEntity::getId).toList();
+        List<Long> walkedOwn = walk(
+                limit -> vehicleRepository.findPageByOwnerId(owner.getId(), limit),
+                (last, limit) -> vehicleRepository.findPageByOwnerIdAfter(
+                        owner.getId(), last.getCreatedAt(), last.getId(), limit),
+                vehicle -> {
+                    // El dueño viene en el JOIN FETCH: leerlo no dispara otra sentencia
+                    assertThat(vehicle.getOwner().getEmail()).isNotNull();
+                    return vehicle.getId();
+                });
+
+        List<Long> expectedAll = vehicleRepository.findPage(ALL).stream().map(VehicleEntity::getId).toList();
+        List<Long> walkedAll = walk(
+                vehicleRepository::findPage,
+                (last, limit) -> vehicleRepository.findPageAfter(last.getCreatedAt(), last.getId(), limit),
+                VehicleEntity::getId);
+
+        assertThat(walkedOwn).hasSize(7).containsExactlyElementsOf(expectedOwn).doesNotHaveDuplicates();
+        assertThat(walkedAll).hasSize(8).containsExactlyElementsOf(expectedAll).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Listado admin de usuarios: recorrido completo sin huecos ni duplicados")
+    void givenUsers_thenPagesCoverEveryRowOnce() {
+        for (int i = 0; i < 9; i++) {
+            fixtures.persistClient();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> expected = userRepository.findPage(ALL).stream().map(UserEntity::getId).toList();
+        List<Long> walked = walk(
+                userRepository::findPage,
+                (last, limit) -> userRepository.findPageAfter(last.getCreatedAt(), last.getId(), limit),
+                UserEntity::getId);
+
+        assertThat(walked).hasSize(9).containsExactlyElementsOf(expected).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,156 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.*;
+import com.sparktech.motorx.repository.projection.EventTypeCount;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Agregados de los indicadores del tablero: se calculan en la BD sin cargar entidades.
+ * createdAt lo fija @PrePersist, así que las fechas de creación se ajustan con SQL.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@DisplayName("Indicadores del tablero - agregados en la BD")
+class KpiAggregateQueryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2099, 2, 3);
+    private static final LocalDateTime FROM = LocalDateTime.of(2099, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2099, 1, 31, 23, 59);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JpaAppointmentRepository appointmentRepository;
+
+    @Autowired
+    private JpaPasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private JpaSystemEventRepository systemEventRepository;
+
+    private RepositoryTestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new RepositoryTestFixtures(entityManager);
+    }
+
+    // ================================================================
+    // FIXTURES
+    // ================================================================
+
+    private void persistAppointment(VehicleEntity vehicle, LocalTime start, LocalDateTime createdAt) {
+        AppointmentEntity appointment = new AppointmentEntity();
+        appointment.setAppointmentType(AppointmentType.OIL_CHANGE);
+        appointment.setAppointmentDate(DATE);
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(30));
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setCurrentMileage(1000);
+        appointment.setVehicle(vehicle);
+        entityManager.persist(appointment);
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE appointments SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", appointment.getId())
+                .executeUpdate();
+    }
+
+    private void persistToken(UserEntity user, String hash, LocalDateTime createdAt, LocalDateTime usedAt) {
+        PasswordResetTokenEntity token = new PasswordResetTokenEntity();
+        token.setTokenHash(hash);
+        token.setUser(user);
+        token.setUsed(true);
+        token.setUsedAt(usedAt);
+        entityManager.persist(token);
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE password_reset_tokens SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", token.getId())
+                .executeUpdate();
+    }
+
+    private void insertEvent(long id, EventType type, LocalDateTime date) {
+        entityManager.createNativeQuery("""
+                        INSERT INTO system_events (id, event_type, event_date, severity)
+                        VALUES (:id, :type, :date, 'INFO')
+                        """)
+                .setParameter("id", id)
+                .setParameter("type", type.name())
+                .setParameter("date", date)
+                .executeUpdate();
+    }
+
+    // ================================================================
+    // TESTS
+    // ================================================================
+
+    @Test
+    @DisplayName("Anticipación promedio: minutos entre createdAt y fecha + hora de inicio, solo citas creadas en el rango")
+    void givenAppointments_thenAverageLeadMinutes() {
+        VehicleEntity vehicle = fixtures.persistVehicle();
+        // 2 días exactos = 2880 min
+        persistAppointment(vehicle, LocalTime.of(8, 0), LocalDateTime.of(2099, 2, 1, 8, 0));
+        // 13 h 30 min = 810 min
+        persistAppointment(vehicle, LocalTime.of(9, 30), LocalDateTime.of(2099, 2, 2, 20, 0));
+        // Fuera del rango de creación
+        persistAppointment(vehicle, LocalTime.of(10, 0), LocalDateTime.of(2098, 12, 1, 10, 0));
+
+        Double average = appointmentRepository.averageLeadMinutesCreatedBetween(
+                FROM, LocalDateTime.of(2099, 2, 2, 23, 59));
+
+        assertThat(average).isCloseTo(1845.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("Recuperación promedio: minutos entre la solicitud y el canje; los invalidados no cuentan")
+    void givenUsedTokens_thenAverageRecoveryMinutes() {
+        UserEntity user = fixtures.persistClient();
+        persistToken(user, "h1", LocalDateTime.of(2099, 1, 10, 10, 0), LocalDateTime.of(2099, 1, 10, 10, 15));
+        persistToken(user, "h2", LocalDateTime.of(2099, 1, 11, 10, 0), LocalDateTime.of(2099, 1, 11, 10, 45));
+        // Invalidado por una solicitud nueva: used sin usedAt
+        persistToken(user, "h3", LocalDateTime.of(2099, 1, 12, 10, 0), null);
+        // Canjeado fuera del rango
+        persistToken(user, "h4", LocalDateTime.of(2099, 3, 1, 10, 0), LocalDateTime.of(2099, 3, 1, 12, 0));
+
+        assertThat(passwordResetTokenRepository.averageRecoveryMinutesBetween(FROM, TO))
+                .isCloseTo(30.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("Sin tokens canjeados ni citas creadas en el rango el promedio es null")
+    void givenNoRows_thenAveragesAreNull() {
+        assertThat(passwordResetTokenRepository.averageRecoveryMinutesBetween(FROM, TO)).isNull();
+        assertThat(appointmentRepository.averageLeadMinutesCreatedBetween(FROM, TO)).isNull();
+    }
+
+    @Test
+    @DisplayName("Conteo de eventos agrupado por tipo, solo de los tipos pedidos y dentro del rango")
+    void givenEvents_thenCountsGroupedByType() {
+        insertEvent(1, EventType.APPOINTMENT_CREATED, LocalDateTime.of(2099, 1, 5, 9, 0));
+        insertEvent(2, EventType.APPOINTMENT_CREATED, LocalDateTime.of(2099, 1, 6, 9, 0));
+        insertEvent(3, EventType.APPOINTMENT_CONFLICT, LocalDateTime.of(2099, 1, 6, 9, 5));
+        insertEvent(4, EventType.APPOINTMENT_CONFLICT, LocalDateTime.of(2099, 2, 6, 9, 5));
+        insertEvent(5, EventType.LOGIN_FAILED, LocalDateTime.of(2099, 1, 6, 9, 5));
+
+        assertThat(systemEventRepository.countByEventTypesBetween(
+                EnumSet.of(EventType.APPOINTMENT_CREATED, EventType.APPOINTMENT_CONFLICT), FROM, TO))
+                .containsExactlyInAnyOrder(
+                        new EventTypeCount(EventType.APPOINTMENT_CREATED, 2L),
+                        new EventTypeCount(EventType.APPOINTMENT_CONFLICT, 1L));
+    }
+}
@@ -0,0 +1,67 @@
+package com.sparktech.motorx.repository;
+
+import com.sparktech.motorx.entity.*;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Usuarios, vehículos y técnicos mínimos para los tests de repositorio (@DataJpaTest).
+ * Cada entidad lleva un número propio en email, DNI, placa y chasis para no chocar con
+ * las restricciones únicas; se crea una instancia por test con el EntityManager del test.
+ */
+final class RepositoryTestFixtures {
+
+    static final String PLATE_PREFIX = "TST";
+
+    private final EntityManager entityManager;
+    private int sequence;
+
+    RepositoryTestFixtures(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    UserEntity persistUser(Role role) {
+        int i = ++sequence;
+        UserEntity user = new UserEntity();
+        user.setName("Usuario " + i);
+        user.setDni("DNI-" + i);
+        user.setEmail("usuario" + i + "@test.com");
+        user.setPassword("hash");
+        user.setPhone("3000000000");
+        user.setRole(role);
+        user.setEnabled(true);
+        entityManager.persist(user);
+        return user;
+    }
+
+    UserEntity persistClient() {
+        return persistUser(Role.CLIENT);
+    }
+
+    VehicleEntity persistVehicle(UserEntity owner) {
+        int i = ++sequence;
+        VehicleEntity vehicle = new VehicleEntity();
+        vehicle.setBrand("Auteco");
+        vehicle.setModel("Victory");
+        vehicle.setYearOfManufacture(2024);
+        vehicle.setLicensePlate(PLATE_PREFIX + i);
+        vehicle.setCylinderCapacity(125);
+        vehicle.setChassisNumber("CHASIS-" + i);
+        vehicle.setOwner(owner);
+        entityManager.persist(vehicle);
+        return vehicle;
+    }
+
+    /** Vehículo de un cliente nuevo */
+    VehicleEntity persistVehicle() {
+        return persistVehicle(persistClient());
+    }
+
+    EmployeeEntity persistTechnician() {
+        EmployeeEntity technician = new EmployeeEntity();
+        technician.setPosition(EmployeePosition.MECANICO);
+        technician.setState(EmployeeState.AVAILABLE);
+        technician.setUser(persistUser(Role.EMPLOYEE));
+        entityManager.persist(technician);
+        return technician;
+    }
+}
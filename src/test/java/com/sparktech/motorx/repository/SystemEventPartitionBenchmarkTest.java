@@ -0,0 +1,257 @@
+package com.sparktech.motorx.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Comparación de rendimiento (manual): system_events sin particionar vs particionada por mes,
+ * con las mismas consultas de {@link JpaSystemEventRepository} sobre un volumen sintético.
+ * <p>
+ * Necesita un PostgreSQL propio (H2 no particiona); trabaja en el esquema bench_system_events,
+ * que borra y recrea. Ejecutar con:
+ * <pre>
+ * MOTORX_BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/motorx_bench \
+ * MOTORX_BENCHMARK_DB_USER=postgres MOTORX_BENCHMARK_DB_PASSWORD=postgres \
+ * ./gradlew test --tests '*SystemEventPartitionBenchmarkTest' -Dmotorx.benchmark=true
+ * </pre>
+ * MOTORX_BENCHMARK_ROWS cambia el volumen (10 millones por defecto, repartidos en 24 meses).
+ */
+@EnabledIfSystemProperty(named = "motorx.benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("system_events particionada - comparación de rendimiento")
+class SystemEventPartitionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SystemEventPartitionBenchmarkTest.class);
+    private static final String SCHEMA = "bench_system_events";
+    private static final long ROWS = Long.parseLong(env("MOTORX_BENCHMARK_ROWS", "10000000"));
+    private static final int MONTHS = 24;
+    private static final LocalDateTime FIRST_DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime LAST_DAY = FIRST_DAY.plusMonths(MONTHS);
+    private static final int WARMUP = 3;
+    private static final int RUNS = 10;
+
+    private static final String[] EVENT_TYPES = {
+            "USER_REGISTER_ATTEMPT", "USER_REGISTER_SUCCESS", "USER_REGISTER_FAILED",
+            "PASSWORD_RESET_REQUEST", "PASSWORD_RESET_SUCCESS",
+            "APPOINTMENT_CREATED", "APPOINTMENT_CONFLICT", "APPOINTMENT_CANCELLED",
+            "LOGIN_SUCCESS", "LOGIN_FAILED"
+    };
+
+    private Connection connection;
+
+    private static String env(String name, String defaultValue) {
+        return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+    }
+
+    // ================================================================
+    // PREPARACIÓN DE LOS DATOS
+    // ================================================================
+
+    @BeforeAll
+    void loadDataset() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("MOTORX_BENCHMARK_DB_URL", "jdbc:postgresql://localhost:5432/motorx_bench"),
+                env("MOTORX_BENCHMARK_DB_USER", "postgres"),
+                env("MOTORX_BENCHMARK_DB_PASSWORD", "postgres"));
+
+        long start = System.nanoTime();
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            st.execute("CREATE SCHEMA " + SCHEMA);
+            st.execute("SET search_path TO " + SCHEMA);
+
+            // Misma forma de V1, con los índices de V15 para comparar solo el particionado
+            String columns = """
+                    (id BIGINT NOT NULL, event_type VARCHAR(100) NOT NULL, event_date TIMESTAMP NOT NULL,
+                     metadata VARCHAR(500), severity VARCHAR(20) NOT NULL, user_id BIGINT)
+                    """;
+            st.execute("CREATE TABLE events_flat " + columns);
+            st.execute("CREATE TABLE events_part " + columns + " PARTITION BY RANGE (event_date)");
+            for (int m = 0; m < MONTHS; m++) {
+                LocalDateTime from = FIRST_DAY.plusMonths(m);
+                st.execute("CREATE TABLE events_part_p%d PARTITION OF events_part FOR VALUES FROM ('%s') TO ('%s')"
+                        .formatted(m, from, from.plusMonths(1)));
+            }
+            st.execute("CREATE TABLE events_part_default PARTITION OF events_part DEFAULT");
+
+            // Fechas uniformes en los 24 meses; 1 de cada 10 es LOGIN_FAILED; 50.000 usuarios
+            st.execute("""
+                    INSERT INTO events_flat
+                    SELECT g,
+                           (ARRAY['%s'])[1 + g %% 10],
+                           TIMESTAMP '%s' + (g::double precision / %d) * (TIMESTAMP '%s' - TIMESTAMP '%s'),
+                           'bench',
+                           CASE WHEN g %% 10 IN (2, 6, 9) THEN 'WARNING' ELSE 'INFO' END,
+                           1 + g %% 50000
+                    FROM generate_series(0, %d) g
+                    """.formatted(String.join("','", EVENT_TYPES), FIRST_DAY, ROWS, LAST_DAY, FIRST_DAY, ROWS - 1));
+            st.execute("INSERT INTO events_part SELECT * FROM events_flat");
+
+            for (String table : List.of("events_flat", "events_part")) {
+                st.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (id, event_date)");
+                st.execute("CREATE INDEX ON " + table + " (event_date)");
+                st.execute("CREATE INDEX ON " + table + " (event_type, event_date)");
+                st.execute("CREATE INDEX ON " + table + " (user_id, event_type, event_date)");
+                st.execute("ANALYZE " + table);
+            }
+        }
+        log.info("system_events: {} filas cargadas en {} s", ROWS, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    @AfterAll
+    void dropDataset() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    // ================================================================
+    // MEDICIÓN
+    // ================================================================
+
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Mediana en microsegundos de RUNS ejecuciones, tras WARMUP de calentamiento.
+     */
+    private long medianMicros(String sql, Binder binder) throws SQLException {
+        long[] samples = new long[RUNS];
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            binder.bind(ps);
+            for (int i = 0; i < WARMUP + RUNS; i++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        // se consume el resultado completo
+                    }
+                }
+                if (i >= WARMUP) {
+                    samples[i - WARMUP] = (System.nanoTime() - start) / 1_000;
+                }
+            }
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    private void compare(String label, String sqlTemplate, Binder binder) throws SQLException {
+        long flat = medianMicros(sqlTemplate.formatted("events_flat"), binder);
+        long partitioned = medianMicros(sqlTemplate.formatted("events_part"), binder);
+        log.info("{}: sin particionar {} µs | particionada {} µs | {}x",
+                label, flat, partitioned, "%.1f".formatted((double) flat / Math.max(1, partitioned)));
+    }
+
+    private List<String> plan(String sql) throws SQLException {
+        List<String> lines = new ArrayList<>();
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                lines.add(rs.getString(1));
+            }
+        }
+        return lines;
+    }
+
+    // ================================================================
+    // CONSULTAS DE JpaSystemEventRepository
+    // ================================================================
+
+    @Test
+    @DisplayName("Consultas por rango: tiempos de ambas tablas y poda a las particiones del rango")
+    void compareRangeQueries() throws SQLException {
+        LocalDateTime monthStart = FIRST_DAY.plusMonths(MONTHS - 2);
+        LocalDateTime monthEnd = monthStart.plusMonths(1).minusNanos(1_000);
+        LocalDateTime dayStart = monthStart.plusDays(10);
+        LocalDateTime since = LAST_DAY.minusDays(1);
+
+        log.info("--- system_events: {} filas, {} meses ---", ROWS, MONTHS);
+
+        // countByEventTypeBetween: un tipo en un mes
+        compare("countByEventTypeBetween (1 mes)",
+                "SELECT COUNT(*) FROM %s WHERE event_type = ? AND event_date BETWEEN ? AND ?",
+                ps -> {
+                    ps.setString(1, "APPOINTMENT_CREATED");
+                    ps.setObject(2, monthStart);
+                    ps.setObject(3, monthEnd);
+                });
+
+        // countByEventTypesBetween: numerador y denominador de una tasa del tablero
+        compare("countByEventTypesBetween (1 mes)",
+                "SELECT event_type, COUNT(*) FROM %s WHERE event_type IN (?, ?) AND event_date BETWEEN ? AND ? GROUP BY event_type",
+                ps -> {
+                    ps.setString(1, "APPOINTMENT_CREATED");
+                    ps.setString(2, "APPOINTMENT_CONFLICT");
+                    ps.setObject(3, monthStart);
+                    ps.setObject(4, monthEnd);
+                });
+
+        // findBySeverityBetween: un día de advertencias
+        compare("findBySeverityBetween (1 día)",
+                "SELECT * FROM %s WHERE severity = ? AND event_date BETWEEN ? AND ? ORDER BY event_date DESC",
+                ps -> {
+                    ps.setString(1, "WARNING");
+                    ps.setObject(2, dayStart);
+                    ps.setObject(3, dayStart.plusDays(1));
+                });
+
+        // countFailedLoginAttemptsSince: un usuario en las últimas 24 h
+        compare("countFailedLoginAttemptsSince (24 h)",
+                "SELECT COUNT(*) FROM %s WHERE event_type = 'LOGIN_FAILED' AND user_id = ? AND event_date >= ?",
+                ps -> {
+                    ps.setLong(1, 10);
+                    ps.setObject(2, since);
+                });
+
+        // La tabla particionada solo recorre la partición del mes consultado
+        List<String> plan = plan("SELECT COUNT(*) FROM events_part WHERE event_type = 'APPOINTMENT_CREATED' " +
+                "AND event_date BETWEEN '" + monthStart + "' AND '" + monthEnd + "'");
+        assertThat(plan.stream().filter(line -> line.contains("events_part_p")).map(line ->
+                line.replaceAll(".*(events_part_p\\d+).*", "$1")).distinct())
+                .containsExactly("events_part_p" + (MONTHS - 2));
+    }
+
+    @Test
+    @DisplayName("Retención: DELETE de un mes vs DROP de su partición")
+    void compareRetention() throws SQLException {
+        LocalDateTime firstMonthEnd = FIRST_DAY.plusMonths(1);
+        try (Statement st = connection.createStatement()) {
+            long start = System.nanoTime();
+            int deleted = st.executeUpdate("DELETE FROM events_flat WHERE event_date < '" + firstMonthEnd + "'");
+            long deleteMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            st.execute("DROP TABLE events_part_p0");
+            long dropMillis = (System.nanoTime() - start) / 1_000_000;
+
+            log.info("Retención (1 mes): DELETE {} filas {} ms | DROP PARTITION {} ms",
+                    deleted, deleteMillis, dropMillis);
+            assertThat(deleted).isPositive();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.sparktech.motorx.security;
+
+import com.sparktech.motorx.Services.IUserSecurityVersionService;
+import com.sparktech.motorx.entity.Role;
+import com.sparktech.motorx.entity.UserEntity;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtAuthenticationFilter - Unit Tests")
+class JwtAuthenticationFilterTest {
+
+    @Mock private CustomUserDetailsService userDetailsService;
+    @Mock private IUserSecurityVersionService securityVersions;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter sut;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", "test-secret-key-for-ci-only-must-be-long-enough-256-bits");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        jwtService.init();
+        sut = new JwtAuthenticationFilter(jwtService, userDetailsService, securityVersions);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String tokenFor(Long id, Role role, int securityVersion) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setEmail("cliente@mail.com");
+        user.setRole(role);
+        user.setSecurityVersion(securityVersion);
+        return jwtService.generateToken(user);
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/vehicles");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        sut.doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(chain.getRequest()).isNotNull();
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    @DisplayName("Token con claims y versión vigente: autentica sin consultar la BD")
+    void givenCurrentToken_thenAuthenticatedFromClaims() throws Exception {
+        when(securityVersions.isCurrent(7L, 2)).thenReturn(true);
+
+        Authentication authentication = filter(tokenFor(7L, Role.EMPLOYEE, 2));
+
+        assertThat(authentication.getPrincipal()).isEqualTo(new AuthenticatedUser(7L, "cliente@mail.com", Role.EMPLOYEE));
+        assertThat(authentication.getName()).isEqualTo("cliente@mail.com");
+        assertThat(authentication.getAuthorities()).containsExactly(new SimpleGrantedAuthority("ROLE_EMPLOYEE"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Versión vieja o cuenta sin acceso: la petición sigue sin autenticar")
+    void givenRevokedToken_thenNotAuthenticated() throws Exception {
+        when(securityVersions.isCurrent(7L, 1)).thenReturn(false);
+
+        assertThat(filter(tokenFor(7L, Role.CLIENT, 1))).isNull();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Token sin claims (emitido antes): se valida contra la BD")
+    void givenLegacyToken_thenAuthenticatedFromDatabase() throws Exception {
+        var userDetails = User.withUsername("cliente@mail.com").password("x").roles("CLIENT").build();
+        when(userDetailsService.loadUserByUsername("cliente@mail.com")).thenReturn(userDetails);
+
+        Authentication authentication = filter(jwtService.generateToken(userDetails));
+
+        assertThat(authentication.getPrincipal()).isSameAs(userDetails);
+        verifyNoInteractions(securityVersions);
+    }
+
+    @Test
+    @DisplayName("Token inválido: no autentica y deja seguir la cadena")
+    void givenInvalidToken_thenNotAuthenticated() throws Exception {
+        assertThat(filter("no-es-un-jwt")).isNull();
+        verifyNoInteractions(userDetailsService, securityVersions);
+    }
+
+    @Test
+    @DisplayName("Error al consultar la tabla de versiones: no autentica")
+    void givenVersionTableFails_thenNotAuthenticated() throws Exception {
+        when(securityVersions.isCurrent(anyLong(), anyInt())).thenThrow(new IllegalStateException("db down"));
+
+        assertThat(filter(tokenFor(7L, Role.CLIENT, 0))).isNull();
+    }
+
+    // ================================================================
+    // Rendimiento (manual: -Dmotorx.benchmark=true)
+    // ================================================================
+
+    @Nested
+    @DisplayName("Rendimiento del filtro")
+    @EnabledIfSystemProperty(named = "motorx.benchmark", matches = "true")
+    class BenchmarkTests {
+
+        private static final Logger log = LoggerFactory.getLogger(BenchmarkTests.class);
+        private static final int ITERATIONS = 100_000;
+
+        /**
+         * doFilterInternal completo por petición; el contexto se limpia en cada vuelta para
+         * que el filtro no se salte la autenticación.
+         */
+        private long nanosPerRequest(JwtAuthenticationFilter filter, String token) throws Exception {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/vehicles");
+            request.addHeader("Authorization", "Bearer " + token);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            FilterChain chain = (req, res) -> { };
+            int authenticated = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                filter.doFilterInternal(request, response, chain);
+                if (SecurityContextHolder.getContext().getAuthentication() != null) authenticated++;
+                SecurityContextHolder.clearContext();
+            }
+            long elapsed = System.nanoTime() - start;
+            assertThat(authenticated).isEqualTo(ITERATIONS); // evita que el JIT descarte el bucle
+            return elapsed / ITERATIONS;
+        }
+
+        @Test
+        @DisplayName("Autenticación por claims frente a la ruta que consulta CustomUserDetailsService")
+        void givenClaimsAndLegacyTokens_thenMeasurePerRequest() throws Exception {
+            // stubOnly: los mocks no guardan cada invocación del bucle
+            IUserSecurityVersionService versions = mock(IUserSecurityVersionService.class, withSettings().stubOnly());
+            CustomUserDetailsService users = mock(CustomUserDetailsService.class, withSettings().stubOnly());
+            UserDetails userDetails = User.withUsername("cliente@mail.com").password("x").roles("CLIENT").build();
+            when(versions.isCurrent(7L, 0)).thenReturn(true);
+            when(users.loadUserByUsername("cliente@mail.com")).thenReturn(userDetails);
+            JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, users, versions);
+            String claimsToken = tokenFor(7L, Role.CLIENT, 0);
+            String legacyToken = jwtService.generateToken(userDetails);
+
+            // Calentamiento
+            nanosPerRequest(filter, claimsToken);
+            nanosPerRequest(filter, legacyToken);
+
+            long claims = nanosPerRequest(filter, claimsToken);
+            long legacy = nanosPerRequest(filter, legacyToken);
+            log.info("JwtAuthenticationFilter por petición: claims {} ns/op, token sin claims (carga el usuario) {} ns/op",
+                    claims, legacy);
+        }
+    }
+}
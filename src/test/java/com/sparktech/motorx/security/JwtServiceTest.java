@@ -0,0 +1,167 @@
+package com.sparktech.motorx.security;
+
+import com.sparktech.motorx.entity.Role;
+import com.sparktech.motorx.entity.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JwtService - Unit Tests")
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-for-ci-only-must-be-long-enough-256-bits";
+
+    private final UserDetails user = User.withUsername("cliente@mail.com").password("x").roles("CLIENT").build();
+    private JwtService sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = new JwtService();
+        ReflectionTestUtils.setField(sut, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(sut, "jwtExpiration", 3_600_000L);
+        sut.init();
+    }
+
+    private String tokenWith(String secret, Date expiration) {
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
+        return Jwts.builder()
+                .subject(user.getUsername())
+                .issuedAt(new Date())
+                .expiration(expiration)
+                .signWith(key)
+                .compact();
+    }
+
+    // ================================================================
+    // parse()
+    // ================================================================
+
+    @Nested
+    @DisplayName("parse()")
+    class ParseTests {
+
+        @Test
+        @DisplayName("Token propio: devuelve usuario, expiración y claims en un solo parseo")
+        void givenGeneratedToken_thenVerified() {
+            String token = sut.generateToken(Map.of("rol", "CLIENT"), user);
+
+            VerifiedJwt verified = sut.parse(token);
+
+            assertThat(verified.username()).isEqualTo("cliente@mail.com");
+            assertThat(verified.expiration()).isAfter(new Date());
+            assertThat(verified.claims().get("rol", String.class)).isEqualTo("CLIENT");
+            assertThat(verified.isValidFor(user)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Token de otro usuario: no es válido para este")
+        void givenOtherUser_thenNotValid() {
+            VerifiedJwt verified = sut.parse(sut.generateToken(user));
+            UserDetails other = User.withUsername("otro@mail.com").password("x").roles("CLIENT").build();
+
+            assertThat(verified.isValidFor(other)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Firma con otra clave: lanza JwtException")
+        void givenWrongSignature_thenThrows() {
+            String token = tokenWith(SECRET.replace('t', 'x'), new Date(System.currentTimeMillis() + 60_000));
+
+            assertThatThrownBy(() -> sut.parse(token)).isInstanceOf(JwtException.class);
+        }
+
+        @Test
+        @DisplayName("Token expirado: lanza ExpiredJwtException")
+        void givenExpired_thenThrows() {
+            String token = tokenWith(SECRET, new Date(System.currentTimeMillis() - 60_000));
+
+            assertThatThrownBy(() -> sut.parse(token)).isInstanceOf(ExpiredJwtException.class);
+        }
+
+        @Test
+        @DisplayName("Los métodos anteriores siguen funcionando sobre el parser compartido")
+        void givenLegacyMethods_thenSameResult() {
+            String token = sut.generateToken(user);
+
+            assertThat(sut.extractUsername(token)).isEqualTo("cliente@mail.com");
+            assertThat(sut.extractClaim(token, Claims::getIssuedAt)).isNotNull();
+            assertThat(sut.isTokenValid(token, user)).isTrue();
+        }
+    }
+
+    // ================================================================
+    // Claims del usuario (autenticación sin consultar la BD)
+    // ================================================================
+
+    @Nested
+    @DisplayName("Claims del usuario")
+    class UserClaimsTests {
+
+        private UserEntity entity() {
+            UserEntity entity = new UserEntity();
+            entity.setId(42L);
+            entity.setEmail("cliente@mail.com");
+            entity.setRole(Role.CLIENT);
+            entity.setSecurityVersion(3);
+            return entity;
+        }
+
+        @Test
+        @DisplayName("Token de un UserEntity: trae id, rol y versión de seguridad")
+        void givenUserEntity_thenClaimsEmbedded() {
+            VerifiedJwt verified = sut.parse(sut.generateToken(entity()));
+
+            assertThat(verified.hasUserClaims()).isTrue();
+            assertThat(verified.userId()).isEqualTo(42L);
+            assertThat(verified.role()).isEqualTo(Role.CLIENT);
+            assertThat(verified.securityVersion()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("El principal se arma solo con los claims")
+        void givenUserClaims_thenPrincipal() {
+            AuthenticatedUser principal = sut.parse(sut.generateToken(entity())).toPrincipal();
+
+            assertThat(principal).isEqualTo(new AuthenticatedUser(42L, "cliente@mail.com", Role.CLIENT));
+            assertThat(principal.getName()).isEqualTo("cliente@mail.com");
+            assertThat(principal.getAuthorities()).containsExactly(new SimpleGrantedAuthority("ROLE_CLIENT"));
+        }
+
+        @Test
+        @DisplayName("Token sin claims del usuario (emitido antes): no arma principal")
+        void givenLegacyToken_thenNoUserClaims() {
+            VerifiedJwt verified = sut.parse(sut.generateToken(user));
+
+            assertThat(verified.hasUserClaims()).isFalse();
+            assertThat(verified.userId()).isNull();
+            assertThatThrownBy(verified::toPrincipal).isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("Un rol desconocido en el claim no es válido")
+        void givenUnknownRole_thenNoUserClaims() {
+            String token = sut.generateToken(Map.of(
+                    JwtService.CLAIM_USER_ID, 42L,
+                    JwtService.CLAIM_ROLE, "ROOT",
+                    JwtService.CLAIM_SECURITY_VERSION, 0), user);
+
+            assertThat(sut.parse(token).hasUserClaims()).isFalse();
+        }
+    }
+}
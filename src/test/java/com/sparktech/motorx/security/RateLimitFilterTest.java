@@ -0,0 +1,311 @@
+package com.sparktech.motorx.security;
+
+import com.sparktech.motorx.config.RateLimitProperties;
+import com.sparktech.motorx.config.RateLimitProperties.Limit;
+import com.sparktech.motorx.config.RateLimitProperties.Route;
+import com.sparktech.motorx.exception.RateLimitExceededException;
+import com.sparktech.motorx.exception.RateLimitedBodyException;
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitFilter - Unit Tests")
+class RateLimitFilterTest {
+
+    private static final String IP = "203.0.113.7";
+
+    @Mock private HandlerExceptionResolver exceptionResolver;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private final AtomicLong now = new AtomicLong();
+    private RateLimitFilter sut;
+
+    @BeforeEach
+    void setUp() {
+        sut = filter(100);
+    }
+
+    private RateLimitFilter filter(int maxKeys) {
+        RateLimitProperties properties = new RateLimitProperties(true, maxKeys, 1024, Map.of(
+                "login", new Route("POST", "/api/auth/login",
+                        new Limit(3, Duration.ofMinutes(1)), new Limit(2, Duration.ofMinutes(1)), null),
+                "password-reset", new Route("PUT", "/api/password-reset",
+                        new Limit(1, Duration.ofMinutes(1)), null, null)));
+        RateLimitFilter filter = new RateLimitFilter(properties, exceptionResolver, jsonMapper);
+        // Los buckets compartidos se crean con el reloj real: el simulado arranca después
+        now.set(System.nanoTime());
+        filter.clock = now::get;
+        return filter;
+    }
+
+    private MockHttpServletRequest login(String ip, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\": \"" + email + "\", \"password\": \"Secreta123!\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletRequest login(String ip, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    private MockHttpServletRequest reset(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/password-reset");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private MockFilterChain send(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    // ================================================================
+    // Límite por IP
+    // ================================================================
+
+    @Nested
+    @DisplayName("Límite por IP")
+    class PerIpTests {
+
+        @Test
+        @DisplayName("Deja pasar la ráfaga y rechaza la siguiente con 429 y Retry-After")
+        void givenBurstExceeded_thenRejected() throws Exception {
+            for (int i = 0; i < 3; i++) {
+                assertThat(send(sut, login(IP, "user" + i + "@mail.com")).getRequest()).isNotNull();
+            }
+
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            sut.doFilter(login(IP, "otro@mail.com"), response, chain);
+
+            assertThat(chain.getRequest()).isNull();
+            assertThat(response.getStatus()).isEqualTo(429);
+            // 3 por minuto: un permiso vuelve cada 20 s
+            assertThat(response.getHeader("Retry-After")).isEqualTo("20");
+            ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+            verify(exceptionResolver).resolveException(any(), eq(response), isNull(), captor.capture());
+            assertThat(captor.getValue()).isInstanceOf(RateLimitExceededException.class);
+        }
+
+        @Test
+        @DisplayName("Los permisos se recuperan con el tiempo")
+        void givenTimePassed_thenAllowedAgain() throws Exception {
+            for (int i = 0; i < 3; i++) {
+                send(sut, login(IP, "user" + i + "@mail.com"));
+            }
+            assertThat(send(sut, login(IP, "a@mail.com")).getRequest()).isNull();
+
+            now.addAndGet(Duration.ofSeconds(20).toNanos());
+
+            assertThat(send(sut, login(IP, "b@mail.com")).getRequest()).isNotNull();
+            assertThat(send(sut, login(IP, "c@mail.com")).getRequest()).isNull();
+        }
+
+        @Test
+        @DisplayName("Cada IP tiene su propio límite")
+        void givenOtherIp_thenIndependent() throws Exception {
+            for (int i = 0; i < 3; i++) {
+                send(sut, login(IP, "user" + i + "@mail.com"));
+            }
+
+            assertThat(send(sut, login("198.51.100.1", "a@mail.com")).getRequest()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Ruta exacta con barra final y método configurado")
+        void givenTrailingSlashAndMethod_thenMatched() throws Exception {
+            MockHttpServletRequest first = new MockHttpServletRequest("PUT", "/api/password-reset");
+            MockHttpServletRequest second = new MockHttpServletRequest("PUT", "/api/password-reset/");
+
+            assertThat(send(sut, first).getRequest()).isNotNull();
+            assertThat(send(sut, second).getRequest()).isNull();
+            assertThat(send(sut, new MockHttpServletRequest("POST", "/api/password-reset")).getRequest()).isNotNull();
+            assertThat(send(sut, new MockHttpServletRequest("PUT", "/api/password-reset/request")).getRequest()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Las rutas no limitadas pasan sin tocar los buckets")
+        void givenUnlimitedRoute_thenPassThrough() throws Exception {
+            for (int i = 0; i < 10; i++) {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/appointments/my");
+                request.setRemoteAddr(IP);
+                assertThat(send(sut, request).getRequest()).isSameAs(request);
+            }
+            verifyNoInteractions(exceptionResolver);
+        }
+    }
+
+    // ================================================================
+    // Límite por identidad
+    // ================================================================
+
+    @Nested
+    @DisplayName("Límite por identidad")
+    class PerIdentityTests {
+
+        @Test
+        @DisplayName("Un mismo email desde varias IPs se limita por identidad, sin importar mayúsculas")
+        void givenSameEmailFromManyIps_thenRejected() throws Exception {
+            assertThat(send(sut, login("198.51.100.1", "victima@mail.com")).getRequest()).isNotNull();
+            assertThat(send(sut, login("198.51.100.2", "Victima@Mail.com")).getRequest()).isNotNull();
+
+            assertThat(send(sut, login("198.51.100.3", "victima@mail.com")).getRequest()).isNull();
+        }
+
+        @Test
+        @DisplayName("El controlador puede volver a leer el body completo")
+        void givenIdentityRead_thenBodyStillAvailable() throws Exception {
+            MockFilterChain chain = send(sut, login(IP, "user@mail.com"));
+
+            byte[] body = chain.getRequest().getInputStream().readAllBytes();
+            assertThat(new String(body, StandardCharsets.UTF_8)).contains("\"email\": \"user@mail.com\"");
+        }
+
+        @Test
+        @DisplayName("Un email con escapes \\u se limita por su valor decodificado")
+        void givenEscapedEmail_thenLimitedAsDecoded() throws Exception {
+            send(sut, login("198.51.100.1", "victima@mail.com"));
+            send(sut, login("198.51.100.2", "victima@mail.com"));
+
+            String escaped = "{\"email\": \"\\u0076ictima@mail.com\", \"password\": \"x\"}";
+            assertThat(send(sut, login("198.51.100.3", escaped.getBytes(StandardCharsets.UTF_8))).getRequest()).isNull();
+        }
+
+        @Test
+        @DisplayName("Un campo email repetido se rechaza con 400")
+        void givenDuplicateEmail_thenBadRequest() throws Exception {
+            String body = "{\"email\": \"otro@mail.com\", \"email\": \"victima@mail.com\"}";
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            sut.doFilter(login(IP, body.getBytes(StandardCharsets.UTF_8)), response, chain);
+
+            assertThat(chain.getRequest()).isNull();
+            assertThat(response.getStatus()).isEqualTo(400);
+            ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+            verify(exceptionResolver).resolveException(any(), eq(response), isNull(), captor.capture());
+            assertThat(captor.getValue()).isInstanceOf(RateLimitedBodyException.class);
+        }
+
+        @Test
+        @DisplayName("Un body que no es JSON o no trae el email se rechaza con 400")
+        void givenMalformedBody_thenBadRequest() throws Exception {
+            for (String body : new String[]{"{\"email\": ", "[\"victima@mail.com\"]", "{\"email\": 5}", "{\"password\": \"x\"}"}) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                MockFilterChain chain = new MockFilterChain();
+
+                sut.doFilter(login(IP, body.getBytes(StandardCharsets.UTF_8)), response, chain);
+
+                assertThat(chain.getRequest()).as(body).isNull();
+                assertThat(response.getStatus()).as(body).isEqualTo(400);
+            }
+        }
+
+        @Test
+        @DisplayName("Un body mayor a max-body-bytes se rechaza con 413 sin pasar al controlador")
+        void givenLargeBody_thenContentTooLarge() throws Exception {
+            String large = "{\"email\": \"user@mail.com\", \"pad\": \"" + "x".repeat(4000) + "\"}";
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            sut.doFilter(login(IP, large.getBytes(StandardCharsets.UTF_8)), response, chain);
+
+            assertThat(chain.getRequest()).isNull();
+            assertThat(response.getStatus()).isEqualTo(413);
+        }
+
+        @Test
+        @DisplayName("La lectura asíncrona del body avisa enseguida que hay datos y que terminó")
+        void givenReadListener_thenCallbacksInvoked() throws Exception {
+            MockFilterChain chain = send(sut, login(IP, "user@mail.com"));
+            ReadListener listener = mock(ReadListener.class);
+            var input = chain.getRequest().getInputStream();
+
+            input.setReadListener(listener);
+            verify(listener).onDataAvailable();
+            verify(listener, never()).onAllDataRead();
+
+            input.readAllBytes();
+            input.setReadListener(listener);
+            assertThat(input.isFinished()).isTrue();
+            verify(listener).onAllDataRead();
+        }
+    }
+
+    // ================================================================
+    // Memoria acotada
+    // ================================================================
+
+    @Nested
+    @DisplayName("Memoria acotada")
+    class BoundedTests {
+
+        @Test
+        @DisplayName("Por encima de max-keys las IPs nuevas comparten un bucket")
+        void givenMaxKeys_thenNewKeysShareOverflowBucket() throws Exception {
+            RateLimitFilter bounded = filter(1);
+
+            assertThat(send(bounded, reset("198.51.100.1")).getRequest()).isNotNull();
+            // El mapa está lleno con la IP .1: las siguientes comparten un bucket de capacidad 1
+            assertThat(send(bounded, reset("198.51.100.2")).getRequest()).isNotNull();
+            assertThat(send(bounded, reset("198.51.100.3")).getRequest()).isNull();
+        }
+
+        @Test
+        @DisplayName("La limpieza libera los buckets que volvieron a llenarse")
+        void givenIdleBuckets_thenEvicted() throws Exception {
+            RateLimitFilter bounded = filter(1);
+            send(bounded, login("198.51.100.1", "a@mail.com"));
+            now.addAndGet(Duration.ofMinutes(1).toNanos());
+
+            bounded.evictIdle();
+
+            assertThat(send(bounded, login("198.51.100.2", "b@mail.com")).getRequest()).isNotNull();
+            for (int i = 0; i < 2; i++) {
+                send(bounded, login("198.51.100.2", "c" + i + "@mail.com"));
+            }
+            // La IP .2 obtuvo bucket propio tras la limpieza: su cuarta petición se rechaza
+            assertThat(send(bounded, login("198.51.100.2", "d@mail.com")).getRequest()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Deshabilitado: deja pasar todo")
+    void givenDisabled_thenPassThrough() throws Exception {
+        RateLimitFilter disabled = new RateLimitFilter(new RateLimitProperties(false, null, null, null), exceptionResolver,
+                jsonMapper);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(send(disabled, login(IP, "user@mail.com")).getRequest()).isNotNull();
+        }
+    }
+}